@@ -0,0 +1,107 @@
+package com.systemmonitor.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs the benchmarks with the GC profiler and prints one line per benchmark with ops/s, ns/op and bytes/op.
+ * <pre>
+ * java -jar target/benchmarks.jar [regex ...] [--out results.csv] [--baseline previous.csv]
+ * </pre>
+ * All benchmarks are single-threaded average-time runs, so ops/s is derived as 1e9 / ns/op.
+ * Results are written as CSV (default target/benchmark-results.csv); passing an earlier CSV as
+ * --baseline adds the relative change of each column.
+ */
+public final class BenchmarkRunner {
+
+    private static final String ALLOC_NORM = "gc.alloc.rate.norm";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        List<String> includes = new ArrayList<>();
+        Path out = Paths.get("target", "benchmark-results.csv");
+        Path baseline = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("--out".equals(args[i]) && i + 1 < args.length) out = Paths.get(args[++i]);
+            else if ("--baseline".equals(args[i]) && i + 1 < args.length) baseline = Paths.get(args[++i]);
+            else includes.add(args[i]);
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().addProfiler(GCProfiler.class);
+        if (includes.isEmpty()) options.include("com\\.systemmonitor\\..*Benchmark");
+        for (String include : includes) options.include(include);
+
+        Collection<RunResult> results = new Runner(options.build()).run();
+        Map<String, double[]> previous = baseline != null ? read(baseline) : Map.of();
+        List<String> lines = new ArrayList<>();
+        lines.add("benchmark,ops_per_s,ns_per_op,bytes_per_op");
+        System.out.printf(Locale.ROOT, "%n%-70s %14s %12s %12s%n", "Benchmark", "ops/s", "ns/op", "B/op");
+        for (RunResult r : results) {
+            String name = label(r);
+            double nsPerOp = r.getPrimaryResult().getScore();
+            double opsPerSec = nsPerOp > 0 ? 1e9 / nsPerOp : 0;
+            Result<?> alloc = r.getSecondaryResults().get(ALLOC_NORM);
+            double bytesPerOp = alloc != null ? alloc.getScore() : Double.NaN;
+            System.out.printf(Locale.ROOT, "%-70s %14.1f %12.1f %12.1f%s%n", name, opsPerSec, nsPerOp, bytesPerOp,
+                    change(previous.get(name), opsPerSec, nsPerOp, bytesPerOp));
+            lines.add(String.format(Locale.ROOT, "%s,%.3f,%.3f,%.3f", name, opsPerSec, nsPerOp, bytesPerOp));
+        }
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        Files.write(out, lines);
+        System.out.println("Results written to " + out.toAbsolutePath());
+    }
+
+    /** Benchmark name plus its @Param values, e.g. "LhmParseBenchmark.parse[fixture=large]". */
+    private static String label(RunResult r) {
+        var params = r.getParams();
+        String name = params.getBenchmark();
+        name = name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1);
+        List<String> keys = new ArrayList<>(params.getParamsKeys());
+        if (keys.isEmpty()) return name;
+        StringBuilder sb = new StringBuilder(name).append('[');
+        for (int i = 0; i < keys.size(); i++) {
+            if (i > 0) sb.append(';');
+            sb.append(keys.get(i)).append('=').append(params.getParam(keys.get(i)));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String change(double[] base, double opsPerSec, double nsPerOp, double bytesPerOp) {
+        if (base == null) return "";
+        return String.format(Locale.ROOT, "   (ops/s %s, ns/op %s, B/op %s vs baseline)",
+                percent(base[0], opsPerSec), percent(base[1], nsPerOp), percent(base[2], bytesPerOp));
+    }
+
+    private static String percent(double before, double after) {
+        if (!(before > 0) || Double.isNaN(after)) return "n/a";
+        return String.format(Locale.ROOT, "%+.1f%%", 100.0 * (after - before) / before);
+    }
+
+    private static Map<String, double[]> read(Path csv) throws IOException {
+        Map<String, double[]> rows = new HashMap<>();
+        List<String> lines = Files.readAllLines(csv);
+        for (int i = 1; i < lines.size(); i++) {
+            String[] cols = lines.get(i).split(",");
+            if (cols.length < 4) continue;
+            rows.put(cols[0], new double[]{Double.parseDouble(cols[1]), Double.parseDouble(cols[2]), Double.parseDouble(cols[3])});
+        }
+        return rows;
+    }
+}
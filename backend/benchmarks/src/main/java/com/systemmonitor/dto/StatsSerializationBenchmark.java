@@ -0,0 +1,81 @@
+package com.systemmonitor.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.systemmonitor.sampling.SampleFrame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of one {@link SystemStats} tick, as done for /topic/stats and /stream/stats,
+ * with an ObjectMapper configured like Spring Boot's default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsSerializationBenchmark {
+
+    @Param({"1", "4"})
+    public int gpuCount;
+
+    private ObjectMapper objectMapper;
+    private SystemStats stats;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        SampleFrame frame = new SampleFrame();
+        frame.cpu.name = "AMD Ryzen 7 5800X 8-Core Processor";
+        frame.cpu.usagePercent = 23.57;
+        frame.cpu.logicalProcessorCount = 16;
+        frame.cpu.temperatureCelsius = 61.2;
+        frame.memory.totalBytes = 34_359_738_368L;
+        frame.memory.usedBytes = 14_293_651_456L;
+        frame.memory.availableBytes = frame.memory.totalBytes - frame.memory.usedBytes;
+        frame.memory.usagePercent = 41.6;
+        frame.gpu.count = gpuCount;
+        for (int g = 0; g < gpuCount; g++) {
+            frame.gpu.names[g] = "NVIDIA GeForce RTX 3080 #" + g;
+            frame.gpu.usagePercent[g] = 37.5 + g;
+            frame.gpu.vramUsedBytes[g] = 3_221_225_472L;
+            frame.gpu.vramTotalBytes[g] = 10_737_418_240L;
+            frame.gpu.temperatureCelsius[g] = 58.0 + g;
+        }
+        frame.disk.readBytesPerSecond = 12_582_912;
+        frame.disk.writeBytesPerSecond = 4_194_304;
+        frame.disk.totalBytes = 2_000_398_934_016L;
+        frame.disk.usedBytes = 812_345_678_912L;
+        frame.disk.usagePercent = 40.61;
+        frame.network.downloadBytesPerSecond = 1_310_720;
+        frame.network.uploadBytesPerSecond = 262_144;
+        frame.network.totalBytesReceived = 98_765_432_109L;
+        frame.network.totalBytesSent = 12_345_678_901L;
+        stats = frame.toSystemStats(System.currentTimeMillis(), List.of());
+    }
+
+    @Benchmark
+    public byte[] toJsonBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(stats);
+    }
+
+    @Benchmark
+    public String toJsonString() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(stats);
+    }
+}
@@ -0,0 +1,192 @@
+package com.systemmonitor.scheduler;
+
+import com.systemmonitor.alert.AlertEngine;
+import com.systemmonitor.alert.AlertProperties;
+import com.systemmonitor.anomaly.AnomalyDetector;
+import com.systemmonitor.history.HistoryMetric;
+import com.systemmonitor.history.MetricHistoryStore;
+import com.systemmonitor.history.SegmentStore;
+import com.systemmonitor.sampling.SampleFrame;
+import com.systemmonitor.service.CpuService;
+import com.systemmonitor.service.DiskService;
+import com.systemmonitor.service.GpuService;
+import com.systemmonitor.service.MemoryService;
+import com.systemmonitor.service.NetworkService;
+import com.systemmonitor.websocket.DeltaStatsPublisher;
+import com.systemmonitor.websocket.StatsBroadcaster;
+import com.systemmonitor.websocket.StatsSubscriptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One recording {@link StatsScheduler#tick} end to end: parallel collection through the {@link CollectionPipeline}
+ * (stub collectors that fill the frame instantly, all due on every tick), anomaly detection, history recording,
+ * {@code alertRules} alert rules (none of which fire), STOMP JSON conversion, the delta encoder and the
+ * /stream/stats fan-out. The tick runs as if watched, so the live phases are included, but messages go to a
+ * channel that drops them and no session is connected: the numbers are the server-side cost of a tick without I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsTickBenchmark {
+
+    @Param({"0", "300"})
+    public int alertRules;
+
+    private CollectionPipeline pipeline;
+    private StatsBroadcaster broadcaster;
+    private StatsScheduler scheduler;
+
+    @Setup
+    public void setUp() {
+        pipeline = new CollectionPipeline(new StubCpuService(), new StubMemoryService(), new StubGpuService(),
+                new StubDiskService(), new StubNetworkService(), 500, everyTick(),
+                new SimpleMeterRegistry());
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> true);
+        template.setMessageConverter(new MappingJackson2MessageConverter());
+        MetricHistoryStore historyStore = new MetricHistoryStore();
+        SegmentStore segmentStore = new SegmentStore(historyStore, false, "target/bench-history",
+                Duration.ofHours(1), Duration.ofDays(7), Duration.ZERO);
+        broadcaster = new StatsBroadcaster(Jackson2ObjectMapperBuilder.json().build(), new SimpleMeterRegistry(),
+                2, 10_000, 1, 30);
+        scheduler = new StatsScheduler(template, pipeline, historyStore, segmentStore,
+                new DeltaStatsPublisher(template, 30), broadcaster, new AlertEngine(alertProperties(alertRules), template, List.of()),
+                new AnomalyDetector(true, "cpu,memory,gpu,diskRead,diskWrite,netDown,netUp", 0.02, 7, 4, 60, 3600),
+                List.of(), new StatsSubscriptions(broadcaster), List.of(), everyTick(), new SimpleMeterRegistry());
+    }
+
+    /** Every collector due on every call, so each tick samples them all. */
+    private static SamplingProperties everyTick() {
+        SamplingProperties sampling = new SamplingProperties();
+        sampling.setAdaptive(false);
+        sampling.setTickMs(1);
+        for (String name : List.of("cpu", "memory", "gpu", "disk", "network")) {
+            SamplingProperties.Collector collector = new SamplingProperties.Collector();
+            collector.setPeriodMs(1);
+            sampling.getCollectors().put(name, collector);
+        }
+        return sampling;
+    }
+
+    /** Rules cycling through every metric, aggregate and a few windows, with thresholds nothing reaches. */
+    private static AlertProperties alertProperties(int count) {
+        AlertProperties properties = new AlertProperties();
+        String[] aggregates = {"last", "avg", "min", "max", "rate"};
+        HistoryMetric[] metrics = HistoryMetric.values();
+        for (int i = 0; i < count; i++) {
+            AlertProperties.Rule rule = new AlertProperties.Rule();
+            rule.setId("rule-" + i);
+            rule.setMetric(metrics[i % metrics.length].id());
+            rule.setAggregate(aggregates[i % aggregates.length]);
+            rule.setWindow(Duration.ofMinutes(1 + i % 5));
+            rule.setAbove(1e18);
+            properties.getRules().add(rule);
+        }
+        return properties;
+    }
+
+    @TearDown
+    public void tearDown() {
+        pipeline.shutdown();
+        broadcaster.shutdown();
+    }
+
+    @Benchmark
+    public void tick() {
+        scheduler.tick(System.nanoTime(), true, true);
+    }
+
+    private static final class StubCpuService extends CpuService {
+        StubCpuService() {
+            super(null, null, null);
+        }
+
+        @Override
+        public void sample(SampleFrame.Cpu out) {
+            out.name = "Stub CPU";
+            out.usagePercent = 12.5;
+            out.logicalProcessorCount = 16;
+            out.temperatureCelsius = 55.0;
+        }
+    }
+
+    private static final class StubMemoryService extends MemoryService {
+        StubMemoryService() {
+            super(null, null);
+        }
+
+        @Override
+        public void sample(SampleFrame.Memory out) {
+            out.totalBytes = 34_359_738_368L;
+            out.usedBytes = 14_293_651_456L;
+            out.availableBytes = out.totalBytes - out.usedBytes;
+            out.usagePercent = 41.6;
+        }
+    }
+
+    private static final class StubGpuService extends GpuService {
+        StubGpuService() {
+            super(null, null, null);
+        }
+
+        @Override
+        public void sample(SampleFrame.Gpu out) {
+            out.count = 1;
+            out.names[0] = "Stub GPU";
+            out.usagePercent[0] = 30.0;
+            out.vramUsedBytes[0] = 2_147_483_648L;
+            out.vramTotalBytes[0] = 8_589_934_592L;
+            out.temperatureCelsius[0] = 60.0;
+        }
+    }
+
+    private static final class StubDiskService extends DiskService {
+        StubDiskService() {
+            super(null, null, 30_000);
+        }
+
+        @Override
+        public void sample(SampleFrame.Disk out) {
+            out.readBytesPerSecond += 4096;
+            out.writeBytesPerSecond = 1_048_576;
+            out.totalBytes = 1_000_204_886_016L;
+            out.usedBytes = 400_000_000_000L;
+            out.usagePercent = 39.99;
+        }
+    }
+
+    private static final class StubNetworkService extends NetworkService {
+        StubNetworkService() {
+            super(null, null, "", "");
+        }
+
+        @Override
+        public void sample(SampleFrame.Network out) {
+            out.downloadBytesPerSecond = 524_288;
+            out.uploadBytesPerSecond = 65_536;
+            out.totalBytesReceived += 524_288;
+            out.totalBytesSent += 65_536;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.systemmonitor.service;
+
+import oshi.software.common.AbstractOSProcess;
+import oshi.software.common.AbstractOperatingSystem;
+import oshi.software.os.FileSystem;
+import oshi.software.os.InternetProtocolStats;
+import oshi.software.os.NetworkParams;
+import oshi.software.os.OSProcess;
+import oshi.software.os.OSThread;
+import oshi.util.tuples.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * In-memory {@link oshi.software.os.OperatingSystem} with a fixed, seeded process table, so process benchmarks
+ * measure our sorting and mapping rather than /proc or WMI. Filtering, sorting and limiting are OSHI's own
+ * {@link AbstractOperatingSystem#getProcesses} implementation, as on a real platform.
+ */
+final class FakeOperatingSystem extends AbstractOperatingSystem {
+
+    private final List<OSProcess> processes;
+
+    FakeOperatingSystem(int processCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<OSProcess> list = new ArrayList<>(processCount);
+        for (int pid = 1; pid <= processCount; pid++) {
+            long upTime = 1_000 + random.nextLong(86_400_000L);
+            list.add(new FakeProcess(pid, "proc-" + pid,
+                    random.nextLong(64L << 20, 4L << 30),
+                    random.nextLong(upTime / 4 + 1),
+                    random.nextLong(upTime / 2 + 1),
+                    upTime,
+                    random.nextLong(1L << 34),
+                    random.nextLong(1L << 33)));
+        }
+        this.processes = List.copyOf(list);
+    }
+
+    @Override
+    protected List<OSProcess> queryAllProcesses() {
+        return processes;
+    }
+
+    @Override
+    protected List<OSProcess> queryChildProcesses(int parentPid) {
+        return List.of();
+    }
+
+    @Override
+    protected List<OSProcess> queryDescendantProcesses(int parentPid) {
+        return List.of();
+    }
+
+    @Override
+    protected String queryManufacturer() {
+        return "Benchmark";
+    }
+
+    @Override
+    protected Pair<String, OSVersionInfo> queryFamilyVersionInfo() {
+        return new Pair<>("Fake", new OSVersionInfo("1.0", "bench", "1"));
+    }
+
+    @Override
+    protected int queryBitness(int jvmBitness) {
+        return 64;
+    }
+
+    @Override
+    public FileSystem getFileSystem() {
+        return null;
+    }
+
+    @Override
+    public InternetProtocolStats getInternetProtocolStats() {
+        return null;
+    }
+
+    @Override
+    public OSProcess getProcess(int pid) {
+        return pid >= 1 && pid <= processes.size() ? processes.get(pid - 1) : null;
+    }
+
+    @Override
+    public int getProcessId() {
+        return 1;
+    }
+
+    @Override
+    public int getProcessCount() {
+        return processes.size();
+    }
+
+    @Override
+    public int getThreadId() {
+        return 1;
+    }
+
+    @Override
+    public OSThread getCurrentThread() {
+        return null;
+    }
+
+    @Override
+    public int getThreadCount() {
+        return processes.size();
+    }
+
+    @Override
+    public long getSystemUptime() {
+        return 86_400;
+    }
+
+    @Override
+    public long getSystemBootTime() {
+        return 0;
+    }
+
+    @Override
+    public NetworkParams getNetworkParams() {
+        return null;
+    }
+
+    /** Immutable process snapshot; CPU load comes from {@link AbstractOSProcess} (kernel + user) / up time. */
+    private static final class FakeProcess extends AbstractOSProcess {
+        private final String name;
+        private final long rss;
+        private final long kernelTime;
+        private final long userTime;
+        private final long upTime;
+        private final long bytesRead;
+        private final long bytesWritten;
+
+        FakeProcess(int pid, String name, long rss, long kernelTime, long userTime, long upTime,
+                    long bytesRead, long bytesWritten) {
+            super(pid);
+            this.name = name;
+            this.rss = rss;
+            this.kernelTime = kernelTime;
+            this.userTime = userTime;
+            this.upTime = upTime;
+            this.bytesRead = bytesRead;
+            this.bytesWritten = bytesWritten;
+        }
+
+        @Override public String getName() { return name; }
+        @Override public String getPath() { return "/usr/bin/" + name; }
+        @Override public String getCommandLine() { return getPath(); }
+        @Override public List<String> getArguments() { return List.of(); }
+        @Override public Map<String, String> getEnvironmentVariables() { return Map.of(); }
+        @Override public String getCurrentWorkingDirectory() { return "/"; }
+        @Override public String getUser() { return "bench"; }
+        @Override public String getUserID() { return "1000"; }
+        @Override public String getGroup() { return "bench"; }
+        @Override public String getGroupID() { return "1000"; }
+        @Override public State getState() { return State.RUNNING; }
+        @Override public int getParentProcessID() { return 1; }
+        @Override public int getThreadCount() { return 1; }
+        @Override public int getPriority() { return 20; }
+        @Override public long getVirtualSize() { return rss * 2; }
+        @Override public long getResidentSetSize() { return rss; }
+        @Override public long getKernelTime() { return kernelTime; }
+        @Override public long getUserTime() { return userTime; }
+        @Override public long getUpTime() { return upTime; }
+        @Override public long getStartTime() { return 0; }
+        @Override public long getBytesRead() { return bytesRead; }
+        @Override public long getBytesWritten() { return bytesWritten; }
+        @Override public long getOpenFiles() { return 0; }
+        @Override public long getSoftOpenFileLimit() { return 1024; }
+        @Override public long getHardOpenFileLimit() { return 4096; }
+        @Override public int getBitness() { return 64; }
+        @Override public long getAffinityMask() { return 1; }
+        @Override public boolean updateAttributes() { return true; }
+        @Override public List<OSThread> getThreadDetails() { return List.of(); }
+    }
+}
@@ -0,0 +1,53 @@
+package com.systemmonitor.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LibreHardwareMonitorService#parseAndStoreTemps} over recorded data.json bodies:
+ * small (laptop CPU + RAM), medium (desktop with one GPU) and large (16-core CPU, two GPUs, four NVMe drives).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LhmParseBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String fixture;
+
+    private LibreHardwareMonitorService service;
+    private String json;
+
+    @Setup
+    public void setUp() throws IOException {
+        service = new LibreHardwareMonitorService("http://localhost:0", 1000, 60_000, 5000, new SimpleMeterRegistry());
+        try (InputStream in = LhmParseBenchmark.class.getResourceAsStream("/lhm/" + fixture + ".json")) {
+            if (in == null) throw new IOException("Missing fixture lhm/" + fixture + ".json");
+            json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public LibreHardwareMonitorService parse() {
+        service.parseAndStoreTemps(json);
+        return service;
+    }
+}
@@ -0,0 +1,64 @@
+package com.systemmonitor.service;
+
+import com.systemmonitor.dto.ProcessInfo;
+import com.systemmonitor.procfs.Procfs;
+import oshi.SystemInfo;
+import oshi.software.os.OperatingSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ProcessService} against a {@link FakeOperatingSystem}: one background sample plus the ranking it
+ * invalidates, and a request served from an already selected ranking.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProcessServiceBenchmark {
+
+    @Param({"cpu", "memory", "disk"})
+    public String sort;
+
+    @Param({"300", "1500"})
+    public int processCount;
+
+    private ProcessService processService;
+
+    @Setup
+    public void setUp() {
+        OperatingSystem os = new FakeOperatingSystem(processCount, 42);
+        processService = new ProcessService(new SystemInfo() {
+            @Override
+            public OperatingSystem getOperatingSystem() {
+                return os;
+            }
+        }, new Procfs(false, "/"), 2000);
+        processService.sample();
+    }
+
+    @Benchmark
+    public List<ProcessInfo> sampleAndRank() {
+        processService.sample();
+        return processService.getTopProcesses(sort, 25);
+    }
+
+    @Benchmark
+    public List<ProcessInfo> topProcesses() {
+        return processService.getTopProcesses(sort, 25);
+    }
+}
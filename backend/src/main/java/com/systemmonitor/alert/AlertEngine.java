@@ -0,0 +1,219 @@
+package com.systemmonitor.alert;
+
+import com.systemmonitor.dto.AlertEvent;
+import com.systemmonitor.dto.SystemStats;
+import com.systemmonitor.history.HistoryMetric;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates the app.alerts rules on every stats tick. The tick's metrics are extracted once; rules over the same
+ * metric and window share one {@link SlidingWindow}, so a tick costs one O(1) window update per distinct window
+ * plus one comparison per rule and allocates nothing unless an alert changes state. State changes are published
+ * on {@value #DESTINATION} and handed to every {@link AlertSink}.
+ * <p>
+ * Each rule moves OK → PENDING (condition met, waiting out {@code hold}) → FIRING → CLEARING (back past the clear
+ * threshold, waiting out {@code clear-hold}) → OK; a missing value (NaN) leaves the state unchanged.
+ */
+@Component
+@Slf4j
+@EnableConfigurationProperties(AlertProperties.class)
+public class AlertEngine {
+
+    public static final String DESTINATION = "/topic/alerts";
+
+    private enum State { OK, PENDING, FIRING, CLEARING }
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final List<AlertSink> sinks;
+    private final AlertRule[] rules;
+    /** Window of each rule (shared between rules with the same metric and span). */
+    private final SlidingWindow[] ruleWindows;
+    private final SlidingWindow[] windows;
+    private final HistoryMetric[] windowMetrics;
+    private final State[] states;
+    private final long[] since;
+    private final AlertEvent[] firing;
+    private final double[] row = new double[HistoryMetric.count()];
+
+    public AlertEngine(AlertProperties properties, SimpMessagingTemplate messagingTemplate, List<AlertSink> sinks) {
+        this.messagingTemplate = messagingTemplate;
+        this.sinks = List.copyOf(sinks);
+        List<AlertRule> valid = new ArrayList<>();
+        if (properties.isEnabled()) {
+            for (AlertProperties.Rule rule : properties.getRules()) {
+                try {
+                    valid.add(validate(rule));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Ignoring alert rule {}: {}", rule.getId(), e.getMessage());
+                }
+            }
+        }
+        this.rules = valid.toArray(new AlertRule[0]);
+        this.ruleWindows = new SlidingWindow[rules.length];
+        Map<String, SlidingWindow> shared = new LinkedHashMap<>();
+        List<HistoryMetric> metrics = new ArrayList<>();
+        for (int i = 0; i < rules.length; i++) {
+            AlertRule rule = rules[i];
+            long span = rule.aggregate() == AlertRule.Aggregate.LAST ? 0 : rule.windowMs();
+            ruleWindows[i] = shared.computeIfAbsent(rule.metric().id() + '/' + span, k -> {
+                metrics.add(rule.metric());
+                return new SlidingWindow(span);
+            });
+        }
+        this.windows = shared.values().toArray(new SlidingWindow[0]);
+        this.windowMetrics = metrics.toArray(new HistoryMetric[0]);
+        this.states = new State[rules.length];
+        Arrays.fill(states, State.OK);
+        this.since = new long[rules.length];
+        this.firing = new AlertEvent[rules.length];
+        if (rules.length > 0) log.info("{} alert rules over {} windows", rules.length, windows.length);
+    }
+
+    /** Feeds one tick to every window and rule. Called from the tick thread. */
+    public void evaluate(SystemStats stats) {
+        if (rules.length == 0) return;
+        List<AlertEvent> changes = null;
+        synchronized (this) {
+            long now = stats.getTimestamp();
+            HistoryMetric.extractAll(stats, row);
+            for (int w = 0; w < windows.length; w++) {
+                windows[w].add(now, row[windowMetrics[w].ordinal()]);
+            }
+            for (int i = 0; i < rules.length; i++) {
+                AlertEvent change = step(i, now);
+                if (change != null) {
+                    if (changes == null) changes = new ArrayList<>();
+                    changes.add(change);
+                }
+            }
+        }
+        if (changes != null) {
+            for (AlertEvent change : changes) publish(change);
+        }
+    }
+
+    /** Alerts currently firing (including ones waiting out their clear hold), in rule order. */
+    public synchronized List<AlertEvent> active() {
+        List<AlertEvent> list = new ArrayList<>();
+        for (AlertEvent event : firing) {
+            if (event != null) list.add(event);
+        }
+        return list;
+    }
+
+    /** Advances rule i; returns the state change event, or null if it did not fire or resolve. */
+    private AlertEvent step(int i, long now) {
+        AlertRule rule = rules[i];
+        double value = ruleWindows[i].aggregate(rule.aggregate());
+        if (Double.isNaN(value)) return null;
+        switch (states[i]) {
+            case OK -> {
+                if (!rule.breaches(value)) return null;
+                states[i] = State.PENDING;
+                since[i] = now;
+                return rule.holdMs() == 0 ? fire(i, value, now) : null;
+            }
+            case PENDING -> {
+                if (!rule.breaches(value)) {
+                    states[i] = State.OK;
+                    return null;
+                }
+                return now - since[i] >= rule.holdMs() ? fire(i, value, now) : null;
+            }
+            case FIRING -> {
+                if (!rule.clears(value)) return null;
+                states[i] = State.CLEARING;
+                since[i] = now;
+                return rule.clearHoldMs() == 0 ? resolve(i, value, now) : null;
+            }
+            case CLEARING -> {
+                if (!rule.clears(value)) {
+                    states[i] = State.FIRING;
+                    return null;
+                }
+                return now - since[i] >= rule.clearHoldMs() ? resolve(i, value, now) : null;
+            }
+        }
+        return null;
+    }
+
+    private AlertEvent fire(int i, double value, long now) {
+        states[i] = State.FIRING;
+        firing[i] = event(rules[i], AlertEvent.State.FIRING, value, now);
+        return firing[i];
+    }
+
+    private AlertEvent resolve(int i, double value, long now) {
+        states[i] = State.OK;
+        firing[i] = null;
+        return event(rules[i], AlertEvent.State.RESOLVED, value, now);
+    }
+
+    private static AlertEvent event(AlertRule rule, AlertEvent.State state, double value, long now) {
+        return AlertEvent.builder()
+                .ruleId(rule.id())
+                .state(state)
+                .severity(rule.severity())
+                .metric(rule.metric().id())
+                .value(value)
+                .threshold(state == AlertEvent.State.FIRING ? rule.threshold() : rule.clearThreshold())
+                .timestamp(now)
+                .message(rule.describe())
+                .build();
+    }
+
+    private void publish(AlertEvent event) {
+        try {
+            messagingTemplate.convertAndSend(DESTINATION, event);
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish alert {}: {}", event.getRuleId(), e.getMessage());
+        }
+        for (AlertSink sink : sinks) {
+            try {
+                sink.accept(event);
+            } catch (RuntimeException e) {
+                log.warn("Alert sink {} failed: {}", sink.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    static AlertRule validate(AlertProperties.Rule rule) {
+        if (rule.getId() == null || rule.getId().isBlank()) throw new IllegalArgumentException("id is required");
+        HistoryMetric metric = HistoryMetric.fromId(rule.getMetric());
+        if (metric == null) throw new IllegalArgumentException("unknown metric " + rule.getMetric());
+        AlertRule.Aggregate aggregate;
+        try {
+            aggregate = AlertRule.Aggregate.fromId(rule.getAggregate());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown aggregate " + rule.getAggregate());
+        }
+        if ((rule.getAbove() == null) == (rule.getBelow() == null)) {
+            throw new IllegalArgumentException("exactly one of above/below is required");
+        }
+        boolean above = rule.getAbove() != null;
+        double threshold = above ? rule.getAbove() : rule.getBelow();
+        double clear = rule.getClear() != null ? rule.getClear() : threshold;
+        if (above ? clear > threshold : clear < threshold) {
+            throw new IllegalArgumentException("clear must not be past the threshold");
+        }
+        long windowMs = rule.getWindow() != null ? rule.getWindow().toMillis() : 0;
+        if (aggregate != AlertRule.Aggregate.LAST && windowMs <= 0) throw new IllegalArgumentException("window is required");
+        return new AlertRule(rule.getId(), metric, aggregate, windowMs, above, threshold, clear,
+                millis(rule.getHold()), millis(rule.getClearHold()),
+                rule.getSeverity() != null ? rule.getSeverity() : "warning");
+    }
+
+    private static long millis(Duration duration) {
+        return duration != null ? Math.max(0, duration.toMillis()) : 0;
+    }
+}
@@ -0,0 +1,41 @@
+package com.systemmonitor.alert;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Alert rules under app.alerts (see application.yml). Each rule names a history metric id (as on /api/history),
+ * an aggregate over a window, and exactly one of {@code above}/{@code below}.
+ */
+@Data
+@ConfigurationProperties("app.alerts")
+public class AlertProperties {
+
+    private boolean enabled = true;
+    /** If set, alert state changes are also POSTed here as JSON. */
+    private String webhookUrl = "";
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        private String id;
+        private String metric;
+        /** last (default), avg, min, max or rate (change per minute). */
+        private String aggregate;
+        /** Span the aggregate covers; ignored for last. */
+        private Duration window = Duration.ofMinutes(1);
+        private Double above;
+        private Double below;
+        /** Threshold the value must return past to resolve; defaults to the firing threshold. */
+        private Double clear;
+        /** How long the condition must hold before the alert fires. */
+        private Duration hold = Duration.ZERO;
+        /** How long the clear condition must hold before the alert resolves. */
+        private Duration clearHold = Duration.ZERO;
+        private String severity = "warning";
+    }
+}
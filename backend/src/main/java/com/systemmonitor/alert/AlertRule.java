@@ -0,0 +1,45 @@
+package com.systemmonitor.alert;
+
+import com.systemmonitor.history.HistoryMetric;
+
+import java.util.Locale;
+
+/**
+ * One validated alert rule: fires when the {@link Aggregate} of a {@link HistoryMetric} over the window has been
+ * beyond the threshold for {@code holdMs}, and resolves once it has been back past the clear threshold
+ * (hysteresis) for {@code clearHoldMs}.
+ */
+record AlertRule(String id, HistoryMetric metric, Aggregate aggregate, long windowMs, boolean above,
+                 double threshold, double clearThreshold, long holdMs, long clearHoldMs, String severity) {
+
+    enum Aggregate {
+        LAST, AVG, MIN, MAX,
+        /** Change per minute across the window. */
+        RATE;
+
+        static Aggregate fromId(String id) {
+            return id == null || id.isBlank() ? LAST : valueOf(id.trim().toUpperCase(Locale.ROOT));
+        }
+
+        String id() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    boolean breaches(double value) {
+        return above ? value > threshold : value < threshold;
+    }
+
+    boolean clears(double value) {
+        return above ? value <= clearThreshold : value >= clearThreshold;
+    }
+
+    /** E.g. "cpu above 90 for 5m" or "gpuTemp rate over 60s above 10". */
+    String describe() {
+        StringBuilder sb = new StringBuilder(metric.id());
+        if (aggregate != Aggregate.LAST) sb.append(' ').append(aggregate.id()).append(" over ").append(windowMs / 1000).append('s');
+        sb.append(above ? " above " : " below ").append(threshold);
+        if (holdMs > 0) sb.append(" for ").append(holdMs / 1000).append('s');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,11 @@
+package com.systemmonitor.alert;
+
+import com.systemmonitor.dto.AlertEvent;
+
+/**
+ * Receives alert state changes next to /topic/alerts. Implementations must not block: they run on the tick thread.
+ */
+public interface AlertSink {
+
+    void accept(AlertEvent event);
+}
@@ -0,0 +1,20 @@
+package com.systemmonitor.alert;
+
+import com.systemmonitor.dto.AlertEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/** Logs alert state changes: firing at WARN, resolved at INFO. */
+@Component
+@Slf4j
+public class LoggingAlertSink implements AlertSink {
+
+    @Override
+    public void accept(AlertEvent event) {
+        if (event.getState() == AlertEvent.State.FIRING) {
+            log.warn("Alert {} [{}] firing: {} (value {})", event.getRuleId(), event.getSeverity(), event.getMessage(), event.getValue());
+        } else {
+            log.info("Alert {} resolved: {} (value {})", event.getRuleId(), event.getMessage(), event.getValue());
+        }
+    }
+}
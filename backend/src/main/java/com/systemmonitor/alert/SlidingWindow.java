@@ -0,0 +1,110 @@
+package com.systemmonitor.alert;
+
+/**
+ * Time-based sliding window over one metric's samples, answering last, average, min, max and rate of change in
+ * O(1) per sample (amortized): a running sum for the average and monotonic deques for min and max. Samples are
+ * kept in a power-of-two ring that only grows when the window holds more samples than ever before. NaN samples
+ * (metric unavailable) are skipped. Not thread-safe (one owner).
+ */
+final class SlidingWindow {
+
+    private final long windowMs;
+    private long[] timestamps = new long[16];
+    private double[] values = new double[16];
+    private int mask = 15;
+    /** Sequence numbers of the oldest and next sample; a sample lives at {@code seq & mask}. */
+    private long head;
+    private long tail;
+    private double sum;
+    /** Sequence numbers with increasing values (min) and decreasing values (max), front first. */
+    private long[] minDeque = new long[16];
+    private long minHead;
+    private long minTail;
+    private long[] maxDeque = new long[16];
+    private long maxHead;
+    private long maxTail;
+
+    /** @param windowMs span of samples kept, measured back from the newest; 0 keeps only the newest */
+    SlidingWindow(long windowMs) {
+        this.windowMs = Math.max(0, windowMs);
+    }
+
+    long windowMs() {
+        return windowMs;
+    }
+
+    void add(long timestamp, double value) {
+        if (Double.isNaN(value)) return;
+        if (tail - head == timestamps.length) grow();
+        long seq = tail++;
+        timestamps[(int) (seq & mask)] = timestamp;
+        values[(int) (seq & mask)] = value;
+        sum += value;
+        while (minTail > minHead && valueOf(minDeque[(int) ((minTail - 1) & mask)]) >= value) minTail--;
+        minDeque[(int) (minTail++ & mask)] = seq;
+        while (maxTail > maxHead && valueOf(maxDeque[(int) ((maxTail - 1) & mask)]) <= value) maxTail--;
+        maxDeque[(int) (maxTail++ & mask)] = seq;
+        evictBefore(timestamp - windowMs);
+    }
+
+    boolean isEmpty() {
+        return tail == head;
+    }
+
+    double aggregate(AlertRule.Aggregate aggregate) {
+        if (isEmpty()) return Double.NaN;
+        return switch (aggregate) {
+            case LAST -> valueOf(tail - 1);
+            case AVG -> sum / (tail - head);
+            case MIN -> valueOf(minDeque[(int) (minHead & mask)]);
+            case MAX -> valueOf(maxDeque[(int) (maxHead & mask)]);
+            case RATE -> ratePerMinute();
+        };
+    }
+
+    /** Change per minute between the oldest and newest sample; NaN until two samples span some time. */
+    private double ratePerMinute() {
+        long elapsed = timestampOf(tail - 1) - timestampOf(head);
+        if (elapsed <= 0) return Double.NaN;
+        return (valueOf(tail - 1) - valueOf(head)) * 60_000.0 / elapsed;
+    }
+
+    private void evictBefore(long cutoff) {
+        while (tail - head > 1 && timestampOf(head) < cutoff) {
+            long seq = head++;
+            sum -= valueOf(seq);
+            if (minDeque[(int) (minHead & mask)] == seq) minHead++;
+            if (maxDeque[(int) (maxHead & mask)] == seq) maxHead++;
+        }
+        // A long-lived running sum drifts; restart it from the one remaining sample.
+        if (tail - head == 1) sum = valueOf(head);
+    }
+
+    private double valueOf(long seq) {
+        return values[(int) (seq & mask)];
+    }
+
+    private long timestampOf(long seq) {
+        return timestamps[(int) (seq & mask)];
+    }
+
+    private void grow() {
+        int capacity = timestamps.length * 2;
+        int newMask = capacity - 1;
+        long[] ts = new long[capacity];
+        double[] vs = new double[capacity];
+        for (long seq = head; seq < tail; seq++) {
+            ts[(int) (seq & newMask)] = timestampOf(seq);
+            vs[(int) (seq & newMask)] = valueOf(seq);
+        }
+        long[] mins = new long[capacity];
+        for (long i = minHead; i < minTail; i++) mins[(int) (i & newMask)] = minDeque[(int) (i & mask)];
+        long[] maxs = new long[capacity];
+        for (long i = maxHead; i < maxTail; i++) maxs[(int) (i & newMask)] = maxDeque[(int) (i & mask)];
+        timestamps = ts;
+        values = vs;
+        minDeque = mins;
+        maxDeque = maxs;
+        mask = newMask;
+    }
+}
@@ -0,0 +1,59 @@
+package com.systemmonitor.alert;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.systemmonitor.dto.AlertEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Minimal webhook: POSTs each alert state change as JSON to app.alerts.webhook-url with {@code sendAsync}, so the
+ * tick never waits on the receiver. No retries; failures are logged.
+ */
+@Component
+@Slf4j
+@ConditionalOnExpression("!'${app.alerts.webhook-url:}'.isBlank()")
+public class WebhookAlertSink implements AlertSink {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    private final ObjectMapper objectMapper;
+    private final URI uri;
+
+    public WebhookAlertSink(ObjectMapper objectMapper, @Value("${app.alerts.webhook-url}") String url) {
+        this.objectMapper = objectMapper;
+        this.uri = URI.create(url.trim());
+    }
+
+    @Override
+    public void accept(AlertEvent event) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            log.warn("Alert webhook: could not serialize {}: {}", event.getRuleId(), e.getMessage());
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            if (error != null) {
+                log.warn("Alert webhook {} failed: {}", uri, error.getMessage());
+            } else if (response.statusCode() >= 300) {
+                log.warn("Alert webhook {} returned HTTP {}", uri, response.statusCode());
+            }
+        });
+    }
+}
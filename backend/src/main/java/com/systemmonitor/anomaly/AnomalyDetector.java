@@ -0,0 +1,189 @@
+package com.systemmonitor.anomaly;
+
+import com.systemmonitor.dto.AnomalyFlag;
+import com.systemmonitor.dto.SystemStats;
+import com.systemmonitor.history.HistoryMetric;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Flags samples that deviate from two online baselines per metric (app.anomaly.metrics): an EWMA of recent
+ * behaviour and a per-hour-of-day seasonal baseline that learns over about {@code seasonal-days} days. A sample is
+ * flagged when its z-score against a warmed-up baseline exceeds {@code threshold}; standard deviations are floored
+ * per metric so an idle series (0 B/s disk writes) does not flag the first few kilobytes.
+ * Samples are weighted by the time since the previous one (see {@link EwmStats}) and warm-up is counted in seconds,
+ * so the baselines behave the same at 1 s ticks and at the slower idle record period.
+ * <p>
+ * State is 3 numbers per metric plus 3 per metric and hour, and a sample costs a few arithmetic operations per
+ * baseline, so this runs on the tick thread. Flags are attached to the tick's {@link SystemStats} (published with
+ * it) and kept in a bounded log for GET /api/anomalies.
+ */
+@Component
+@Slf4j
+public class AnomalyDetector {
+
+    private static final int HOURS = 24;
+    private static final long SECONDS_PER_HOUR = 3600;
+    /** Longest time one sample stands for; after a longer gap (restart, suspend) it still counts this much. */
+    private static final double MAX_SAMPLE_SECONDS = 60;
+
+    private final boolean enabled;
+    private final double threshold;
+    private final long warmupSeconds;
+    private final HistoryMetric[] metrics;
+    private final double[] minDeviation;
+    private final EwmStats recent;
+    private final EwmStats seasonal;
+    private final ZoneId zone;
+    private final double[] row = new double[HistoryMetric.count()];
+    /** Local hour of day of timestamps in [hourStart, hourEnd). */
+    private int hour;
+    private long hourStart = Long.MAX_VALUE;
+    private long hourEnd = Long.MIN_VALUE;
+    private boolean hasPrevious;
+    private long previousTimestamp;
+
+    /** Ring of the last flags; {@code flagged} is the total ever written. */
+    private final AnomalyFlag[] recentFlags;
+    private long flagged;
+
+    @Autowired
+    public AnomalyDetector(@Value("${app.anomaly.enabled:true}") boolean enabled,
+                           @Value("${app.anomaly.metrics:cpu,memory,gpu,diskRead,diskWrite,netDown,netUp}") String metrics,
+                           @Value("${app.anomaly.alpha:0.02}") double alpha,
+                           @Value("${app.anomaly.seasonal-days:7}") int seasonalDays,
+                           @Value("${app.anomaly.threshold:4}") double threshold,
+                           @Value("${app.anomaly.warmup:60}") long warmupSeconds,
+                           @Value("${app.anomaly.log-size:3600}") int logSize) {
+        this(enabled, metrics, alpha, seasonalDays, threshold, warmupSeconds, logSize, ZoneId.systemDefault());
+    }
+
+    AnomalyDetector(boolean enabled, String metrics, double alpha, int seasonalDays, double threshold,
+                    long warmupSeconds, int logSize, ZoneId zone) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.warmupSeconds = Math.max(2, warmupSeconds);
+        this.metrics = parseMetrics(metrics);
+        this.minDeviation = new double[this.metrics.length];
+        for (int i = 0; i < this.metrics.length; i++) minDeviation[i] = minDeviation(this.metrics[i]);
+        this.recent = new EwmStats(this.metrics.length, alpha);
+        this.seasonal = new EwmStats(this.metrics.length * HOURS, 1.0 / (SECONDS_PER_HOUR * Math.max(1, seasonalDays)));
+        this.zone = zone;
+        this.recentFlags = new AnomalyFlag[Math.max(1, logSize)];
+    }
+
+    /** Scores the tick and sets {@link SystemStats#setAnomalies} (empty when nothing is flagged). Tick thread. */
+    public void evaluate(SystemStats stats) {
+        if (!enabled || metrics.length == 0) {
+            stats.setAnomalies(List.of());
+            return;
+        }
+        long now = stats.getTimestamp();
+        if (now < hourStart || now >= hourEnd) resolveHour(now);
+        double dt = hasPrevious ? Math.min(MAX_SAMPLE_SECONDS, Math.max(0, now - previousTimestamp) / 1000.0) : 1.0;
+        hasPrevious = true;
+        previousTimestamp = now;
+        HistoryMetric.extractAll(stats, row);
+        List<AnomalyFlag> flags = null;
+        for (int i = 0; i < metrics.length; i++) {
+            double value = row[metrics[i].ordinal()];
+            if (Double.isNaN(value)) continue;
+            double expected = recent.mean(i);
+            double z = recent.update(i, value, minDeviation[i], dt);
+            if (recent.seconds(i) > warmupSeconds && Math.abs(z) > threshold) {
+                flags = add(flags, flag(metrics[i], AnomalyFlag.Baseline.EWMA, value, expected, z, now));
+            }
+            int slot = i * HOURS + hour;
+            expected = seasonal.mean(slot);
+            z = seasonal.update(slot, value, minDeviation[i], dt);
+            if (seasonal.seconds(slot) > SECONDS_PER_HOUR && Math.abs(z) > threshold) {
+                flags = add(flags, flag(metrics[i], AnomalyFlag.Baseline.SEASONAL, value, expected, z, now));
+            }
+        }
+        if (flags == null) {
+            stats.setAnomalies(List.of());
+            return;
+        }
+        synchronized (recentFlags) {
+            for (AnomalyFlag f : flags) recentFlags[(int) (flagged++ % recentFlags.length)] = f;
+        }
+        stats.setAnomalies(flags);
+    }
+
+    /**
+     * Logged flags with {@code from <= timestamp <= to}, optionally for one metric, oldest first; at most the last
+     * {@code limit} matches.
+     */
+    public List<AnomalyFlag> query(HistoryMetric metric, long from, long to, int limit) {
+        List<AnomalyFlag> result = new ArrayList<>();
+        synchronized (recentFlags) {
+            long oldest = Math.max(0, flagged - recentFlags.length);
+            for (long seq = flagged - 1; seq >= oldest && result.size() < limit; seq--) {
+                AnomalyFlag f = recentFlags[(int) (seq % recentFlags.length)];
+                if (f.getTimestamp() < from) break;
+                if (f.getTimestamp() <= to && (metric == null || metric.id().equals(f.getMetric()))) result.add(f);
+            }
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void resolveHour(long now) {
+        ZonedDateTime time = Instant.ofEpochMilli(now).atZone(zone);
+        ZonedDateTime start = time.truncatedTo(ChronoUnit.HOURS);
+        hour = time.getHour();
+        hourStart = start.toInstant().toEpochMilli();
+        hourEnd = start.plusHours(1).toInstant().toEpochMilli();
+    }
+
+    private static List<AnomalyFlag> add(List<AnomalyFlag> flags, AnomalyFlag flag) {
+        if (flags == null) flags = new ArrayList<>(2);
+        flags.add(flag);
+        return flags;
+    }
+
+    private static AnomalyFlag flag(HistoryMetric metric, AnomalyFlag.Baseline baseline, double value,
+                                    double expected, double z, long now) {
+        return AnomalyFlag.builder()
+                .metric(metric.id())
+                .baseline(baseline)
+                .value(value)
+                .expected(expected)
+                .zScore(z)
+                .timestamp(now)
+                .build();
+    }
+
+    private static HistoryMetric[] parseMetrics(String ids) {
+        List<HistoryMetric> list = new ArrayList<>();
+        if (ids != null) {
+            for (String id : ids.split(",")) {
+                if (id.isBlank()) continue;
+                HistoryMetric m = HistoryMetric.fromId(id);
+                if (m == null) log.warn("Ignoring unknown anomaly metric {}", id.trim());
+                else if (!list.contains(m)) list.add(m);
+            }
+        }
+        return list.toArray(new HistoryMetric[0]);
+    }
+
+    /** Smallest standard deviation assumed for a metric, so tiny absolute changes on a flat series are not flagged. */
+    static double minDeviation(HistoryMetric metric) {
+        return switch (metric) {
+            case CPU_USAGE, MEMORY_USAGE, GPU_USAGE, DISK_USAGE -> 1.0;
+            case CPU_TEMPERATURE, GPU_TEMPERATURE -> 1.0;
+            case MEMORY_USED -> 64.0 * 1024 * 1024;
+            case DISK_READ, DISK_WRITE, NETWORK_DOWNLOAD, NETWORK_UPLOAD -> 64.0 * 1024;
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.systemmonitor.anomaly;
+
+/**
+ * Exponentially weighted mean and variance for a fixed number of independent slots, in flat arrays (three
+ * numbers per slot). Samples are weighted by the time they cover, so the baseline forgets at the same rate whatever
+ * the sampling period: {@code alpha} is the weight of a 1 s sample, and a sample covering {@code dt} seconds gets
+ * {@code 1 - (1 - alpha)^dt}. Until a slot has seen {@code 1 / alpha} seconds it uses {@code dt / seconds seen}
+ * instead, i.e. the plain time-weighted running mean, so the first samples do not pin the baseline.
+ * Not thread-safe (one owner).
+ */
+final class EwmStats {
+
+    /** -ln(1 - alpha): decay per second (infinite for alpha 1, where only the newest sample counts). */
+    private final double decayPerSecond;
+    private final double[] mean;
+    private final double[] variance;
+    private final double[] seconds;
+
+    EwmStats(int slots, double alpha) {
+        this.decayPerSecond = -Math.log1p(-Math.min(1.0, Math.max(0.0, alpha)));
+        this.mean = new double[slots];
+        this.variance = new double[slots];
+        this.seconds = new double[slots];
+    }
+
+    /**
+     * Scores {@code value}, which covers the last {@code dtSeconds}, against the slot's baseline, then folds it in.
+     * Returns the z-score, with the standard deviation floored at {@code minDeviation}; 0 for the slot's first sample.
+     */
+    double update(int slot, double value, double minDeviation, double dtSeconds) {
+        boolean first = seconds[slot] == 0;
+        seconds[slot] += dtSeconds;
+        if (first) {
+            mean[slot] = value;
+            return 0;
+        }
+        double diff = value - mean[slot];
+        double z = diff / Math.max(Math.sqrt(variance[slot]), minDeviation);
+        if (dtSeconds <= 0) return z;
+        double a = Math.max(-Math.expm1(-decayPerSecond * dtSeconds), dtSeconds / seconds[slot]);
+        double step = a * diff;
+        mean[slot] += step;
+        variance[slot] = (1 - a) * (variance[slot] + diff * step);
+        return z;
+    }
+
+    double mean(int slot) {
+        return mean[slot];
+    }
+
+    /** Time covered by the slot's samples so far. */
+    double seconds(int slot) {
+        return seconds[slot];
+    }
+}
@@ -0,0 +1,149 @@
+package com.systemmonitor.capture;
+
+import com.systemmonitor.dto.CaptureResult;
+import com.systemmonitor.procfs.Procfs;
+import com.systemmonitor.service.NetworkService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import oshi.SystemInfo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * On-demand high-resolution sampling (GET /api/capture) to catch sub-second spikes that the 1 s stream averages
+ * away. A capture runs on the calling thread for its whole duration, sampling on a fixed schedule into columns
+ * allocated up front, and has its own readers and trackers (see {@link CaptureSampler}), so the regular stream is
+ * unaffected. At most app.capture.max-concurrent captures run at once; further requests are refused, not queued.
+ */
+@Service
+@Slf4j
+public class BurstCapture {
+
+    private final Procfs procfs;
+    private final SystemInfo systemInfo;
+    private final NetworkService networkService;
+    private final int maxDurationSec;
+    private final int minIntervalMs;
+    private final int maxIntervalMs;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+
+    public BurstCapture(Procfs procfs,
+                        SystemInfo systemInfo,
+                        NetworkService networkService,
+                        @Value("${app.capture.max-concurrent:2}") int maxConcurrent,
+                        @Value("${app.capture.max-duration-sec:60}") int maxDurationSec,
+                        @Value("${app.capture.min-interval-ms:10}") int minIntervalMs,
+                        @Value("${app.capture.max-interval-ms:1000}") int maxIntervalMs,
+                        MeterRegistry meterRegistry) {
+        this.procfs = procfs;
+        this.systemInfo = systemInfo;
+        this.networkService = networkService;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxDurationSec = Math.max(1, maxDurationSec);
+        this.minIntervalMs = Math.max(1, minIntervalMs);
+        this.maxIntervalMs = Math.max(this.minIntervalMs, maxIntervalMs);
+        this.permits = new Semaphore(this.maxConcurrent);
+        Gauge.builder("stats.capture.active", this, BurstCapture::activeCount)
+                .description("Burst captures currently running")
+                .register(meterRegistry);
+    }
+
+    /** True if {@code durationSec} and {@code intervalMs} are within the configured limits. */
+    public boolean accepts(int durationSec, int intervalMs) {
+        return durationSec >= 1 && durationSec <= maxDurationSec
+                && intervalMs >= minIntervalMs && intervalMs <= maxIntervalMs;
+    }
+
+    /** Disk and network are read from /proc only; CPU and memory everywhere. */
+    public boolean supports(CaptureChannel channel) {
+        return procfs.isEnabled() || channel == CaptureChannel.CPU || channel == CaptureChannel.MEMORY;
+    }
+
+    public int activeCount() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * Samples {@code channels} every {@code intervalMs} for {@code durationSec}, blocking until done. Returns null
+     * if the concurrent-capture limit is reached. A read error or interrupt ends the capture early with the samples
+     * taken so far.
+     */
+    public CaptureResult capture(int durationSec, int intervalMs, Set<CaptureChannel> channels) throws IOException {
+        if (!permits.tryAcquire()) return null;
+        try {
+            return run(durationSec, intervalMs, channels);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private CaptureResult run(int durationSec, int intervalMs, Set<CaptureChannel> channels) throws IOException {
+        try (CaptureSampler sampler = new CaptureSampler(channels, procfs, systemInfo, networkService::acceptsInterface)) {
+            return run(sampler, durationSec, intervalMs);
+        }
+    }
+
+    private CaptureResult run(CaptureSampler sampler, int durationSec, int intervalMs) throws IOException {
+        int capacity = (int) (TimeUnit.SECONDS.toMillis(durationSec) / intervalMs);
+        String[] names = sampler.seriesNames();
+        double[][] columns = new double[names.length][capacity];
+        int[] offsets = new int[capacity];
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        sampler.prime(start);
+        long next = start;
+        int samples = 0;
+        int missed = 0;
+        try {
+            while (samples < capacity) {
+                next += intervalNanos;
+                if (!sleepUntil(next)) break;
+                long now = System.nanoTime();
+                if (now - next >= intervalNanos) {
+                    missed++;
+                    next = now;
+                }
+                sampler.sample(now, columns, samples);
+                offsets[samples++] = (int) TimeUnit.NANOSECONDS.toMicros(now - start);
+            }
+        } catch (IOException e) {
+            log.warn("Burst capture stopped after {} samples: {}", samples, e.getMessage());
+        }
+
+        Map<String, double[]> series = new LinkedHashMap<>();
+        for (int c = 0; c < names.length; c++) {
+            series.put(names[c], samples == capacity ? columns[c] : Arrays.copyOf(columns[c], samples));
+        }
+        return CaptureResult.builder()
+                .timestamp(timestamp)
+                .intervalMs(intervalMs)
+                .samples(samples)
+                .missed(missed)
+                .offsetsMicros(samples == capacity ? offsets : Arrays.copyOf(offsets, samples))
+                .series(series)
+                .build();
+    }
+
+    /** Parks until {@code deadlineNanos}; false if the thread was interrupted. */
+    private static boolean sleepUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) return false;
+        }
+        return true;
+    }
+}
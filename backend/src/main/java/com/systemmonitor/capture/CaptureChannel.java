@@ -0,0 +1,47 @@
+package com.systemmonitor.capture;
+
+import java.util.Locale;
+
+/**
+ * Collectors a burst capture can sample, each with the series it adds to the result: CPU and memory usage in
+ * percent, disk and network throughput in bytes per second.
+ */
+public enum CaptureChannel {
+    CPU("cpu", "cpu"),
+    MEMORY("memory", "memory"),
+    DISK("disk", "disk.read", "disk.write"),
+    NETWORK("network", "network.rx", "network.tx");
+
+    private static final CaptureChannel[] VALUES = values();
+
+    private final String id;
+    private final String[] series;
+
+    CaptureChannel(String id, String... series) {
+        this.id = id;
+        this.series = series;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    /** Names of this channel's series in the result, in column order. */
+    public String[] series() {
+        return series.clone();
+    }
+
+    int seriesCount() {
+        return series.length;
+    }
+
+    /** Channel by id ("cpu", "disk", ...) or enum name; null if unknown. */
+    public static CaptureChannel fromId(String id) {
+        if (id == null) return null;
+        String trimmed = id.trim();
+        for (CaptureChannel c : VALUES) {
+            if (c.id.equalsIgnoreCase(trimmed) || c.name().equals(trimmed.toUpperCase(Locale.ROOT))) return c;
+        }
+        return null;
+    }
+}
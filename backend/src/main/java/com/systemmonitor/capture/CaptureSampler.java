@@ -0,0 +1,186 @@
+package com.systemmonitor.capture;
+
+import com.systemmonitor.procfs.DiskStatsReader;
+import com.systemmonitor.procfs.MemInfoReader;
+import com.systemmonitor.procfs.NetDevReader;
+import com.systemmonitor.procfs.ProcStatReader;
+import com.systemmonitor.procfs.Procfs;
+import com.systemmonitor.sampling.CpuLoadTracker;
+import com.systemmonitor.sampling.MetricMath;
+import com.systemmonitor.sampling.RateTracker;
+import oshi.SystemInfo;
+import oshi.hardware.CentralProcessor;
+import oshi.hardware.GlobalMemory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Samples the channels of one burst capture into caller-owned columns. It opens its own /proc readers and keeps its
+ * own load and rate trackers, so the collector services, whose trackers difference against the 1 Hz pipeline's
+ * previous sample, never see the capture's reads. Off Linux, CPU and memory come from OSHI (which caches some values,
+ * so resolution is coarser there); disk and network need /proc.
+ * Only the aggregate /proc/stat row is kept: the kernel counts ticks at USER_HZ (usually 100 Hz), so at 10 ms a single
+ * core's usage would only ever read 0 or 100. Not thread-safe; one per capture, closed when it ends (the readers
+ * hold their /proc files open).
+ */
+final class CaptureSampler implements Closeable {
+
+    private final String[] seriesNames;
+    private final int cpuColumn;
+    private final int memoryColumn;
+    private final int diskColumn;
+    private final int networkColumn;
+    private final Predicate<String> interfaceFilter;
+    private final CpuLoadTracker cpuLoad = new CpuLoadTracker(CentralProcessor.TickType.IDLE.getIndex(), -1);
+    private final long[] cpuTicks = new long[ProcStatReader.TICK_FIELDS];
+    private final RateTracker diskRead = new RateTracker();
+    private final RateTracker diskWrite = new RateTracker();
+    private final RateTracker networkRx = new RateTracker();
+    private final RateTracker networkTx = new RateTracker();
+    private ProcStatReader procStat;
+    private MemInfoReader memInfo;
+    private DiskStatsReader diskStats;
+    private NetDevReader netDev;
+    private CentralProcessor processor;
+    private GlobalMemory memory;
+    /** NetDevReader indices of the accepted, present interfaces; re-resolved when an interface comes or goes. */
+    private int[] interfaces = new int[0];
+    private int interfaceCount;
+
+    CaptureSampler(Set<CaptureChannel> channels, Procfs procfs, SystemInfo systemInfo,
+                   Predicate<String> interfaceFilter) throws IOException {
+        EnumSet<CaptureChannel> selected = EnumSet.copyOf(channels);
+        int columns = 0;
+        for (CaptureChannel c : selected) columns += c.seriesCount();
+        seriesNames = new String[columns];
+        int column = 0;
+        int cpu = -1, mem = -1, disk = -1, net = -1;
+        for (CaptureChannel c : selected) {
+            switch (c) {
+                case CPU -> cpu = column;
+                case MEMORY -> mem = column;
+                case DISK -> disk = column;
+                case NETWORK -> net = column;
+            }
+            for (String name : c.series()) seriesNames[column++] = name;
+        }
+        cpuColumn = cpu;
+        memoryColumn = mem;
+        diskColumn = disk;
+        networkColumn = net;
+        this.interfaceFilter = interfaceFilter;
+
+        if (procfs.isEnabled()) {
+            try {
+                if (cpuColumn >= 0) procStat = new ProcStatReader(procfs);
+                if (memoryColumn >= 0) memInfo = new MemInfoReader(procfs);
+                if (diskColumn >= 0) diskStats = new DiskStatsReader(procfs);
+                if (networkColumn >= 0) netDev = new NetDevReader(procfs);
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        } else {
+            if (diskColumn >= 0 || networkColumn >= 0) throw new IOException("disk and network capture need /proc");
+            if (cpuColumn >= 0) processor = systemInfo.getHardware().getProcessor();
+            if (memoryColumn >= 0) memory = systemInfo.getHardware().getMemory();
+        }
+    }
+
+    /** Names of the columns {@link #sample} fills, in order. */
+    String[] seriesNames() {
+        return seriesNames;
+    }
+
+    /** Takes the baseline the first sample's usage and rates are measured against. */
+    void prime(long nowNanos) throws IOException {
+        if (cpuColumn >= 0) cpuUsage();
+        if (diskColumn >= 0) {
+            diskStats.read();
+            diskRead.prime(diskStats.total(DiskStatsReader.SECTORS_READ) * DiskStatsReader.SECTOR_BYTES, nowNanos);
+            diskWrite.prime(diskStats.total(DiskStatsReader.SECTORS_WRITTEN) * DiskStatsReader.SECTOR_BYTES, nowNanos);
+        }
+        if (networkColumn >= 0) {
+            netDev.read();
+            resolveInterfaces();
+            networkRx.prime(sumInterfaces(NetDevReader.RX_BYTES), nowNanos);
+            networkTx.prime(sumInterfaces(NetDevReader.TX_BYTES), nowNanos);
+        }
+    }
+
+    /** Writes one sample taken at {@code nowNanos} into row {@code index} of {@code columns}. */
+    void sample(long nowNanos, double[][] columns, int index) throws IOException {
+        if (cpuColumn >= 0) {
+            columns[cpuColumn][index] = MetricMath.round(cpuUsage(), 1);
+        }
+        if (memoryColumn >= 0) {
+            columns[memoryColumn][index] = MetricMath.round(memoryUsage(), 1);
+        }
+        if (diskColumn >= 0) {
+            diskStats.read();
+            long read = diskStats.total(DiskStatsReader.SECTORS_READ) * DiskStatsReader.SECTOR_BYTES;
+            long written = diskStats.total(DiskStatsReader.SECTORS_WRITTEN) * DiskStatsReader.SECTOR_BYTES;
+            columns[diskColumn][index] = diskRead.update(read, nowNanos);
+            columns[diskColumn + 1][index] = diskWrite.update(written, nowNanos);
+        }
+        if (networkColumn >= 0) {
+            if (netDev.read()) resolveInterfaces();
+            columns[networkColumn][index] = networkRx.update(sumInterfaces(NetDevReader.RX_BYTES), nowNanos);
+            columns[networkColumn + 1][index] = networkTx.update(sumInterfaces(NetDevReader.TX_BYTES), nowNanos);
+        }
+    }
+
+    /** Closes the /proc readers; all are closed even if one fails, and the first failure is rethrown. */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Closeable reader : new Closeable[]{procStat, memInfo, diskStats, netDev}) {
+            if (reader == null) continue;
+            try {
+                reader.close();
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+                else failure.addSuppressed(e);
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    private double cpuUsage() throws IOException {
+        if (procStat == null) return cpuLoad.update(processor.getSystemCpuLoadTicks());
+        procStat.read(cpuTicks);
+        return cpuLoad.update(cpuTicks, 0, ProcStatReader.TICK_FIELDS);
+    }
+
+    private double memoryUsage() throws IOException {
+        long total;
+        long available;
+        if (memInfo != null) {
+            memInfo.read();
+            total = memInfo.totalBytes();
+            available = memInfo.availableBytes();
+        } else {
+            total = memory.getTotal();
+            available = memory.getAvailable();
+        }
+        return total > 0 ? MetricMath.clampPercent(100.0 * (total - available) / total) : 0.0;
+    }
+
+    private void resolveInterfaces() {
+        if (interfaces.length < netDev.interfaceCount()) interfaces = new int[netDev.interfaceCount()];
+        interfaceCount = 0;
+        for (int i = 0; i < netDev.interfaceCount(); i++) {
+            if (netDev.isPresent(i) && interfaceFilter.test(netDev.name(i))) interfaces[interfaceCount++] = i;
+        }
+    }
+
+    private long sumInterfaces(int field) {
+        long sum = 0;
+        for (int i = 0; i < interfaceCount; i++) sum += netDev.counter(interfaces[i], field);
+        return sum;
+    }
+}
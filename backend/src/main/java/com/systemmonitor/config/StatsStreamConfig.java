@@ -0,0 +1,36 @@
+package com.systemmonitor.config;
+
+import com.systemmonitor.websocket.StatsBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import java.util.Arrays;
+
+/**
+ * Registers the plain WebSocket fan-out endpoint /stream/stats (no STOMP broker in the path).
+ * Allowed origins from app.cors.allowed-origins (env: CORS_ALLOWED_ORIGINS).
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class StatsStreamConfig implements WebSocketConfigurer {
+
+    private final StatsBroadcaster statsBroadcaster;
+
+    @Value("${app.cors.allowed-origins:http://localhost:3000}")
+    private String allowedOrigins;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        String[] origins = Arrays.stream(allowedOrigins.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toArray(String[]::new);
+        registry.addHandler(statsBroadcaster, "/stream/stats")
+                .setAllowedOriginPatterns(origins.length > 0 ? origins : new String[]{"*"});
+    }
+}
@@ -1,17 +1,26 @@
 package com.systemmonitor.config;
 
+import com.systemmonitor.websocket.StatsEncodingInterceptor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.server.HandshakeInterceptor;
 
 import java.util.Arrays;
+import java.util.Map;
 
 /**
  * Configures STOMP over WebSocket for real-time stats streaming.
- * Clients connect to /ws and subscribe to /topic/stats.
+ * Clients connect to /ws (SockJS) or /ws-native (plain WebSocket, binary frames) and subscribe to /topic/stats.
+ * Adding the STOMP header x-stats-encoding: delta to the subscription switches it to the compact delta stream.
+ * Live top-process lists are pushed on /topic/processes/{sort} (see ProcessStreamPublisher).
  * Allowed origins from app.cors.allowed-origins (env: CORS_ALLOWED_ORIGINS).
  */
 @Configuration
@@ -33,8 +42,32 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .map(String::trim)
                 .filter(s -> !s.isEmpty())
                 .toArray(String[]::new);
+        String[] patterns = origins.length > 0 ? origins : new String[]{"*"};
         registry.addEndpoint("/ws")
-                .setAllowedOriginPatterns(origins.length > 0 ? origins : new String[]{"*"})
+                .setAllowedOriginPatterns(patterns)
                 .withSockJS();
+        registry.addEndpoint("/ws-native")
+                .setAllowedOriginPatterns(patterns)
+                .addInterceptors(new BinaryCapableHandshakeInterceptor());
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new StatsEncodingInterceptor());
+    }
+
+    /** Marks sessions on the native endpoint as able to receive binary frames. */
+    private static final class BinaryCapableHandshakeInterceptor implements HandshakeInterceptor {
+        @Override
+        public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                       WebSocketHandler wsHandler, Map<String, Object> attributes) {
+            attributes.put(StatsEncodingInterceptor.BINARY_CAPABLE_ATTRIBUTE, Boolean.TRUE);
+            return true;
+        }
+
+        @Override
+        public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Exception exception) {
+        }
     }
 }
@@ -0,0 +1,28 @@
+package com.systemmonitor.controller;
+
+import com.systemmonitor.alert.AlertEngine;
+import com.systemmonitor.dto.AlertEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST API for alerts currently firing; state changes are pushed on /topic/alerts.
+ */
+@RestController
+@RequestMapping("/api/alerts")
+@RequiredArgsConstructor
+public class AlertController {
+
+    private final AlertEngine alertEngine;
+
+    /** GET /api/alerts → firing alerts, each as the event that fired it. */
+    @GetMapping
+    public ResponseEntity<List<AlertEvent>> getActiveAlerts() {
+        return ResponseEntity.ok(alertEngine.active());
+    }
+}
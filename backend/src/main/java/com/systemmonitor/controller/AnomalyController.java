@@ -0,0 +1,53 @@
+package com.systemmonitor.controller;
+
+import com.systemmonitor.anomaly.AnomalyDetector;
+import com.systemmonitor.dto.AnomalyFlag;
+import com.systemmonitor.history.HistoryMetric;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST API for recent anomaly flags (the same flags each /topic/stats message carries).
+ */
+@RestController
+@RequestMapping("/api/anomalies")
+@RequiredArgsConstructor
+public class AnomalyController {
+
+    private static final long DEFAULT_RANGE_MS = 3_600_000;
+    private static final int MAX_LIMIT = 1000;
+
+    private final AnomalyDetector anomalyDetector;
+
+    /**
+     * GET /api/anomalies?metric=&from=&to=&limit=200
+     * from/to are epoch millis (default: last hour); metric is a history metric id (default: all).
+     * Returns the newest {@code limit} matching flags, oldest first.
+     */
+    @GetMapping
+    public ResponseEntity<List<AnomalyFlag>> getAnomalies(
+            @RequestParam(required = false) String metric,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(defaultValue = "200") int limit) {
+        HistoryMetric m = null;
+        if (metric != null && !metric.isBlank()) {
+            m = HistoryMetric.fromId(metric);
+            if (m == null) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        long end = to != null ? to : System.currentTimeMillis();
+        long start = from != null ? from : end - DEFAULT_RANGE_MS;
+        if (start > end) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(anomalyDetector.query(m, start, end, Math.max(1, Math.min(limit, MAX_LIMIT))));
+    }
+}
@@ -0,0 +1,69 @@
+package com.systemmonitor.controller;
+
+import com.systemmonitor.capture.BurstCapture;
+import com.systemmonitor.capture.CaptureChannel;
+import com.systemmonitor.dto.CaptureResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * REST API for burst captures: a few seconds of 10-50 ms samples, outside the regular stats stream.
+ */
+@RestController
+@RequestMapping("/api/capture")
+@RequiredArgsConstructor
+@Slf4j
+public class CaptureController {
+
+    private final BurstCapture burstCapture;
+
+    /**
+     * GET /api/capture?durationSec=5&intervalMs=20&collectors=cpu,disk
+     * Blocks for the capture's duration, then returns all samples at once. collectors defaults to every one this
+     * host supports. 400 for limits outside app.capture or an unknown/unsupported collector, 429 if the
+     * concurrent-capture limit is reached.
+     */
+    @GetMapping
+    public ResponseEntity<CaptureResult> capture(
+            @RequestParam(defaultValue = "5") int durationSec,
+            @RequestParam(defaultValue = "20") int intervalMs,
+            @RequestParam(required = false) List<String> collectors) {
+        if (!burstCapture.accepts(durationSec, intervalMs)) {
+            return ResponseEntity.badRequest().build();
+        }
+        EnumSet<CaptureChannel> channels = EnumSet.noneOf(CaptureChannel.class);
+        if (collectors == null || collectors.isEmpty()) {
+            for (CaptureChannel c : CaptureChannel.values()) {
+                if (burstCapture.supports(c)) channels.add(c);
+            }
+        } else {
+            for (String id : collectors) {
+                CaptureChannel c = CaptureChannel.fromId(id);
+                if (c == null || !burstCapture.supports(c)) {
+                    return ResponseEntity.badRequest().build();
+                }
+                channels.add(c);
+            }
+        }
+        try {
+            CaptureResult result = burstCapture.capture(durationSec, intervalMs, channels);
+            if (result == null) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+            }
+            return ResponseEntity.ok(result);
+        } catch (IOException e) {
+            log.warn("Burst capture failed to start: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
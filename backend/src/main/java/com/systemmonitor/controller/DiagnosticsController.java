@@ -0,0 +1,26 @@
+package com.systemmonitor.controller;
+
+import com.systemmonitor.diagnostics.PipelineDiagnostics;
+import com.systemmonitor.dto.PipelineSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST API for the backend's own pipeline timings (the same meters are on /actuator/metrics/stats.*).
+ */
+@RestController
+@RequestMapping("/api/diagnostics")
+@RequiredArgsConstructor
+public class DiagnosticsController {
+
+    private final PipelineDiagnostics pipelineDiagnostics;
+
+    /** GET /api/diagnostics/pipeline → per-stage latency percentiles, cache hit/miss and tick overrun counts. */
+    @GetMapping("/pipeline")
+    public ResponseEntity<PipelineSummary> getPipeline() {
+        return ResponseEntity.ok(pipelineDiagnostics.summary());
+    }
+}
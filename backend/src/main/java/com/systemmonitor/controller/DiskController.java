@@ -0,0 +1,49 @@
+package com.systemmonitor.controller;
+
+import com.systemmonitor.dto.SystemStats;
+import com.systemmonitor.scheduler.CollectionPipeline;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST API for the per-disk and per-mount breakdown published with each tick's {@link SystemStats.DiskStats}.
+ * Serves the last published sample rather than sampling again, so queries never skew the streamed rates;
+ * 503 until the first tick.
+ */
+@RestController
+@RequestMapping("/api/disks")
+@RequiredArgsConstructor
+public class DiskController {
+
+    private final CollectionPipeline collectionPipeline;
+
+    /** GET /api/disks → aggregate disk stats with {@code devices} and {@code mounts}. */
+    @GetMapping
+    public ResponseEntity<SystemStats.DiskStats> getDisks() {
+        SystemStats.DiskStats disk = latestDisk();
+        return disk != null ? ResponseEntity.ok(disk) : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
+    /** GET /api/disks/devices/{name} → one device's I/O stats, 404 if unknown. */
+    @GetMapping("/devices/{name}")
+    public ResponseEntity<SystemStats.DiskDeviceStats> getDevice(@PathVariable String name) {
+        SystemStats.DiskStats disk = latestDisk();
+        if (disk == null) return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        if (disk.getDevices() != null) {
+            for (SystemStats.DiskDeviceStats device : disk.getDevices()) {
+                if (device.getName().equals(name)) return ResponseEntity.ok(device);
+            }
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    private SystemStats.DiskStats latestDisk() {
+        SystemStats stats = collectionPipeline.latest();
+        return stats != null ? stats.getDisk() : null;
+    }
+}
@@ -0,0 +1,71 @@
+package com.systemmonitor.controller;
+
+import com.systemmonitor.dto.HistorySeries;
+import com.systemmonitor.dto.HostSummary;
+import com.systemmonitor.dto.SystemStats;
+import com.systemmonitor.fleet.FleetRegistry;
+import com.systemmonitor.history.HistoryMetric;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST API for the hosts reporting to this aggregator (app.mode=aggregator only). Live updates are on
+ * /topic/fleet and /topic/hosts/{id}/stats.
+ */
+@RestController
+@RequestMapping("/api/hosts")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.mode", havingValue = "aggregator")
+public class FleetController {
+
+    private static final long DEFAULT_RANGE_MS = 3_600_000;
+    private static final long DEFAULT_POINTS = 1000;
+
+    private final FleetRegistry fleetRegistry;
+
+    /** GET /api/hosts → every known host with its latest headline numbers. */
+    @GetMapping
+    public ResponseEntity<List<HostSummary>> getHosts() {
+        return ResponseEntity.ok(fleetRegistry.summaries());
+    }
+
+    /** GET /api/hosts/{id}/stats → the host's newest stats (404 if unknown or nothing received yet). */
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<SystemStats> getHostStats(@PathVariable String id) {
+        SystemStats stats = fleetRegistry.latest(id);
+        return stats != null ? ResponseEntity.ok(stats) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * GET /api/hosts/{id}/history?metric=cpu&from=&to=&step=
+     * Same parameters as /api/history; hosts keep 10 minutes of raw samples and 24 hours at 1 minute.
+     */
+    @GetMapping("/{id}/history")
+    public ResponseEntity<HistorySeries> getHostHistory(
+            @PathVariable String id,
+            @RequestParam String metric,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(required = false) Long step) {
+        HistoryMetric m = HistoryMetric.fromId(metric);
+        if (m == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        long end = to != null ? to : System.currentTimeMillis();
+        long start = from != null ? from : end - DEFAULT_RANGE_MS;
+        if (start > end) {
+            return ResponseEntity.badRequest().build();
+        }
+        long stepMs = step != null ? step : (end - start) / DEFAULT_POINTS;
+        HistorySeries series = fleetRegistry.history(id, m, start, end, Math.max(0, stepMs));
+        return series != null ? ResponseEntity.ok(series) : ResponseEntity.notFound().build();
+    }
+}
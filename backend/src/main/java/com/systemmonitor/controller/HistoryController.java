@@ -0,0 +1,56 @@
+package com.systemmonitor.controller;
+
+import com.systemmonitor.dto.HistorySeries;
+import com.systemmonitor.history.HistoryMetric;
+import com.systemmonitor.history.MetricHistoryStore;
+import com.systemmonitor.history.SegmentStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST API for server-side metric history (raw 1 s samples and 10 s / 1 min / 1 h rollups).
+ */
+@RestController
+@RequestMapping("/api/history")
+@RequiredArgsConstructor
+public class HistoryController {
+
+    private static final long DEFAULT_RANGE_MS = 3_600_000;
+    /** Default step aims for about this many points over the requested range. */
+    private static final long DEFAULT_POINTS = 1000;
+
+    private final MetricHistoryStore historyStore;
+    private final SegmentStore segmentStore;
+
+    /**
+     * GET /api/history?metric=cpu&from=&to=&step=
+     * from/to are epoch millis (default: last hour); step is the wanted resolution in ms.
+     * The coarsest tier with a step not above the requested one is used. Raw requests older than the
+     * in-memory hour are read from the on-disk segments when persistence is enabled, bucketed to the step.
+     */
+    @GetMapping
+    public ResponseEntity<HistorySeries> getHistory(
+            @RequestParam String metric,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(required = false) Long step) {
+        HistoryMetric m = HistoryMetric.fromId(metric);
+        if (m == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        long end = to != null ? to : System.currentTimeMillis();
+        long start = from != null ? from : end - DEFAULT_RANGE_MS;
+        if (start > end) {
+            return ResponseEntity.badRequest().build();
+        }
+        long stepMs = step != null ? step : (end - start) / DEFAULT_POINTS;
+        if (stepMs < 10_000 && segmentStore.isEnabled() && start < historyStore.rawOldest()) {
+            return ResponseEntity.ok(segmentStore.query(m, start, end, stepMs));
+        }
+        return ResponseEntity.ok(historyStore.query(m, start, end, Math.max(0, stepMs)));
+    }
+}
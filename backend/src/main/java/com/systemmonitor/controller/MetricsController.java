@@ -0,0 +1,27 @@
+package com.systemmonitor.controller;
+
+import com.systemmonitor.metrics.OpenMetricsExporter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Prometheus / OpenMetrics scrape target for the host metrics (the actuator metrics endpoint only covers the
+ * backend itself).
+ */
+@RestController
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final OpenMetricsExporter exporter;
+
+    /** GET /metrics → the latest tick in OpenMetrics text format. */
+    @GetMapping("/metrics")
+    public ResponseEntity<byte[]> scrape() {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, OpenMetricsExporter.CONTENT_TYPE)
+                .body(exporter.scrape());
+    }
+}
@@ -1,5 +1,6 @@
 package com.systemmonitor.controller;
 
+import com.systemmonitor.dto.ProcessGroupStats;
 import com.systemmonitor.dto.ProcessInfo;
 import com.systemmonitor.service.ProcessService;
 import lombok.RequiredArgsConstructor;
@@ -23,17 +24,31 @@ public class ProcessController {
     private final ProcessService processService;
 
     /**
-     * GET /api/processes?sort=cpu|memory|disk&limit=25
-     * Returns top processes sorted by CPU, memory, or disk I/O only.
+     * GET /api/processes?sort=cpu|memory|disk|read|write|growth&limit=25
+     * Returns top processes sorted by interval CPU, memory, disk I/O rate or memory growth only; unknown sorts
+     * fall back to cpu.
      */
     @GetMapping
     public ResponseEntity<List<ProcessInfo>> getTopProcesses(
             @RequestParam(defaultValue = "cpu") String sort,
             @RequestParam(defaultValue = "25") int limit) {
-        if (!"cpu".equalsIgnoreCase(sort) && !"memory".equalsIgnoreCase(sort) && !"disk".equalsIgnoreCase(sort)) {
-            sort = "cpu";
-        }
         List<ProcessInfo> list = processService.getTopProcesses(sort, Math.min(100, Math.max(1, limit)));
         return ResponseEntity.ok(list);
     }
+
+    /**
+     * GET /api/processes/groups?by=cgroup|user|tree&sort=cpu&limit=10&top=5
+     * Returns the groups with the highest summed usage for the sort, each with its top processes; unknown
+     * groupings fall back to cgroup.
+     */
+    @GetMapping("/groups")
+    public ResponseEntity<List<ProcessGroupStats>> getProcessGroups(
+            @RequestParam(defaultValue = "cgroup") String by,
+            @RequestParam(defaultValue = "cpu") String sort,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "5") int top) {
+        List<ProcessGroupStats> list = processService.getProcessGroups(by, sort, Math.min(100, Math.max(1, limit)),
+                Math.min(25, Math.max(0, top)));
+        return ResponseEntity.ok(list);
+    }
 }
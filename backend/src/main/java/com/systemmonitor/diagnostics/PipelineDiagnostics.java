@@ -0,0 +1,82 @@
+package com.systemmonitor.diagnostics;
+
+import com.systemmonitor.dto.PipelineSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the {@link PipelineSummary} from the stats.* meters registered by the pipeline stages (tick phases,
+ * collectors, LHM, nvidia-smi, serialization, broadcast). Reads the registry on demand; nothing is kept.
+ */
+@Component
+@RequiredArgsConstructor
+public class PipelineDiagnostics {
+
+    private final MeterRegistry meterRegistry;
+
+    public PipelineSummary summary() {
+        List<PipelineSummary.TimerSummary> timers = new ArrayList<>();
+        List<PipelineSummary.ValueSummary> counters = new ArrayList<>();
+        List<PipelineSummary.ValueSummary> gauges = new ArrayList<>();
+        for (Meter meter : meterRegistry.getMeters()) {
+            Meter.Id id = meter.getId();
+            if (!id.getName().startsWith(PipelineMeters.PREFIX)) continue;
+            if (meter instanceof Timer timer) {
+                timers.add(timer(timer));
+            } else if (meter instanceof Counter counter) {
+                counters.add(value(id, counter.count()));
+            } else if (meter instanceof Gauge gauge) {
+                gauges.add(value(id, gauge.value()));
+            }
+        }
+        timers.sort(Comparator.comparing(PipelineSummary.TimerSummary::getName)
+                .thenComparing(t -> t.getTags().toString()));
+        Comparator<PipelineSummary.ValueSummary> byId = Comparator.comparing(PipelineSummary.ValueSummary::getName)
+                .thenComparing(v -> v.getTags().toString());
+        counters.sort(byId);
+        gauges.sort(byId);
+        return PipelineSummary.builder().timers(timers).counters(counters).gauges(gauges).build();
+    }
+
+    private static PipelineSummary.TimerSummary timer(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        PipelineSummary.TimerSummary.TimerSummaryBuilder b = PipelineSummary.TimerSummary.builder()
+                .name(timer.getId().getName())
+                .tags(tags(timer.getId()))
+                .count(snapshot.count())
+                .meanMs(snapshot.mean(TimeUnit.MILLISECONDS))
+                .maxMs(snapshot.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile p : snapshot.percentileValues()) {
+            double ms = p.value(TimeUnit.MILLISECONDS);
+            if (p.percentile() == 0.5) b.p50Ms(ms);
+            else if (p.percentile() == 0.95) b.p95Ms(ms);
+            else if (p.percentile() == 0.99) b.p99Ms(ms);
+        }
+        return b.build();
+    }
+
+    private static PipelineSummary.ValueSummary value(Meter.Id id, double value) {
+        return PipelineSummary.ValueSummary.builder().name(id.getName()).tags(tags(id)).value(value).build();
+    }
+
+    private static Map<String, String> tags(Meter.Id id) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (Tag tag : id.getTagsAsIterable()) tags.put(tag.getKey(), tag.getValue());
+        return tags;
+    }
+}
@@ -0,0 +1,26 @@
+package com.systemmonitor.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Shared shape of the stats.* pipeline timers, so every stage reports the same percentiles on actuator and in
+ * GET /api/diagnostics/pipeline. Percentiles come from Micrometer's HdrHistogram-backed decaying histogram
+ * (about the last two minutes); recording is a lock-free add, cheap enough for per-tick and per-collector use.
+ */
+public final class PipelineMeters {
+
+    /** Common prefix of every pipeline meter; {@link PipelineDiagnostics} reports everything under it. */
+    public static final String PREFIX = "stats.";
+
+    private PipelineMeters() {
+    }
+
+    public static Timer timer(MeterRegistry registry, String name, String description, String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+}
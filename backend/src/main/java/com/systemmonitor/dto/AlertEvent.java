@@ -0,0 +1,32 @@
+package com.systemmonitor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An alert rule changing state, as published on /topic/alerts; also the shape of GET /api/alerts entries
+ * (firing alerts, with the timestamp they fired).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertEvent {
+
+    public enum State { FIRING, RESOLVED }
+
+    private String ruleId;
+    private State state;
+    private String severity;
+    /** History metric id (e.g. "cpu"). */
+    private String metric;
+    /** Aggregated value that triggered the change. */
+    private double value;
+    private double threshold;
+    /** Epoch millis of the tick that triggered the change. */
+    private long timestamp;
+    /** Human-readable condition, e.g. "cpu above 90.0 for 300s". */
+    private String message;
+}
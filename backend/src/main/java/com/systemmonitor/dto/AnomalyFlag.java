@@ -0,0 +1,39 @@
+package com.systemmonitor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * A metric sample that deviates from its learned baseline, carried in {@link SystemStats#getAnomalies()} and
+ * returned by GET /api/anomalies.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnomalyFlag implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Baseline {
+        /** Recent behaviour (exponentially weighted mean and variance). */
+        EWMA,
+        /** Same hour of day on previous days. */
+        SEASONAL
+    }
+
+    /** History metric id (e.g. "diskWrite"). */
+    private String metric;
+    private Baseline baseline;
+    private double value;
+    /** Baseline mean the value was compared with. */
+    private double expected;
+    /** Deviation from the baseline in standard deviations; positive for spikes, negative for drops. */
+    private double zScore;
+    /** Epoch millis of the sample. */
+    private long timestamp;
+}
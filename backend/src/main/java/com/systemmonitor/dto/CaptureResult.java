@@ -0,0 +1,31 @@
+package com.systemmonitor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * A burst capture from GET /api/capture, columnar: sample i was taken {@code offsetsMicros[i]} after
+ * {@code timestamp} and its values are {@code series.get(name)[i]}. Usage series are percent, disk and network
+ * series bytes per second over the preceding interval.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CaptureResult {
+    /** Epoch millis of the baseline read the first sample is measured from. */
+    private long timestamp;
+    private int intervalMs;
+    /** Samples taken; fewer than requested if the capture was cut short. */
+    private int samples;
+    /** Times the sampler woke more than a whole interval late and skipped ahead instead of catching up. */
+    private int missed;
+    /** Actual time of each sample since {@link #timestamp}, in microseconds. */
+    private int[] offsetsMicros;
+    /** Keyed by series name (cpu, memory, disk.read, disk.write, network.rx, network.tx). */
+    private Map<String, double[]> series;
+}
@@ -0,0 +1,28 @@
+package com.systemmonitor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One metric's history over a time range for GET /api/history.
+ * Arrays are parallel: point i is (timestamps[i], min[i], max[i], avg[i], p95[i]).
+ * For raw 1 s samples all four values are the sample itself.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistorySeries {
+    /** Metric id (e.g. "cpu", "netDown"). */
+    private String metric;
+    /** Resolution of the tier that served the query, in milliseconds. */
+    private long stepMs;
+    /** Point timestamps (epoch millis; bucket start for rollups). */
+    private long[] timestamps;
+    private double[] min;
+    private double[] max;
+    private double[] avg;
+    private double[] p95;
+}
@@ -0,0 +1,32 @@
+package com.systemmonitor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One agent's headline numbers, as listed on /topic/fleet and by GET /api/hosts. Usage fields are NaN-free:
+ * 0 until the first stats arrive.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HostSummary {
+
+    private String hostId;
+    /** Remote address of the current (or last) connection. */
+    private String address;
+    private boolean connected;
+    /** Epoch millis of the newest stats received (the agent's clock); 0 if none yet. */
+    private long lastTimestamp;
+    private double cpuUsagePercent;
+    private double memoryUsagePercent;
+    private double diskUsagePercent;
+    private double gpuUsagePercent;
+    private long downloadBytesPerSecond;
+    private long uploadBytesPerSecond;
+    /** Collectors the agent reported stale on its newest tick. */
+    private java.util.List<String> stale;
+}
@@ -0,0 +1,51 @@
+package com.systemmonitor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GET /api/diagnostics/pipeline: every stats.* meter, timers in milliseconds. Timer percentiles and max cover
+ * roughly the last two minutes; counts are since startup.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PipelineSummary {
+
+    private List<TimerSummary> timers;
+    private List<ValueSummary> counters;
+    private List<ValueSummary> gauges;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TimerSummary {
+        /** Meter name, e.g. "stats.collector.duration". */
+        private String name;
+        /** Meter tags, e.g. {"collector": "gpu"}. */
+        private Map<String, String> tags;
+        private long count;
+        private double meanMs;
+        private double maxMs;
+        private double p50Ms;
+        private double p95Ms;
+        private double p99Ms;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ValueSummary {
+        private String name;
+        private Map<String, String> tags;
+        private double value;
+    }
+}
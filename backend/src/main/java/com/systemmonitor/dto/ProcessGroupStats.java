@@ -0,0 +1,33 @@
+package com.systemmonitor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resource usage rolled up over a group of processes (one cgroup, user or process tree) for the process groups API.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessGroupStats {
+    /** Cgroup path, user name, or "name (pid)" of the tree's top-level process. */
+    private String key;
+    /** Short container ID when the cgroup belongs to a container; null otherwise. */
+    private String containerId;
+    private int processCount;
+    /** Summed CPU usage, 0-100 of the whole machine, over the last sampling interval. */
+    private double cpuPercent;
+    /** Summed resident memory in bytes. */
+    private long memoryBytes;
+    /** Summed resident memory growth in bytes per second (negative when shrinking). */
+    private long memoryGrowthBytesPerSecond;
+    private long diskReadBytesPerSecond;
+    private long diskWriteBytesPerSecond;
+    /** The group's top processes by the requested sort. */
+    private List<ProcessInfo> topProcesses;
+}
@@ -15,12 +15,18 @@ import lombok.NoArgsConstructor;
 public class ProcessInfo {
     private int pid;
     private String name;
-    /** CPU usage 0-100 (best effort; may be 0 on some platforms). */
+    /** CPU usage 0-100 of the whole machine over the last sampling interval (0 when first seen). */
     private double cpuPercent;
     /** Resident memory in bytes. */
     private long memoryBytes;
-    /** Optional: disk read bytes (if available). */
+    /** Resident memory growth in bytes per second over the last interval (negative when shrinking). */
+    private long memoryGrowthBytesPerSecond;
+    /** Optional: disk read bytes since the process started (if available). */
     private long diskReadBytes;
-    /** Optional: disk write bytes (if available). */
+    /** Optional: disk write bytes since the process started (if available). */
     private long diskWriteBytes;
+    /** Disk read bytes per second over the last interval. */
+    private long diskReadBytesPerSecond;
+    /** Disk write bytes per second over the last interval. */
+    private long diskWriteBytesPerSecond;
 }
@@ -0,0 +1,28 @@
+package com.systemmonitor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One update of the live top-processes stream (/topic/processes/{sort}). A keyframe carries every row; otherwise
+ * only rows that entered the list or changed are sent, plus the PIDs that left. {@code order} is always the full
+ * list of PIDs in rank order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessListFrame {
+    private String sort;
+    /** True if {@code upserts} is the whole list and client state should be replaced. */
+    private boolean keyframe;
+    private List<Integer> order;
+    /** Rows that entered or changed since the previous frame (all rows on a keyframe). */
+    private List<ProcessInfo> upserts;
+    /** PIDs that left the list since the previous frame. */
+    private List<Integer> removed;
+}
@@ -39,6 +39,12 @@ public class SystemStats implements Serializable {
     /** Network upload/download statistics. */
     private NetworkStats network;
 
+    /** Collectors that missed the tick deadline or failed; their sections hold the last good value. */
+    private java.util.List<String> stale;
+
+    /** Metrics flagged as anomalous on this tick (see GET /api/anomalies); empty if none. */
+    private java.util.List<AnomalyFlag> anomalies;
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -53,6 +59,10 @@ public class SystemStats implements Serializable {
         private int logicalProcessorCount;
         /** CPU temperature in °C; null if unavailable. */
         private Double temperatureCelsius;
+        /** Usage percentage (0-100) per logical processor, as a packed array; null if unavailable. */
+        private double[] coreUsagePercent;
+        /** Current frequency in MHz per logical processor (0 if unknown); null if unavailable. */
+        private int[] coreFrequencyMhz;
     }
 
     @Data
@@ -87,6 +97,8 @@ public class SystemStats implements Serializable {
         private long vramTotalBytes;
         /** GPU temperature in °C; null if unavailable (OSHI does not provide this on all platforms). */
         private Double temperatureCelsius;
+        /** Board power draw in watts (nvidia-smi); null if unavailable. */
+        private Double powerWatts;
     }
 
     @Data
@@ -105,6 +117,52 @@ public class SystemStats implements Serializable {
         private long usedBytes;
         /** Usage percentage (0-100). */
         private double usagePercent;
+        /** Per whole-disk I/O breakdown; null if not reported. */
+        private java.util.List<DiskDeviceStats> devices;
+        /** Per mounted filesystem space breakdown; null if not reported. */
+        private java.util.List<MountStats> mounts;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DiskDeviceStats implements Serializable {
+        private static final long serialVersionUID = 1L;
+        /** Device name (e.g. "sda", "nvme0n1"). */
+        private String name;
+        /** Read speed in bytes per second (since last sample). */
+        private long readBytesPerSecond;
+        /** Write speed in bytes per second (since last sample). */
+        private long writeBytesPerSecond;
+        /** Completed reads per second. */
+        private double readIops;
+        /** Completed writes per second. */
+        private double writeIops;
+        /** Average time per completed I/O in ms, queueing included (iostat await). */
+        private double avgServiceTimeMs;
+        /** Average number of I/Os in flight over the interval (instantaneous where only that is available). */
+        private double queueLength;
+        /** Share of the interval the device was busy (0-100). */
+        private double busyPercent;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MountStats implements Serializable {
+        private static final long serialVersionUID = 1L;
+        /** Mount point (e.g. "/" or "C:\"). */
+        private String mountPoint;
+        /** Backing device or volume. */
+        private String device;
+        /** Total space in bytes. */
+        private long totalBytes;
+        /** Used space in bytes. */
+        private long usedBytes;
+        /** Usage percentage (0-100). */
+        private double usagePercent;
     }
 
     @Data
@@ -121,5 +179,33 @@ public class SystemStats implements Serializable {
         private long totalBytesReceived;
         /** Total bytes sent (cumulative). */
         private long totalBytesSent;
+        /** Per-interface breakdown of the interfaces counted above; null if not reported. */
+        private java.util.List<NetworkInterfaceStats> interfaces;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class NetworkInterfaceStats implements Serializable {
+        private static final long serialVersionUID = 1L;
+        /** Interface name (e.g. "eth0"). */
+        private String name;
+        /** Download speed in bytes per second (since last sample). */
+        private long downloadBytesPerSecond;
+        /** Upload speed in bytes per second (since last sample). */
+        private long uploadBytesPerSecond;
+        /** Packets received per second. */
+        private double downloadPacketsPerSecond;
+        /** Packets sent per second. */
+        private double uploadPacketsPerSecond;
+        /** Receive plus transmit errors per second. */
+        private double errorsPerSecond;
+        /** Receive plus transmit drops per second. */
+        private double dropsPerSecond;
+        /** Negotiated link speed in bits per second; 0 if unknown (virtual interface, link down). */
+        private long linkSpeedBitsPerSecond;
+        /** Busier direction's throughput as a share of the link speed (0-100); 0 if the speed is unknown. */
+        private double utilizationPercent;
     }
 }
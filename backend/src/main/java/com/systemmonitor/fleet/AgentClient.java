@@ -0,0 +1,178 @@
+package com.systemmonitor.fleet;
+
+import com.systemmonitor.dto.SystemStats;
+import com.systemmonitor.scheduler.StatsListener;
+import com.systemmonitor.websocket.StatsDeltaEncoder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agent mode: streams every local tick to the aggregator at app.agent.aggregator (host:port) as delta frames,
+ * batched every app.agent.batch-interval-ms (see {@link FleetProtocol}), authenticating with app.agent.token. The tick thread only encodes and
+ * enqueues; a sender thread owns the socket, reconnecting with backoff. Ticks that arrive while the aggregator is
+ * unreachable, or that overflow the queue, are dropped and the next frame is a keyframe, so the aggregator's
+ * history has a gap rather than garbage.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.mode", havingValue = "agent")
+public class AgentClient implements StatsListener {
+
+    private static final int CONNECT_TIMEOUT_MS = 5000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    /** Frames per BATCH message at most (the count is a u16). */
+    private static final int MAX_BATCH = 600;
+
+    private final String aggregatorHost;
+    private final int aggregatorPort;
+    private final String hostId;
+    private final String token;
+    private final long batchIntervalMs;
+    private final StatsDeltaEncoder encoder;
+    private final BlockingQueue<byte[]> queue;
+    private Thread thread;
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Socket socket;
+
+    public AgentClient(@Value("${app.agent.aggregator:localhost:7070}") String aggregator,
+                       @Value("${app.agent.host-id:}") String hostId,
+                       @Value("${app.agent.token:}") String token,
+                       @Value("${app.agent.batch-interval-ms:2000}") long batchIntervalMs,
+                       @Value("${app.agent.queue-capacity:120}") int queueCapacity,
+                       @Value("${app.websocket.delta.keyframe-interval:30}") int keyframeInterval) {
+        int colon = aggregator.lastIndexOf(':');
+        if (colon <= 0) throw new IllegalArgumentException("app.agent.aggregator must be host:port, got " + aggregator);
+        this.aggregatorHost = aggregator.substring(0, colon);
+        this.aggregatorPort = Integer.parseInt(aggregator.substring(colon + 1));
+        this.hostId = hostId == null || hostId.isBlank() ? localHostName() : hostId.trim();
+        this.token = token == null ? "" : token;
+        this.batchIntervalMs = Math.max(0, batchIntervalMs);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.encoder = new StatsDeltaEncoder(keyframeInterval);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "agent-sender");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Agent {} streaming to {}:{}", hostId, aggregatorHost, aggregatorPort);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        closeSocket();
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public String hostId() {
+        return hostId;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /** Encodes the tick and queues it for the sender. Tick thread; never blocks. */
+    @Override
+    public void onStats(SystemStats stats) {
+        if (!connected) return;
+        if (!queue.offer(encoder.encode(stats))) {
+            // The dropped frame breaks the delta chain; restart it.
+            encoder.requestKeyframe();
+        }
+    }
+
+    private void run() {
+        long backoffMs = 1000;
+        while (running) {
+            try (Socket s = new Socket()) {
+                s.setTcpNoDelay(true);
+                s.connect(new InetSocketAddress(aggregatorHost, aggregatorPort), CONNECT_TIMEOUT_MS);
+                socket = s;
+                OutputStream out = s.getOutputStream();
+                out.write(FleetProtocol.hello(hostId, token));
+                out.flush();
+                queue.clear();
+                encoder.requestKeyframe();
+                connected = true;
+                log.info("Connected to aggregator {}:{}", aggregatorHost, aggregatorPort);
+                backoffMs = 1000;
+                send(out);
+            } catch (IOException e) {
+                if (running) log.warn("Aggregator {}:{} unavailable: {}", aggregatorHost, aggregatorPort, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                connected = false;
+                socket = null;
+            }
+            if (!running) return;
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+        }
+    }
+
+    /** Writes a batch every batchIntervalMs until the connection fails or the agent stops. */
+    private void send(OutputStream out) throws IOException, InterruptedException {
+        List<byte[]> batch = new ArrayList<>();
+        while (running) {
+            byte[] first = queue.poll(1, TimeUnit.SECONDS);
+            if (first == null) continue;
+            Thread.sleep(batchIntervalMs);
+            batch.add(first);
+            queue.drainTo(batch, MAX_BATCH - 1);
+            out.write(FleetProtocol.batch(batch));
+            out.flush();
+            batch.clear();
+        }
+    }
+
+    private void closeSocket() {
+        Socket s = socket;
+        if (s == null) return;
+        try {
+            s.close();
+        } catch (IOException ignored) {
+            // closing anyway
+        }
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "agent";
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.systemmonitor.fleet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Agent → aggregator wire format over one TCP connection. Every message is a big-endian u32 body length followed
+ * by the body:
+ * <pre>
+ * HELLO  u8 1, u8 version, u16 length + UTF-8 host ID,
+ *        u16 length + UTF-8 shared token                    (first message, once)
+ * BATCH  u8 2, u16 count, count × (u32 length + frame)      (frames from StatsDeltaEncoder, oldest first)
+ * </pre>
+ * Frames are the binary delta frames of the /stream/stats delta encoding, one per tick, so a batch of steady
+ * ticks costs a few dozen bytes per tick. The agent starts every connection with a keyframe. The token is
+ * app.agent.token on the agent and must equal app.aggregator.token.
+ */
+final class FleetProtocol {
+
+    static final byte HELLO = 1;
+    static final byte BATCH = 2;
+    static final int VERSION = 3;
+    /** Bodies longer than this are a protocol error. */
+    static final int MAX_BODY = 4 * 1024 * 1024;
+    static final int MAX_HOST_ID = 128;
+    static final int MAX_TOKEN = 256;
+
+    private FleetProtocol() {
+    }
+
+    static byte[] hello(String hostId, String token) {
+        byte[] id = hostId.getBytes(StandardCharsets.UTF_8);
+        byte[] secret = token.getBytes(StandardCharsets.UTF_8);
+        int body = 4 + id.length + 2 + secret.length;
+        ByteBuffer buf = ByteBuffer.allocate(4 + body);
+        buf.putInt(body).put(HELLO).put((byte) VERSION)
+                .putShort((short) id.length).put(id)
+                .putShort((short) secret.length).put(secret);
+        return buf.array();
+    }
+
+    static byte[] batch(List<byte[]> frames) {
+        int body = 3;
+        for (byte[] frame : frames) body += 4 + frame.length;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4 + body);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(body);
+            out.writeByte(BATCH);
+            out.writeShort(frames.size());
+            for (byte[] frame : frames) {
+                out.writeInt(frame.length);
+                out.write(frame);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Reads a HELLO body (after the type byte). */
+    static Hello readHello(ByteBuffer body) {
+        int version = body.get() & 0xFF;
+        if (version != VERSION) throw new IllegalArgumentException("Unsupported protocol version " + version);
+        int length = body.getShort() & 0xFFFF;
+        if (length == 0 || length > MAX_HOST_ID || length > body.remaining()) {
+            throw new IllegalArgumentException("Bad host ID length " + length);
+        }
+        byte[] id = new byte[length];
+        body.get(id);
+        int tokenLength = body.getShort() & 0xFFFF;
+        if (tokenLength > MAX_TOKEN || tokenLength > body.remaining()) {
+            throw new IllegalArgumentException("Bad token length " + tokenLength);
+        }
+        byte[] token = new byte[tokenLength];
+        body.get(token);
+        return new Hello(new String(id, StandardCharsets.UTF_8), token);
+    }
+
+    /** A decoded HELLO: the agent's host ID and the raw UTF-8 token it presented. */
+    record Hello(String hostId, byte[] token) {
+    }
+
+    /** Reads the frames of a BATCH body (after the type byte). */
+    static byte[][] readBatch(ByteBuffer body) {
+        int count = body.getShort() & 0xFFFF;
+        byte[][] frames = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            int length = body.getInt();
+            if (length < 0 || length > body.remaining()) throw new IllegalArgumentException("Bad frame length " + length);
+            frames[i] = new byte[length];
+            body.get(frames[i]);
+        }
+        return frames;
+    }
+}
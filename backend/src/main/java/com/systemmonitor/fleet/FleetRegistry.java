@@ -0,0 +1,190 @@
+package com.systemmonitor.fleet;
+
+import com.systemmonitor.dto.HistorySeries;
+import com.systemmonitor.dto.HostSummary;
+import com.systemmonitor.dto.SystemStats;
+import com.systemmonitor.history.HistoryMetric;
+import com.systemmonitor.history.MetricHistoryStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aggregator-side state of every agent that has connected: the newest {@link SystemStats} and a
+ * {@link MetricHistoryStore#compact() compact} history per host. The newest stats of each ingested batch go out on
+ * {@value #HOST_DESTINATION_PREFIX}{id}/stats; a summary of all hosts goes out on {@value #FLEET_DESTINATION} once
+ * per second. Hosts stay listed (as disconnected) after their agent goes away, for app.aggregator.host-ttl; when
+ * {@code app.aggregator.max-hosts} are tracked, the longest-disconnected host makes room for a new one.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.mode", havingValue = "aggregator")
+public class FleetRegistry {
+
+    public static final String HOST_DESTINATION_PREFIX = "/topic/hosts/";
+    public static final String FLEET_DESTINATION = "/topic/fleet";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final int maxHosts;
+    private final long hostTtlMillis;
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+
+    public FleetRegistry(SimpMessagingTemplate messagingTemplate,
+                         @Value("${app.aggregator.max-hosts:1000}") int maxHosts,
+                         @Value("${app.aggregator.host-ttl:1h}") Duration hostTtl) {
+        this.messagingTemplate = messagingTemplate;
+        this.maxHosts = Math.max(1, maxHosts);
+        this.hostTtlMillis = Math.max(0, hostTtl.toMillis());
+    }
+
+    /**
+     * Registers {@code connection} as the host's current connection (replacing an older one with the same ID).
+     * Returns false if the host is new, the registry is full and every tracked host is connected.
+     */
+    synchronized boolean connected(String hostId, Object connection, String address) {
+        Host host = hosts.get(hostId);
+        if (host == null) {
+            if (hosts.size() >= maxHosts) {
+                evictExpired(System.currentTimeMillis());
+                if (hosts.size() >= maxHosts && !evictLongestDisconnected()) {
+                    log.warn("Rejecting agent {}: already tracking {} connected hosts", hostId, hosts.size());
+                    return false;
+                }
+            }
+            host = hosts.computeIfAbsent(hostId, Host::new);
+        }
+        host.connection = connection;
+        host.address = address;
+        log.info("Agent {} connected from {}", hostId, address);
+        return true;
+    }
+
+    /** Marks the host disconnected, unless a newer connection has taken over. */
+    synchronized void disconnected(String hostId, Object connection) {
+        Host host = hosts.get(hostId);
+        if (host != null && host.connection == connection) {
+            host.connection = null;
+            host.disconnectedAtMillis = System.currentTimeMillis();
+            log.info("Agent {} disconnected", hostId);
+        }
+    }
+
+    /** Records a batch of one host's ticks, oldest first. Called from the ingest thread. */
+    void ingest(String hostId, List<SystemStats> batch) {
+        Host host = hosts.get(hostId);
+        if (host == null || batch.isEmpty()) return;
+        for (SystemStats stats : batch) {
+            host.history.record(stats);
+        }
+        SystemStats latest = batch.get(batch.size() - 1);
+        host.latest = latest;
+        messagingTemplate.convertAndSend(HOST_DESTINATION_PREFIX + hostId + "/stats", latest);
+    }
+
+    /** Forgets hosts that have been disconnected for longer than the TTL. */
+    synchronized void evictExpired(long nowMillis) {
+        hosts.values().removeIf(h -> {
+            boolean expired = h.connection == null && nowMillis - h.disconnectedAtMillis > hostTtlMillis;
+            if (expired) log.info("Forgetting agent {}: disconnected for over {} s", h.id, hostTtlMillis / 1000);
+            return expired;
+        });
+    }
+
+    private boolean evictLongestDisconnected() {
+        Host oldest = null;
+        for (Host h : hosts.values()) {
+            if (h.connection == null && (oldest == null || h.disconnectedAtMillis < oldest.disconnectedAtMillis)) oldest = h;
+        }
+        if (oldest == null) return false;
+        hosts.remove(oldest.id);
+        log.info("Forgetting agent {} to make room for a new host", oldest.id);
+        return true;
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void publishFleet() {
+        evictExpired(System.currentTimeMillis());
+        if (hosts.isEmpty()) return;
+        try {
+            messagingTemplate.convertAndSend(FLEET_DESTINATION, summaries());
+        } catch (Exception e) {
+            log.warn("Failed to send fleet summary: {}", e.getMessage());
+        }
+    }
+
+    /** Every known host, by ID. */
+    public List<HostSummary> summaries() {
+        List<HostSummary> list = new ArrayList<>(hosts.size());
+        for (Host host : hosts.values()) {
+            list.add(summary(host));
+        }
+        list.sort(Comparator.comparing(HostSummary::getHostId));
+        return list;
+    }
+
+    /** Newest stats of a host, or null if unknown or nothing received yet. */
+    public SystemStats latest(String hostId) {
+        Host host = hosts.get(hostId);
+        return host != null ? host.latest : null;
+    }
+
+    /** Newest stats of every host that has sent any, by host ID. */
+    public Map<String, SystemStats> latestByHost() {
+        Map<String, SystemStats> map = new TreeMap<>();
+        for (Host host : hosts.values()) {
+            SystemStats s = host.latest;
+            if (s != null) map.put(host.id, s);
+        }
+        return map;
+    }
+
+    /** History of one host (see {@link MetricHistoryStore#query}), or null if the host is unknown. */
+    public HistorySeries history(String hostId, HistoryMetric metric, long from, long to, long stepMs) {
+        Host host = hosts.get(hostId);
+        return host != null ? host.history.query(metric, from, to, stepMs) : null;
+    }
+
+    private static HostSummary summary(Host host) {
+        SystemStats s = host.latest;
+        HostSummary.HostSummaryBuilder b = HostSummary.builder()
+                .hostId(host.id)
+                .address(host.address)
+                .connected(host.connection != null);
+        if (s != null) {
+            b.lastTimestamp(s.getTimestamp())
+                    .cpuUsagePercent(s.getCpu() != null ? s.getCpu().getUsagePercent() : 0)
+                    .memoryUsagePercent(s.getMemory() != null ? s.getMemory().getUsagePercent() : 0)
+                    .diskUsagePercent(s.getDisk() != null ? s.getDisk().getUsagePercent() : 0)
+                    .gpuUsagePercent(s.getGpu() != null ? s.getGpu().getUsagePercent() : 0)
+                    .downloadBytesPerSecond(s.getNetwork() != null ? s.getNetwork().getDownloadBytesPerSecond() : 0)
+                    .uploadBytesPerSecond(s.getNetwork() != null ? s.getNetwork().getUploadBytesPerSecond() : 0)
+                    .stale(s.getStale());
+        }
+        return b.build();
+    }
+
+    private static final class Host {
+        final String id;
+        final MetricHistoryStore history = MetricHistoryStore.compact();
+        volatile Object connection;
+        volatile String address;
+        volatile SystemStats latest;
+        /** When the last connection went away; meaningful only while {@link #connection} is null. */
+        volatile long disconnectedAtMillis;
+
+        Host(String id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.systemmonitor.fleet;
+
+import com.systemmonitor.dto.SystemStats;
+import com.systemmonitor.websocket.StatsDeltaDecoder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregator ingest endpoint: one non-blocking TCP listener (app.aggregator.bind / port) served by a single
+ * selector thread, speaking {@link FleetProtocol}. Each connection gets its own {@link StatsDeltaDecoder}; decoded
+ * batches go to the {@link FleetRegistry}. A connection that breaks the protocol is closed (the agent reconnects
+ * and starts over with a keyframe). The listener binds to loopback unless app.aggregator.bind says otherwise; a
+ * HELLO must carry app.aggregator.token, which is required once the listener is reachable from other machines.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.mode", havingValue = "aggregator")
+public class FleetServer {
+
+    /** Host IDs end up in STOMP destinations, so they are kept to a safe character set. */
+    private static final Pattern HOST_ID = Pattern.compile("[A-Za-z0-9._-]+");
+    private static final int INITIAL_BUFFER = 16 * 1024;
+
+    private final FleetRegistry registry;
+    private final String bindAddress;
+    private final byte[] token;
+    private final int port;
+    private Selector selector;
+    private ServerSocketChannel server;
+    private Thread thread;
+    private volatile boolean running;
+
+    @Autowired
+    public FleetServer(FleetRegistry registry,
+                       @Value("${app.aggregator.bind:127.0.0.1}") String bindAddress,
+                       @Value("${app.aggregator.port:7070}") int port,
+                       @Value("${app.aggregator.token:}") String token) {
+        this.registry = registry;
+        this.bindAddress = bindAddress;
+        this.port = port;
+        this.token = (token == null ? "" : token).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (token.length == 0 && !isLoopback(bindAddress)) {
+            throw new IllegalStateException("app.aggregator.token must be set to accept agents on " + bindAddress);
+        }
+        try {
+            selector = Selector.open();
+            server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(bindAddress, port));
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot listen for agents on " + bindAddress + ":" + port, e);
+        }
+        running = true;
+        thread = new Thread(this::run, "fleet-server");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Listening for agents on {}", server.socket().getLocalSocketAddress());
+    }
+
+    /** Port actually bound (differs from the configured one when that is 0). */
+    public int port() {
+        return server.socket().getLocalPort();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (selector != null) {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection c) close(c);
+            }
+            try {
+                selector.close();
+                server.close();
+            } catch (IOException ignored) {
+                // shutting down
+            }
+        }
+        if (thread != null) {
+            try {
+                thread.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) accept();
+                    else if (key.isReadable()) read((Connection) key.attachment());
+                }
+            } catch (ClosedSelectorException e) {
+                return;
+            } catch (IOException e) {
+                if (running) log.warn("Agent listener error: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) return;
+        channel.configureBlocking(false);
+        Connection c = new Connection(channel, String.valueOf(channel.getRemoteAddress()));
+        channel.register(selector, SelectionKey.OP_READ, c);
+    }
+
+    private void read(Connection c) {
+        try {
+            if (!c.in.hasRemaining()) c.in = grow(c.in);
+            if (c.channel.read(c.in) < 0) {
+                close(c);
+                return;
+            }
+            c.in.flip();
+            while (c.in.remaining() >= 4) {
+                int length = c.in.getInt(c.in.position());
+                if (length <= 0 || length > FleetProtocol.MAX_BODY) throw new IllegalArgumentException("Bad message length " + length);
+                if (c.in.remaining() < 4 + length) {
+                    if (c.in.capacity() < 4 + length) {
+                        c.in.compact();
+                        c.in = grow(c.in, 4 + length);
+                        c.in.flip();
+                    }
+                    break;
+                }
+                c.in.position(c.in.position() + 4);
+                ByteBuffer body = c.in.slice(c.in.position(), length);
+                c.in.position(c.in.position() + length);
+                handle(c, body);
+            }
+            c.in.compact();
+        } catch (IOException | RuntimeException e) {
+            log.debug("Closing agent connection {}: {}", c.address, e.toString());
+            close(c);
+        }
+    }
+
+    private void handle(Connection c, ByteBuffer body) {
+        byte type = body.get();
+        if (c.hostId == null) {
+            if (type != FleetProtocol.HELLO) throw new IllegalArgumentException("Expected HELLO");
+            FleetProtocol.Hello hello = FleetProtocol.readHello(body);
+            String hostId = hello.hostId();
+            if (!MessageDigest.isEqual(token, hello.token())) {
+                log.warn("Rejecting agent {} from {}: bad token", hostId, c.address);
+                throw new IllegalArgumentException("Bad token");
+            }
+            if (!HOST_ID.matcher(hostId).matches()) throw new IllegalArgumentException("Bad host ID " + hostId);
+            if (!registry.connected(hostId, c, c.address)) throw new IllegalArgumentException("Registry full");
+            c.hostId = hostId;
+            return;
+        }
+        if (type != FleetProtocol.BATCH) throw new IllegalArgumentException("Unexpected message type " + type);
+        byte[][] frames = FleetProtocol.readBatch(body);
+        List<SystemStats> batch = new ArrayList<>(frames.length);
+        for (byte[] frame : frames) {
+            SystemStats stats = c.decoder.decode(frame);
+            if (stats != null) batch.add(stats);
+        }
+        registry.ingest(c.hostId, batch);
+    }
+
+    private void close(Connection c) {
+        try {
+            c.channel.close();
+        } catch (IOException ignored) {
+            // already gone
+        }
+        if (c.hostId != null) registry.disconnected(c.hostId, c);
+    }
+
+    private static boolean isLoopback(String address) {
+        try {
+            return InetAddress.getByName(address).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buf) {
+        return grow(buf, buf.capacity() * 2);
+    }
+
+    /** Copies {@code buf} (in write mode) into a buffer of at least {@code capacity}. */
+    private static ByteBuffer grow(ByteBuffer buf, int capacity) {
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(capacity, buf.capacity() * 2));
+        buf.flip();
+        bigger.put(buf);
+        return bigger;
+    }
+
+    private static final class Connection {
+        final SocketChannel channel;
+        final String address;
+        final StatsDeltaDecoder decoder = new StatsDeltaDecoder();
+        ByteBuffer in = ByteBuffer.allocate(INITIAL_BUFFER);
+        String hostId;
+
+        Connection(SocketChannel channel, String address) {
+            this.channel = channel;
+            this.address = address;
+        }
+    }
+}
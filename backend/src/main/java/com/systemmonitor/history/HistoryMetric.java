@@ -0,0 +1,69 @@
+package com.systemmonitor.history;
+
+import com.systemmonitor.dto.SystemStats;
+
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Numeric {@link SystemStats} fields kept in the history store. The id is the value of the
+ * {@code metric} query parameter on /api/history. Missing values (e.g. no temperature sensor) are NaN.
+ */
+public enum HistoryMetric {
+
+    CPU_USAGE("cpu", s -> s.getCpu() != null ? s.getCpu().getUsagePercent() : Double.NaN),
+    CPU_TEMPERATURE("cpuTemp", s -> s.getCpu() != null ? orNaN(s.getCpu().getTemperatureCelsius()) : Double.NaN),
+    MEMORY_USAGE("memory", s -> s.getMemory() != null ? s.getMemory().getUsagePercent() : Double.NaN),
+    MEMORY_USED("memoryUsed", s -> s.getMemory() != null ? s.getMemory().getUsedBytes() : Double.NaN),
+    GPU_USAGE("gpu", s -> s.getGpu() != null ? s.getGpu().getUsagePercent() : Double.NaN),
+    GPU_TEMPERATURE("gpuTemp", s -> s.getGpu() != null ? orNaN(s.getGpu().getTemperatureCelsius()) : Double.NaN),
+    DISK_USAGE("disk", s -> s.getDisk() != null ? s.getDisk().getUsagePercent() : Double.NaN),
+    DISK_READ("diskRead", s -> s.getDisk() != null ? s.getDisk().getReadBytesPerSecond() : Double.NaN),
+    DISK_WRITE("diskWrite", s -> s.getDisk() != null ? s.getDisk().getWriteBytesPerSecond() : Double.NaN),
+    NETWORK_DOWNLOAD("netDown", s -> s.getNetwork() != null ? s.getNetwork().getDownloadBytesPerSecond() : Double.NaN),
+    NETWORK_UPLOAD("netUp", s -> s.getNetwork() != null ? s.getNetwork().getUploadBytesPerSecond() : Double.NaN);
+
+    private static final HistoryMetric[] VALUES = values();
+
+    private final String id;
+    private final ToDoubleFunction<SystemStats> extractor;
+
+    HistoryMetric(String id, ToDoubleFunction<SystemStats> extractor) {
+        this.id = id;
+        this.extractor = extractor;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public double extract(SystemStats stats) {
+        return extractor.applyAsDouble(stats);
+    }
+
+    /** Number of metrics; the width of one history row. */
+    public static int count() {
+        return VALUES.length;
+    }
+
+    /** Resolves a query parameter (id or enum name, case-insensitive); null if unknown. */
+    public static HistoryMetric fromId(String id) {
+        if (id == null) return null;
+        String trimmed = id.trim();
+        for (HistoryMetric m : VALUES) {
+            if (m.id.equalsIgnoreCase(trimmed) || m.name().equals(trimmed.toUpperCase(Locale.ROOT))) return m;
+        }
+        return null;
+    }
+
+    /** Writes every metric of {@code stats} into {@code row} (length {@link #count()}), indexed by ordinal. */
+    public static void extractAll(SystemStats stats, double[] row) {
+        for (HistoryMetric m : VALUES) {
+            row[m.ordinal()] = m.extract(stats);
+        }
+    }
+
+    private static double orNaN(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+}
@@ -0,0 +1,157 @@
+package com.systemmonitor.history;
+
+import com.systemmonitor.dto.HistorySeries;
+import com.systemmonitor.dto.SystemStats;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * In-memory metric history fed by the stats scheduler. Raw 1 s samples go into a ring covering the last hour;
+ * each sample is also rolled up into 10 s (24 h), 1 min (7 days) and 1 h (90 days) tiers with min/max/avg/p95.
+ * All storage is preallocated primitive arrays, so memory is fixed no matter how long the process runs.
+ */
+@Component
+public class MetricHistoryStore {
+
+    static final long RAW_STEP_MS = 1000;
+    private static final int RAW_CAPACITY = 3600;
+
+    private final int metrics = HistoryMetric.count();
+    private final RawTier raw;
+    /** Ordered finest to coarsest. */
+    private final RollupTier[] rollups;
+    private final double[] row = new double[metrics];
+
+    public MetricHistoryStore() {
+        this.raw = new RawTier(RAW_CAPACITY, metrics);
+        this.rollups = new RollupTier[]{
+                new RollupTier(10_000, 8640, metrics, 20),
+                new RollupTier(60_000, 10_080, metrics, 120),
+                new RollupTier(3_600_000, 2160, metrics, 7200),
+        };
+    }
+
+    private MetricHistoryStore(int rawCapacity, RollupTier... rollups) {
+        this.raw = new RawTier(rawCapacity, metrics);
+        this.rollups = rollups;
+    }
+
+    /**
+     * A smaller store for one remote host of the fleet aggregator: 10 min raw and 1 min for 24 h (about 0.6 MB
+     * instead of about 8).
+     */
+    public static MetricHistoryStore compact() {
+        return new MetricHistoryStore(600, new RollupTier(60_000, 1440, HistoryMetric.count(), 120));
+    }
+
+    /** Records one tick. Called from the scheduler thread. */
+    public synchronized void record(SystemStats stats) {
+        HistoryMetric.extractAll(stats, row);
+        recordRow(stats.getTimestamp(), row);
+    }
+
+    /** Records one row of values indexed by {@link HistoryMetric#ordinal()} (e.g. replayed from disk). */
+    public synchronized void record(long timestamp, double[] values) {
+        recordRow(timestamp, values);
+    }
+
+    private void recordRow(long timestamp, double[] values) {
+        raw.add(timestamp, values);
+        for (RollupTier tier : rollups) {
+            tier.add(timestamp, values);
+        }
+    }
+
+    /** Oldest raw sample still held in memory, or Long.MAX_VALUE if none. */
+    public synchronized long rawOldest() {
+        return raw.oldest();
+    }
+
+    /**
+     * Returns the points of {@code metric} within [from, to]. Uses the coarsest tier whose step does not exceed
+     * {@code stepMs}; if that tier no longer covers {@code from}, moves to a coarser tier, but only while it reaches
+     * at least one of its buckets further back (so a young store keeps its fine resolution). Rollup results include
+     * the bucket still being filled.
+     */
+    public synchronized HistorySeries query(HistoryMetric metric, long from, long to, long stepMs) {
+        int tier = -1;
+        for (int i = 0; i < rollups.length; i++) {
+            if (rollups[i].stepMs() <= stepMs) tier = i;
+        }
+        long oldest = tier < 0 ? raw.oldest() : rollups[tier].oldest();
+        while (from < oldest && tier + 1 < rollups.length) {
+            RollupTier coarser = rollups[tier + 1];
+            long coarserOldest = coarser.oldest();
+            if (coarserOldest == Long.MAX_VALUE || coarserOldest + coarser.stepMs() > oldest) break;
+            tier++;
+            oldest = coarserOldest;
+        }
+        return tier < 0 ? queryRaw(metric, from, to) : queryRollup(rollups[tier], metric, from, to);
+    }
+
+    private HistorySeries queryRaw(HistoryMetric metric, long from, long to) {
+        int m = metric.ordinal();
+        int n = raw.size();
+        long[] ts = new long[n];
+        double[] values = new double[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            long t = raw.timestampAt(i);
+            double v = raw.valueAt(i, m);
+            if (t < from || t > to || Double.isNaN(v)) continue;
+            ts[count] = t;
+            values[count] = v;
+            count++;
+        }
+        double[] trimmed = Arrays.copyOf(values, count);
+        return HistorySeries.builder()
+                .metric(metric.id())
+                .stepMs(RAW_STEP_MS)
+                .timestamps(Arrays.copyOf(ts, count))
+                .min(trimmed)
+                .max(trimmed)
+                .avg(trimmed)
+                .p95(trimmed)
+                .build();
+    }
+
+    private static HistorySeries queryRollup(RollupTier tier, HistoryMetric metric, long from, long to) {
+        int m = metric.ordinal();
+        int n = tier.size();
+        long[] ts = new long[n + 1];
+        double[] min = new double[n + 1];
+        double[] max = new double[n + 1];
+        double[] avg = new double[n + 1];
+        double[] p95 = new double[n + 1];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            long t = tier.bucketStartAt(i);
+            if (t + tier.stepMs() <= from || t > to || Double.isNaN(tier.avgAt(i, m))) continue;
+            ts[count] = t;
+            min[count] = tier.minAt(i, m);
+            max[count] = tier.maxAt(i, m);
+            avg[count] = tier.avgAt(i, m);
+            p95[count] = tier.p95At(i, m);
+            count++;
+        }
+        long open = tier.openBucketStart();
+        if (tier.hasOpenBucket() && tier.openCount(m) > 0 && open + tier.stepMs() > from && open <= to) {
+            ts[count] = open;
+            min[count] = tier.openMin(m);
+            max[count] = tier.openMax(m);
+            avg[count] = tier.openAvg(m);
+            p95[count] = tier.openP95(m);
+            count++;
+        }
+        return HistorySeries.builder()
+                .metric(metric.id())
+                .stepMs(tier.stepMs())
+                .timestamps(Arrays.copyOf(ts, count))
+                .min(Arrays.copyOf(min, count))
+                .max(Arrays.copyOf(max, count))
+                .avg(Arrays.copyOf(avg, count))
+                .p95(Arrays.copyOf(p95, count))
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.systemmonitor.history;
+
+/**
+ * Fixed-capacity ring of raw samples: one timestamp and one value per metric per row, stored in
+ * preallocated primitive arrays (values are row-major, {@code row * metrics + metric}).
+ * Not thread-safe; guarded by {@link MetricHistoryStore}.
+ */
+final class RawTier {
+
+    private final int capacity;
+    private final int metrics;
+    private final long[] timestamps;
+    private final double[] values;
+    private int next;
+    private int size;
+
+    RawTier(int capacity, int metrics) {
+        this.capacity = capacity;
+        this.metrics = metrics;
+        this.timestamps = new long[capacity];
+        this.values = new double[capacity * metrics];
+    }
+
+    void add(long timestamp, double[] row) {
+        timestamps[next] = timestamp;
+        System.arraycopy(row, 0, values, next * metrics, metrics);
+        next = (next + 1) % capacity;
+        if (size < capacity) size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Timestamp of the i-th retained row, oldest first. */
+    long timestampAt(int i) {
+        return timestamps[slot(i)];
+    }
+
+    /** Value of {@code metric} in the i-th retained row, oldest first. */
+    double valueAt(int i, int metric) {
+        return values[slot(i) * metrics + metric];
+    }
+
+    /** Oldest retained timestamp, or Long.MAX_VALUE if empty. */
+    long oldest() {
+        return size > 0 ? timestampAt(0) : Long.MAX_VALUE;
+    }
+
+    private int slot(int i) {
+        return (next - size + i + capacity) % capacity;
+    }
+}
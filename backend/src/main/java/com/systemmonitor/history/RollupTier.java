@@ -0,0 +1,173 @@
+package com.systemmonitor.history;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-capacity ring of downsampled buckets (min/max/avg/p95 per metric) plus the accumulator for
+ * the bucket currently being filled. Buckets are aligned to multiples of {@code stepMs}. The accumulator
+ * keeps the bucket's raw samples in a preallocated scratch array so p95 is exact; if more samples than
+ * expected arrive in one bucket, min/max/avg still see all of them and p95 uses the first {@code sampleCap}.
+ * NaN samples (missing sensor) are ignored; a bucket with no valid sample stores NaN.
+ * Not thread-safe; guarded by {@link MetricHistoryStore}.
+ */
+final class RollupTier {
+
+    private final long stepMs;
+    private final int capacity;
+    private final int metrics;
+    private final long[] bucketStarts;
+    private final double[] min;
+    private final double[] max;
+    private final double[] avg;
+    private final double[] p95;
+    private int next;
+    private int size;
+
+    private final int sampleCap;
+    private final double[] samples;
+    private final int[] sampleCounts;
+    private final double[] accMin;
+    private final double[] accMax;
+    private final double[] accSum;
+    private final int[] accCounts;
+    private long currentStart = -1;
+
+    RollupTier(long stepMs, int capacity, int metrics, int expectedSamplesPerBucket) {
+        this.stepMs = stepMs;
+        this.capacity = capacity;
+        this.metrics = metrics;
+        this.bucketStarts = new long[capacity];
+        this.min = new double[capacity * metrics];
+        this.max = new double[capacity * metrics];
+        this.avg = new double[capacity * metrics];
+        this.p95 = new double[capacity * metrics];
+        this.sampleCap = expectedSamplesPerBucket;
+        this.samples = new double[metrics * sampleCap];
+        this.sampleCounts = new int[metrics];
+        this.accMin = new double[metrics];
+        this.accMax = new double[metrics];
+        this.accSum = new double[metrics];
+        this.accCounts = new int[metrics];
+    }
+
+    long stepMs() {
+        return stepMs;
+    }
+
+    void add(long timestamp, double[] row) {
+        long bucket = timestamp - Math.floorMod(timestamp, stepMs);
+        if (bucket != currentStart) {
+            if (currentStart >= 0) flush();
+            currentStart = bucket;
+        }
+        for (int m = 0; m < metrics; m++) {
+            double v = row[m];
+            if (Double.isNaN(v)) continue;
+            if (accCounts[m] == 0 || v < accMin[m]) accMin[m] = v;
+            if (accCounts[m] == 0 || v > accMax[m]) accMax[m] = v;
+            accSum[m] += v;
+            accCounts[m]++;
+            if (sampleCounts[m] < sampleCap) {
+                samples[m * sampleCap + sampleCounts[m]++] = v;
+            }
+        }
+    }
+
+    /** Closes the current bucket into the ring. */
+    private void flush() {
+        bucketStarts[next] = currentStart;
+        int base = next * metrics;
+        for (int m = 0; m < metrics; m++) {
+            int n = accCounts[m];
+            if (n == 0) {
+                min[base + m] = Double.NaN;
+                max[base + m] = Double.NaN;
+                avg[base + m] = Double.NaN;
+                p95[base + m] = Double.NaN;
+            } else {
+                min[base + m] = accMin[m];
+                max[base + m] = accMax[m];
+                avg[base + m] = accSum[m] / n;
+                p95[base + m] = percentile95(m);
+            }
+            accSum[m] = 0;
+            accCounts[m] = 0;
+            sampleCounts[m] = 0;
+        }
+        next = (next + 1) % capacity;
+        if (size < capacity) size++;
+    }
+
+    private double percentile95(int metric) {
+        int n = sampleCounts[metric];
+        int from = metric * sampleCap;
+        Arrays.sort(samples, from, from + n);
+        int rank = (int) Math.ceil(0.95 * n) - 1;
+        return samples[from + Math.max(0, rank)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    long bucketStartAt(int i) {
+        return bucketStarts[slot(i)];
+    }
+
+    double minAt(int i, int metric) {
+        return min[slot(i) * metrics + metric];
+    }
+
+    double maxAt(int i, int metric) {
+        return max[slot(i) * metrics + metric];
+    }
+
+    double avgAt(int i, int metric) {
+        return avg[slot(i) * metrics + metric];
+    }
+
+    double p95At(int i, int metric) {
+        return p95[slot(i) * metrics + metric];
+    }
+
+    /** Oldest retained bucket start (the open bucket's if none is closed yet), or Long.MAX_VALUE if empty. */
+    long oldest() {
+        if (size > 0) return bucketStartAt(0);
+        return hasOpenBucket() ? currentStart : Long.MAX_VALUE;
+    }
+
+    /** True once a sample has arrived; the bucket it is filling is not in the ring until the next one starts. */
+    boolean hasOpenBucket() {
+        return currentStart >= 0;
+    }
+
+    long openBucketStart() {
+        return currentStart;
+    }
+
+    /** Samples of {@code metric} so far in the open bucket. */
+    int openCount(int metric) {
+        return accCounts[metric];
+    }
+
+    double openMin(int metric) {
+        return accMin[metric];
+    }
+
+    double openMax(int metric) {
+        return accMax[metric];
+    }
+
+    double openAvg(int metric) {
+        return accSum[metric] / accCounts[metric];
+    }
+
+    /** p95 of the open bucket so far; sorts its scratch samples, which the next flush sorts again anyway. */
+    double openP95(int metric) {
+        return percentile95(metric);
+    }
+
+    private int slot(int i) {
+        return (next - size + i + capacity) % capacity;
+    }
+}
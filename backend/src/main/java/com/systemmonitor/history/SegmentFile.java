@@ -0,0 +1,225 @@
+package com.systemmonitor.history;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One append-only, memory-mapped history segment. The file is preallocated to {@code capacity} fixed-width
+ * records after a 64-byte header:
+ * <pre>
+ * header : magic(int) version(int) metrics(int) recordSize(int) startMillis(long) capacity(int) ...padding
+ * record : timestamp(long) value[metrics](double) checksum(long)
+ * </pre>
+ * Unwritten slots are zero, and timestamps only increase, so after a crash the write position is found by
+ * binary search for the first zero timestamp, then torn records at the tail are dropped by checksum.
+ * A sparse in-memory index (every {@value #INDEX_STRIDE}th timestamp) bounds range reads, which read only the
+ * timestamp and the requested value of each record straight from the mapping.
+ * Not thread-safe; guarded by {@link SegmentStore}, which reads closed (no longer appended) segments without the lock.
+ */
+final class SegmentFile {
+
+    static final int MAGIC = 0x534D4853; // "SMHS"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int INDEX_STRIDE = 64;
+
+    private final Path path;
+    private final int metrics;
+    private final int recordSize;
+    private final int capacity;
+    private final long startMillis;
+    private final MappedByteBuffer buffer;
+    private final long[] sparseIndex;
+    private int count;
+
+    private SegmentFile(Path path, MappedByteBuffer buffer, int metrics, int capacity, long startMillis) {
+        this.path = path;
+        this.buffer = buffer;
+        this.metrics = metrics;
+        this.recordSize = recordSize(metrics);
+        this.capacity = capacity;
+        this.startMillis = startMillis;
+        this.sparseIndex = new long[(capacity + INDEX_STRIDE - 1) / INDEX_STRIDE];
+    }
+
+    static int recordSize(int metrics) {
+        return 8 + metrics * 8 + 8;
+    }
+
+    /** Creates and preallocates a new segment. */
+    static SegmentFile create(Path path, int metrics, int capacity, long startMillis) throws IOException {
+        long size = HEADER_SIZE + (long) capacity * recordSize(metrics);
+        if (size > Integer.MAX_VALUE) throw new IOException("Segment too large: " + size + " bytes");
+        MappedByteBuffer buffer;
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, metrics);
+        buffer.putInt(12, recordSize(metrics));
+        buffer.putLong(16, startMillis);
+        buffer.putInt(24, capacity);
+        buffer.force();
+        return new SegmentFile(path, buffer, metrics, capacity, startMillis);
+    }
+
+    /**
+     * Opens an existing segment and recovers its write position. Returns null if the header is not a
+     * compatible segment (wrong magic, version or metric count).
+     */
+    static SegmentFile open(Path path, int metrics) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (ch.size() < HEADER_SIZE) return null;
+            buffer = ch.map(FileChannel.MapMode.READ_WRITE, 0, ch.size());
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || buffer.getInt(8) != metrics || buffer.getInt(12) != recordSize(metrics)) {
+            return null;
+        }
+        int capacity = buffer.getInt(24);
+        if ((long) HEADER_SIZE + (long) capacity * recordSize(metrics) > buffer.capacity()) return null;
+        SegmentFile segment = new SegmentFile(path, buffer, metrics, capacity, buffer.getLong(16));
+        segment.recover();
+        return segment;
+    }
+
+    /** Binary search for the first empty slot, then drop torn records at the tail. */
+    private void recover() {
+        int lo = 0;
+        int hi = capacity;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timestampAt(mid) != 0) lo = mid + 1;
+            else hi = mid;
+        }
+        int n = lo;
+        while (n > 0 && !checksumValid(n - 1)) {
+            n--;
+        }
+        // Clear any torn tail so the next append and future recoveries see a clean boundary
+        for (int i = n; i < lo; i++) {
+            buffer.putLong(offset(i), 0L);
+        }
+        count = n;
+        for (int i = 0; i < count; i += INDEX_STRIDE) {
+            sparseIndex[i / INDEX_STRIDE] = timestampAt(i);
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long startMillis() {
+        return startMillis;
+    }
+
+    int count() {
+        return count;
+    }
+
+    boolean isFull() {
+        return count >= capacity;
+    }
+
+    /** Timestamp of the last record, or 0 if empty. */
+    long lastTimestamp() {
+        return count > 0 ? timestampAt(count - 1) : 0L;
+    }
+
+    /** Appends one record; values are written before the checksum so a torn write never validates. */
+    void append(long timestamp, double[] row) {
+        int off = offset(count);
+        long sum = mix(0x9E3779B97F4A7C15L, timestamp);
+        for (int m = 0; m < metrics; m++) {
+            long bits = Double.doubleToRawLongBits(row[m]);
+            buffer.putLong(off + 8 + m * 8, bits);
+            sum = mix(sum, bits);
+        }
+        buffer.putLong(off + 8 + metrics * 8, sum);
+        buffer.putLong(off, timestamp);
+        if (count % INDEX_STRIDE == 0) sparseIndex[count / INDEX_STRIDE] = timestamp;
+        count++;
+    }
+
+    /** Flushes dirty pages to disk. */
+    void force() {
+        buffer.force();
+    }
+
+    /** Visits the value of one metric for each record in [from, to]. */
+    void forEachValue(long from, long to, int metric, ValueVisitor visitor) {
+        for (int i = firstAtOrAfter(from); i < count; i++) {
+            int off = offset(i);
+            long ts = buffer.getLong(off);
+            if (ts > to) break;
+            visitor.visit(ts, Double.longBitsToDouble(buffer.getLong(off + 8 + metric * 8)));
+        }
+    }
+
+    /** Visits every record in [from, to], reading its values into the reusable {@code row}. */
+    void forEachRow(long from, long to, double[] row, RowVisitor visitor) {
+        for (int i = firstAtOrAfter(from); i < count; i++) {
+            int off = offset(i);
+            long ts = buffer.getLong(off);
+            if (ts > to) break;
+            for (int m = 0; m < metrics; m++) {
+                row[m] = Double.longBitsToDouble(buffer.getLong(off + 8 + m * 8));
+            }
+            visitor.visit(ts, row);
+        }
+    }
+
+    /** Index of the first record with timestamp >= from: sparse index narrows to one stride, then a linear scan. */
+    private int firstAtOrAfter(long from) {
+        int entries = (count + INDEX_STRIDE - 1) / INDEX_STRIDE;
+        int lo = 0;
+        int hi = entries;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sparseIndex[mid] < from) lo = mid + 1;
+            else hi = mid;
+        }
+        int i = Math.max(0, (lo - 1) * INDEX_STRIDE);
+        while (i < count && timestampAt(i) < from) i++;
+        return i;
+    }
+
+    private boolean checksumValid(int i) {
+        int off = offset(i);
+        long sum = mix(0x9E3779B97F4A7C15L, buffer.getLong(off));
+        for (int m = 0; m < metrics; m++) {
+            sum = mix(sum, buffer.getLong(off + 8 + m * 8));
+        }
+        return sum == buffer.getLong(off + 8 + metrics * 8);
+    }
+
+    private long timestampAt(int i) {
+        return buffer.getLong(offset(i));
+    }
+
+    private int offset(int i) {
+        return HEADER_SIZE + i * recordSize;
+    }
+
+    private static long mix(long h, long v) {
+        h ^= v;
+        h *= 0xFF51AFD7ED558CCDL;
+        return h ^ (h >>> 33);
+    }
+
+    @FunctionalInterface
+    interface ValueVisitor {
+        void visit(long timestamp, double value);
+    }
+
+    @FunctionalInterface
+    interface RowVisitor {
+        void visit(long timestamp, double[] row);
+    }
+}
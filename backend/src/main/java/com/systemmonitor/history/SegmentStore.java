@@ -0,0 +1,285 @@
+package com.systemmonitor.history;
+
+import com.systemmonitor.dto.HistorySeries;
+import com.systemmonitor.dto.SystemStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Crash-safe on-disk history: every tick is appended to a memory-mapped {@link SegmentFile} under
+ * app.history.persistence.dir. Segments rotate every app.history.persistence.segment-duration (default 1 h)
+ * and are deleted after app.history.persistence.retention (default 7 days). On startup the existing segments
+ * are recovered and the last app.history.persistence.replay window is fed back into {@link MetricHistoryStore},
+ * so history survives restarts. Disabled unless app.history.persistence.enabled=true.
+ */
+@Component
+@Slf4j
+public class SegmentStore {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".dat";
+    /** Slack over one record per second, for faster sampling rates. */
+    private static final int CAPACITY_FACTOR = 2;
+    private static final int FORCE_EVERY_RECORDS = 60;
+    /** Most points a {@link #query} returns; the step is raised to stay under it. */
+    static final int MAX_POINTS = 10_000;
+
+    private final MetricHistoryStore historyStore;
+    private final boolean enabled;
+    private final Path dir;
+    private final long segmentMillis;
+    private final long retentionMillis;
+    private final long replayMillis;
+    private final int metrics = HistoryMetric.count();
+    private final double[] row = new double[metrics];
+
+    /** Closed segments, oldest first. */
+    private final List<SegmentFile> segments = new ArrayList<>();
+    private SegmentFile active;
+    private int sinceForce;
+
+    public SegmentStore(MetricHistoryStore historyStore,
+                        @Value("${app.history.persistence.enabled:false}") boolean enabled,
+                        @Value("${app.history.persistence.dir:./data/history}") String dir,
+                        @Value("${app.history.persistence.segment-duration:1h}") Duration segmentDuration,
+                        @Value("${app.history.persistence.retention:7d}") Duration retention,
+                        @Value("${app.history.persistence.replay:24h}") Duration replay) {
+        this.historyStore = historyStore;
+        this.enabled = enabled;
+        this.dir = Paths.get(dir);
+        this.segmentMillis = Math.max(60_000, segmentDuration.toMillis());
+        this.retentionMillis = Math.max(segmentMillis, retention.toMillis());
+        this.replayMillis = Math.max(0, replay.toMillis());
+    }
+
+    @PostConstruct
+    public synchronized void init() {
+        if (!enabled) return;
+        try {
+            Files.createDirectories(dir);
+            List<Path> files;
+            try (Stream<Path> s = Files.list(dir)) {
+                files = s.filter(p -> p.getFileName().toString().startsWith(PREFIX) && p.getFileName().toString().endsWith(SUFFIX))
+                        .sorted()
+                        .toList();
+            }
+            for (Path p : files) {
+                SegmentFile segment = SegmentFile.open(p, metrics);
+                if (segment == null) {
+                    log.warn("Ignoring incompatible history segment {}", p);
+                    continue;
+                }
+                segments.add(segment);
+            }
+            long now = System.currentTimeMillis();
+            deleteExpired(now);
+            replay(now - replayMillis, now);
+            log.info("History persistence: {} segment(s) in {}", segments.size(), dir.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("History persistence unavailable ({}): {}", dir.toAbsolutePath(), e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Appends one tick. No-op when persistence is disabled. */
+    public synchronized void append(SystemStats stats) {
+        if (!enabled) return;
+        long ts = stats.getTimestamp();
+        SegmentFile last = active != null ? active : (segments.isEmpty() ? null : segments.get(segments.size() - 1));
+        if (last != null && ts <= last.lastTimestamp()) return; // keep timestamps strictly increasing
+        try {
+            if (active == null || active.isFull() || ts >= active.startMillis() + segmentMillis) {
+                rotate(ts);
+            }
+            HistoryMetric.extractAll(stats, row);
+            active.append(ts, row);
+            if (++sinceForce >= FORCE_EVERY_RECORDS) {
+                active.force();
+                sinceForce = 0;
+            }
+        } catch (IOException e) {
+            log.warn("Failed to persist history sample: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Series for [from, to] read from disk, bucketed to {@code stepMs} (min/max/avg/p95 per bucket; raw 1 s samples
+     * when the step is at most that). The step is raised so the result has at most {@value #MAX_POINTS} points.
+     * Closed segments are scanned outside the lock, so a long range read does not hold up {@link #append}; only the
+     * active segment's part of the range is copied under it.
+     */
+    public HistorySeries query(HistoryMetric metric, long from, long to, long stepMs) {
+        long range = Math.max(0, to - from);
+        long step = Math.max(MetricHistoryStore.RAW_STEP_MS, Math.max(stepMs, (range + MAX_POINTS - 1) / MAX_POINTS));
+        int m = metric.ordinal();
+        List<SegmentFile> closed = new ArrayList<>();
+        SeriesCollector tail = new SeriesCollector();
+        synchronized (this) {
+            for (SegmentFile segment : segments) {
+                if (overlaps(segment, from, to)) closed.add(segment);
+            }
+            if (active != null && overlaps(active, from, to)) active.forEachValue(from, to, m, tail);
+        }
+        BucketCollector buckets = new BucketCollector(step);
+        // Closed segments never change again; a concurrent expiry only drops them from the list
+        for (SegmentFile segment : closed) segment.forEachValue(from, to, m, buckets);
+        for (int i = 0; i < tail.size; i++) buckets.visit(tail.timestamps[i], tail.values[i]);
+        return buckets.finish(metric);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (active != null) active.force();
+    }
+
+    private boolean overlaps(SegmentFile segment, long from, long to) {
+        return segment.count() > 0 && segment.startMillis() <= to && segment.lastTimestamp() >= from;
+    }
+
+    private void rotate(long ts) throws IOException {
+        if (active != null) {
+            active.force();
+            segments.add(active);
+        }
+        long start = ts - Math.floorMod(ts, segmentMillis);
+        SegmentFile last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (last != null && start <= last.startMillis()) start = ts; // previous segment filled up early
+        int capacity = (int) (segmentMillis / 1000) * CAPACITY_FACTOR;
+        Path path = dir.resolve(String.format("%s%013d%s", PREFIX, start, SUFFIX));
+        active = SegmentFile.create(path, metrics, capacity, start);
+        sinceForce = 0;
+        deleteExpired(ts);
+    }
+
+    private void deleteExpired(long now) {
+        long cutoff = now - retentionMillis;
+        while (!segments.isEmpty()) {
+            SegmentFile oldest = segments.get(0);
+            long end = Math.max(oldest.lastTimestamp(), oldest.startMillis() + segmentMillis);
+            if (end >= cutoff) break;
+            segments.remove(0);
+            try {
+                Files.deleteIfExists(oldest.path());
+            } catch (IOException e) {
+                // Mapped files cannot be deleted on some platforms until unmapped; retried on restart
+                log.debug("Could not delete expired history segment {}: {}", oldest.path(), e.getMessage());
+            }
+        }
+    }
+
+    private void replay(long from, long to) {
+        double[] replayRow = new double[metrics];
+        int[] replayed = {0};
+        for (SegmentFile segment : segments) {
+            if (!overlaps(segment, from, to)) continue;
+            segment.forEachRow(from, to, replayRow, (t, r) -> {
+                historyStore.record(t, r);
+                replayed[0]++;
+            });
+        }
+        if (replayed[0] > 0) {
+            log.info("Replayed {} history samples from disk", replayed[0]);
+        }
+    }
+
+    /** Aggregates a time-ordered disk range read into step-aligned buckets, like {@link RollupTier} does in memory. */
+    private static final class BucketCollector implements SegmentFile.ValueVisitor {
+        private final long stepMs;
+        private long[] timestamps = new long[256];
+        private double[] min = new double[256];
+        private double[] max = new double[256];
+        private double[] avg = new double[256];
+        private double[] p95 = new double[256];
+        private int size;
+        private long currentStart = Long.MIN_VALUE;
+        /** Valid samples of the bucket being filled, for min/max/avg and the exact p95. */
+        private double[] bucket = new double[64];
+        private int count;
+
+        BucketCollector(long stepMs) {
+            this.stepMs = stepMs;
+        }
+
+        @Override
+        public void visit(long timestamp, double value) {
+            if (Double.isNaN(value)) return;
+            long start = timestamp - Math.floorMod(timestamp, stepMs);
+            if (start != currentStart) {
+                flush();
+                currentStart = start;
+            }
+            if (count == bucket.length) bucket = Arrays.copyOf(bucket, count * 2);
+            bucket[count++] = value;
+        }
+
+        private void flush() {
+            if (count == 0) return;
+            if (size == timestamps.length) {
+                int capacity = size * 2;
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                min = Arrays.copyOf(min, capacity);
+                max = Arrays.copyOf(max, capacity);
+                avg = Arrays.copyOf(avg, capacity);
+                p95 = Arrays.copyOf(p95, capacity);
+            }
+            Arrays.sort(bucket, 0, count);
+            double sum = 0;
+            for (int i = 0; i < count; i++) sum += bucket[i];
+            timestamps[size] = currentStart;
+            min[size] = bucket[0];
+            max[size] = bucket[count - 1];
+            avg[size] = sum / count;
+            p95[size] = bucket[Math.max(0, (int) Math.ceil(0.95 * count) - 1)];
+            size++;
+            count = 0;
+        }
+
+        HistorySeries finish(HistoryMetric metric) {
+            flush();
+            return HistorySeries.builder()
+                    .metric(metric.id())
+                    .stepMs(stepMs)
+                    .timestamps(Arrays.copyOf(timestamps, size))
+                    .min(Arrays.copyOf(min, size))
+                    .max(Arrays.copyOf(max, size))
+                    .avg(Arrays.copyOf(avg, size))
+                    .p95(Arrays.copyOf(p95, size))
+                    .build();
+        }
+    }
+
+    /** Growable primitive buffers for a disk range read. */
+    private static final class SeriesCollector implements SegmentFile.ValueVisitor {
+        private long[] timestamps = new long[256];
+        private double[] values = new double[256];
+        private int size;
+
+        @Override
+        public void visit(long timestamp, double value) {
+            if (Double.isNaN(value)) return;
+            if (size == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            timestamps[size] = timestamp;
+            values[size] = value;
+            size++;
+        }
+    }
+}
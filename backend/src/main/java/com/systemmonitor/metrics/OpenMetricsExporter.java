@@ -0,0 +1,238 @@
+package com.systemmonitor.metrics;
+
+import com.systemmonitor.dto.SystemStats;
+import com.systemmonitor.fleet.FleetRegistry;
+import com.systemmonitor.scheduler.StatsListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * OpenMetrics exposition of the latest tick for GET /metrics: every {@link SystemStats} field as a gauge (the
+ * cumulative network byte counts as counters), per core, GPU, disk device, mount and interface, labelled with
+ * {@code host} (app.metrics.host, default the hostname). On an aggregator the latest stats of every agent are
+ * exported too, under their host IDs.
+ * <p>
+ * Nothing is collected per scrape: the tick thread only swaps in the newest stats, and the first scrape after a
+ * tick renders them once into a reused buffer; every other scrape in that tick gets the cached bytes.
+ */
+@Component
+public class OpenMetricsExporter implements StatsListener {
+
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    /** One metric family: header fields and the writer of its samples for one host's stats. */
+    private record Family(String name, String type, String unit, String help,
+                          BiConsumer<SystemStats, OpenMetricsWriter> samples) {
+    }
+
+    private static final List<Family> FAMILIES = families();
+
+    private final String host;
+    private final ObjectProvider<FleetRegistry> fleetRegistry;
+    private final OpenMetricsWriter writer = new OpenMetricsWriter();
+    private volatile SystemStats latest;
+    private SystemStats rendered;
+    private byte[] cached;
+
+    public OpenMetricsExporter(@Value("${app.metrics.host:}") String host, ObjectProvider<FleetRegistry> fleetRegistry) {
+        this.host = host == null || host.isBlank() ? localHostName() : host.trim();
+        this.fleetRegistry = fleetRegistry;
+    }
+
+    /** Tick thread: just remembers the stats. */
+    @Override
+    public void onStats(SystemStats stats) {
+        latest = stats;
+    }
+
+    /** The exposition for the latest tick; rendered at most once per tick. */
+    public synchronized byte[] scrape() {
+        SystemStats stats = latest;
+        if (cached != null && stats == rendered) return cached;
+        Map<String, SystemStats> hosts = new LinkedHashMap<>();
+        if (stats != null) hosts.put(host, stats);
+        FleetRegistry fleet = fleetRegistry.getIfAvailable();
+        if (fleet != null) {
+            fleet.latestByHost().forEach(hosts::putIfAbsent);
+        }
+        writer.reset();
+        for (Family family : FAMILIES) {
+            writer.family(family.name(), family.type(), family.unit(), family.help());
+            for (Map.Entry<String, SystemStats> e : hosts.entrySet()) {
+                writer.host(e.getKey());
+                family.samples().accept(e.getValue(), writer);
+            }
+        }
+        cached = writer.finish();
+        rendered = stats;
+        return cached;
+    }
+
+    private static List<Family> families() {
+        List<Family> f = new ArrayList<>();
+        f.add(gauge("sysmon_sample_timestamp_seconds", "seconds", "Time the sample was collected.", (s, w, n) ->
+                w.sample(n, s.getTimestamp() / 1000.0)));
+        f.add(gauge("sysmon_collector_stale", null, "1 for each collector that missed the tick deadline or failed.", (s, w, n) -> {
+            if (s.getStale() != null) for (String c : s.getStale()) w.sample(n, "collector", c, 1);
+        }));
+
+        f.add(gauge("sysmon_cpu_usage_percent", null, "CPU usage (0-100).", (s, w, n) -> {
+            if (s.getCpu() != null) w.sample(n, s.getCpu().getUsagePercent());
+        }));
+        f.add(gauge("sysmon_cpu_logical_processors", null, "Number of logical processors.", (s, w, n) -> {
+            if (s.getCpu() != null) w.sample(n, s.getCpu().getLogicalProcessorCount());
+        }));
+        f.add(gauge("sysmon_cpu_temperature_celsius", "celsius", "CPU temperature.", (s, w, n) -> {
+            if (s.getCpu() != null && s.getCpu().getTemperatureCelsius() != null) w.sample(n, s.getCpu().getTemperatureCelsius());
+        }));
+        f.add(gauge("sysmon_cpu_core_usage_percent", null, "Usage per logical processor (0-100).", (s, w, n) -> {
+            double[] usage = s.getCpu() != null ? s.getCpu().getCoreUsagePercent() : null;
+            if (usage != null) for (int c = 0; c < usage.length; c++) w.sample(n, "core", Integer.toString(c), usage[c]);
+        }));
+        f.add(gauge("sysmon_cpu_core_frequency_hertz", "hertz", "Current frequency per logical processor.", (s, w, n) -> {
+            int[] mhz = s.getCpu() != null ? s.getCpu().getCoreFrequencyMhz() : null;
+            if (mhz != null) for (int c = 0; c < mhz.length; c++) {
+                if (mhz[c] > 0) w.sample(n, "core", Integer.toString(c), mhz[c] * 1e6);
+            }
+        }));
+
+        f.add(gauge("sysmon_memory_total_bytes", "bytes", "Total physical memory.", (s, w, n) -> {
+            if (s.getMemory() != null) w.sample(n, s.getMemory().getTotalBytes());
+        }));
+        f.add(gauge("sysmon_memory_used_bytes", "bytes", "Used physical memory.", (s, w, n) -> {
+            if (s.getMemory() != null) w.sample(n, s.getMemory().getUsedBytes());
+        }));
+        f.add(gauge("sysmon_memory_available_bytes", "bytes", "Available physical memory.", (s, w, n) -> {
+            if (s.getMemory() != null) w.sample(n, s.getMemory().getAvailableBytes());
+        }));
+        f.add(gauge("sysmon_memory_usage_percent", null, "Memory usage (0-100).", (s, w, n) -> {
+            if (s.getMemory() != null) w.sample(n, s.getMemory().getUsagePercent());
+        }));
+
+        f.add(gauge("sysmon_gpu_usage_percent", null, "GPU usage (0-100).", (s, w, n) ->
+                forEachGpu(s, (g, gpu) -> w.sample(n, "gpu", g, "name", gpu.getName(), gpu.getUsagePercent()))));
+        f.add(gauge("sysmon_gpu_memory_used_bytes", "bytes", "VRAM in use.", (s, w, n) ->
+                forEachGpu(s, (g, gpu) -> w.sample(n, "gpu", g, "name", gpu.getName(), gpu.getVramUsedBytes()))));
+        f.add(gauge("sysmon_gpu_memory_total_bytes", "bytes", "Total VRAM.", (s, w, n) ->
+                forEachGpu(s, (g, gpu) -> w.sample(n, "gpu", g, "name", gpu.getName(), gpu.getVramTotalBytes()))));
+        f.add(gauge("sysmon_gpu_temperature_celsius", "celsius", "GPU temperature.", (s, w, n) ->
+                forEachGpu(s, (g, gpu) -> {
+                    if (gpu.getTemperatureCelsius() != null) w.sample(n, "gpu", g, "name", gpu.getName(), gpu.getTemperatureCelsius());
+                })));
+        f.add(gauge("sysmon_gpu_power_watts", "watts", "GPU board power draw.", (s, w, n) ->
+                forEachGpu(s, (g, gpu) -> {
+                    if (gpu.getPowerWatts() != null) w.sample(n, "gpu", g, "name", gpu.getName(), gpu.getPowerWatts());
+                })));
+
+        f.add(gauge("sysmon_disk_read_bytes_per_second", null, "Disk read rate, all devices.", (s, w, n) -> {
+            if (s.getDisk() != null) w.sample(n, s.getDisk().getReadBytesPerSecond());
+        }));
+        f.add(gauge("sysmon_disk_write_bytes_per_second", null, "Disk write rate, all devices.", (s, w, n) -> {
+            if (s.getDisk() != null) w.sample(n, s.getDisk().getWriteBytesPerSecond());
+        }));
+        f.add(gauge("sysmon_disk_total_bytes", "bytes", "Total disk space.", (s, w, n) -> {
+            if (s.getDisk() != null) w.sample(n, s.getDisk().getTotalBytes());
+        }));
+        f.add(gauge("sysmon_disk_used_bytes", "bytes", "Used disk space.", (s, w, n) -> {
+            if (s.getDisk() != null) w.sample(n, s.getDisk().getUsedBytes());
+        }));
+        f.add(gauge("sysmon_disk_usage_percent", null, "Disk space usage (0-100).", (s, w, n) -> {
+            if (s.getDisk() != null) w.sample(n, s.getDisk().getUsagePercent());
+        }));
+        f.add(gauge("sysmon_disk_device_read_bytes_per_second", null, "Read rate per device.", (s, w, n) ->
+                forEachDevice(s, d -> w.sample(n, "device", d.getName(), d.getReadBytesPerSecond()))));
+        f.add(gauge("sysmon_disk_device_write_bytes_per_second", null, "Write rate per device.", (s, w, n) ->
+                forEachDevice(s, d -> w.sample(n, "device", d.getName(), d.getWriteBytesPerSecond()))));
+        f.add(gauge("sysmon_disk_device_read_iops", null, "Completed reads per second per device.", (s, w, n) ->
+                forEachDevice(s, d -> w.sample(n, "device", d.getName(), d.getReadIops()))));
+        f.add(gauge("sysmon_disk_device_write_iops", null, "Completed writes per second per device.", (s, w, n) ->
+                forEachDevice(s, d -> w.sample(n, "device", d.getName(), d.getWriteIops()))));
+        f.add(gauge("sysmon_disk_device_await_seconds", "seconds", "Average time per completed I/O, queueing included.", (s, w, n) ->
+                forEachDevice(s, d -> w.sample(n, "device", d.getName(), d.getAvgServiceTimeMs() / 1000.0))));
+        f.add(gauge("sysmon_disk_device_queue_length", null, "Average I/Os in flight per device.", (s, w, n) ->
+                forEachDevice(s, d -> w.sample(n, "device", d.getName(), d.getQueueLength()))));
+        f.add(gauge("sysmon_disk_device_busy_percent", null, "Share of the interval the device was busy (0-100).", (s, w, n) ->
+                forEachDevice(s, d -> w.sample(n, "device", d.getName(), d.getBusyPercent()))));
+        f.add(gauge("sysmon_filesystem_total_bytes", "bytes", "Total space per mount.", (s, w, n) ->
+                forEachMount(s, m -> w.sample(n, "mountpoint", m.getMountPoint(), "device", m.getDevice(), m.getTotalBytes()))));
+        f.add(gauge("sysmon_filesystem_used_bytes", "bytes", "Used space per mount.", (s, w, n) ->
+                forEachMount(s, m -> w.sample(n, "mountpoint", m.getMountPoint(), "device", m.getDevice(), m.getUsedBytes()))));
+        f.add(gauge("sysmon_filesystem_usage_percent", null, "Space usage per mount (0-100).", (s, w, n) ->
+                forEachMount(s, m -> w.sample(n, "mountpoint", m.getMountPoint(), "device", m.getDevice(), m.getUsagePercent()))));
+
+        f.add(gauge("sysmon_network_receive_bytes_per_second", null, "Download rate, counted interfaces.", (s, w, n) -> {
+            if (s.getNetwork() != null) w.sample(n, s.getNetwork().getDownloadBytesPerSecond());
+        }));
+        f.add(gauge("sysmon_network_transmit_bytes_per_second", null, "Upload rate, counted interfaces.", (s, w, n) -> {
+            if (s.getNetwork() != null) w.sample(n, s.getNetwork().getUploadBytesPerSecond());
+        }));
+        f.add(new Family("sysmon_network_receive_bytes", "counter", "bytes", "Bytes received, counted interfaces.", (s, w) -> {
+            if (s.getNetwork() != null) w.sample("sysmon_network_receive_bytes_total", s.getNetwork().getTotalBytesReceived());
+        }));
+        f.add(new Family("sysmon_network_transmit_bytes", "counter", "bytes", "Bytes sent, counted interfaces.", (s, w) -> {
+            if (s.getNetwork() != null) w.sample("sysmon_network_transmit_bytes_total", s.getNetwork().getTotalBytesSent());
+        }));
+        f.add(gauge("sysmon_network_interface_receive_bytes_per_second", null, "Download rate per interface.", (s, w, n) ->
+                forEachInterface(s, i -> w.sample(n, "interface", i.getName(), i.getDownloadBytesPerSecond()))));
+        f.add(gauge("sysmon_network_interface_transmit_bytes_per_second", null, "Upload rate per interface.", (s, w, n) ->
+                forEachInterface(s, i -> w.sample(n, "interface", i.getName(), i.getUploadBytesPerSecond()))));
+        f.add(gauge("sysmon_network_interface_receive_packets_per_second", null, "Packets received per second per interface.", (s, w, n) ->
+                forEachInterface(s, i -> w.sample(n, "interface", i.getName(), i.getDownloadPacketsPerSecond()))));
+        f.add(gauge("sysmon_network_interface_transmit_packets_per_second", null, "Packets sent per second per interface.", (s, w, n) ->
+                forEachInterface(s, i -> w.sample(n, "interface", i.getName(), i.getUploadPacketsPerSecond()))));
+        f.add(gauge("sysmon_network_interface_errors_per_second", null, "Receive plus transmit errors per second.", (s, w, n) ->
+                forEachInterface(s, i -> w.sample(n, "interface", i.getName(), i.getErrorsPerSecond()))));
+        f.add(gauge("sysmon_network_interface_drops_per_second", null, "Receive plus transmit drops per second.", (s, w, n) ->
+                forEachInterface(s, i -> w.sample(n, "interface", i.getName(), i.getDropsPerSecond()))));
+        f.add(gauge("sysmon_network_interface_link_speed_bits_per_second", null, "Negotiated link speed; 0 if unknown.", (s, w, n) ->
+                forEachInterface(s, i -> w.sample(n, "interface", i.getName(), i.getLinkSpeedBitsPerSecond()))));
+        f.add(gauge("sysmon_network_interface_utilization_percent", null, "Busier direction's share of the link speed (0-100).", (s, w, n) ->
+                forEachInterface(s, i -> w.sample(n, "interface", i.getName(), i.getUtilizationPercent()))));
+        return List.copyOf(f);
+    }
+
+    @FunctionalInterface
+    private interface GaugeSamples {
+        void write(SystemStats stats, OpenMetricsWriter writer, String name);
+    }
+
+    private static Family gauge(String name, String unit, String help, GaugeSamples samples) {
+        return new Family(name, "gauge", unit, help, (s, w) -> samples.write(s, w, name));
+    }
+
+    private static void forEachGpu(SystemStats s, BiConsumer<String, SystemStats.GpuStats> action) {
+        List<SystemStats.GpuStats> gpus = s.getGpus();
+        if (gpus == null) return;
+        for (int g = 0; g < gpus.size(); g++) action.accept(Integer.toString(g), gpus.get(g));
+    }
+
+    private static void forEachDevice(SystemStats s, Consumer<SystemStats.DiskDeviceStats> action) {
+        if (s.getDisk() != null && s.getDisk().getDevices() != null) s.getDisk().getDevices().forEach(action);
+    }
+
+    private static void forEachMount(SystemStats s, Consumer<SystemStats.MountStats> action) {
+        if (s.getDisk() != null && s.getDisk().getMounts() != null) s.getDisk().getMounts().forEach(action);
+    }
+
+    private static void forEachInterface(SystemStats s, Consumer<SystemStats.NetworkInterfaceStats> action) {
+        if (s.getNetwork() != null && s.getNetwork().getInterfaces() != null) s.getNetwork().getInterfaces().forEach(action);
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+}
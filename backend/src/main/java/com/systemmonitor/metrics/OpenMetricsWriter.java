@@ -0,0 +1,87 @@
+package com.systemmonitor.metrics;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Builds OpenMetrics text into one reused {@link StringBuilder}: family headers, then samples with a fixed
+ * leading {@code host} label and up to two more labels. Label values are escaped; integral values are written
+ * without a decimal point. Not thread-safe.
+ */
+final class OpenMetricsWriter {
+
+    private final StringBuilder out = new StringBuilder(16 * 1024);
+    private String host = "";
+
+    void reset() {
+        out.setLength(0);
+    }
+
+    /** Host label value for the following samples. */
+    void host(String host) {
+        this.host = host;
+    }
+
+    void family(String name, String type, String unit, String help) {
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        if (unit != null) out.append("# UNIT ").append(name).append(' ').append(unit).append('\n');
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    }
+
+    void sample(String name, double value) {
+        start(name);
+        end(value);
+    }
+
+    void sample(String name, String label, String labelValue, double value) {
+        start(name);
+        label(label, labelValue);
+        end(value);
+    }
+
+    void sample(String name, String label1, String value1, String label2, String value2, double value) {
+        start(name);
+        label(label1, value1);
+        label(label2, value2);
+        end(value);
+    }
+
+    /** Terminates the exposition and returns it as UTF-8. */
+    byte[] finish() {
+        out.append("# EOF\n");
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void start(String name) {
+        out.append(name).append('{');
+        label0("host", host);
+    }
+
+    private void label(String name, String value) {
+        out.append(',');
+        label0(name, value);
+    }
+
+    private void label0(String name, String value) {
+        out.append(name).append("=\"");
+        String v = value != null ? value : "";
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '"' -> out.append("\\\"");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    private void end(double value) {
+        out.append("} ");
+        if (value == (long) value && Math.abs(value) < 1e15) out.append((long) value);
+        else if (Double.isNaN(value)) out.append("NaN");
+        else if (Double.isInfinite(value)) out.append(value > 0 ? "+Inf" : "-Inf");
+        else out.append(value);
+        out.append('\n');
+    }
+}
@@ -0,0 +1,39 @@
+package com.systemmonitor.process;
+
+import java.util.Locale;
+
+/**
+ * Ways {@link ProcessTable} rolls processes up into {@link ProcessGroups}, with the {@code by} key used by
+ * GET /api/processes/groups.
+ */
+public enum ProcessGrouping {
+    /** Cgroup path (v2 unified, else systemd); a container's processes share its cgroup. */
+    CGROUP("cgroup"),
+    /** Owning user name. */
+    USER("user"),
+    /** Top-level ancestor: the process whose parent is init, kthreadd's parent or no longer tracked. */
+    TREE("tree");
+
+    private static final ProcessGrouping[] VALUES = values();
+
+    private final String key;
+
+    ProcessGrouping(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    /** Grouping for a {@code by} key (case-insensitive); {@link #CGROUP} if the key is null or unknown. */
+    public static ProcessGrouping fromKey(String key) {
+        if (key != null) {
+            String k = key.toLowerCase(Locale.ROOT);
+            for (ProcessGrouping g : VALUES) {
+                if (g.key.equals(k)) return g;
+            }
+        }
+        return CGROUP;
+    }
+}
@@ -0,0 +1,102 @@
+package com.systemmonitor.process;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running per-group sums of every {@link ProcessMetric} for one {@link ProcessGrouping}, maintained by
+ * {@link ProcessTable} from per-process deltas rather than recomputed. Sums are integral (CPU in tenths of a
+ * percent), so adding and removing contributions never drifts. A group's ID is freed and reused once its last
+ * member is gone. Not thread-safe (owned by its table).
+ */
+public final class ProcessGroups {
+
+    private static final int METRICS = ProcessMetric.values().length;
+    private static final int CPU = ProcessMetric.CPU.ordinal();
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] keys = new String[16];
+    private int[] members = new int[16];
+    private long[] sums = new long[16 * METRICS];
+    private int[] free = new int[16];
+    private int freeCount;
+    /** IDs in use are below this. */
+    private int limit;
+    private final TopK topK = new TopK();
+
+    ProcessGroups() {
+    }
+
+    /** Joins a member to the group named {@code key}, creating it if needed, and returns the group's ID. */
+    int acquire(String key) {
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = freeCount > 0 ? free[--freeCount] : newId();
+            ids.put(key, id);
+            keys[id] = key;
+        }
+        members[id]++;
+        return id;
+    }
+
+    /** Removes a member whose contributions were already subtracted; the group is freed when it was the last. */
+    void release(int id) {
+        if (--members[id] > 0) return;
+        ids.remove(keys[id]);
+        keys[id] = null;
+        Arrays.fill(sums, id * METRICS, (id + 1) * METRICS, 0);
+        if (freeCount == free.length) free = Arrays.copyOf(free, freeCount * 2);
+        free[freeCount++] = id;
+    }
+
+    void add(int id, int metric, long delta) {
+        sums[id * METRICS + metric] += delta;
+    }
+
+    /** Number of groups with at least one member. */
+    public int size() {
+        return ids.size();
+    }
+
+    public String key(int id) {
+        return keys[id];
+    }
+
+    public int memberCount(int id) {
+        return members[id];
+    }
+
+    /** Sum of {@code metric} over the group's members. */
+    public double value(int id, ProcessMetric metric) {
+        long sum = sums[id * METRICS + metric.ordinal()];
+        return metric.ordinal() == CPU ? sum / 10.0 : sum;
+    }
+
+    /**
+     * Writes the IDs of the (at most) {@code k} groups with the largest {@code metric} into {@code out}, largest
+     * first (ties by key), and returns how many were written.
+     */
+    public int top(ProcessMetric metric, int k, int[] out) {
+        int offset = metric.ordinal();
+        topK.begin(Math.min(k, size()), (a, b) -> {
+            long va = sums[a * METRICS + offset];
+            long vb = sums[b * METRICS + offset];
+            return va < vb || (va == vb && keys[a].compareTo(keys[b]) > 0);
+        });
+        for (int id = 0; id < limit; id++) {
+            if (members[id] > 0) topK.offer(id);
+        }
+        return topK.finish(out);
+    }
+
+    private int newId() {
+        if (limit == keys.length) {
+            int n = limit * 2;
+            keys = Arrays.copyOf(keys, n);
+            members = Arrays.copyOf(members, n);
+            sums = Arrays.copyOf(sums, n * METRICS);
+        }
+        return limit++;
+    }
+}
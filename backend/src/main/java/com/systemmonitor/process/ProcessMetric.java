@@ -0,0 +1,42 @@
+package com.systemmonitor.process;
+
+import java.util.Locale;
+
+/**
+ * Per-process metrics a {@link ProcessTable} can rank by, with the {@code sort} key used by GET /api/processes.
+ */
+public enum ProcessMetric {
+    /** CPU usage over the last interval, 0-100 of the whole machine. */
+    CPU("cpu"),
+    /** Resident memory. */
+    MEMORY("memory"),
+    /** Disk read plus write bytes per second. */
+    DISK("disk"),
+    DISK_READ("read"),
+    DISK_WRITE("write"),
+    /** Resident memory growth in bytes per second (negative when shrinking). */
+    MEMORY_GROWTH("growth");
+
+    private static final ProcessMetric[] VALUES = values();
+
+    private final String key;
+
+    ProcessMetric(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    /** Metric for a sort key (case-insensitive); {@link #CPU} if the key is null or unknown. */
+    public static ProcessMetric fromKey(String key) {
+        if (key != null) {
+            String k = key.toLowerCase(Locale.ROOT);
+            for (ProcessMetric m : VALUES) {
+                if (m.key.equals(k)) return m;
+            }
+        }
+        return CPU;
+    }
+}
@@ -0,0 +1,380 @@
+package com.systemmonitor.process;
+
+import com.systemmonitor.sampling.MetricMath;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Previous sample and interval rates of every live process, keyed by PID. PIDs are looked up in an open-addressing
+ * int-to-slot index (linear probing, backward-shift deletion), and per-process state is kept in parallel primitive
+ * arrays over dense slots [0, size), so a sample allocates only when the table grows. A sample is
+ * {@link #beginSample()}, one {@link #update} per process, then {@link #endSample()}, which drops processes that
+ * were not seen. A PID reused by a new process (different start time) starts over unprimed.
+ * <p>
+ * {@link #top} selects the K largest values of any {@link ProcessMetric} with a bounded min-heap, O(N log K).
+ * <p>
+ * Every process also belongs to one group per {@link ProcessGrouping}, whose {@link ProcessGroups} sums are
+ * adjusted by the change in each process's values as it is updated, and by its whole contribution when it joins
+ * or leaves. Groups are resolved when a process first appears, is replaced (PID reuse) or is reparented; a tree
+ * group keeps the name of its root after the root exits, for descendants that were not reparented themselves.
+ * Not thread-safe (one owner).
+ */
+public final class ProcessTable {
+
+    private static final int METRICS = ProcessMetric.values().length;
+    private static final int GROUPINGS = ProcessGrouping.values().length;
+    private static final int CPU = ProcessMetric.CPU.ordinal();
+    /** PID 0 is never tracked, so it marks an empty index cell. */
+    private static final int EMPTY = 0;
+    /** Group key when a process's user or cgroup cannot be determined. */
+    public static final String UNKNOWN_GROUP = "unknown";
+    /** Deepest parent chain followed when resolving a tree group (guards against a PID cycle). */
+    private static final int MAX_TREE_DEPTH = 1024;
+
+    private final int logicalProcessors;
+    private final IntFunction<String> cgroupOf;
+    private final ProcessGroups[] groups = new ProcessGroups[GROUPINGS];
+
+    private int[] keys;
+    private int[] slotOf;
+    private int mask;
+
+    private int size;
+    private int[] pids;
+    private String[] names;
+    private long[] startTimes;
+    private long[] cpuMillis;
+    private long[] readBytes;
+    private long[] writeBytes;
+    private long[] residentBytes;
+    private long[] sampledNanos;
+    private int[] seenGeneration;
+    private int[] parentPids;
+    private String[] users;
+    private double[] values;
+    /** What each slot last added to its groups' sums, per metric (CPU in tenths). */
+    private long[] contributed;
+    /** Group ID per slot and grouping; -1 until resolved. */
+    private int[] groupIds;
+    /** Slots whose groups must be (re-)resolved at {@link #endSample()}. */
+    private boolean[] regroup;
+    private int generation;
+
+    private final TopK topK = new TopK();
+
+    /**
+     * @param logicalProcessors CPU time is divided by this, so a process saturating every core reads 100 %
+     */
+    public ProcessTable(int logicalProcessors) {
+        this(logicalProcessors, pid -> null);
+    }
+
+    /**
+     * @param logicalProcessors CPU time is divided by this, so a process saturating every core reads 100 %
+     * @param cgroupOf          cgroup path of a PID, or null if unknown; called once per new process
+     */
+    public ProcessTable(int logicalProcessors, IntFunction<String> cgroupOf) {
+        this.logicalProcessors = Math.max(1, logicalProcessors);
+        this.cgroupOf = cgroupOf;
+        for (int g = 0; g < GROUPINGS; g++) groups[g] = new ProcessGroups();
+        allocateIndex(256);
+        allocateSlots(128);
+    }
+
+    /** Starts a sample; processes not {@linkplain #update updated} before {@link #endSample()} are dropped. */
+    public void beginSample() {
+        generation++;
+    }
+
+    /**
+     * Records one process and computes its rates since its previous sample (all 0 the first time it is seen).
+     * Negative counters (unavailable on this platform) count as 0.
+     *
+     * @param user      owning user name, or null if unknown
+     * @param cpuMillis kernel plus user time in milliseconds
+     */
+    public void update(int pid, int parentPid, String name, String user, long startTime, long cpuMillis,
+                       long readBytes, long writeBytes, long residentBytes, long nowNanos) {
+        if (pid == EMPTY) return;
+        readBytes = Math.max(0, readBytes);
+        writeBytes = Math.max(0, writeBytes);
+        residentBytes = Math.max(0, residentBytes);
+        int slot = slotOf(pid);
+        boolean primed = slot >= 0 && startTimes[slot] == startTime;
+        if (slot < 0) slot = add(pid);
+        if (!primed || parentPids[slot] != parentPid) regroup[slot] = true;
+        int base = slot * METRICS;
+        double seconds = (nowNanos - sampledNanos[slot]) / 1e9;
+        if (primed && seconds > 0) {
+            double cpu = 100.0 * Math.max(0, cpuMillis - this.cpuMillis[slot]) / (seconds * 1000 * logicalProcessors);
+            long read = (long) (Math.max(0, readBytes - this.readBytes[slot]) / seconds);
+            long write = (long) (Math.max(0, writeBytes - this.writeBytes[slot]) / seconds);
+            values[base + ProcessMetric.CPU.ordinal()] = MetricMath.round(MetricMath.clampPercent(cpu), 1);
+            values[base + ProcessMetric.DISK_READ.ordinal()] = read;
+            values[base + ProcessMetric.DISK_WRITE.ordinal()] = write;
+            values[base + ProcessMetric.DISK.ordinal()] = read + write;
+            values[base + ProcessMetric.MEMORY_GROWTH.ordinal()] = (long) ((residentBytes - this.residentBytes[slot]) / seconds);
+        } else {
+            Arrays.fill(values, base, base + METRICS, 0);
+        }
+        values[base + ProcessMetric.MEMORY.ordinal()] = residentBytes;
+        names[slot] = name;
+        users[slot] = user;
+        parentPids[slot] = parentPid;
+        startTimes[slot] = startTime;
+        this.cpuMillis[slot] = cpuMillis;
+        this.readBytes[slot] = readBytes;
+        this.writeBytes[slot] = writeBytes;
+        this.residentBytes[slot] = residentBytes;
+        sampledNanos[slot] = nowNanos;
+        seenGeneration[slot] = generation;
+        if (!regroup[slot]) contribute(slot, 1);
+    }
+
+    /**
+     * Drops every process that was not updated since {@link #beginSample()} and resolves the groups of new,
+     * replaced and reparented ones.
+     */
+    public void endSample() {
+        for (int slot = size - 1; slot >= 0; slot--) {
+            if (seenGeneration[slot] != generation) remove(slot);
+        }
+        for (int slot = 0; slot < size; slot++) {
+            if (regroup[slot]) regroup(slot);
+        }
+    }
+
+    public ProcessGroups groups(ProcessGrouping grouping) {
+        return groups[grouping.ordinal()];
+    }
+
+    /** Group ID of {@code slot} in {@code grouping}. */
+    public int groupOf(int slot, ProcessGrouping grouping) {
+        return groupIds[slot * GROUPINGS + grouping.ordinal()];
+    }
+
+    /**
+     * With sign 1 adds the change in the slot's values since its last contribution to each of its groups; with
+     * sign -1 takes its whole contribution back out.
+     */
+    private void contribute(int slot, int sign) {
+        int base = slot * METRICS;
+        int groupBase = slot * GROUPINGS;
+        for (int m = 0; m < METRICS; m++) {
+            long value = m == CPU ? Math.round(values[base + m] * 10) : (long) values[base + m];
+            long delta = sign > 0 ? value - contributed[base + m] : -contributed[base + m];
+            if (delta == 0) continue;
+            contributed[base + m] += delta;
+            for (int g = 0; g < GROUPINGS; g++) groups[g].add(groupIds[groupBase + g], m, delta);
+        }
+    }
+
+    private void leaveGroups(int slot) {
+        int groupBase = slot * GROUPINGS;
+        if (groupIds[groupBase] < 0) return;
+        contribute(slot, -1);
+        for (int g = 0; g < GROUPINGS; g++) {
+            groups[g].release(groupIds[groupBase + g]);
+            groupIds[groupBase + g] = -1;
+        }
+    }
+
+    private void regroup(int slot) {
+        leaveGroups(slot);
+        int groupBase = slot * GROUPINGS;
+        String cgroup = cgroupOf.apply(pids[slot]);
+        groupIds[groupBase + ProcessGrouping.CGROUP.ordinal()] =
+                groups[ProcessGrouping.CGROUP.ordinal()].acquire(cgroup != null ? cgroup : UNKNOWN_GROUP);
+        groupIds[groupBase + ProcessGrouping.USER.ordinal()] =
+                groups[ProcessGrouping.USER.ordinal()].acquire(users[slot] != null ? users[slot] : UNKNOWN_GROUP);
+        groupIds[groupBase + ProcessGrouping.TREE.ordinal()] =
+                groups[ProcessGrouping.TREE.ordinal()].acquire(treeKey(slot));
+        regroup[slot] = false;
+        contribute(slot, 1);
+    }
+
+    /** "name (pid)" of the slot's top-level ancestor. */
+    private String treeKey(int slot) {
+        int root = slot;
+        for (int depth = 0; depth < MAX_TREE_DEPTH; depth++) {
+            int parentPid = parentPids[root];
+            // init (1) and the kernel's PID 0 parent every top-level tree
+            if (parentPid <= 1 || parentPid == pids[root]) break;
+            int parent = slotOf(parentPid);
+            if (parent < 0) break;
+            root = parent;
+        }
+        String name = names[root] != null && !names[root].isBlank() ? names[root] : "?";
+        return name + " (" + pids[root] + ")";
+    }
+
+    /** Number of tracked processes; slots are [0, size). */
+    public int size() {
+        return size;
+    }
+
+    /** Slot of {@code pid}, or -1 if it is not tracked. */
+    public int slotOf(int pid) {
+        if (pid == EMPTY) return -1;
+        for (int i = hash(pid) & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == pid) return slotOf[i];
+            if (keys[i] == EMPTY) return -1;
+        }
+    }
+
+    public int pid(int slot) {
+        return pids[slot];
+    }
+
+    public String name(int slot) {
+        return names[slot];
+    }
+
+    public double value(int slot, ProcessMetric metric) {
+        return values[slot * METRICS + metric.ordinal()];
+    }
+
+    /** Cumulative bytes read by the process. */
+    public long readBytes(int slot) {
+        return readBytes[slot];
+    }
+
+    /** Cumulative bytes written by the process. */
+    public long writeBytes(int slot) {
+        return writeBytes[slot];
+    }
+
+    /**
+     * Writes the slots of the (at most) {@code k} processes with the largest {@code metric} into {@code out},
+     * largest first (ties by lower PID), and returns how many were written.
+     */
+    public int top(ProcessMetric metric, int k, int[] out) {
+        int offset = metric.ordinal();
+        topK.begin(Math.min(k, size), (a, b) -> ranksBelow(a, b, offset));
+        for (int slot = 0; slot < size; slot++) topK.offer(slot);
+        return topK.finish(out);
+    }
+
+    /** As {@link #top}, over the members of one group. */
+    public int topInGroup(ProcessGrouping grouping, int group, ProcessMetric metric, int k, int[] out) {
+        int offset = metric.ordinal();
+        int g = grouping.ordinal();
+        topK.begin(Math.min(k, size), (a, b) -> ranksBelow(a, b, offset));
+        for (int slot = 0; slot < size; slot++) {
+            if (groupIds[slot * GROUPINGS + g] == group) topK.offer(slot);
+        }
+        return topK.finish(out);
+    }
+
+    /** True if slot a ranks below slot b (smaller value, or equal value and higher PID). */
+    private boolean ranksBelow(int a, int b, int offset) {
+        double va = values[a * METRICS + offset];
+        double vb = values[b * METRICS + offset];
+        return va < vb || (va == vb && pids[a] > pids[b]);
+    }
+
+    private int add(int pid) {
+        if (size == pids.length) allocateSlots(size * 2);
+        if ((size + 1) * 2 > keys.length) allocateIndex(keys.length * 2);
+        int slot = size++;
+        pids[slot] = pid;
+        Arrays.fill(contributed, slot * METRICS, (slot + 1) * METRICS, 0);
+        Arrays.fill(groupIds, slot * GROUPINGS, (slot + 1) * GROUPINGS, -1);
+        insert(pid, slot);
+        return slot;
+    }
+
+    /** Removes a slot by moving the last slot into its place. */
+    private void remove(int slot) {
+        leaveGroups(slot);
+        delete(pids[slot]);
+        int last = --size;
+        if (slot != last) {
+            int moved = pids[last];
+            pids[slot] = moved;
+            names[slot] = names[last];
+            startTimes[slot] = startTimes[last];
+            cpuMillis[slot] = cpuMillis[last];
+            readBytes[slot] = readBytes[last];
+            writeBytes[slot] = writeBytes[last];
+            residentBytes[slot] = residentBytes[last];
+            sampledNanos[slot] = sampledNanos[last];
+            seenGeneration[slot] = seenGeneration[last];
+            parentPids[slot] = parentPids[last];
+            users[slot] = users[last];
+            regroup[slot] = regroup[last];
+            System.arraycopy(values, last * METRICS, values, slot * METRICS, METRICS);
+            System.arraycopy(contributed, last * METRICS, contributed, slot * METRICS, METRICS);
+            System.arraycopy(groupIds, last * GROUPINGS, groupIds, slot * GROUPINGS, GROUPINGS);
+            slotOf[cellOf(moved)] = slot;
+        }
+        names[last] = null;
+        users[last] = null;
+    }
+
+    private void insert(int pid, int slot) {
+        int i = hash(pid) & mask;
+        while (keys[i] != EMPTY) i = (i + 1) & mask;
+        keys[i] = pid;
+        slotOf[i] = slot;
+    }
+
+    private int cellOf(int pid) {
+        int i = hash(pid) & mask;
+        while (keys[i] != pid) i = (i + 1) & mask;
+        return i;
+    }
+
+    /** Backward-shift deletion: later entries of the probe run move up so lookups never need tombstones. */
+    private void delete(int pid) {
+        int hole = cellOf(pid);
+        int j = hole;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == EMPTY) break;
+            int home = hash(keys[j]) & mask;
+            // Leave the entry if its home lies cyclically in (hole, j]: moving it would put it before its home.
+            boolean homeAfterHole = hole <= j ? hole < home && home <= j : hole < home || home <= j;
+            if (homeAfterHole) continue;
+            keys[hole] = keys[j];
+            slotOf[hole] = slotOf[j];
+            hole = j;
+        }
+        keys[hole] = EMPTY;
+    }
+
+    private void allocateIndex(int capacity) {
+        keys = new int[capacity];
+        slotOf = new int[capacity];
+        mask = capacity - 1;
+        for (int slot = 0; slot < size; slot++) insert(pids[slot], slot);
+    }
+
+    private void allocateSlots(int capacity) {
+        pids = pids == null ? new int[capacity] : Arrays.copyOf(pids, capacity);
+        names = names == null ? new String[capacity] : Arrays.copyOf(names, capacity);
+        startTimes = grow(startTimes, capacity);
+        cpuMillis = grow(cpuMillis, capacity);
+        readBytes = grow(readBytes, capacity);
+        writeBytes = grow(writeBytes, capacity);
+        residentBytes = grow(residentBytes, capacity);
+        sampledNanos = grow(sampledNanos, capacity);
+        seenGeneration = seenGeneration == null ? new int[capacity] : Arrays.copyOf(seenGeneration, capacity);
+        parentPids = parentPids == null ? new int[capacity] : Arrays.copyOf(parentPids, capacity);
+        users = users == null ? new String[capacity] : Arrays.copyOf(users, capacity);
+        regroup = regroup == null ? new boolean[capacity] : Arrays.copyOf(regroup, capacity);
+        values = values == null ? new double[capacity * METRICS] : Arrays.copyOf(values, capacity * METRICS);
+        contributed = grow(contributed, capacity * METRICS);
+        groupIds = groupIds == null ? new int[capacity * GROUPINGS] : Arrays.copyOf(groupIds, capacity * GROUPINGS);
+    }
+
+    private static long[] grow(long[] array, int capacity) {
+        return array == null ? new long[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    /** Spreads sequential PIDs across the index (Fibonacci hashing). */
+    private static int hash(int pid) {
+        return (pid * 0x9E3779B9) ^ (pid * 0x9E3779B9 >>> 16);
+    }
+}
@@ -0,0 +1,74 @@
+package com.systemmonitor.process;
+
+/**
+ * Bounded min-heap selecting the K highest-ranked of a stream of int IDs in O(N log K), reusing its array.
+ * Not thread-safe (one owner).
+ */
+final class TopK {
+
+    /** Ranking of IDs; must be a strict total order for a stable result. */
+    interface Order {
+        /** True if ID a ranks below ID b. */
+        boolean ranksBelow(int a, int b);
+    }
+
+    private int[] heap = new int[0];
+    private int size;
+    private int k;
+    private Order order;
+
+    void begin(int k, Order order) {
+        if (heap.length < k) heap = new int[k];
+        this.k = k;
+        this.order = order;
+        size = 0;
+    }
+
+    void offer(int id) {
+        if (size < k) {
+            heap[size] = id;
+            siftUp(size++);
+        } else if (k > 0 && order.ranksBelow(heap[0], id)) {
+            heap[0] = id;
+            siftDown(0, size);
+        }
+    }
+
+    /** Writes the selected IDs into {@code out}, highest first, and returns how many there are. */
+    int finish(int[] out) {
+        int n = size;
+        // Pop the min-heap from the back, so out ends up highest first.
+        for (int i = n - 1; i >= 0; i--) {
+            out[i] = heap[0];
+            heap[0] = heap[i];
+            siftDown(0, i);
+        }
+        size = 0;
+        order = null;
+        return n;
+    }
+
+    private void siftUp(int i) {
+        int id = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!order.ranksBelow(id, heap[parent])) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = id;
+    }
+
+    private void siftDown(int i, int n) {
+        int id = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) break;
+            if (child + 1 < n && order.ranksBelow(heap[child + 1], heap[child])) child++;
+            if (!order.ranksBelow(heap[child], id)) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = id;
+    }
+}
@@ -0,0 +1,52 @@
+package com.systemmonitor.procfs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads a process's cgroup from /proc/&lt;pid&gt;/cgroup: the unified (v2, "0::") path, or on a v1-only host the
+ * name=systemd hierarchy (else the first one listed). Allocates; meant to be called once per new process.
+ */
+public final class CgroupReader {
+
+    /** Docker, containerd, CRI-O and podman all name a container's cgroup after its 64-hex-digit ID. */
+    private static final Pattern CONTAINER_ID = Pattern.compile("(?<![0-9a-f])([0-9a-f]{64})(?![0-9a-f])");
+
+    private final Procfs procfs;
+
+    public CgroupReader(Procfs procfs) {
+        this.procfs = procfs;
+    }
+
+    /** Cgroup path of {@code pid} (e.g. "/system.slice/nginx.service"), or null if it cannot be read. */
+    public String read(int pid) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(procfs.proc(pid + "/cgroup"));
+        } catch (IOException e) {
+            return null;
+        }
+        String fallback = null;
+        for (String line : lines) {
+            // hierarchy-ID:controller-list:path
+            int first = line.indexOf(':');
+            int second = first < 0 ? -1 : line.indexOf(':', first + 1);
+            if (second < 0) continue;
+            String path = line.substring(second + 1);
+            if (line.startsWith("0::")) return path;
+            String controllers = line.substring(first + 1, second);
+            if (controllers.equals("name=systemd") || fallback == null) fallback = path;
+        }
+        return fallback;
+    }
+
+    /** Short (12-digit) container ID named by a cgroup path, or null if the path is not a container's. */
+    public static String containerId(String path) {
+        if (path == null) return null;
+        Matcher m = CONTAINER_ID.matcher(path);
+        return m.find() ? m.group(1).substring(0, 12) : null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.systemmonitor.procfs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+
+/**
+ * Reads each logical processor's current frequency from
+ * /sys/devices/system/cpu/cpuN/cpufreq/scaling_cur_freq (kHz), indexed by processor id like the rows of
+ * {@link ProcStatReader}. The files are opened once; a processor without cpufreq (common in VMs) reads as 0.
+ */
+public final class CpuFreqReader implements Closeable {
+
+    private final ProcFile[] files;
+
+    /**
+     * Opens the files of the processors in {@code cpus}, by id, e.g. the online set from
+     * {@link ProcStatReader#onlineCpus()}; the ids in between (offline processors) read as 0.
+     */
+    public CpuFreqReader(Procfs procfs, BitSet cpus) throws IOException {
+        files = new ProcFile[cpus.length()];
+        for (int i = cpus.nextSetBit(0); i >= 0; i = cpus.nextSetBit(i + 1)) {
+            Path path = procfs.sys("devices/system/cpu/cpu" + i + "/cpufreq/scaling_cur_freq");
+            if (Files.isReadable(path)) files[i] = ProcFile.open(path);
+        }
+    }
+
+    /**
+     * Writes the frequency in MHz of processor id i into {@code outMhz[i]}; 0 for processors it has no file for.
+     */
+    public void read(int[] outMhz) throws IOException {
+        for (int i = 0; i < outMhz.length; i++) {
+            ProcFile file = i < files.length ? files[i] : null;
+            if (file == null) {
+                outMhz[i] = 0;
+                continue;
+            }
+            file.load();
+            long kHz = file.nextLong();
+            outMhz[i] = kHz > 0 ? (int) (kHz / 1000) : 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (ProcFile file : files) {
+            if (file != null) file.close();
+        }
+    }
+}
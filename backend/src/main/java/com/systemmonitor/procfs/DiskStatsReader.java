@@ -0,0 +1,129 @@
+package com.systemmonitor.procfs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads /proc/diskstats counters for whole disks only: the devices listed under /sys/block, minus virtual and
+ * stacked ones (loop, ram, zram, device-mapper, md) whose I/O is already counted on the disks beneath them.
+ * Partitions are skipped for the same reason. The device list is resolved by {@link #refreshDevices}; each
+ * {@link #read} matches device names as bytes against it.
+ */
+public final class DiskStatsReader implements Closeable {
+
+    /** Counters kept per device, in /proc/diskstats order after the device name. */
+    public static final int FIELDS = 11;
+    public static final int READS_COMPLETED = 0;
+    public static final int SECTORS_READ = 2;
+    public static final int MS_READING = 3;
+    public static final int WRITES_COMPLETED = 4;
+    public static final int SECTORS_WRITTEN = 6;
+    public static final int MS_WRITING = 7;
+    public static final int IOS_IN_PROGRESS = 8;
+    public static final int MS_DOING_IO = 9;
+    public static final int WEIGHTED_MS_DOING_IO = 10;
+    /** /proc/diskstats sectors are always 512 bytes, whatever the device's block size. */
+    public static final int SECTOR_BYTES = 512;
+
+    private static final String[] EXCLUDED_PREFIXES = {"loop", "ram", "zram", "dm-", "md"};
+
+    private final Procfs procfs;
+    private final ProcFile file;
+    private String[] names = new String[0];
+    private byte[][] nameBytes = new byte[0][];
+    private long[] counters = new long[0];
+
+    public DiskStatsReader(Procfs procfs) throws IOException {
+        this.procfs = procfs;
+        this.file = ProcFile.open(procfs.proc("diskstats"));
+        refreshDevices();
+    }
+
+    /** Re-lists whole disks from /sys/block. Allocates; call rarely. */
+    public void refreshDevices() throws IOException {
+        List<String> found = new ArrayList<>();
+        try (DirectoryStream<Path> dir = Files.newDirectoryStream(procfs.sys("block"))) {
+            for (Path p : dir) {
+                String name = p.getFileName().toString();
+                if (!isExcluded(name)) found.add(name);
+            }
+        }
+        found.sort(null);
+        String[] sorted = found.toArray(new String[0]);
+        if (Arrays.equals(sorted, names)) return;
+        names = sorted;
+        nameBytes = new byte[sorted.length][];
+        for (int i = 0; i < sorted.length; i++) {
+            nameBytes[i] = sorted[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        counters = new long[sorted.length * FIELDS];
+    }
+
+    /** Re-reads the counters of every tracked device; a device missing from the file keeps zeros. */
+    public void read() throws IOException {
+        Arrays.fill(counters, 0);
+        file.load();
+        while (!file.atEnd()) {
+            file.nextLong();
+            file.nextLong();
+            if (file.nextToken()) {
+                int device = indexOf();
+                if (device >= 0) {
+                    int base = device * FIELDS;
+                    for (int f = 0; f < FIELDS; f++) {
+                        counters[base + f] = Math.max(0, file.nextLong());
+                    }
+                }
+            }
+            file.nextLine();
+        }
+    }
+
+    public int deviceCount() {
+        return names.length;
+    }
+
+    public String deviceName(int device) {
+        return names[device];
+    }
+
+    /** Counter {@code field} (one of the constants above) of {@code device} from the last read. */
+    public long counter(int device, int field) {
+        return counters[device * FIELDS + field];
+    }
+
+    /** Sum of {@code field} over all tracked devices. */
+    public long total(int field) {
+        long sum = 0;
+        for (int d = 0; d < names.length; d++) {
+            sum += counters[d * FIELDS + field];
+        }
+        return sum;
+    }
+
+    private int indexOf() {
+        for (int i = 0; i < nameBytes.length; i++) {
+            if (file.tokenEquals(nameBytes[i])) return i;
+        }
+        return -1;
+    }
+
+    private static boolean isExcluded(String name) {
+        for (String prefix : EXCLUDED_PREFIXES) {
+            if (name.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
@@ -0,0 +1,61 @@
+package com.systemmonitor.procfs;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads the CPU package temperature from /sys/class/hwmon. The sensor is resolved once: the first hwmon device
+ * whose name is a known CPU driver (coretemp, k10temp, zenpower, cpu_thermal), using its package/Tctl input when
+ * labelled and temp1_input otherwise.
+ */
+public final class HwmonReader {
+
+    private static final String[] CPU_DRIVERS = {"coretemp", "k10temp", "zenpower", "cpu_thermal"};
+    private static final String[] PACKAGE_LABELS = {"Package id 0", "Tctl", "Tdie"};
+
+    private final ProcFile input;
+
+    private HwmonReader(ProcFile input) {
+        this.input = input;
+    }
+
+    /** Returns a reader for the CPU temperature sensor, or null if there is none. */
+    public static HwmonReader open(Procfs procfs) throws IOException {
+        Path hwmon = procfs.sys("class/hwmon");
+        if (!Files.isDirectory(hwmon)) return null;
+        for (String driver : CPU_DRIVERS) {
+            try (DirectoryStream<Path> dir = Files.newDirectoryStream(hwmon)) {
+                for (Path device : dir) {
+                    Path name = device.resolve("name");
+                    if (Files.isReadable(name) && Files.readString(name).trim().equals(driver)) {
+                        Path path = temperatureInput(device);
+                        if (path != null) return new HwmonReader(ProcFile.open(path));
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Path temperatureInput(Path device) throws IOException {
+        for (int i = 1; i <= 32; i++) {
+            Path label = device.resolve("temp" + i + "_label");
+            if (!Files.isReadable(label)) continue;
+            String text = Files.readString(label).trim();
+            for (String packageLabel : PACKAGE_LABELS) {
+                if (text.equals(packageLabel)) return device.resolve("temp" + i + "_input");
+            }
+        }
+        Path first = device.resolve("temp1_input");
+        return Files.isReadable(first) ? first : null;
+    }
+
+    /** Current temperature in °C, or NaN if the sensor reports nothing usable. */
+    public double read() throws IOException {
+        input.load();
+        long milliCelsius = input.nextLong();
+        return milliCelsius > 0 ? milliCelsius / 1000.0 : Double.NaN;
+    }
+}
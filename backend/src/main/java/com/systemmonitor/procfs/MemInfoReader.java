@@ -0,0 +1,67 @@
+package com.systemmonitor.procfs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads total and available memory from /proc/meminfo. Kernels without MemAvailable (before 3.14) get
+ * MemFree + Buffers + Cached as the estimate.
+ */
+public final class MemInfoReader implements Closeable {
+
+    private static final byte[] MEM_TOTAL = bytes("MemTotal:");
+    private static final byte[] MEM_FREE = bytes("MemFree:");
+    private static final byte[] MEM_AVAILABLE = bytes("MemAvailable:");
+    private static final byte[] BUFFERS = bytes("Buffers:");
+    private static final byte[] CACHED = bytes("Cached:");
+
+    private final ProcFile file;
+    private long totalBytes;
+    private long availableBytes;
+
+    public MemInfoReader(Procfs procfs) throws IOException {
+        this.file = ProcFile.open(procfs.proc("meminfo"));
+    }
+
+    public void read() throws IOException {
+        file.load();
+        long total = 0;
+        long free = 0;
+        long buffers = 0;
+        long cached = 0;
+        long available = -1;
+        while (!file.atEnd()) {
+            if (file.lineStartsWith(MEM_TOTAL)) total = kiloBytes();
+            else if (file.lineStartsWith(MEM_FREE)) free = kiloBytes();
+            else if (file.lineStartsWith(MEM_AVAILABLE)) available = kiloBytes();
+            else if (file.lineStartsWith(BUFFERS)) buffers = kiloBytes();
+            else if (file.lineStartsWith(CACHED)) cached = kiloBytes();
+            file.nextLine();
+        }
+        totalBytes = total * 1024;
+        availableBytes = (available >= 0 ? available : free + buffers + cached) * 1024;
+    }
+
+    public long totalBytes() {
+        return totalBytes;
+    }
+
+    public long availableBytes() {
+        return availableBytes;
+    }
+
+    private long kiloBytes() {
+        file.nextToken();
+        return Math.max(0, file.nextLong());
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
@@ -0,0 +1,74 @@
+package com.systemmonitor.procfs;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Block-device mounts from /proc/mounts (source under /dev/, each device once). {@link #refresh} re-reads the file
+ * into a reusable buffer and only re-parses it when its content changed.
+ */
+public final class MountsReader {
+
+    private final ProcFile file;
+    private long lastHash;
+    private boolean loaded;
+    private List<String> devices = List.of();
+    private List<String> mountPoints = List.of();
+
+    public MountsReader(Procfs procfs) throws IOException {
+        this.file = ProcFile.open(procfs.proc("mounts"));
+    }
+
+    /** Reloads the mount table; returns true if it changed since the previous call (always on the first). */
+    public boolean refresh() throws IOException {
+        file.load();
+        long hash = file.contentHash();
+        if (loaded && hash == lastHash) return false;
+        loaded = true;
+        lastHash = hash;
+        List<String> devs = new ArrayList<>();
+        List<String> points = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        while (!file.atEnd()) {
+            if (file.nextToken()) {
+                String source = file.tokenString();
+                if (source.startsWith("/dev/") && file.nextToken() && seen.add(source)) {
+                    devs.add(source);
+                    points.add(unescape(file.tokenString()));
+                }
+            }
+            file.nextLine();
+        }
+        devices = List.copyOf(devs);
+        mountPoints = List.copyOf(points);
+        return true;
+    }
+
+    /** Source devices, parallel to {@link #mountPoints}. */
+    public List<String> devices() {
+        return devices;
+    }
+
+    public List<String> mountPoints() {
+        return mountPoints;
+    }
+
+    /** /proc/mounts escapes blanks and backslashes in paths as octal (e.g. \040 for a space). */
+    static String unescape(String path) {
+        if (path.indexOf('\\') < 0) return path;
+        StringBuilder sb = new StringBuilder(path.length());
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '\\' && i + 3 < path.length()) {
+                sb.append((char) Integer.parseInt(path.substring(i + 1, i + 4), 8));
+                i += 3;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,140 @@
+package com.systemmonitor.procfs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Reads per-interface byte, packet, error and drop counters from /proc/net/dev. Interfaces are matched by name as
+ * bytes against the ones already seen; only a newly appearing interface allocates. Interfaces that disappear stay
+ * in the table and are reported as not {@linkplain #isPresent present}.
+ */
+public final class NetDevReader implements Closeable {
+
+    /** Counters kept per interface. */
+    public static final int FIELDS = 8;
+    public static final int RX_BYTES = 0;
+    public static final int RX_PACKETS = 1;
+    public static final int RX_ERRORS = 2;
+    public static final int RX_DROPS = 3;
+    public static final int TX_BYTES = 4;
+    public static final int TX_PACKETS = 5;
+    public static final int TX_ERRORS = 6;
+    public static final int TX_DROPS = 7;
+
+    private static final int HEADER_LINES = 2;
+    /** Receive columns in the file (bytes packets errs drop fifo frame compressed multicast). */
+    private static final int RX_COLUMNS = 8;
+    /** Leading counters of each direction that are kept (bytes packets errs drop). */
+    private static final int KEPT_COLUMNS = 4;
+
+    private final Procfs procfs;
+    private final ProcFile file;
+    private String[] names = new String[8];
+    private byte[][] nameBytes = new byte[8][];
+    private long[] counters = new long[8 * FIELDS];
+    private boolean[] present = new boolean[8];
+    private boolean[] wasPresent = new boolean[8];
+    private int count;
+
+    public NetDevReader(Procfs procfs) throws IOException {
+        this.procfs = procfs;
+        this.file = ProcFile.open(procfs.proc("net/dev"));
+    }
+
+    /** Re-reads all counters; returns true if an interface appeared or disappeared since the previous read. */
+    public boolean read() throws IOException {
+        boolean[] swap = wasPresent;
+        wasPresent = present;
+        present = swap;
+        Arrays.fill(present, 0, count, false);
+        int seen = count;
+        file.load();
+        for (int i = 0; i < HEADER_LINES; i++) file.nextLine();
+        while (!file.atEnd()) {
+            // "  eth0: 1234 ..." or, for large counters, "eth0:1234 ..."
+            if (file.nextToken((byte) ':')) {
+                int i = indexOfOrAdd();
+                int base = i * FIELDS;
+                for (int c = 0; c < RX_COLUMNS; c++) {
+                    long value = file.nextLong();
+                    if (c < KEPT_COLUMNS) counters[base + RX_BYTES + c] = Math.max(0, value);
+                }
+                for (int c = 0; c < KEPT_COLUMNS; c++) {
+                    counters[base + TX_BYTES + c] = Math.max(0, file.nextLong());
+                }
+                present[i] = true;
+            }
+            file.nextLine();
+        }
+        if (count != seen) return true;
+        for (int i = 0; i < count; i++) {
+            if (present[i] != wasPresent[i]) return true;
+        }
+        return false;
+    }
+
+    /** Number of interfaces seen so far (present or not). */
+    public int interfaceCount() {
+        return count;
+    }
+
+    public String name(int i) {
+        return names[i];
+    }
+
+    public boolean isPresent(int i) {
+        return present[i];
+    }
+
+    /** Counter {@code field} (one of the constants above) of interface i from the last read. */
+    public long counter(int i, int field) {
+        return counters[i * FIELDS + field];
+    }
+
+    public long rxBytes(int i) {
+        return counter(i, RX_BYTES);
+    }
+
+    public long txBytes(int i) {
+        return counter(i, TX_BYTES);
+    }
+
+    /**
+     * Negotiated link speed of interface i in bits per second from /sys/class/net/&lt;name&gt;/speed; 0 if unknown
+     * (virtual interfaces, link down). Allocates; call when the interface list changes, not every tick.
+     */
+    public long linkSpeedBitsPerSecond(int i) {
+        try {
+            long mbps = Long.parseLong(Files.readString(procfs.sys("class/net/" + names[i] + "/speed")).trim());
+            return mbps > 0 ? mbps * 1_000_000L : 0;
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private int indexOfOrAdd() {
+        for (int i = 0; i < count; i++) {
+            if (file.tokenEquals(nameBytes[i])) return i;
+        }
+        if (count == names.length) {
+            int n = count * 2;
+            names = Arrays.copyOf(names, n);
+            nameBytes = Arrays.copyOf(nameBytes, n);
+            counters = Arrays.copyOf(counters, n * FIELDS);
+            present = Arrays.copyOf(present, n);
+            wasPresent = Arrays.copyOf(wasPresent, n);
+        }
+        String name = file.tokenString();
+        names[count] = name;
+        nameBytes[count] = name.getBytes(StandardCharsets.US_ASCII);
+        return count++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
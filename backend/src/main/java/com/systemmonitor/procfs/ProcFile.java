@@ -0,0 +1,154 @@
+package com.systemmonitor.procfs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A procfs/sysfs file kept open and re-read in place: {@link #load} does positioned reads from offset 0 into a
+ * reusable buffer (grown only when the file outgrows it), then a cursor parses the bytes without creating Strings.
+ * Number parsing covers the unsigned decimal counters these files hold.
+ * Not thread-safe; each reader owns its files.
+ */
+public final class ProcFile implements Closeable {
+
+    private static final int INITIAL_CAPACITY = 4096;
+
+    private final FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+    private byte[] bytes = buffer.array();
+    private int length;
+    private int pos;
+    private int tokenStart;
+    private int tokenLength;
+
+    private ProcFile(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static ProcFile open(Path path) throws IOException {
+        return new ProcFile(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /** Reads the whole file again and rewinds the cursor. */
+    public void load() throws IOException {
+        int total = 0;
+        while (true) {
+            if (total == bytes.length) {
+                ByteBuffer grown = ByteBuffer.allocate(bytes.length * 2);
+                grown.put(bytes, 0, total);
+                buffer = grown;
+                bytes = grown.array();
+            }
+            buffer.limit(bytes.length).position(total);
+            int n = channel.read(buffer, total);
+            if (n < 0) break;
+            total += n;
+        }
+        length = total;
+        pos = 0;
+    }
+
+    /** Hash of the bytes read by the last {@link #load}, to detect whether a file changed. */
+    public long contentHash() {
+        long h = 0xCBF29CE484222325L ^ length;
+        for (int i = 0; i < length; i++) {
+            h = (h ^ bytes[i]) * 0x100000001B3L;
+        }
+        return h;
+    }
+
+    public boolean atEnd() {
+        return pos >= length;
+    }
+
+    /** Moves to the start of the next line. */
+    public void nextLine() {
+        while (pos < length && bytes[pos] != '\n') pos++;
+        if (pos < length) pos++;
+    }
+
+    /** True if the current line starts with {@code prefix} (cursor must be at a line start). */
+    public boolean lineStartsWith(byte[] prefix) {
+        if (pos + prefix.length > length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[pos + i] != prefix[i]) return false;
+        }
+        return true;
+    }
+
+    /** Parses the next unsigned decimal on the current line; -1 (cursor unchanged) if the line has none left. */
+    public long nextLong() {
+        int p = skipBlanks(pos);
+        if (p >= length || bytes[p] < '0' || bytes[p] > '9') return -1;
+        long value = 0;
+        while (p < length && bytes[p] >= '0' && bytes[p] <= '9') {
+            value = value * 10 + (bytes[p] - '0');
+            p++;
+        }
+        pos = p;
+        return value;
+    }
+
+    /**
+     * Advances over the next token on the current line, which ends at a blank, the line end or {@code stop}
+     * (consumed). Returns false if the line has no token left.
+     */
+    public boolean nextToken(byte stop) {
+        int p = skipBlanks(pos);
+        if (p >= length || bytes[p] == '\n') return false;
+        tokenStart = p;
+        while (p < length && bytes[p] != ' ' && bytes[p] != '\t' && bytes[p] != '\n' && bytes[p] != stop) p++;
+        tokenLength = p - tokenStart;
+        if (p < length && bytes[p] == stop) p++;
+        pos = p;
+        return true;
+    }
+
+    /** Same as {@link #nextToken(byte)} with no extra stop byte. */
+    public boolean nextToken() {
+        return nextToken((byte) ' ');
+    }
+
+    /** True if the last token equals {@code name}. */
+    public boolean tokenEquals(byte[] name) {
+        if (name.length != tokenLength) return false;
+        for (int i = 0; i < tokenLength; i++) {
+            if (bytes[tokenStart + i] != name[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parses the last token, after its first {@code skip} bytes, as an unsigned decimal (e.g. the 3 of "cpu3");
+     * -1 if that part is empty or not all digits.
+     */
+    public long tokenLong(int skip) {
+        if (skip >= tokenLength) return -1;
+        long value = 0;
+        for (int i = tokenStart + skip; i < tokenStart + tokenLength; i++) {
+            if (bytes[i] < '0' || bytes[i] > '9') return -1;
+            value = value * 10 + (bytes[i] - '0');
+        }
+        return value;
+    }
+
+    /** The last token as a String; allocates, so only for rare events such as a newly seen device. */
+    public String tokenString() {
+        return new String(bytes, tokenStart, tokenLength, StandardCharsets.UTF_8);
+    }
+
+    private int skipBlanks(int p) {
+        while (p < length && (bytes[p] == ' ' || bytes[p] == '\t')) p++;
+        return p;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
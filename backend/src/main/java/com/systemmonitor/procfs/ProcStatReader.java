@@ -0,0 +1,86 @@
+package com.systemmonitor.procfs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Reads the "cpu" lines of /proc/stat: the aggregate row, then one row per logical processor, each
+ * {@value #TICK_FIELDS} tick counters (user nice system idle iowait irq softirq steal), the same layout as
+ * OSHI's {@code CentralProcessor.TickType}. Guest time is already included in user/nice, so it is not read.
+ * Processor rows are placed by the id in their "cpuN" label, not by position: offline processors have no line,
+ * so cpu0, cpu1, cpu3 fill rows 1, 2 and 4 and leave row 3 (cpu2) zero.
+ */
+public final class ProcStatReader implements Closeable {
+
+    public static final int TICK_FIELDS = 8;
+
+    /** Highest processor id accepted; the kernel's NR_CPUS limit, so a corrupt line cannot size arrays. */
+    private static final int MAX_CPU_ID = 8191;
+
+    private static final byte[] CPU = "cpu".getBytes(StandardCharsets.US_ASCII);
+
+    private final ProcFile file;
+    private final BitSet online = new BitSet();
+    private final BitSet seen = new BitSet();
+    private boolean onlineChanged;
+
+    public ProcStatReader(Procfs procfs) throws IOException {
+        this.file = ProcFile.open(procfs.proc("stat"));
+    }
+
+    /**
+     * Fills {@code out} with the aggregate row at 0 and processor N's row at N + 1, as far as they fit; rows of
+     * processors missing from the file and fields an old kernel does not report are 0. Returns the number of rows
+     * up to the highest processor id (highest id + 2), which may exceed what fit.
+     */
+    public int read(long[] out) throws IOException {
+        file.load();
+        seen.clear();
+        int rows = 0;
+        int filled = 0;
+        while (!file.atEnd() && file.lineStartsWith(CPU)) {
+            file.nextToken();
+            long id = file.tokenLong(CPU.length);
+            if (id > MAX_CPU_ID) {
+                file.nextLine();
+                continue;
+            }
+            int row = (int) id + 1;
+            if (row > 0) seen.set(row - 1);
+            int base = row * TICK_FIELDS;
+            if (base + TICK_FIELDS <= out.length) {
+                if (filled < row) Arrays.fill(out, filled * TICK_FIELDS, base, 0L);
+                for (int f = 0; f < TICK_FIELDS; f++) {
+                    out[base + f] = Math.max(0, file.nextLong());
+                }
+                filled = Math.max(filled, row + 1);
+            }
+            rows = Math.max(rows, row + 1);
+            file.nextLine();
+        }
+        onlineChanged = !seen.equals(online);
+        if (onlineChanged) {
+            online.clear();
+            online.or(seen);
+        }
+        return rows;
+    }
+
+    /** True if the last {@link #read} saw a different set of processors than the one before (or was the first). */
+    public boolean onlineChanged() {
+        return onlineChanged;
+    }
+
+    /** Ids of the processors the last {@link #read} saw, as a copy. */
+    public BitSet onlineCpus() {
+        return (BitSet) online.clone();
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
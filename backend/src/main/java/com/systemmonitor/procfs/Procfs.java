@@ -0,0 +1,46 @@
+package com.systemmonitor.procfs;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Location of the Linux /proc and /sys trees used by the fast-path collectors, under app.procfs.root
+ * (default "/"; tests point it at fixture files). The fast path is used when app.procfs.enabled (default true)
+ * and {@code <root>/proc/stat} is readable, i.e. on Linux; everywhere else the services fall back to OSHI.
+ */
+@Component
+@Slf4j
+public class Procfs {
+
+    private final Path root;
+    private final boolean enabled;
+
+    public Procfs(@Value("${app.procfs.enabled:true}") boolean enabled,
+                  @Value("${app.procfs.root:/}") String root) {
+        this.root = Paths.get(root);
+        this.enabled = enabled && Files.isReadable(proc("stat"));
+    }
+
+    @PostConstruct
+    void logConfig() {
+        if (enabled) log.info("Linux procfs collectors enabled (root {})", root.toAbsolutePath());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Path proc(String relative) {
+        return root.resolve("proc").resolve(relative);
+    }
+
+    public Path sys(String relative) {
+        return root.resolve("sys").resolve(relative);
+    }
+}
@@ -0,0 +1,47 @@
+package com.systemmonitor.sampling;
+
+/**
+ * Computes CPU usage from successive tick arrays (as returned by OSHI getSystemCpuLoadTicks). The previous
+ * ticks are copied into a reusable array, so an update never allocates.
+ * Not thread-safe (one owner).
+ */
+public final class CpuLoadTracker {
+
+    private final int idleIndex;
+    private final int iowaitIndex;
+    private long[] previous = new long[0];
+    private boolean primed;
+
+    /**
+     * @param idleIndex   index of the idle tick counter
+     * @param iowaitIndex index of the iowait tick counter (counted as idle), or -1 to ignore it
+     */
+    public CpuLoadTracker(int idleIndex, int iowaitIndex) {
+        this.idleIndex = idleIndex;
+        this.iowaitIndex = iowaitIndex;
+    }
+
+    /** Returns usage 0-100 since the previous call (0 on the first call or if the tick layout changed). */
+    public double update(long[] ticks) {
+        return update(ticks, 0, ticks != null ? ticks.length : 0);
+    }
+
+    /** Same as {@link #update(long[])} for the slice {@code ticks[offset, offset + length)}. */
+    public double update(long[] ticks, int offset, int length) {
+        if (ticks == null) return 0.0;
+        double usage = 0.0;
+        if (primed && previous.length == length) {
+            long totalDiff = 0;
+            for (int i = 0; i < length; i++) {
+                totalDiff += ticks[offset + i] - previous[i];
+            }
+            long idleDiff = ticks[offset + idleIndex] - previous[idleIndex];
+            if (iowaitIndex >= 0) idleDiff += ticks[offset + iowaitIndex] - previous[iowaitIndex];
+            if (totalDiff > 0) usage = 100.0 * (1.0 - (double) idleDiff / totalDiff);
+        }
+        if (previous.length != length) previous = new long[length];
+        System.arraycopy(ticks, offset, previous, 0, length);
+        primed = true;
+        return MetricMath.clampPercent(usage);
+    }
+}
@@ -0,0 +1,24 @@
+package com.systemmonitor.sampling;
+
+/**
+ * Shared numeric helpers for collectors. {@link #round} uses a power-of-ten table instead of Math.pow.
+ */
+public final class MetricMath {
+
+    private static final double[] POW10 = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private MetricMath() {
+    }
+
+    /** Rounds half-up to {@code places} decimals (0-6). */
+    public static double round(double value, int places) {
+        if (places < 0 || places >= POW10.length) throw new IllegalArgumentException("places: " + places);
+        double factor = POW10[places];
+        return Math.round(value * factor) / factor;
+    }
+
+    /** Clamps to 0-100. */
+    public static double clampPercent(double value) {
+        return Math.max(0, Math.min(100, value));
+    }
+}
@@ -0,0 +1,59 @@
+package com.systemmonitor.sampling;
+
+/**
+ * Per-logical-processor counterpart of {@link CpuLoadTracker}: takes all cores' tick counters packed in one
+ * array ({@code stride} counters per core) and writes each core's usage since the previous call into a
+ * caller-owned array. The previous ticks are kept packed too, so an update allocates nothing unless the core
+ * count or layout changes. Not thread-safe (one owner).
+ */
+public final class PerCoreLoadTracker {
+
+    private final int idleIndex;
+    private final int iowaitIndex;
+    private long[] previous = new long[0];
+    private int previousCores = -1;
+    private int previousStride = -1;
+
+    /**
+     * @param idleIndex   index of the idle tick counter within a core's row
+     * @param iowaitIndex index of the iowait tick counter (counted as idle), or -1 to ignore it
+     */
+    public PerCoreLoadTracker(int idleIndex, int iowaitIndex) {
+        this.idleIndex = idleIndex;
+        this.iowaitIndex = iowaitIndex;
+    }
+
+    /**
+     * Writes usage 0-100 of core c, rounded to 0.1, into {@code out[c]} for c in [0, cores), reading core c's
+     * counters from {@code ticks[offset + c * stride, offset + (c + 1) * stride)}. All zero on the first call
+     * or after the layout changed.
+     */
+    public void update(long[] ticks, int offset, int cores, int stride, double[] out) {
+        boolean primed = cores == previousCores && stride == previousStride;
+        int length = cores * stride;
+        for (int c = 0; c < cores; c++) {
+            double usage = 0.0;
+            if (primed) {
+                int base = offset + c * stride;
+                int prev = c * stride;
+                long totalDiff = 0;
+                for (int i = 0; i < stride; i++) {
+                    totalDiff += ticks[base + i] - previous[prev + i];
+                }
+                long idleDiff = ticks[base + idleIndex] - previous[prev + idleIndex];
+                if (iowaitIndex >= 0) idleDiff += ticks[base + iowaitIndex] - previous[prev + iowaitIndex];
+                if (totalDiff > 0) usage = 100.0 * (1.0 - (double) idleDiff / totalDiff);
+            }
+            out[c] = MetricMath.round(MetricMath.clampPercent(usage), 1);
+        }
+        if (previous.length < length) previous = new long[length];
+        System.arraycopy(ticks, offset, previous, 0, length);
+        previousCores = cores;
+        previousStride = stride;
+    }
+
+    /** Forgets the previous ticks, so the next update writes all zeros and starts a new baseline. */
+    public void reset() {
+        previousCores = -1;
+    }
+}
@@ -0,0 +1,31 @@
+package com.systemmonitor.sampling;
+
+/**
+ * Turns a monotonically increasing counter (e.g. total bytes read) into a per-second rate using
+ * {@link System#nanoTime()} intervals, so rates stay correct whatever the sampling period.
+ * Holds only primitives; not thread-safe (one owner per counter).
+ */
+public final class RateTracker {
+
+    private long previousTotal;
+    private long previousNanos;
+    private boolean primed;
+
+    /** Records the starting point without producing a rate. */
+    public void prime(long total, long nowNanos) {
+        previousTotal = total;
+        previousNanos = nowNanos;
+        primed = true;
+    }
+
+    /** Returns the per-second rate since the previous call (0 on the first call or if the counter went back). */
+    public long update(long total, long nowNanos) {
+        long rate = 0;
+        if (primed) {
+            long elapsed = Math.max(1, nowNanos - previousNanos);
+            rate = Math.max(0, (long) (1e9 * (total - previousTotal) / elapsed));
+        }
+        prime(total, nowNanos);
+        return rate;
+    }
+}
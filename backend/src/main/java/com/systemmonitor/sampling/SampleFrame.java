@@ -0,0 +1,363 @@
+package com.systemmonitor.sampling;
+
+import com.systemmonitor.dto.SystemStats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Preallocated, reusable sample of every collector, held as primitive fields (GPUs as parallel arrays).
+ * Collectors write into a section on each tick; {@link SystemStats} DTOs are only built at the edges that
+ * need them ({@link #toSystemStats}). Missing temperatures are NaN rather than null.
+ * Sections are not thread-safe; each one has a single writer at a time.
+ */
+public final class SampleFrame {
+
+    public final Cpu cpu = new Cpu();
+    public final Memory memory = new Memory();
+    public final Gpu gpu = new Gpu();
+    public final Disk disk = new Disk();
+    public final Network network = new Network();
+
+    /** A part of the frame written by one collector. */
+    public interface Section<S> {
+        void copyFrom(S other);
+    }
+
+    /** Builds the DTO for publishing. */
+    public SystemStats toSystemStats(long timestamp, List<String> stale) {
+        List<SystemStats.GpuStats> gpus = gpu.toDtoList();
+        return SystemStats.builder()
+                .timestamp(timestamp)
+                .cpu(cpu.toDto())
+                .memory(memory.toDto())
+                .gpu(gpus.isEmpty() ? null : gpus.get(0))
+                .gpus(gpus)
+                .disk(disk.toDto())
+                .network(network.toDto())
+                .stale(stale)
+                .build();
+    }
+
+    private static Double boxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    /** Per-core entries [0, coreCount) are valid; the arrays only grow when the core count does. */
+    public static final class Cpu implements Section<Cpu> {
+        public String name = "N/A";
+        public double usagePercent;
+        public int logicalProcessorCount;
+        public double temperatureCelsius = Double.NaN;
+        public int coreCount;
+        public double[] coreUsagePercent = new double[0];
+        public int[] coreFrequencyMhz = new int[0];
+
+        /** Sets {@link #coreCount}, growing the per-core arrays if needed. */
+        public void setCoreCount(int count) {
+            if (coreUsagePercent.length < count) {
+                coreUsagePercent = new double[count];
+                coreFrequencyMhz = new int[count];
+            }
+            coreCount = count;
+        }
+
+        @Override
+        public void copyFrom(Cpu o) {
+            name = o.name;
+            usagePercent = o.usagePercent;
+            logicalProcessorCount = o.logicalProcessorCount;
+            temperatureCelsius = o.temperatureCelsius;
+            setCoreCount(o.coreCount);
+            System.arraycopy(o.coreUsagePercent, 0, coreUsagePercent, 0, coreCount);
+            System.arraycopy(o.coreFrequencyMhz, 0, coreFrequencyMhz, 0, coreCount);
+        }
+
+        public SystemStats.CpuStats toDto() {
+            return SystemStats.CpuStats.builder()
+                    .name(name)
+                    .usagePercent(usagePercent)
+                    .logicalProcessorCount(logicalProcessorCount)
+                    .temperatureCelsius(boxed(temperatureCelsius))
+                    .coreUsagePercent(coreCount > 0 ? Arrays.copyOf(coreUsagePercent, coreCount) : null)
+                    .coreFrequencyMhz(coreCount > 0 ? Arrays.copyOf(coreFrequencyMhz, coreCount) : null)
+                    .build();
+        }
+    }
+
+    public static final class Memory implements Section<Memory> {
+        public long totalBytes;
+        public long usedBytes;
+        public long availableBytes;
+        public double usagePercent;
+
+        @Override
+        public void copyFrom(Memory o) {
+            totalBytes = o.totalBytes;
+            usedBytes = o.usedBytes;
+            availableBytes = o.availableBytes;
+            usagePercent = o.usagePercent;
+        }
+
+        public SystemStats.MemoryStats toDto() {
+            return SystemStats.MemoryStats.builder()
+                    .totalBytes(totalBytes)
+                    .usedBytes(usedBytes)
+                    .availableBytes(availableBytes)
+                    .usagePercent(usagePercent)
+                    .build();
+        }
+    }
+
+    /** Up to {@link #MAX_GPUS} GPUs as parallel arrays; entries [0, count) are valid. */
+    public static final class Gpu implements Section<Gpu> {
+        public static final int MAX_GPUS = 16;
+
+        public int count = 1;
+        public final String[] names = new String[MAX_GPUS];
+        public final double[] usagePercent = new double[MAX_GPUS];
+        public final long[] vramUsedBytes = new long[MAX_GPUS];
+        public final long[] vramTotalBytes = new long[MAX_GPUS];
+        public final double[] temperatureCelsius = new double[MAX_GPUS];
+        public final double[] powerWatts = new double[MAX_GPUS];
+
+        public Gpu() {
+            setPlaceholder();
+        }
+
+        /** A single "N/A" entry with zero usage, as reported when no GPU is found. */
+        public void setPlaceholder() {
+            count = 1;
+            names[0] = "N/A";
+            usagePercent[0] = 0;
+            vramUsedBytes[0] = 0;
+            vramTotalBytes[0] = 0;
+            temperatureCelsius[0] = Double.NaN;
+            powerWatts[0] = Double.NaN;
+        }
+
+        @Override
+        public void copyFrom(Gpu o) {
+            count = o.count;
+            System.arraycopy(o.names, 0, names, 0, count);
+            System.arraycopy(o.usagePercent, 0, usagePercent, 0, count);
+            System.arraycopy(o.vramUsedBytes, 0, vramUsedBytes, 0, count);
+            System.arraycopy(o.vramTotalBytes, 0, vramTotalBytes, 0, count);
+            System.arraycopy(o.temperatureCelsius, 0, temperatureCelsius, 0, count);
+            System.arraycopy(o.powerWatts, 0, powerWatts, 0, count);
+        }
+
+        public List<SystemStats.GpuStats> toDtoList() {
+            List<SystemStats.GpuStats> list = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                list.add(SystemStats.GpuStats.builder()
+                        .usagePercent(usagePercent[i])
+                        .name(names[i])
+                        .vramUsedBytes(vramUsedBytes[i])
+                        .vramTotalBytes(vramTotalBytes[i])
+                        .temperatureCelsius(boxed(temperatureCelsius[i]))
+                        .powerWatts(boxed(powerWatts[i]))
+                        .build());
+            }
+            return list;
+        }
+    }
+
+    /**
+     * Aggregate disk I/O and space, plus per-device entries [0, deviceCount) and per-mount entries
+     * [0, mountCount) as parallel arrays that only grow when the counts do.
+     */
+    public static final class Disk implements Section<Disk> {
+        public long readBytesPerSecond;
+        public long writeBytesPerSecond;
+        public long totalBytes;
+        public long usedBytes;
+        public double usagePercent;
+
+        public int deviceCount;
+        public String[] deviceNames = new String[0];
+        public long[] deviceReadBytesPerSecond = new long[0];
+        public long[] deviceWriteBytesPerSecond = new long[0];
+        public double[] deviceReadIops = new double[0];
+        public double[] deviceWriteIops = new double[0];
+        public double[] deviceServiceTimeMs = new double[0];
+        public double[] deviceQueueLength = new double[0];
+        public double[] deviceBusyPercent = new double[0];
+
+        public int mountCount;
+        public String[] mountPoints = new String[0];
+        public String[] mountDevices = new String[0];
+        public long[] mountTotalBytes = new long[0];
+        public long[] mountUsedBytes = new long[0];
+
+        /** Sets {@link #deviceCount}, growing the per-device arrays if needed. */
+        public void setDeviceCount(int count) {
+            if (deviceNames.length < count) {
+                deviceNames = Arrays.copyOf(deviceNames, count);
+                deviceReadBytesPerSecond = new long[count];
+                deviceWriteBytesPerSecond = new long[count];
+                deviceReadIops = new double[count];
+                deviceWriteIops = new double[count];
+                deviceServiceTimeMs = new double[count];
+                deviceQueueLength = new double[count];
+                deviceBusyPercent = new double[count];
+            }
+            deviceCount = count;
+        }
+
+        /** Sets {@link #mountCount}, growing the per-mount arrays if needed. */
+        public void setMountCount(int count) {
+            if (mountPoints.length < count) {
+                mountPoints = Arrays.copyOf(mountPoints, count);
+                mountDevices = Arrays.copyOf(mountDevices, count);
+                mountTotalBytes = new long[count];
+                mountUsedBytes = new long[count];
+            }
+            mountCount = count;
+        }
+
+        @Override
+        public void copyFrom(Disk o) {
+            readBytesPerSecond = o.readBytesPerSecond;
+            writeBytesPerSecond = o.writeBytesPerSecond;
+            totalBytes = o.totalBytes;
+            usedBytes = o.usedBytes;
+            usagePercent = o.usagePercent;
+            setDeviceCount(o.deviceCount);
+            System.arraycopy(o.deviceNames, 0, deviceNames, 0, deviceCount);
+            System.arraycopy(o.deviceReadBytesPerSecond, 0, deviceReadBytesPerSecond, 0, deviceCount);
+            System.arraycopy(o.deviceWriteBytesPerSecond, 0, deviceWriteBytesPerSecond, 0, deviceCount);
+            System.arraycopy(o.deviceReadIops, 0, deviceReadIops, 0, deviceCount);
+            System.arraycopy(o.deviceWriteIops, 0, deviceWriteIops, 0, deviceCount);
+            System.arraycopy(o.deviceServiceTimeMs, 0, deviceServiceTimeMs, 0, deviceCount);
+            System.arraycopy(o.deviceQueueLength, 0, deviceQueueLength, 0, deviceCount);
+            System.arraycopy(o.deviceBusyPercent, 0, deviceBusyPercent, 0, deviceCount);
+            copyMountsFrom(o);
+        }
+
+        /** Copies only the per-mount arrays. */
+        public void copyMountsFrom(Disk o) {
+            setMountCount(o.mountCount);
+            System.arraycopy(o.mountPoints, 0, mountPoints, 0, mountCount);
+            System.arraycopy(o.mountDevices, 0, mountDevices, 0, mountCount);
+            System.arraycopy(o.mountTotalBytes, 0, mountTotalBytes, 0, mountCount);
+            System.arraycopy(o.mountUsedBytes, 0, mountUsedBytes, 0, mountCount);
+        }
+
+        public SystemStats.DiskStats toDto() {
+            List<SystemStats.DiskDeviceStats> devices = new ArrayList<>(deviceCount);
+            for (int i = 0; i < deviceCount; i++) {
+                devices.add(SystemStats.DiskDeviceStats.builder()
+                        .name(deviceNames[i])
+                        .readBytesPerSecond(deviceReadBytesPerSecond[i])
+                        .writeBytesPerSecond(deviceWriteBytesPerSecond[i])
+                        .readIops(deviceReadIops[i])
+                        .writeIops(deviceWriteIops[i])
+                        .avgServiceTimeMs(deviceServiceTimeMs[i])
+                        .queueLength(deviceQueueLength[i])
+                        .busyPercent(deviceBusyPercent[i])
+                        .build());
+            }
+            List<SystemStats.MountStats> mounts = new ArrayList<>(mountCount);
+            for (int i = 0; i < mountCount; i++) {
+                long total = mountTotalBytes[i];
+                double usage = total > 0 ? 100.0 * mountUsedBytes[i] / total : 0.0;
+                mounts.add(SystemStats.MountStats.builder()
+                        .mountPoint(mountPoints[i])
+                        .device(mountDevices[i])
+                        .totalBytes(total)
+                        .usedBytes(mountUsedBytes[i])
+                        .usagePercent(MetricMath.round(MetricMath.clampPercent(usage), 2))
+                        .build());
+            }
+            return SystemStats.DiskStats.builder()
+                    .readBytesPerSecond(readBytesPerSecond)
+                    .writeBytesPerSecond(writeBytesPerSecond)
+                    .totalBytes(totalBytes)
+                    .usedBytes(usedBytes)
+                    .usagePercent(usagePercent)
+                    .devices(devices)
+                    .mounts(mounts)
+                    .build();
+        }
+    }
+
+    /** Aggregate network I/O plus per-interface entries [0, interfaceCount), as arrays that only grow. */
+    public static final class Network implements Section<Network> {
+        public long downloadBytesPerSecond;
+        public long uploadBytesPerSecond;
+        public long totalBytesReceived;
+        public long totalBytesSent;
+
+        public int interfaceCount;
+        public String[] interfaceNames = new String[0];
+        public long[] interfaceDownloadBytesPerSecond = new long[0];
+        public long[] interfaceUploadBytesPerSecond = new long[0];
+        public double[] interfaceDownloadPacketsPerSecond = new double[0];
+        public double[] interfaceUploadPacketsPerSecond = new double[0];
+        public double[] interfaceErrorsPerSecond = new double[0];
+        public double[] interfaceDropsPerSecond = new double[0];
+        public long[] interfaceLinkSpeedBitsPerSecond = new long[0];
+        public double[] interfaceUtilizationPercent = new double[0];
+
+        /** Sets {@link #interfaceCount}, growing the per-interface arrays if needed. */
+        public void setInterfaceCount(int count) {
+            if (interfaceNames.length < count) {
+                interfaceNames = Arrays.copyOf(interfaceNames, count);
+                interfaceDownloadBytesPerSecond = new long[count];
+                interfaceUploadBytesPerSecond = new long[count];
+                interfaceDownloadPacketsPerSecond = new double[count];
+                interfaceUploadPacketsPerSecond = new double[count];
+                interfaceErrorsPerSecond = new double[count];
+                interfaceDropsPerSecond = new double[count];
+                interfaceLinkSpeedBitsPerSecond = new long[count];
+                interfaceUtilizationPercent = new double[count];
+            }
+            interfaceCount = count;
+        }
+
+        @Override
+        public void copyFrom(Network o) {
+            downloadBytesPerSecond = o.downloadBytesPerSecond;
+            uploadBytesPerSecond = o.uploadBytesPerSecond;
+            totalBytesReceived = o.totalBytesReceived;
+            totalBytesSent = o.totalBytesSent;
+            setInterfaceCount(o.interfaceCount);
+            int n = interfaceCount;
+            System.arraycopy(o.interfaceNames, 0, interfaceNames, 0, n);
+            System.arraycopy(o.interfaceDownloadBytesPerSecond, 0, interfaceDownloadBytesPerSecond, 0, n);
+            System.arraycopy(o.interfaceUploadBytesPerSecond, 0, interfaceUploadBytesPerSecond, 0, n);
+            System.arraycopy(o.interfaceDownloadPacketsPerSecond, 0, interfaceDownloadPacketsPerSecond, 0, n);
+            System.arraycopy(o.interfaceUploadPacketsPerSecond, 0, interfaceUploadPacketsPerSecond, 0, n);
+            System.arraycopy(o.interfaceErrorsPerSecond, 0, interfaceErrorsPerSecond, 0, n);
+            System.arraycopy(o.interfaceDropsPerSecond, 0, interfaceDropsPerSecond, 0, n);
+            System.arraycopy(o.interfaceLinkSpeedBitsPerSecond, 0, interfaceLinkSpeedBitsPerSecond, 0, n);
+            System.arraycopy(o.interfaceUtilizationPercent, 0, interfaceUtilizationPercent, 0, n);
+        }
+
+        public SystemStats.NetworkStats toDto() {
+            List<SystemStats.NetworkInterfaceStats> interfaces = new ArrayList<>(interfaceCount);
+            for (int i = 0; i < interfaceCount; i++) {
+                interfaces.add(SystemStats.NetworkInterfaceStats.builder()
+                        .name(interfaceNames[i])
+                        .downloadBytesPerSecond(interfaceDownloadBytesPerSecond[i])
+                        .uploadBytesPerSecond(interfaceUploadBytesPerSecond[i])
+                        .downloadPacketsPerSecond(interfaceDownloadPacketsPerSecond[i])
+                        .uploadPacketsPerSecond(interfaceUploadPacketsPerSecond[i])
+                        .errorsPerSecond(interfaceErrorsPerSecond[i])
+                        .dropsPerSecond(interfaceDropsPerSecond[i])
+                        .linkSpeedBitsPerSecond(interfaceLinkSpeedBitsPerSecond[i])
+                        .utilizationPercent(interfaceUtilizationPercent[i])
+                        .build());
+            }
+            return SystemStats.NetworkStats.builder()
+                    .downloadBytesPerSecond(downloadBytesPerSecond)
+                    .uploadBytesPerSecond(uploadBytesPerSecond)
+                    .totalBytesReceived(totalBytesReceived)
+                    .totalBytesSent(totalBytesSent)
+                    .interfaces(interfaces)
+                    .build();
+        }
+    }
+}
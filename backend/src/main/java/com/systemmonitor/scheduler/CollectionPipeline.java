@@ -0,0 +1,168 @@
+package com.systemmonitor.scheduler;
+
+import com.systemmonitor.dto.SystemStats;
+import com.systemmonitor.sampling.SampleFrame;
+import com.systemmonitor.service.CpuService;
+import com.systemmonitor.service.DiskService;
+import com.systemmonitor.service.GpuService;
+import com.systemmonitor.service.MemoryService;
+import com.systemmonitor.service.NetworkService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Fans out the collectors in parallel on a small bounded executor and assembles one {@link SystemStats}
+ * per tick. Every collector shares one deadline (app.collection.deadline-ms, default 500 ms, and never more than
+ * one sampling tick); a collector that misses it or fails reports its last good value and is listed in
+ * {@link SystemStats#getStale()}, so a slow source (LHM HTTP timeout, nvidia-smi) never delays the tick.
+ * Each collector has its own period ({@link SamplingProperties}, app.sampling): {@link #sampleDue} only runs the
+ * ones whose {@link CollectorSchedule} says they are due, and the others keep their last value (not stale).
+ * Collectors write into a preallocated {@link SampleFrame}; the DTO is only built per published tick
+ * ({@link #snapshot}), and the last one is kept for REST queries ({@link #latest}) so they never re-sample the
+ * collectors.
+ * Each collector call is timed (stats.collector.duration), each stale result counted (stats.collector.stale) and
+ * each collector's current period exposed (stats.collector.period, ms).
+ */
+@Component
+@Slf4j
+@EnableConfigurationProperties(SamplingProperties.class)
+public class CollectionPipeline {
+
+    private static final long DEFAULT_DEADLINE_MS = 500;
+
+    private final ExecutorService executor;
+    private final long deadlineNanos;
+    private final long tickNanos;
+    private final SampleFrame frame = new SampleFrame();
+    private final List<TimedCollector<?>> collectors;
+    private final CollectorSchedule[] schedules;
+    private final boolean[] due;
+    private volatile SystemStats latest;
+
+    public CollectionPipeline(CpuService cpuService,
+                              MemoryService memoryService,
+                              GpuService gpuService,
+                              DiskService diskService,
+                              NetworkService networkService,
+                              @Value("${app.collection.deadline-ms:500}") long deadlineMs,
+                              SamplingProperties sampling,
+                              MeterRegistry meterRegistry) {
+        this.deadlineNanos = (deadlineMs > 0 ? deadlineMs : DEFAULT_DEADLINE_MS) * 1_000_000L;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, sampling.getTickMs()));
+        this.collectors = List.of(
+                new TimedCollector<>("cpu", cpuService::sample, new SampleFrame.Cpu(), frame.cpu, meterRegistry),
+                new TimedCollector<>("memory", memoryService::sample, new SampleFrame.Memory(), frame.memory, meterRegistry),
+                new TimedCollector<>("gpu", gpuService::sample, new SampleFrame.Gpu(), frame.gpu, meterRegistry),
+                new TimedCollector<>("disk", diskService::sample, new SampleFrame.Disk(), frame.disk, meterRegistry),
+                new TimedCollector<>("network", networkService::sample, new SampleFrame.Network(), frame.network, meterRegistry));
+        DoubleSupplier[] headlines = {
+                () -> frame.cpu.usagePercent,
+                () -> frame.memory.usagePercent,
+                () -> maxGpuUsage(frame.gpu),
+                () -> frame.disk.readBytesPerSecond + frame.disk.writeBytesPerSecond,
+                () -> frame.network.downloadBytesPerSecond + frame.network.uploadBytesPerSecond
+        };
+        this.schedules = new CollectorSchedule[collectors.size()];
+        for (int i = 0; i < schedules.length; i++) {
+            String name = collectors.get(i).name();
+            CollectorSchedule schedule = new CollectorSchedule(sampling.collector(name), sampling.isAdaptive(),
+                    tickNanos, headlines[i]);
+            schedules[i] = schedule;
+            Gauge.builder("stats.collector.period", schedule, CollectorSchedule::currentPeriodMs)
+                    .description("Current sampling period in ms")
+                    .tag("collector", name)
+                    .register(meterRegistry);
+        }
+        this.due = new boolean[collectors.size()];
+        // One thread per collector is enough: TimedCollector never has more than one call in flight.
+        this.executor = Executors.newFixedThreadPool(collectors.size(), new CollectorThreadFactory());
+    }
+
+    /**
+     * Runs the collectors due at {@code nowNanos} (System.nanoTime based) given whether a client is watching, and
+     * returns within the deadline; returns false without waiting if none was due. Never throws for a failing
+     * collector. Call {@link #snapshot} to publish the result.
+     */
+    public boolean sampleDue(long nowNanos, boolean watched) {
+        boolean any = false;
+        for (int i = 0; i < due.length; i++) {
+            due[i] = schedules[i].isDue(nowNanos, watched);
+            any |= due[i];
+        }
+        if (any) run(nowNanos, Math.min(deadlineNanos, tickNanos));
+        return any;
+    }
+
+    /** Makes every collector due on the next {@link #sampleDue}, e.g. so a client arriving after idle gets fresh values. */
+    public void expedite() {
+        for (CollectorSchedule schedule : schedules) schedule.expedite();
+    }
+
+    /** Builds the DTO from the current frame and keeps it as {@link #latest}. */
+    public SystemStats snapshot() {
+        List<String> stale = null;
+        for (TimedCollector<?> c : collectors) {
+            if (c.isStale()) {
+                if (stale == null) stale = new ArrayList<>(collectors.size());
+                stale.add(c.name());
+            }
+        }
+        SystemStats stats = frame.toSystemStats(System.currentTimeMillis(), stale != null ? stale : List.of());
+        latest = stats;
+        return stats;
+    }
+
+    private void run(long nowNanos, long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        for (int i = 0; i < due.length; i++) {
+            if (due[i]) collectors.get(i).start(executor);
+        }
+        for (int i = 0; i < due.length; i++) {
+            if (!due[i]) continue;
+            TimedCollector<?> c = collectors.get(i);
+            c.await(deadline);
+            schedules[i].sampled(nowNanos, !c.isStale());
+        }
+    }
+
+    private static double maxGpuUsage(SampleFrame.Gpu gpu) {
+        double max = 0;
+        for (int i = 0; i < gpu.count; i++) max = Math.max(max, gpu.usagePercent[i]);
+        return max;
+    }
+
+    /** The stats built by the most recent {@link #snapshot}; null before the first tick. */
+    public SystemStats latest() {
+        return latest;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class CollectorThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "stats-collector-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.systemmonitor.scheduler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * When one collector in the {@link CollectionPipeline} is next due. While a client watches the live stream it uses
+ * the fast period; otherwise the normal period for {@value #ACTIVE_HOLD_SECONDS} s after its headline value last
+ * moved by the change threshold, and the idle period once it has been steady that long.
+ * The period is re-evaluated on every tick, so a new watcher speeds collection up on the next tick.
+ * Not thread-safe; only the pipeline's tick thread uses it.
+ */
+final class CollectorSchedule {
+
+    static final long ACTIVE_HOLD_SECONDS = 10;
+    private static final long ACTIVE_HOLD_NANOS = TimeUnit.SECONDS.toNanos(ACTIVE_HOLD_SECONDS);
+
+    private final long periodNanos;
+    private final long fastPeriodNanos;
+    private final long idlePeriodNanos;
+    private final double changeThreshold;
+    private final boolean adaptive;
+    /** Ticks are not exactly periodic; a collector is due this much early so it is not pushed a whole tick late. */
+    private final long slackNanos;
+    private final DoubleSupplier headline;
+    /** Period chosen on the last {@link #isDue} call, for the stats.collector.period gauge. */
+    private volatile long currentPeriodNanos;
+    private boolean primed;
+    private long lastSampleNanos;
+    private boolean hasValue;
+    private double lastValue;
+    private boolean changed;
+    private long activeUntilNanos;
+
+    CollectorSchedule(SamplingProperties.Collector config, boolean adaptive, long tickNanos, DoubleSupplier headline) {
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, config.getPeriodMs()));
+        this.fastPeriodNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, config.getFastPeriodMs()));
+        this.idlePeriodNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, config.getIdlePeriodMs()));
+        this.changeThreshold = config.getChangeThreshold();
+        this.adaptive = adaptive;
+        this.slackNanos = tickNanos / 2;
+        this.headline = headline;
+        this.currentPeriodNanos = periodNanos;
+    }
+
+    /** Current period given whether anyone is watching. */
+    long periodNanos(long nowNanos, boolean watched) {
+        if (!adaptive) return periodNanos;
+        if (watched) return fastPeriodNanos;
+        return changed && nowNanos - activeUntilNanos < 0 ? periodNanos : idlePeriodNanos;
+    }
+
+    boolean isDue(long nowNanos, boolean watched) {
+        long period = periodNanos(nowNanos, watched);
+        currentPeriodNanos = period;
+        return !primed || nowNanos - lastSampleNanos >= period - slackNanos;
+    }
+
+    /** Makes the collector due on the next tick regardless of its period. */
+    void expedite() {
+        primed = false;
+    }
+
+    double currentPeriodMs() {
+        return currentPeriodNanos / 1e6;
+    }
+
+    /** Records a sample started at {@code nowNanos}; {@code fresh} if it produced a new value. */
+    void sampled(long nowNanos, boolean fresh) {
+        if (fresh) {
+            double value = headline.getAsDouble();
+            if (hasValue && changeThreshold > 0 && Math.abs(value - lastValue) >= changeThreshold) {
+                changed = true;
+                activeUntilNanos = nowNanos + ACTIVE_HOLD_NANOS;
+            }
+            lastValue = value;
+            hasValue = true;
+        }
+        primed = true;
+        lastSampleNanos = nowNanos;
+    }
+}
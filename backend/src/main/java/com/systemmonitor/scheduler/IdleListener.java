@@ -0,0 +1,10 @@
+package com.systemmonitor.scheduler;
+
+/**
+ * Told by {@link StatsScheduler} when it enters or leaves idle mode (nobody watching the live stream), so
+ * background pollers can slow down and catch up again. Called on the tick thread; must not block.
+ */
+public interface IdleListener {
+
+    void onIdleChanged(boolean idle);
+}
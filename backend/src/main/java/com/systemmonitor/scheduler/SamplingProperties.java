@@ -0,0 +1,54 @@
+package com.systemmonitor.scheduler;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-collector sampling periods under app.sampling (see application.yml). The scheduler ticks every
+ * {@code tick-ms}; a collector is sampled on the first tick at least its current period after its last sample,
+ * so periods are effectively rounded up to whole ticks. Collectors not listed use {@link Collector}'s defaults.
+ */
+@Data
+@ConfigurationProperties("app.sampling")
+public class SamplingProperties {
+
+    /** If false every collector runs at its {@code period-ms}. */
+    private boolean adaptive = true;
+    private long tickMs = 250;
+    /** Keyed by collector name: cpu, memory, gpu, disk, network. */
+    private Map<String, Collector> collectors = new LinkedHashMap<>();
+    private Idle idle = new Idle();
+
+    /** Settings for {@code name}, or the defaults if it is not configured. */
+    public Collector collector(String name) {
+        Collector c = collectors.get(name);
+        return c != null ? c : new Collector();
+    }
+
+    /** Idle mode: what the scheduler does once nobody has watched the live stream for {@code grace-ms}. */
+    @Data
+    public static class Idle {
+        private boolean enabled = true;
+        private long graceMs = 10_000;
+        /** How often history, alerts, anomalies and listeners get a sample while idle. */
+        private long recordPeriodMs = 5000;
+    }
+
+    @Data
+    public static class Collector {
+        /** Period while nobody is watching but the metric is changing (and always when not adaptive). */
+        private long periodMs = 1000;
+        /** Period while a client is watching the live stream. */
+        private long fastPeriodMs = 1000;
+        /** Period while nobody is watching and the metric is steady. */
+        private long idlePeriodMs = 1000;
+        /**
+         * Change between two samples of the collector's headline value (CPU/memory/GPU percent, disk/network
+         * bytes per second) that counts as changing quickly; 0 never does.
+         */
+        private double changeThreshold;
+    }
+}
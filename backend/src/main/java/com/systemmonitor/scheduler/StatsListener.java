@@ -0,0 +1,12 @@
+package com.systemmonitor.scheduler;
+
+import com.systemmonitor.dto.SystemStats;
+
+/**
+ * Receives every tick's {@link SystemStats} from {@link StatsScheduler}, after it has been published. Called on
+ * the tick thread, so implementations must hand slow work (I/O) off.
+ */
+public interface StatsListener {
+
+    void onStats(SystemStats stats);
+}
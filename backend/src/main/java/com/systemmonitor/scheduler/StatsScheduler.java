@@ -1,61 +1,243 @@
 package com.systemmonitor.scheduler;
 
+import com.systemmonitor.alert.AlertEngine;
+import com.systemmonitor.anomaly.AnomalyDetector;
+import com.systemmonitor.diagnostics.PipelineMeters;
 import com.systemmonitor.dto.SystemStats;
-import com.systemmonitor.service.CpuService;
-import com.systemmonitor.service.DiskService;
-import com.systemmonitor.service.GpuService;
-import com.systemmonitor.service.MemoryService;
-import com.systemmonitor.service.NetworkService;
-import lombok.RequiredArgsConstructor;
+import com.systemmonitor.history.MetricHistoryStore;
+import com.systemmonitor.history.SegmentStore;
+import com.systemmonitor.websocket.DeltaStatsPublisher;
+import com.systemmonitor.websocket.StatsBroadcaster;
+import com.systemmonitor.websocket.StatsSubscriptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
 /**
- * Runs every second (1000 ms), aggregates all system stats and pushes
- * a single JSON message to WebSocket topic /topic/stats.
+ * Ticks every app.sampling.tick-ms (250 ms) and runs the {@link CollectionPipeline} collectors that are due on
+ * their own periods (see {@link SamplingProperties}), faster while {@link StatsSubscriptions} reports a watcher.
+ * Once a second (1000 ms) it records the stats in the {@link MetricHistoryStore} (and on disk via
+ * {@link SegmentStore} when enabled), flags anomalies via {@link AnomalyDetector}, evaluates the
+ * {@link AlertEngine} rules, pushes a single JSON message to WebSocket topic /topic/stats, plus the opt-in delta
+ * stream via {@link DeltaStatsPublisher} and the /stream/stats fan-out via {@link StatsBroadcaster}, and hands the
+ * stats to every {@link StatsListener} (e.g. the fleet agent). In between, ticks that sampled something are only
+ * pushed to the live streams, and only while someone is watching; history, alerts and anomaly baselines stay at 1 s.
+ * <p>
+ * Idle mode (app.sampling.idle): once nobody has watched for grace-ms the live streams are no longer pushed and
+ * collection only runs on record ticks, every record-period-ms (5 s), which still feed history, anomalies, alerts
+ * and listeners; {@link IdleListener}s (the LHM poller) slow down too. The first tick that sees a watcher again
+ * leaves idle, samples every collector and publishes a full frame, so a new client waits at most one tick.
+ * <p>
+ * Each phase is timed (stats.tick.phase), as is each tick that sampled or recorded (stats.tick.duration); ticks
+ * longer than the tick period count as stats.tick.overrun and ticks skipped because of them as stats.tick.missed.
+ * stats.idle is 1 while idle.
  */
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class StatsScheduler {
 
+    static final long PERIOD_MS = 1000;
+    private static final long PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(PERIOD_MS);
+
+    private enum Phase { COLLECT, ANOMALY, HISTORY, ALERTS, STOMP, DELTA, BROADCAST, LISTENERS }
+
     private final SimpMessagingTemplate messagingTemplate;
-    private final CpuService cpuService;
-    private final MemoryService memoryService;
-    private final GpuService gpuService;
-    private final DiskService diskService;
-    private final NetworkService networkService;
+    private final CollectionPipeline collectionPipeline;
+    private final MetricHistoryStore historyStore;
+    private final SegmentStore segmentStore;
+    private final DeltaStatsPublisher deltaStatsPublisher;
+    private final StatsBroadcaster statsBroadcaster;
+    private final AlertEngine alertEngine;
+    private final AnomalyDetector anomalyDetector;
+    private final List<StatsListener> statsListeners;
+    private final StatsSubscriptions statsSubscriptions;
+    private final List<IdleListener> idleListeners;
+    private final long tickNanos;
+    private final boolean idleEnabled;
+    private final long idleGraceNanos;
+    private final long idleRecordNanos;
+    private final Timer tickTimer;
+    private final Timer[] phaseTimers = new Timer[Phase.values().length];
+    private final Counter overrunTicks;
+    private final Counter missedTicks;
+    private long lastStartNanos;
+    private boolean recorded;
+    private long nextRecordNanos;
+    private volatile boolean idle;
+    private long lastWatchedNanos;
 
-    @Scheduled(fixedRate = 1000)
+    public StatsScheduler(SimpMessagingTemplate messagingTemplate,
+                          CollectionPipeline collectionPipeline,
+                          MetricHistoryStore historyStore,
+                          SegmentStore segmentStore,
+                          DeltaStatsPublisher deltaStatsPublisher,
+                          StatsBroadcaster statsBroadcaster,
+                          AlertEngine alertEngine,
+                          AnomalyDetector anomalyDetector,
+                          List<StatsListener> statsListeners,
+                          StatsSubscriptions statsSubscriptions,
+                          List<IdleListener> idleListeners,
+                          SamplingProperties sampling,
+                          MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.collectionPipeline = collectionPipeline;
+        this.historyStore = historyStore;
+        this.segmentStore = segmentStore;
+        this.deltaStatsPublisher = deltaStatsPublisher;
+        this.statsBroadcaster = statsBroadcaster;
+        this.alertEngine = alertEngine;
+        this.anomalyDetector = anomalyDetector;
+        this.statsListeners = statsListeners;
+        this.statsSubscriptions = statsSubscriptions;
+        this.idleListeners = idleListeners;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, Math.min(sampling.getTickMs(), PERIOD_MS)));
+        this.idleEnabled = sampling.getIdle().isEnabled();
+        this.idleGraceNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, sampling.getIdle().getGraceMs()));
+        this.idleRecordNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(PERIOD_MS, sampling.getIdle().getRecordPeriodMs()));
+        this.lastWatchedNanos = System.nanoTime();
+        this.tickTimer = PipelineMeters.timer(meterRegistry, "stats.tick.duration", "Whole stats tick");
+        for (Phase phase : Phase.values()) {
+            phaseTimers[phase.ordinal()] = PipelineMeters.timer(meterRegistry, "stats.tick.phase",
+                    "One phase of the stats tick", "phase", phase.name().toLowerCase(Locale.ROOT));
+        }
+        this.overrunTicks = Counter.builder("stats.tick.overrun")
+                .description("Ticks that took longer than the tick period")
+                .register(meterRegistry);
+        this.missedTicks = Counter.builder("stats.tick.missed")
+                .description("Ticks that did not run because an earlier one overran")
+                .register(meterRegistry);
+        Gauge.builder("stats.idle", this, s -> s.idle ? 1 : 0)
+                .description("1 while nobody watches the live stream and collection runs at the background rate")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedRateString = "${app.sampling.tick-ms:250}")
     public void pushStats() {
-        java.util.List<SystemStats.GpuStats> gpus;
-        try {
-            gpus = gpuService.getGpuStatsList();
-        } catch (Exception e) {
-            log.warn("GPU stats failed, using placeholder: {}", e.getMessage());
-            gpus = java.util.List.of(SystemStats.GpuStats.builder()
-                    .usagePercent(0)
-                    .name("N/A")
-                    .vramUsedBytes(0)
-                    .vramTotalBytes(0)
-                    .temperatureCelsius(null)
-                    .build());
+        long start = System.nanoTime();
+        if (lastStartNanos != 0) {
+            long late = (start - lastStartNanos) / tickNanos - 1;
+            if (late > 0) missedTicks.increment(late);
         }
+        lastStartNanos = start;
+        boolean watched = statsSubscriptions.isWatched();
+        boolean resumed = updateIdle(start, watched);
+        tick(start, recordDue(start, resumed), watched);
+    }
+
+    /**
+     * One tick started at {@code start} (System.nanoTime based); {@code record} if it is a recording tick and
+     * {@code watched} if anyone is watching the live stream.
+     */
+    void tick(long start, boolean record, boolean watched) {
+        if (idle && !record) return;
+        boolean live = watched || !idleEnabled;
+        boolean sampled = false;
         try {
-            SystemStats stats = SystemStats.builder()
-                    .timestamp(System.currentTimeMillis())
-                    .cpu(cpuService.getCpuStats())
-                    .memory(memoryService.getMemoryStats())
-                    .gpu(gpus.isEmpty() ? null : gpus.get(0))
-                    .gpus(gpus)
-                    .disk(diskService.getDiskStats())
-                    .network(networkService.getNetworkStats())
-                    .build();
-            messagingTemplate.convertAndSend("/topic/stats", stats);
+            long t = start;
+            sampled = collectionPipeline.sampleDue(start, watched);
+            if (record || (sampled && watched)) {
+                SystemStats stats = collectionPipeline.snapshot();
+                t = lap(Phase.COLLECT, t);
+                publish(stats, record, live, t);
+            }
         } catch (Exception e) {
             log.warn("Failed to collect or send stats: {}", e.getMessage());
         }
+        if (!record && !sampled) return;
+        long elapsed = System.nanoTime() - start;
+        tickTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        if (elapsed > tickNanos) overrunTicks.increment();
+    }
+
+    /** True while collection runs at the idle background rate. */
+    public boolean isIdle() {
+        return idle;
+    }
+
+    /** Enters or leaves idle mode; returns true if this tick leaves it. */
+    private boolean updateIdle(long nowNanos, boolean watched) {
+        if (watched) lastWatchedNanos = nowNanos;
+        if (!idleEnabled) return false;
+        if (idle && watched) {
+            setIdle(false);
+            collectionPipeline.expedite();
+            log.info("Stats watcher connected; sampling at full rate");
+            return true;
+        }
+        if (!idle && !watched && nowNanos - lastWatchedNanos >= idleGraceNanos) {
+            setIdle(true);
+            log.info("No stats watchers; sampling every {} ms for history and alerts only",
+                    TimeUnit.NANOSECONDS.toMillis(idleRecordNanos));
+        }
+        return false;
+    }
+
+    private void setIdle(boolean idle) {
+        this.idle = idle;
+        for (IdleListener listener : idleListeners) {
+            try {
+                listener.onIdleChanged(idle);
+            } catch (RuntimeException e) {
+                log.warn("Idle listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /** Runs the phases after collection: the recording ones only if {@code record}, the live ones only if {@code live}. */
+    private void publish(SystemStats stats, boolean record, boolean live, long t) {
+        if (record) {
+            anomalyDetector.evaluate(stats);
+            t = lap(Phase.ANOMALY, t);
+            historyStore.record(stats);
+            segmentStore.append(stats);
+            t = lap(Phase.HISTORY, t);
+            alertEngine.evaluate(stats);
+            t = lap(Phase.ALERTS, t);
+        }
+        if (live) {
+            messagingTemplate.convertAndSend(DeltaStatsPublisher.JSON_DESTINATION, stats);
+            t = lap(Phase.STOMP, t);
+            deltaStatsPublisher.publish(stats);
+            t = lap(Phase.DELTA, t);
+            statsBroadcaster.broadcast(stats);
+            t = lap(Phase.BROADCAST, t);
+        }
+        if (record) {
+            for (StatsListener listener : statsListeners) {
+                listener.onStats(stats);
+            }
+            lap(Phase.LISTENERS, t);
+        }
+    }
+
+    /**
+     * True if this tick records a sample: every second, or every idle record period while idle. Ticks jitter, so a
+     * tick within half a tick of the due time counts; after a stall, or when {@code restart} (leaving idle), the
+     * schedule restarts from now rather than catching up.
+     */
+    private boolean recordDue(long nowNanos, boolean restart) {
+        long period = idle ? idleRecordNanos : PERIOD_NANOS;
+        if (!restart && recorded && nowNanos - nextRecordNanos < -tickNanos / 2) return false;
+        nextRecordNanos = !restart && recorded && nowNanos - nextRecordNanos < period
+                ? nextRecordNanos + period
+                : nowNanos + period;
+        recorded = true;
+        return true;
+    }
+
+    /** Records the phase that started at {@code since} and returns now. */
+    private long lap(Phase phase, long since) {
+        long now = System.nanoTime();
+        phaseTimers[phase.ordinal()].record(now - since, TimeUnit.NANOSECONDS);
+        return now;
     }
 }
@@ -0,0 +1,103 @@
+package com.systemmonitor.scheduler;
+
+import com.systemmonitor.diagnostics.PipelineMeters;
+import com.systemmonitor.sampling.SampleFrame;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * One collector in the {@link CollectionPipeline}: runs its sampler on the pipeline executor into a private
+ * scratch section and, if it finishes before the tick deadline, copies the scratch into its frame section.
+ * Otherwise the frame section is left as is, so it keeps the last good value.
+ * At most one call per collector is in flight, so a hung source never piles up tasks behind it, and the
+ * scratch section is only read after its call completed.
+ * Not thread-safe; only the pipeline's tick thread calls {@link #start} and {@link #await}.
+ */
+@Slf4j
+class TimedCollector<S extends SampleFrame.Section<S>> {
+
+    private final String name;
+    private final S scratch;
+    private final S target;
+    private final Runnable task;
+    private final Counter staleCount;
+    private Future<?> inFlight;
+    private boolean stale;
+
+    TimedCollector(String name, Consumer<S> sampler, S scratch, S target, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.scratch = scratch;
+        this.target = target;
+        Timer timer = PipelineMeters.timer(meterRegistry, "stats.collector.duration", "One collector call",
+                "collector", name);
+        this.task = () -> {
+            long start = System.nanoTime();
+            try {
+                sampler.accept(scratch);
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
+        this.staleCount = Counter.builder("stats.collector.stale")
+                .description("Ticks on which the collector missed the deadline or failed")
+                .tag("collector", name)
+                .register(meterRegistry);
+    }
+
+    String name() {
+        return name;
+    }
+
+    /** Submits the source unless the previous call is still running (it keeps its slot). */
+    void start(ExecutorService executor) {
+        if (inFlight == null || inFlight.isDone()) {
+            inFlight = executor.submit(task);
+        }
+    }
+
+    /**
+     * Waits until {@code deadlineNanos} (System.nanoTime based) for the in-flight call and copies the fresh
+     * sample into the frame section; on timeout or failure the section is untouched and the collector is stale.
+     */
+    void await(long deadlineNanos) {
+        long remaining = deadlineNanos - System.nanoTime();
+        try {
+            inFlight.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+            inFlight = null;
+            target.copyFrom(scratch);
+            stale = false;
+            return;
+        } catch (TimeoutException e) {
+            markStale();
+            log.debug("Collector {} missed the tick deadline; using last good value", name);
+        } catch (ExecutionException e) {
+            inFlight = null;
+            markStale();
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.warn("{} stats failed, using last good value: {}", name, cause.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            markStale();
+        }
+    }
+
+    /** True if the last {@link #await} did not return a fresh value. */
+    boolean isStale() {
+        return stale;
+    }
+
+    /** Marks this tick's result stale and counts it. */
+    private void markStale() {
+        stale = true;
+        staleCount.increment();
+    }
+}
@@ -1,6 +1,14 @@
 package com.systemmonitor.service;
 
 import com.systemmonitor.dto.SystemStats;
+import com.systemmonitor.procfs.CpuFreqReader;
+import com.systemmonitor.procfs.HwmonReader;
+import com.systemmonitor.procfs.ProcStatReader;
+import com.systemmonitor.procfs.Procfs;
+import com.systemmonitor.sampling.CpuLoadTracker;
+import com.systemmonitor.sampling.MetricMath;
+import com.systemmonitor.sampling.PerCoreLoadTracker;
+import com.systemmonitor.sampling.SampleFrame;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import oshi.SystemInfo;
@@ -10,12 +18,15 @@ import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.Locale;
 
 /**
- * Provides real CPU usage statistics using OSHI (JNA-based system access).
- * On Windows, tries OSHI sensors first, then PowerShell WMI fallback for CPU temperature.
+ * Provides real CPU usage statistics using OSHI (JNA-based system access), or on Linux straight from
+ * /proc/stat and /sys/class/hwmon (see {@link Procfs}). On Windows, tries OSHI sensors first, then PowerShell WMI fallback for CPU temperature.
+ * {@link #sample} writes into a reusable {@link SampleFrame.Cpu} without building DTOs, including per-core usage
+ * (from per-processor tick deltas) and current frequency as packed arrays.
  */
 @Service
 @Slf4j
@@ -24,80 +35,196 @@ public class CpuService {
 
     private final SystemInfo systemInfo;
     private final LibreHardwareMonitorService libreHardwareMonitorService;
-    private long[] previousTicks;
+    private final Procfs procfs;
+    private final CpuLoadTracker loadTracker = new CpuLoadTracker(CentralProcessor.TickType.IDLE.getIndex(), -1);
+    private final PerCoreLoadTracker coreLoadTracker = new PerCoreLoadTracker(CentralProcessor.TickType.IDLE.getIndex(), -1);
+    /** Resolved once; the processor model does not change at runtime. */
+    private volatile String cpuName;
     private static final boolean IS_WINDOWS = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("win");
     /** Cached result from Windows PowerShell fallback; refreshed every 3 seconds to avoid slow repeated calls. */
     private volatile Double windowsTempCache = null;
     private volatile long windowsTempCacheTime = 0;
     private static final long CACHE_MS = 3000;
+    /** Linux fast path; null when unavailable or after a read error (then OSHI is used). */
+    private ProcStatReader procStat;
+    private HwmonReader hwmon;
+    private CpuFreqReader cpuFreq;
+    /** /proc/stat rows: the aggregate row, then one row per processor id. */
+    private long[] procTicks = new long[ProcStatReader.TICK_FIELDS];
+    /** OSHI per-processor ticks flattened into one reusable array. */
+    private long[] coreTicks = new long[0];
 
     @PostConstruct
-    public void init() {
-        previousTicks = systemInfo.getHardware().getProcessor().getSystemCpuLoadTicks();
+    public synchronized void init() {
+        CentralProcessor processor = systemInfo.getHardware().getProcessor();
+        if (procfs.isEnabled()) {
+            try {
+                procStat = new ProcStatReader(procfs);
+                hwmon = HwmonReader.open(procfs);
+            } catch (IOException e) {
+                log.warn("procfs CPU collector unavailable, using OSHI: {}", e.getMessage());
+                procStat = null;
+                hwmon = null;
+            }
+        }
+        sampleLoad(processor, new SampleFrame.Cpu());
     }
 
     /**
      * Returns current CPU usage stats (0-100%), logical processor count, and real-time temperature.
      */
     public SystemStats.CpuStats getCpuStats() {
+        SampleFrame.Cpu cpu = new SampleFrame.Cpu();
+        sample(cpu);
+        return cpu.toDto();
+    }
+
+    /** Writes current CPU usage, processor count, temperature (NaN if unavailable) and name into {@code out}. */
+    public synchronized void sample(SampleFrame.Cpu out) {
         CentralProcessor processor = systemInfo.getHardware().getProcessor();
-        long[] ticks = processor.getSystemCpuLoadTicks();
-        double usagePercent = 0.0;
-        if (previousTicks != null && ticks != null && ticks.length == previousTicks.length) {
-            long totalDiff = 0;
-            long idleDiff = ticks[CentralProcessor.TickType.IDLE.getIndex()]
-                    - previousTicks[CentralProcessor.TickType.IDLE.getIndex()];
-            for (int i = 0; i < ticks.length; i++) {
-                totalDiff += ticks[i] - previousTicks[i];
-            }
-            if (totalDiff > 0) {
-                usagePercent = 100.0 * (1.0 - (double) idleDiff / totalDiff);
+        sampleLoad(processor, out);
+        sampleFrequencies(processor, out);
+
+        double tempCelsius = getCpuTemperatureHwmon();
+        if (Double.isNaN(tempCelsius)) tempCelsius = getCpuTemperatureOshi();
+        if (Double.isNaN(tempCelsius)) {
+            Double lhm = libreHardwareMonitorService.getCpuTemperature();
+            if (lhm != null) tempCelsius = lhm;
+        }
+        if (Double.isNaN(tempCelsius) && IS_WINDOWS) {
+            Double fallback = getCpuTemperatureWindowsFallback();
+            if (fallback != null) tempCelsius = fallback;
+        }
+
+        out.name = cpuName(processor);
+        out.logicalProcessorCount = processor.getLogicalProcessorCount();
+        out.temperatureCelsius = tempCelsius;
+    }
+
+    /** Writes aggregate and per-core usage since the previous call, from /proc/stat when available. */
+    private void sampleLoad(CentralProcessor processor, SampleFrame.Cpu out) {
+        if (procStat != null && sampleLoadProcfs(out)) return;
+        out.usagePercent = MetricMath.round(loadTracker.update(processor.getSystemCpuLoadTicks()), 2);
+        long[][] perCore = processor.getProcessorCpuLoadTicks();
+        int cores = perCore != null ? perCore.length : 0;
+        int stride = cores > 0 ? perCore[0].length : 0;
+        if (coreTicks.length < cores * stride) coreTicks = new long[cores * stride];
+        for (int c = 0; c < cores; c++) {
+            System.arraycopy(perCore[c], 0, coreTicks, c * stride, Math.min(stride, perCore[c].length));
+        }
+        out.setCoreCount(cores);
+        coreLoadTracker.update(coreTicks, 0, cores, stride, out.coreUsagePercent);
+    }
+
+    private boolean sampleLoadProcfs(SampleFrame.Cpu out) {
+        try {
+            int rows = procStat.read(procTicks);
+            boolean onlineChanged = procStat.onlineChanged();
+            if (rows * ProcStatReader.TICK_FIELDS > procTicks.length) {
+                procTicks = new long[rows * ProcStatReader.TICK_FIELDS];
+                rows = procStat.read(procTicks);
+                onlineChanged |= procStat.onlineChanged();
             }
+            if (onlineChanged) onlineCpusChanged();
+            out.usagePercent = MetricMath.round(loadTracker.update(procTicks, 0, ProcStatReader.TICK_FIELDS), 2);
+            int cores = Math.max(0, Math.min(rows, procTicks.length / ProcStatReader.TICK_FIELDS) - 1);
+            out.setCoreCount(cores);
+            coreLoadTracker.update(procTicks, ProcStatReader.TICK_FIELDS, cores, ProcStatReader.TICK_FIELDS, out.coreUsagePercent);
+            return true;
+        } catch (IOException e) {
+            log.warn("Reading /proc/stat failed, falling back to OSHI: {}", e.getMessage());
+            procStat = null;
+            // cpufreq is indexed by processor id like /proc/stat; OSHI's per-core order would not line up with it
+            closeCpuFreq();
+            return false;
+        }
+    }
+
+    /**
+     * A processor went offline or came back: its row restarts from zero or from its lifetime counters, so the
+     * per-core baseline is dropped, and cpufreq is reopened for the processors now online.
+     */
+    private void onlineCpusChanged() {
+        coreLoadTracker.reset();
+        closeCpuFreq();
+        try {
+            cpuFreq = new CpuFreqReader(procfs, procStat.onlineCpus());
+        } catch (IOException e) {
+            log.warn("cpufreq unavailable, using OSHI: {}", e.getMessage());
         }
-        previousTicks = ticks;
-        usagePercent = Math.max(0, Math.min(100, usagePercent));
+    }
+
+    private void closeCpuFreq() {
+        if (cpuFreq == null) return;
+        try {
+            cpuFreq.close();
+        } catch (IOException e) {
+            log.trace("Closing cpufreq failed: {}", e.getMessage());
+        }
+        cpuFreq = null;
+    }
 
-        Double tempCelsius = getCpuTemperatureOshi();
-        if (tempCelsius == null) {
-            tempCelsius = libreHardwareMonitorService.getCpuTemperature();
+    /** Writes each core's current frequency (MHz, 0 if unknown), from cpufreq in sysfs when available. */
+    private void sampleFrequencies(CentralProcessor processor, SampleFrame.Cpu out) {
+        if (cpuFreq != null) {
+            try {
+                cpuFreq.read(out.coreFrequencyMhz);
+                return;
+            } catch (IOException e) {
+                log.warn("Reading cpufreq failed, falling back to OSHI: {}", e.getMessage());
+                closeCpuFreq();
+            }
         }
-        if (tempCelsius == null && IS_WINDOWS) {
-            tempCelsius = getCpuTemperatureWindowsFallback();
+        long[] hz = processor.getCurrentFreq();
+        for (int i = 0; i < out.coreCount; i++) {
+            out.coreFrequencyMhz[i] = hz != null && i < hz.length && hz[i] > 0 ? (int) (hz[i] / 1_000_000) : 0;
         }
+    }
 
-        String cpuName = null;
+    private String cpuName(CentralProcessor processor) {
+        String name = cpuName;
+        if (name != null) return name;
         try {
             if (processor.getProcessorIdentifier() != null) {
-                cpuName = processor.getProcessorIdentifier().getName();
-                if (cpuName != null) cpuName = cpuName.trim();
-                if (cpuName != null && cpuName.isEmpty()) cpuName = null;
+                name = processor.getProcessorIdentifier().getName();
+                if (name != null) name = name.trim();
+                if (name != null && name.isEmpty()) name = null;
             }
         } catch (Exception e) {
             log.trace("CPU name not available: {}", e.getMessage());
         }
-        if (cpuName == null) cpuName = "N/A";
-
-        return SystemStats.CpuStats.builder()
-                .name(cpuName)
-                .usagePercent(round(usagePercent, 2))
-                .logicalProcessorCount(processor.getLogicalProcessorCount())
-                .temperatureCelsius(tempCelsius)
-                .build();
+        if (name == null) return "N/A";
+        cpuName = name;
+        return name;
     }
 
-    private Double getCpuTemperatureOshi() {
+    /** hwmon CPU temperature in °C, or NaN if unavailable. */
+    private double getCpuTemperatureHwmon() {
+        if (hwmon == null) return Double.NaN;
+        try {
+            double t = hwmon.read();
+            return t > 0 && t < 150 ? MetricMath.round(t, 1) : Double.NaN;
+        } catch (IOException e) {
+            log.trace("CPU temperature (hwmon) not available: {}", e.getMessage());
+            hwmon = null;
+            return Double.NaN;
+        }
+    }
+
+    /** OSHI sensor temperature in °C, or NaN if unavailable. */
+    private double getCpuTemperatureOshi() {
         try {
             Sensors sensors = systemInfo.getHardware().getSensors();
             if (sensors != null) {
                 double t = sensors.getCpuTemperature();
                 if (!Double.isNaN(t) && t > 0 && t < 150) {
-                    return round(t, 1);
+                    return MetricMath.round(t, 1);
                 }
             }
         } catch (Exception e) {
             log.trace("CPU temperature (OSHI) not available: {}", e.getMessage());
         }
-        return null;
+        return Double.NaN;
     }
 
     /**
@@ -130,7 +257,7 @@ public class CpuService {
                     if (!line.isEmpty()) {
                         double val = Double.parseDouble(line);
                         if (val > 0 && val < 150) {
-                            return round(val, 1);
+                            return MetricMath.round(val, 1);
                         }
                     }
                 }
@@ -141,10 +268,4 @@ public class CpuService {
         }
         return null;
     }
-
-    private static double round(double value, int places) {
-        if (places < 0) throw new IllegalArgumentException();
-        long factor = (long) Math.pow(10, places);
-        return (double) Math.round(value * factor) / factor;
-    }
 }
@@ -1,95 +1,324 @@
 package com.systemmonitor.service;
 
 import com.systemmonitor.dto.SystemStats;
-import lombok.RequiredArgsConstructor;
+import com.systemmonitor.procfs.DiskStatsReader;
+import com.systemmonitor.procfs.MountsReader;
+import com.systemmonitor.procfs.Procfs;
+import com.systemmonitor.sampling.MetricMath;
+import com.systemmonitor.sampling.SampleFrame;
 import lombok.extern.slf4j.Slf4j;
 import oshi.SystemInfo;
 import oshi.hardware.HWDiskStore;
 import oshi.software.os.OSFileStore;
-import oshi.software.os.OperatingSystem;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Provides disk usage and read/write speed using OSHI.
- * Speeds are computed by sampling disk stats and differencing over 1s.
+ * Provides disk usage and read/write speed using OSHI, or on Linux from /proc/diskstats and the block-device
+ * mounts in /proc/mounts (see {@link Procfs}). Besides the aggregate it reports each whole disk's throughput,
+ * IOPS, average service time, queue length and busy percentage, and each mounted filesystem's space.
+ * Rates are computed by differencing counters over the elapsed {@link System#nanoTime()} interval; the aggregate
+ * rates are the sum of the per-device differences, so a disk appearing or vanishing is not counted as I/O.
+ * The disk list is re-resolved once a minute; the mount table is re-checked every few seconds on Linux (once a
+ * minute through OSHI) and its file stores are only re-resolved when it changed. Filesystem space hardly moves, so
+ * it is only re-read every app.sampling.disk-space-period-ms (30 s) or when the mount table changed; samples in
+ * between report the cached values.
  */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class DiskService {
 
+    private static final long DEVICE_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final long PROCFS_MOUNT_CHECK_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    /** Per-device counters kept for differencing, {@link #COUNTERS} per device. */
+    private static final int READ_BYTES = 0;
+    private static final int WRITE_BYTES = 1;
+    private static final int READS = 2;
+    private static final int WRITES = 3;
+    private static final int IO_MS = 4;
+    private static final int BUSY_MS = 5;
+    private static final int WEIGHTED_MS = 6;
+    private static final int COUNTERS = 7;
+
     private final SystemInfo systemInfo;
-    private long previousReadBytes;
-    private long previousWriteBytes;
-    private long previousSampleTime;
+    private final Procfs procfs;
+    private final long spacePeriodNanos;
+    /** Mount space as of the last read; copied into every sample. */
+    private final SampleFrame.Disk space = new SampleFrame.Disk();
+    private final MountTable mountTable = new MountTable();
+    /** Linux fast path; null when unavailable or after a read error (then OSHI is used). */
+    private DiskStatsReader diskStats;
+    private MountsReader mounts;
+    private List<HWDiskStore> oshiDisks;
+    private long devicesRefreshedNanos;
+    private long mountsCheckedNanos;
+    private long spaceReadNanos;
+
+    private int deviceCount;
+    private String[] names = new String[0];
+    private long[] counters = new long[0];
+    /** OSHI only reports the queue length at this instant, not time-weighted as /proc/diskstats does. */
+    private double[] instantQueue = new double[0];
+    private boolean weightedQueue;
+    private int previousCount = -1;
+    private String[] previousNames = new String[0];
+    private long[] previousCounters = new long[0];
+    private long previousNanos;
+
+    public DiskService(SystemInfo systemInfo,
+                       Procfs procfs,
+                       @Value("${app.sampling.disk-space-period-ms:30000}") long spacePeriodMs) {
+        this.systemInfo = systemInfo;
+        this.procfs = procfs;
+        this.spacePeriodNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, spacePeriodMs));
+    }
 
     @PostConstruct
-    public void init() {
-        sampleAndGetTotals();
-        previousSampleTime = System.currentTimeMillis();
+    public synchronized void init() {
+        if (procfs.isEnabled()) {
+            try {
+                diskStats = new DiskStatsReader(procfs);
+                mounts = new MountsReader(procfs);
+            } catch (IOException e) {
+                log.warn("procfs disk collector unavailable, using OSHI: {}", e.getMessage());
+                diskStats = null;
+                mounts = null;
+            }
+        }
+        long now = System.nanoTime();
+        devicesRefreshedNanos = now;
+        sampleCounters(now);
+        rememberDevices(now);
+        mountsCheckedNanos = now;
+        refreshMounts();
+        readSpace(now);
     }
 
     /**
-     * Returns disk stats: total/used space and read/write bytes per second.
+     * Returns disk stats: total/used space, read/write bytes per second, and the per-device and per-mount
+     * breakdowns.
      */
     public SystemStats.DiskStats getDiskStats() {
-        long now = System.currentTimeMillis();
-        long[] totals = sampleAndGetTotals();
-        long readTotal = totals[0];
-        long writeTotal = totals[1];
-        long elapsedMs = Math.max(1, now - previousSampleTime);
-        long readPerSec = (long) (1000.0 * (readTotal - previousReadBytes) / elapsedMs);
-        long writePerSec = (long) (1000.0 * (writeTotal - previousWriteBytes) / elapsedMs);
-        previousReadBytes = readTotal;
-        previousWriteBytes = writeTotal;
-        previousSampleTime = now;
+        SampleFrame.Disk disk = new SampleFrame.Disk();
+        sample(disk);
+        return disk.toDto();
+    }
+
+    /** Writes current rates, space and the per-device and per-mount breakdowns into {@code out}. */
+    public synchronized void sample(SampleFrame.Disk out) {
+        long now = System.nanoTime();
+        sampleCounters(now);
+        sampleDevices(out, now);
+        sampleMounts(out, now);
+    }
 
+    /** Writes the per-device rates and, as their sum, the aggregate rates; all 0 when the device set changed. */
+    private void sampleDevices(SampleFrame.Disk out, long now) {
+        boolean primed = sameDevicesAsPrevious();
+        double seconds = (now - previousNanos) / 1e9;
+        long readBytes = 0;
+        long writeBytes = 0;
+        out.setDeviceCount(deviceCount);
+        for (int d = 0; d < deviceCount; d++) {
+            out.deviceNames[d] = names[d];
+            int base = d * COUNTERS;
+            if (!primed || seconds <= 0) {
+                out.deviceReadBytesPerSecond[d] = 0;
+                out.deviceWriteBytesPerSecond[d] = 0;
+                out.deviceReadIops[d] = 0;
+                out.deviceWriteIops[d] = 0;
+                out.deviceServiceTimeMs[d] = 0;
+                out.deviceQueueLength[d] = weightedQueue ? 0 : instantQueue[d];
+                out.deviceBusyPercent[d] = 0;
+                continue;
+            }
+            long reads = delta(base + READS);
+            long writes = delta(base + WRITES);
+            long ios = reads + writes;
+            long read = delta(base + READ_BYTES);
+            long written = delta(base + WRITE_BYTES);
+            readBytes += read;
+            writeBytes += written;
+            out.deviceReadBytesPerSecond[d] = (long) (read / seconds);
+            out.deviceWriteBytesPerSecond[d] = (long) (written / seconds);
+            out.deviceReadIops[d] = MetricMath.round(reads / seconds, 1);
+            out.deviceWriteIops[d] = MetricMath.round(writes / seconds, 1);
+            out.deviceServiceTimeMs[d] = ios > 0 ? MetricMath.round((double) delta(base + IO_MS) / ios, 2) : 0;
+            double queue = weightedQueue ? delta(base + WEIGHTED_MS) / (seconds * 1000) : instantQueue[d];
+            out.deviceQueueLength[d] = MetricMath.round(queue, 2);
+            double busy = delta(base + BUSY_MS) / (seconds * 10);
+            out.deviceBusyPercent[d] = MetricMath.round(MetricMath.clampPercent(busy), 1);
+        }
+        boolean rated = primed && seconds > 0;
+        out.readBytesPerSecond = rated ? (long) (readBytes / seconds) : 0;
+        out.writeBytesPerSecond = rated ? (long) (writeBytes / seconds) : 0;
+        rememberDevices(now);
+    }
+
+    /** Counter difference since the previous sample; 0 if the counter went back (device reset or wrap). */
+    private long delta(int index) {
+        return Math.max(0, counters[index] - previousCounters[index]);
+    }
+
+    private boolean sameDevicesAsPrevious() {
+        if (deviceCount != previousCount) return false;
+        for (int d = 0; d < deviceCount; d++) {
+            if (!names[d].equals(previousNames[d])) return false;
+        }
+        return true;
+    }
+
+    private void rememberDevices(long now) {
+        int length = deviceCount * COUNTERS;
+        if (previousCounters.length < length) {
+            previousCounters = new long[length];
+            previousNames = new String[deviceCount];
+        }
+        System.arraycopy(counters, 0, previousCounters, 0, length);
+        System.arraycopy(names, 0, previousNames, 0, deviceCount);
+        previousCount = deviceCount;
+        previousNanos = now;
+    }
+
+    private void sampleMounts(SampleFrame.Disk out, long now) {
+        long checkInterval = mounts != null ? PROCFS_MOUNT_CHECK_NANOS : DEVICE_REFRESH_NANOS;
+        boolean changed = false;
+        if (now - mountsCheckedNanos >= checkInterval) {
+            mountsCheckedNanos = now;
+            changed = refreshMounts();
+        }
+        if (changed || now - spaceReadNanos >= spacePeriodNanos) readSpace(now);
+        out.copyMountsFrom(space);
         long totalBytes = 0;
         long usedBytes = 0;
-        OperatingSystem os = systemInfo.getOperatingSystem();
-        for (OSFileStore fs : os.getFileSystem().getFileStores()) {
+        for (int i = 0; i < out.mountCount; i++) {
+            totalBytes += out.mountTotalBytes[i];
+            usedBytes += out.mountUsedBytes[i];
+        }
+        double usagePercent = totalBytes > 0 ? 100.0 * usedBytes / totalBytes : 0.0;
+        out.totalBytes = totalBytes;
+        out.usedBytes = usedBytes;
+        out.usagePercent = MetricMath.round(MetricMath.clampPercent(usagePercent), 2);
+    }
+
+    private void readSpace(long now) {
+        spaceReadNanos = now;
+        mountTable.read(space);
+    }
+
+    /**
+     * Re-reads the mount table and re-resolves the file stores if it changed; returns true if it did.
+     * Allocates only on a change.
+     */
+    private boolean refreshMounts() {
+        if (mounts != null) {
+            try {
+                if (mounts.refresh() && mountTable.update(mounts.devices(), mounts.mountPoints())) {
+                    log.debug("Mount table changed: {} filesystems", mountTable.size());
+                    return true;
+                }
+                return false;
+            } catch (IOException e) {
+                log.warn("Reading /proc/mounts failed, falling back to OSHI: {}", e.getMessage());
+                mounts = null;
+            }
+        }
+        List<OSFileStore> stores = systemInfo.getOperatingSystem().getFileSystem().getFileStores();
+        List<String> devices = new ArrayList<>();
+        List<String> mountPoints = new ArrayList<>();
+        for (OSFileStore fs : stores) {
             if (fs.getType().toLowerCase().contains("fixed") || fs.getMount().startsWith("/") || fs.getMount().matches("[A-Za-z]:\\\\")) {
-                totalBytes += fs.getTotalSpace();
-                usedBytes += fs.getTotalSpace() - fs.getUsableSpace();
+                devices.add(fs.getVolume());
+                mountPoints.add(fs.getMount());
             }
         }
-        if (totalBytes == 0) {
-            for (OSFileStore fs : os.getFileSystem().getFileStores()) {
-                totalBytes += fs.getTotalSpace();
-                usedBytes += fs.getTotalSpace() - fs.getUsableSpace();
+        if (mountPoints.isEmpty()) {
+            for (OSFileStore fs : stores) {
+                devices.add(fs.getVolume());
+                mountPoints.add(fs.getMount());
             }
         }
-        double usagePercent = totalBytes > 0 ? 100.0 * usedBytes / totalBytes : 0.0;
-        usagePercent = Math.max(0, Math.min(100, usagePercent));
-
-        return SystemStats.DiskStats.builder()
-                .readBytesPerSecond(Math.max(0, readPerSec))
-                .writeBytesPerSecond(Math.max(0, writePerSec))
-                .totalBytes(totalBytes)
-                .usedBytes(usedBytes)
-                .usagePercent(round(usagePercent, 2))
-                .build();
+        if (mountTable.update(devices, mountPoints)) {
+            log.debug("Mount table changed: {} filesystems", mountTable.size());
+            return true;
+        }
+        return false;
+    }
+
+    /** Reads every disk's counters into {@link #names}/{@link #counters}. */
+    private void sampleCounters(long now) {
+        if (diskStats == null || !sampleCountersProcfs(now)) sampleCountersOshi(now);
     }
 
-    /** Returns [totalReadBytes, totalWriteBytes] from all disk stores. */
-    private long[] sampleAndGetTotals() {
-        long read = 0;
-        long write = 0;
-        List<HWDiskStore> disks = systemInfo.getHardware().getDiskStores();
-        for (HWDiskStore disk : disks) {
-            disk.updateAttributes();
-            read += disk.getReadBytes();
-            write += disk.getWriteBytes();
+    private boolean sampleCountersProcfs(long now) {
+        try {
+            if (now - devicesRefreshedNanos >= DEVICE_REFRESH_NANOS) {
+                devicesRefreshedNanos = now;
+                diskStats.refreshDevices();
+            }
+            diskStats.read();
+        } catch (IOException e) {
+            log.warn("Reading /proc/diskstats failed, falling back to OSHI: {}", e.getMessage());
+            diskStats = null;
+            return false;
+        }
+        setDeviceCount(diskStats.deviceCount());
+        for (int d = 0; d < deviceCount; d++) {
+            int base = d * COUNTERS;
+            names[d] = diskStats.deviceName(d);
+            counters[base + READ_BYTES] = diskStats.counter(d, DiskStatsReader.SECTORS_READ) * DiskStatsReader.SECTOR_BYTES;
+            counters[base + WRITE_BYTES] = diskStats.counter(d, DiskStatsReader.SECTORS_WRITTEN) * DiskStatsReader.SECTOR_BYTES;
+            counters[base + READS] = diskStats.counter(d, DiskStatsReader.READS_COMPLETED);
+            counters[base + WRITES] = diskStats.counter(d, DiskStatsReader.WRITES_COMPLETED);
+            counters[base + IO_MS] = diskStats.counter(d, DiskStatsReader.MS_READING) + diskStats.counter(d, DiskStatsReader.MS_WRITING);
+            counters[base + BUSY_MS] = diskStats.counter(d, DiskStatsReader.MS_DOING_IO);
+            counters[base + WEIGHTED_MS] = diskStats.counter(d, DiskStatsReader.WEIGHTED_MS_DOING_IO);
         }
-        return new long[]{read, write};
+        weightedQueue = true;
+        return true;
     }
 
-    private static double round(double value, int places) {
-        if (places < 0) throw new IllegalArgumentException();
-        long factor = (long) Math.pow(10, places);
-        return (double) Math.round(value * factor) / factor;
+    private void sampleCountersOshi(long now) {
+        if (oshiDisks == null || now - devicesRefreshedNanos >= DEVICE_REFRESH_NANOS) {
+            devicesRefreshedNanos = now;
+            oshiDisks = systemInfo.getHardware().getDiskStores();
+        } else {
+            for (HWDiskStore disk : oshiDisks) {
+                disk.updateAttributes();
+            }
+        }
+        setDeviceCount(oshiDisks.size());
+        for (int d = 0; d < deviceCount; d++) {
+            HWDiskStore disk = oshiDisks.get(d);
+            int base = d * COUNTERS;
+            names[d] = disk.getName();
+            counters[base + READ_BYTES] = disk.getReadBytes();
+            counters[base + WRITE_BYTES] = disk.getWriteBytes();
+            counters[base + READS] = disk.getReads();
+            counters[base + WRITES] = disk.getWrites();
+            // OSHI's transfer time is the time the disk spent busy with I/O, so it serves both purposes.
+            counters[base + IO_MS] = disk.getTransferTime();
+            counters[base + BUSY_MS] = disk.getTransferTime();
+            counters[base + WEIGHTED_MS] = 0;
+            instantQueue[d] = disk.getCurrentQueueLength();
+        }
+        weightedQueue = false;
+    }
+
+    private void setDeviceCount(int count) {
+        if (names.length < count) {
+            names = Arrays.copyOf(names, count);
+            counters = new long[count * COUNTERS];
+            instantQueue = new double[count];
+        }
+        deviceCount = count;
     }
 }
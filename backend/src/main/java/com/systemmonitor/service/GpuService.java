@@ -1,92 +1,118 @@
 package com.systemmonitor.service;
 
 import com.systemmonitor.dto.SystemStats;
+import com.systemmonitor.sampling.MetricMath;
+import com.systemmonitor.sampling.SampleFrame;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import oshi.SystemInfo;
 import oshi.hardware.GraphicsCard;
-import oshi.hardware.HardwareAbstractionLayer;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Provides GPU information and usage. Uses LHM per-GPU by SensorId (nvidia/amd),
- * nvidia-smi for NVIDIA when available, and global LHM fallback only for primary GPU.
+ * nvidia-smi for NVIDIA when available (matched by model name, the n-th card of a model taking the n-th GPU of
+ * that model in nvidia-smi order; it also supplies VRAM used and power),
+ * and global LHM fallback only for primary GPU.
+ * The graphics card list (names, VRAM, vendor) is enumerated at most once per minute rather than every tick.
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class GpuService {
 
+    private static final long CARD_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(60);
+
     private final SystemInfo systemInfo;
     private final LibreHardwareMonitorService libreHardwareMonitorService;
     private final NvidiaSmiService nvidiaSmiService;
 
+    private CardInfo[] cards;
+    private int primaryIndex;
+    private long cardsLoadedNanos;
+
     /**
      * Returns stats for all GPUs. Each GPU gets its own temp/usage when available;
      * global LHM is applied only to the primary GPU (NVIDIA first, then AMD) as fallback.
      */
     public List<SystemStats.GpuStats> getGpuStatsList() {
-        HardwareAbstractionLayer hal = systemInfo.getHardware();
-        List<GraphicsCard> cards = hal.getGraphicsCards();
-        List<SystemStats.GpuStats> result = new ArrayList<>();
-        if (cards == null || cards.isEmpty()) {
-            result.add(SystemStats.GpuStats.builder()
-                    .usagePercent(0)
-                    .name("N/A")
-                    .vramUsedBytes(0)
-                    .vramTotalBytes(0)
-                    .temperatureCelsius(null)
-                    .build());
-            return result;
+        SampleFrame.Gpu gpu = new SampleFrame.Gpu();
+        sample(gpu);
+        return gpu.toDtoList();
+    }
+
+    /** Writes per-GPU usage, VRAM, temperature and power (NaN if unavailable) into {@code out}. */
+    public synchronized void sample(SampleFrame.Gpu out) {
+        CardInfo[] current = cards(System.nanoTime());
+        if (current.length == 0) {
+            out.setPlaceholder();
+            return;
         }
         Double globalLoad = libreHardwareMonitorService.getGpuLoad();
         Double globalTemp = libreHardwareMonitorService.getGpuTemperature();
-        int primaryIndex = primaryGpuIndex(cards);
 
-        for (int i = 0; i < cards.size(); i++) {
-            GraphicsCard card = cards.get(i);
-            String cardName = card.getName() != null ? card.getName() : "";
-            long vramTotal = card.getVRam();
-            long vramUsed = 0;
-            Double temp = libreHardwareMonitorService.getGpuTemperatureByName(cardName);
-            Double usage = libreHardwareMonitorService.getGpuLoadByName(cardName);
+        int n = Math.min(current.length, SampleFrame.Gpu.MAX_GPUS);
+        for (int i = 0; i < n; i++) {
+            CardInfo card = current[i];
+            Double temp = libreHardwareMonitorService.getGpuTemperatureByName(card.name);
+            Double usage = libreHardwareMonitorService.getGpuLoadByName(card.name);
+            double tempCelsius = temp != null ? temp : Double.NaN;
+            double usagePercent = usage != null ? usage : Double.NaN;
 
-            boolean isNvidia = cardName.toLowerCase(Locale.ROOT).contains("nvidia") || cardName.toLowerCase(Locale.ROOT).contains("geforce");
-            if (isNvidia && nvidiaSmiService.hasData()) {
-                double u = nvidiaSmiService.getUsagePercent();
-                double t = nvidiaSmiService.getTemperatureCelsius();
-                if (!Double.isNaN(u)) usage = u;
-                if (!Double.isNaN(t)) temp = t;
+            long vramUsed = 0;
+            long vramTotal = card.vramTotal;
+            double powerWatts = Double.NaN;
+            NvidiaSmiService.GpuReading smi = card.nvidia ? nvidiaSmiService.reading(card.name, card.sameModelIndex) : null;
+            if (smi != null) {
+                if (!Double.isNaN(smi.utilizationPercent())) usagePercent = smi.utilizationPercent();
+                if (!Double.isNaN(smi.temperatureCelsius())) tempCelsius = smi.temperatureCelsius();
+                if (smi.memoryUsedBytes() >= 0) vramUsed = smi.memoryUsedBytes();
+                // OSHI can under-report VRAM (e.g. a 32-bit registry value on Windows)
+                if (smi.memoryTotalBytes() > 0) vramTotal = smi.memoryTotalBytes();
+                powerWatts = smi.powerWatts();
             }
             if (i == primaryIndex) {
-                if (temp == null) temp = globalTemp;
-                if (usage == null) usage = globalLoad;
+                if (Double.isNaN(tempCelsius) && globalTemp != null) tempCelsius = globalTemp;
+                if (Double.isNaN(usagePercent) && globalLoad != null) usagePercent = globalLoad;
             }
-            double usagePercent = (usage != null) ? usage : 0.0;
-            result.add(SystemStats.GpuStats.builder()
-                    .usagePercent(round(usagePercent, 2))
-                    .name(cardName.isEmpty() ? "N/A" : cardName)
-                    .vramUsedBytes(vramUsed)
-                    .vramTotalBytes(vramTotal)
-                    .temperatureCelsius(temp)
-                    .build());
+            out.names[i] = card.displayName;
+            out.usagePercent[i] = Double.isNaN(usagePercent) ? 0.0 : MetricMath.round(usagePercent, 2);
+            out.vramUsedBytes[i] = vramUsed;
+            out.vramTotalBytes[i] = vramTotal;
+            out.temperatureCelsius[i] = tempCelsius;
+            out.powerWatts[i] = powerWatts;
         }
-        return result;
+        out.count = n;
     }
 
-    private static int primaryGpuIndex(List<GraphicsCard> cards) {
-        if (cards == null || cards.isEmpty()) return 0;
-        for (int i = 0; i < cards.size(); i++) {
-            String lower = (cards.get(i).getName() != null ? cards.get(i).getName() : "").toLowerCase(Locale.ROOT);
-            if (lower.contains("nvidia") || lower.contains("geforce")) return i;
+    /** Cached card list, re-enumerated from OSHI when older than {@link #CARD_REFRESH_NANOS}. */
+    private CardInfo[] cards(long now) {
+        if (cards == null || now - cardsLoadedNanos >= CARD_REFRESH_NANOS) {
+            List<GraphicsCard> list = systemInfo.getHardware().getGraphicsCards();
+            CardInfo[] loaded = new CardInfo[list != null ? list.size() : 0];
+            for (int i = 0; i < loaded.length; i++) {
+                loaded[i] = new CardInfo(list.get(i));
+                for (int j = 0; j < i; j++) {
+                    if (loaded[j].name.equals(loaded[i].name)) loaded[i].sameModelIndex++;
+                }
+            }
+            cards = loaded;
+            primaryIndex = primaryGpuIndex(loaded);
+            cardsLoadedNanos = now;
+        }
+        return cards;
+    }
+
+    private static int primaryGpuIndex(CardInfo[] cards) {
+        for (int i = 0; i < cards.length; i++) {
+            if (cards[i].nvidia) return i;
         }
-        for (int i = 0; i < cards.size(); i++) {
-            String lower = (cards.get(i).getName() != null ? cards.get(i).getName() : "").toLowerCase(Locale.ROOT);
-            if (lower.contains("amd") || lower.contains("radeon")) return i;
+        for (int i = 0; i < cards.length; i++) {
+            if (cards[i].amd) return i;
         }
         return 0;
     }
@@ -97,9 +123,23 @@ public class GpuService {
         return list.isEmpty() ? null : list.get(0);
     }
 
-    private static double round(double value, int places) {
-        if (places < 0) throw new IllegalArgumentException();
-        long factor = (long) Math.pow(10, places);
-        return (double) Math.round(value * factor) / factor;
+    /** Static properties of one graphics card, resolved once per enumeration. */
+    private static final class CardInfo {
+        final String name;
+        final String displayName;
+        final long vramTotal;
+        final boolean nvidia;
+        final boolean amd;
+        /** Number of earlier cards with the same name: picks among identical models in nvidia-smi. */
+        int sameModelIndex;
+
+        CardInfo(GraphicsCard card) {
+            this.name = card.getName() != null ? card.getName() : "";
+            this.displayName = name.isEmpty() ? "N/A" : name;
+            this.vramTotal = card.getVRam();
+            String lower = name.toLowerCase(Locale.ROOT);
+            this.nvidia = lower.contains("nvidia") || lower.contains("geforce");
+            this.amd = lower.contains("amd") || lower.contains("radeon");
+        }
     }
 }
@@ -0,0 +1,46 @@
+package com.systemmonitor.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Include/exclude filter over network interface names, each side a comma-separated list of case-insensitive globs
+ * ({@code *} any run, {@code ?} one character). An empty include list accepts every name; exclude wins over include.
+ */
+final class InterfaceFilter {
+
+    private final Pattern include;
+    private final Pattern exclude;
+
+    InterfaceFilter(String include, String exclude) {
+        this.include = compile(include);
+        this.exclude = compile(exclude);
+    }
+
+    boolean accepts(String name) {
+        if (name == null) return false;
+        if (exclude != null && exclude.matcher(name).matches()) return false;
+        return include == null || include.matcher(name).matches();
+    }
+
+    /** One alternation of all globs in the list; null if the list is blank. */
+    private static Pattern compile(String globs) {
+        if (globs == null) return null;
+        List<String> alternatives = new ArrayList<>();
+        for (String glob : globs.split(",")) {
+            String g = glob.trim();
+            if (g.isEmpty()) continue;
+            StringBuilder regex = new StringBuilder();
+            for (int i = 0; i < g.length(); i++) {
+                char c = g.charAt(i);
+                if (c == '*') regex.append(".*");
+                else if (c == '?') regex.append('.');
+                else regex.append(Pattern.quote(String.valueOf(c)));
+            }
+            alternatives.add(regex.toString());
+        }
+        if (alternatives.isEmpty()) return null;
+        return Pattern.compile(String.join("|", alternatives), Pattern.CASE_INSENSITIVE);
+    }
+}
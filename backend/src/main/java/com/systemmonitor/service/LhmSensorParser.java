@@ -0,0 +1,671 @@
+package com.systemmonitor.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-pass streaming parser for LibreHardwareMonitor's data.json. Instead of building a JsonNode tree and
+ * lowercasing concatenated path strings at every node, each Text/Identifier value is scanned once, straight from
+ * the parser's character buffer, into a bitmask of the keywords used for CPU/GPU classification; a node's path
+ * mask is its parent's mask OR its own. Nodes are recorded in pre-order in reusable primitive arrays and classified
+ * after the parse, so field order inside an object does not matter. Only GPU device names are materialized as strings.
+ * <p>
+ * Classification rules are those of the original tree walk (see the golden fixtures under test resources/lhm).
+ * Not thread-safe; {@link #parse} is synchronized.
+ */
+final class LhmSensorParser {
+
+    /** Parsed temperatures (°C) and loads (%); null when not found. Maps are keyed by LHM GPU device name. */
+    record Readings(Double cpuTemp, Double gpuTemp, Double gpuLoad,
+                    Map<String, Double> gpuTempsByName, Map<String, Double> gpuLoadsByName) {
+    }
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    // Keywords matched case-insensitively; bit i of a mask = TOKENS[i] occurs in the text.
+    private static final String[] TOKENS = {
+            "core #", "package", "tctl", "tdie", "ccd1", "ccd2", "ccd ", "core (smu)", "cpu package",
+            "cpu", "ryzen", "intel", "core", "gpu", "graphics", "nvidia", "radeon", "temperature", "temp",
+            "geforce", "amd", "/gpu-nvidia/0/", "/gpu-amd/0/"
+    };
+    private static final int CORE_HASH = 1;
+    private static final int PACKAGE = 1 << 1;
+    private static final int TCTL = 1 << 2;
+    private static final int TDIE = 1 << 3;
+    private static final int CCD1 = 1 << 4;
+    private static final int CCD2 = 1 << 5;
+    private static final int CCD_SPACE = 1 << 6;
+    private static final int CORE_SMU = 1 << 7;
+    private static final int CPU_PACKAGE = 1 << 8;
+    private static final int CPU = 1 << 9;
+    private static final int RYZEN = 1 << 10;
+    private static final int INTEL = 1 << 11;
+    private static final int CORE = 1 << 12;
+    private static final int GPU = 1 << 13;
+    private static final int GRAPHICS = 1 << 14;
+    private static final int NVIDIA = 1 << 15;
+    private static final int RADEON = 1 << 16;
+    private static final int TEMPERATURE = 1 << 17;
+    private static final int TEMP = 1 << 18;
+    private static final int GEFORCE = 1 << 19;
+    private static final int AMD = 1 << 20;
+    private static final int NVIDIA_SENSOR_ID = 1 << 21;
+    private static final int AMD_SENSOR_ID = 1 << 22;
+
+    private static final int CPU_SENSOR = CORE_HASH | PACKAGE | TCTL | TDIE | CCD1 | CCD2 | CCD_SPACE | CORE_SMU | CPU_PACKAGE;
+    private static final int CPU_SECTION = CPU | RYZEN | INTEL | CORE | PACKAGE;
+    private static final int CPU_VENDOR = RYZEN | INTEL;
+    private static final int GPU_WORD = GPU | GRAPHICS;
+    private static final int GPU_ANY = GPU | NVIDIA | RADEON | GRAPHICS;
+    private static final int GPU_NAME = GPU | GRAPHICS | RADEON | NVIDIA | GEFORCE;
+    private static final int GPU_DEVICE = NVIDIA | GEFORCE | RADEON;
+
+    // Segment edges (bits 32+ of a scan result), for keywords that span the " " joining path segments.
+    private static final int STARTS_HASH = 1;
+    private static final int STARTS_SMU = 1 << 1;
+    private static final int STARTS_PACKAGE = 1 << 2;
+    private static final int ENDS_CORE = 1 << 3;
+    private static final int ENDS_CPU = 1 << 4;
+    private static final int ENDS_CCD = 1 << 5;
+
+    private static final char[][] TOKEN_CHARS = new char[TOKENS.length][];
+    private static final int[][] TOKENS_BY_FIRST_CHAR = new int[128][];
+
+    static {
+        for (int t = 0; t < TOKENS.length; t++) {
+            TOKEN_CHARS[t] = TOKENS[t].toCharArray();
+            char first = TOKEN_CHARS[t][0];
+            int[] list = TOKENS_BY_FIRST_CHAR[first];
+            list = list == null ? new int[1] : Arrays.copyOf(list, list.length + 1);
+            list[list.length - 1] = t;
+            TOKENS_BY_FIRST_CHAR[first] = list;
+        }
+    }
+
+    private static final byte TYPE_NONE = 0;
+    private static final byte TYPE_TEMPERATURE = 1;
+    private static final byte TYPE_TEMP = 2;
+    private static final byte TYPE_LOAD = 3;
+    private static final byte TYPE_OTHER = 4;
+
+    private static final int ROOT = -1;
+
+    // Tree nodes in pre-order
+    private int nodeCount;
+    private int[] parent = new int[256];
+    private int[] ownMask = new int[256];
+    private int[] textMask = new int[256];
+    private int[] textEdges = new int[256];
+    private int[] idEdges = new int[256];
+    private byte[] type = new byte[256];
+    private double[] value = new double[256];
+    private boolean[] hasChildren = new boolean[256];
+    private String[] gpuDeviceName = new String[256];
+    private int[] pathMask = new int[256];
+    private String[] pathGpuName = new String[256];
+
+    // Flat "Sensors" entries
+    private int sensorCount;
+    private int[] sensorNameMask = new int[32];
+    private boolean[] sensorHasName = new boolean[32];
+    private int[] sensorIdMask = new int[32];
+    private boolean[] sensorHasId = new boolean[32];
+    private byte[] sensorType = new byte[32];
+    private double[] sensorValue = new double[32];
+    private boolean[] sensorHasValue = new boolean[32];
+
+    // Result of the last scanValue call
+    private double scannedValue;
+    private boolean scannedValid;
+
+    /** Parses a data.json body. Malformed JSON throws; any other JSON shape just yields no readings. */
+    synchronized Readings parse(String json) throws IOException {
+        try (JsonParser p = FACTORY.createParser(json)) {
+            return parse(p);
+        }
+    }
+
+    /** Same as {@link #parse(String)} for a raw (encoding auto-detected) response body. */
+    synchronized Readings parse(byte[] json) throws IOException {
+        try (JsonParser p = FACTORY.createParser(json)) {
+            return parse(p);
+        }
+    }
+
+    private Readings parse(JsonParser p) throws IOException {
+        nodeCount = 0;
+        sensorCount = 0;
+        int from = 0;
+        int to = 0;
+        JsonToken root = p.nextToken();
+        if (root == JsonToken.START_ARRAY) {
+            parseChildren(p, ROOT);
+            to = nodeCount;
+        } else if (root == JsonToken.START_OBJECT) {
+            // Root is { "Children": [...] }, or { "<anything>": { "Children": [...] } } when it has no Children
+            boolean rootChildren = false;
+            int mainFrom = 0;
+            int mainTo = 0;
+            int fallbackFrom = 0;
+            int fallbackTo = 0;
+            boolean first = true;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.getCurrentName();
+                JsonToken t = p.nextToken();
+                if ("Children".equals(field)) {
+                    rootChildren = true;
+                    mainFrom = nodeCount;
+                    if (t == JsonToken.START_ARRAY) parseChildren(p, ROOT);
+                    else p.skipChildren();
+                    mainTo = nodeCount;
+                } else if ("Sensors".equals(field) && t == JsonToken.START_ARRAY) {
+                    parseSensors(p);
+                } else if (first && t == JsonToken.START_OBJECT) {
+                    fallbackFrom = nodeCount;
+                    parseWrapper(p);
+                    fallbackTo = nodeCount;
+                } else {
+                    p.skipChildren();
+                }
+                first = false;
+            }
+            from = rootChildren ? mainFrom : fallbackFrom;
+            to = rootChildren ? mainTo : fallbackTo;
+        }
+        return classify(from, to);
+    }
+
+    /** Object wrapping the tree (e.g. "Computer"); only its Children are read. */
+    private void parseWrapper(JsonParser p) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            JsonToken t = p.nextToken();
+            if ("Children".equals(field) && t == JsonToken.START_ARRAY) parseChildren(p, ROOT);
+            else p.skipChildren();
+        }
+    }
+
+    /** Reads the elements of a Children array (the parser is on START_ARRAY); non-object elements are ignored. */
+    private void parseChildren(JsonParser p, int parentIndex) throws IOException {
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY && t != null) {
+            if (t == JsonToken.START_OBJECT) parseNode(p, parentIndex);
+            else p.skipChildren();
+        }
+    }
+
+    /** Reads one tree node (the parser is on START_OBJECT) and its subtree. */
+    private void parseNode(JsonParser p, int parentIndex) throws IOException {
+        int index = nodeCount++;
+        ensureNodeCapacity(nodeCount);
+        parent[index] = parentIndex;
+        hasChildren[index] = false;
+
+        int textRank = 0;
+        long textScan = 0;
+        String deviceName = null;
+        int idRank = 0;
+        long idScan = 0;
+        int typeRank = 0;
+        byte typeCode = TYPE_NONE;
+        int valueRank = 0;
+        double val = Double.NaN;
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            JsonToken t = p.nextToken();
+            int rank;
+            switch (field) {
+                case "Text", "Name" -> {
+                    rank = field.equals("Text") ? 2 : 1;
+                    if (t == JsonToken.VALUE_STRING && rank >= textRank) {
+                        textRank = rank;
+                        textScan = scan(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                        int mask = (int) textScan;
+                        deviceName = (mask & GPU_DEVICE) != 0 || (mask & (AMD | GRAPHICS)) == (AMD | GRAPHICS)
+                                ? p.getText().trim() : null;
+                    }
+                }
+                case "Identifier", "Id" -> {
+                    rank = field.equals("Identifier") ? 2 : 1;
+                    if (t == JsonToken.VALUE_STRING && rank >= idRank) {
+                        idRank = rank;
+                        idScan = scan(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                    }
+                }
+                case "SensorType", "Type", "type" -> {
+                    rank = field.equals("SensorType") ? 3 : field.equals("Type") ? 2 : 1;
+                    if (t == JsonToken.VALUE_STRING && rank >= typeRank) {
+                        typeRank = rank;
+                        typeCode = typeOf(p);
+                    }
+                }
+                case "Value", "value", "CurrentValue" -> {
+                    rank = field.equals("Value") ? 3 : field.equals("value") ? 2 : 1;
+                    if (rank >= valueRank) {
+                        valueRank = rank;
+                        scanValue(p, t);
+                        val = scannedValid ? scannedValue : Double.NaN;
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+                case "Children" -> {
+                    if (t == JsonToken.START_ARRAY) {
+                        hasChildren[index] = true;
+                        parseChildren(p, index);
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+                default -> p.skipChildren();
+            }
+        }
+
+        int textOwn = (int) textScan;
+        int textEdge = (int) (textScan >>> 32);
+        int idEdge = (int) (idScan >>> 32);
+        int own = textOwn | (int) idScan | span(textEdge, idEdge);
+        if ((textEdge & ENDS_CCD) != 0) own |= CCD_SPACE; // "ccd" + " " + id
+        ownMask[index] = own;
+        textMask[index] = textOwn;
+        textEdges[index] = textEdge;
+        idEdges[index] = idEdge;
+        type[index] = typeCode;
+        value[index] = val;
+        gpuDeviceName[index] = deviceName;
+    }
+
+    /** Reads the flat "Sensors" array (the parser is on START_ARRAY). */
+    private void parseSensors(JsonParser p) throws IOException {
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY && t != null) {
+            if (t != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                continue;
+            }
+            int index = sensorCount++;
+            ensureSensorCapacity(sensorCount);
+            int nameRank = 0;
+            int nameMask = 0;
+            int idRank = 0;
+            int idMask = 0;
+            int typeRank = 0;
+            byte typeCode = TYPE_NONE;
+            int valueRank = 0;
+            boolean valid = false;
+            double val = 0;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.getCurrentName();
+                JsonToken v = p.nextToken();
+                int rank;
+                switch (field) {
+                    case "Name", "Text" -> {
+                        rank = field.equals("Name") ? 2 : 1;
+                        if (v == JsonToken.VALUE_STRING && rank >= nameRank) {
+                            nameRank = rank;
+                            nameMask = (int) scan(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                        }
+                    }
+                    case "SensorId", "Identifier" -> {
+                        rank = field.equals("SensorId") ? 2 : 1;
+                        if (v == JsonToken.VALUE_STRING && rank >= idRank) {
+                            idRank = rank;
+                            idMask = (int) scan(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                        }
+                    }
+                    case "SensorType", "Type", "type" -> {
+                        rank = field.equals("SensorType") ? 3 : field.equals("Type") ? 2 : 1;
+                        if (v == JsonToken.VALUE_STRING && rank >= typeRank) {
+                            typeRank = rank;
+                            typeCode = typeOf(p);
+                        }
+                    }
+                    case "Value", "value", "CurrentValue" -> {
+                        rank = field.equals("Value") ? 3 : field.equals("value") ? 2 : 1;
+                        if (rank >= valueRank) {
+                            valueRank = rank;
+                            scanValue(p, v);
+                            valid = scannedValid;
+                            val = scannedValue;
+                        } else {
+                            p.skipChildren();
+                        }
+                    }
+                    default -> p.skipChildren();
+                }
+            }
+            sensorNameMask[index] = nameMask;
+            sensorHasName[index] = nameRank > 0;
+            sensorIdMask[index] = idMask;
+            sensorHasId[index] = idRank > 0;
+            sensorType[index] = typeCode;
+            sensorValue[index] = val;
+            sensorHasValue[index] = valid;
+        }
+    }
+
+    /** Applies the CPU/GPU rules to tree nodes [from, to), then to the flat sensors. */
+    private Readings classify(int from, int to) {
+        boolean hasCpuTemp = false;
+        double cpuTemp = 0;
+        boolean hasGpuTemp = false;
+        double gpuTemp = 0;
+        boolean hasGpuLoad = false;
+        double gpuLoad = 0;
+        Map<String, Double> tempsByName = new HashMap<>();
+        Map<String, Double> loadsByName = new HashMap<>();
+
+        for (int i = from; i < to; i++) {
+            int p = parent[i];
+            int combined = ownMask[i];
+            String currentGpuName = null;
+            if (p != ROOT) {
+                int parentEdge = idEdges[p];
+                combined |= pathMask[p] | span(parentEdge, textEdges[i]);
+                if ((parentEdge & ENDS_CCD) != 0) combined |= CCD_SPACE;
+                currentGpuName = pathGpuName[p];
+            }
+            pathMask[i] = combined;
+            pathGpuName[i] = hasChildren[i] && gpuDeviceName[i] != null ? gpuDeviceName[i] : currentGpuName;
+
+            byte typeCode = type[i];
+            double val = value[i]; // NaN fails every range check below, like a missing value
+            boolean isCpuSensor = (combined & CPU_SENSOR) != 0;
+            boolean isGpuSensor = (textMask[i] & GPU_WORD) != 0;
+            boolean isCpu = (combined & CPU_SECTION) != 0 && ((combined & GPU_WORD) == 0 || isCpuSensor)
+                    || (typeCode == TYPE_TEMPERATURE && (combined & CPU_VENDOR) != 0 && !isGpuSensor);
+            boolean isGpu = (combined & GPU_ANY) != 0 && (combined & CORE_HASH) == 0
+                    && (isGpuSensor || (combined & CPU_VENDOR) == 0);
+            boolean isTemp = typeCode == TYPE_TEMPERATURE || typeCode == TYPE_TEMP || (combined & (TEMPERATURE | TEMP)) != 0;
+
+            if (currentGpuName != null && !currentGpuName.isEmpty()) {
+                if (val > 0 && val < 150 && isTemp && (isGpuSensor || isGpu)) {
+                    tempsByName.put(currentGpuName, val);
+                }
+                if (typeCode == TYPE_LOAD && val >= 0 && val <= 100 && isGpu) {
+                    loadsByName.put(currentGpuName, val);
+                }
+            }
+            if (val > 0 && val < 150) {
+                boolean acceptAsTemp = isTemp || (typeCode == TYPE_NONE && (combined & (PACKAGE | CORE)) != 0);
+                if (acceptAsTemp) {
+                    boolean cpu = isCpuSensor || (!isGpuSensor && isCpu);
+                    if (cpu) {
+                        if (!hasCpuTemp || val > cpuTemp) { cpuTemp = val; hasCpuTemp = true; }
+                    } else if (isGpuSensor || isGpu) {
+                        if (!hasGpuTemp || val > gpuTemp) { gpuTemp = val; hasGpuTemp = true; }
+                    }
+                }
+            }
+            if (typeCode == TYPE_LOAD && val >= 0 && val <= 100 && isGpu) {
+                if (!hasGpuLoad || val > gpuLoad) { gpuLoad = val; hasGpuLoad = true; }
+            }
+        }
+
+        for (int i = 0; i < sensorCount; i++) {
+            if (!sensorHasValue[i]) continue;
+            double val = sensorValue[i];
+            int name = sensorNameMask[i];
+            int id = sensorIdMask[i];
+            if (sensorType[i] == TYPE_TEMPERATURE) {
+                if (sensorHasName[i]) {
+                    if ((name & CPU) != 0 && (name & GPU) == 0 && (!hasCpuTemp || val > cpuTemp)) { cpuTemp = val; hasCpuTemp = true; }
+                    if ((name & GPU_NAME) != 0 && (!hasGpuTemp || val > gpuTemp)) { gpuTemp = val; hasGpuTemp = true; }
+                }
+                if (sensorHasId[i] && val > 0 && val < 150) {
+                    if ((id & NVIDIA_SENSOR_ID) != 0) tempsByName.put("nvidia", val);
+                    else if ((id & AMD_SENSOR_ID) != 0) tempsByName.put("amd", val);
+                }
+            } else if (sensorType[i] == TYPE_LOAD) {
+                if (sensorHasName[i] && (name & GPU_NAME) != 0 && val >= 0 && val <= 100) {
+                    if (!hasGpuLoad || val > gpuLoad) { gpuLoad = val; hasGpuLoad = true; }
+                }
+                if (sensorHasId[i] && val >= 0 && val <= 100) {
+                    if ((id & NVIDIA_SENSOR_ID) != 0) loadsByName.put("nvidia", val);
+                    else if ((id & AMD_SENSOR_ID) != 0) loadsByName.put("amd", val);
+                }
+            }
+        }
+
+        // A single GPU temp/load falls back to the hottest/busiest per-device value
+        if (!hasGpuTemp && !tempsByName.isEmpty()) {
+            gpuTemp = max(tempsByName);
+            hasGpuTemp = true;
+        }
+        if (!hasGpuLoad && !loadsByName.isEmpty()) {
+            gpuLoad = max(loadsByName);
+            hasGpuLoad = true;
+        }
+        Arrays.fill(gpuDeviceName, 0, nodeCount, null);
+        Arrays.fill(pathGpuName, 0, nodeCount, null);
+        return new Readings(hasCpuTemp ? cpuTemp : null, hasGpuTemp ? gpuTemp : null, hasGpuLoad ? gpuLoad : null,
+                new ConcurrentHashMap<>(tempsByName), new ConcurrentHashMap<>(loadsByName));
+    }
+
+    private static double max(Map<String, Double> map) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double v : map.values()) {
+            if (v > max) max = v;
+        }
+        return max;
+    }
+
+    /** Keywords spanning the separator between segment {@code a} and the following segment {@code b}. */
+    private static int span(int a, int b) {
+        int mask = 0;
+        if ((a & ENDS_CORE) != 0) {
+            if ((b & STARTS_HASH) != 0) mask |= CORE_HASH;
+            if ((b & STARTS_SMU) != 0) mask |= CORE_SMU;
+        }
+        if ((a & ENDS_CPU) != 0 && (b & STARTS_PACKAGE) != 0) mask |= CPU_PACKAGE;
+        return mask;
+    }
+
+    /**
+     * Keyword mask (low 32 bits) and segment edges (high 32 bits) of {@code buf[off, off + len)}, matched
+     * case-insensitively. Non-ASCII text is lowercased with {@link String#toLowerCase(Locale)} first, as before.
+     */
+    static long scan(char[] buf, int off, int len) {
+        for (int i = off; i < off + len; i++) {
+            if (buf[i] >= 0x80) {
+                char[] lower = new String(buf, off, len).toLowerCase(Locale.ROOT).toCharArray();
+                return scanAscii(lower, 0, lower.length);
+            }
+        }
+        return scanAscii(buf, off, len);
+    }
+
+    private static long scanAscii(char[] buf, int off, int len) {
+        int end = off + len;
+        int mask = 0;
+        for (int i = off; i < end; i++) {
+            char c = lower(buf[i]);
+            if (c >= 128) continue;
+            int[] candidates = TOKENS_BY_FIRST_CHAR[c];
+            if (candidates == null) continue;
+            for (int t : candidates) {
+                if ((mask & (1 << t)) == 0 && matchesAt(buf, i, end, TOKEN_CHARS[t])) mask |= 1 << t;
+            }
+        }
+        int edges = 0;
+        if (matchesAt(buf, off, end, HASH)) edges |= STARTS_HASH;
+        if (matchesAt(buf, off, end, SMU)) edges |= STARTS_SMU;
+        if (matchesAt(buf, off, end, TOKEN_CHARS[1])) edges |= STARTS_PACKAGE;
+        if (len >= 4 && matchesAt(buf, end - 4, end, TOKEN_CHARS[12])) edges |= ENDS_CORE;
+        if (len >= 3 && matchesAt(buf, end - 3, end, TOKEN_CHARS[9])) edges |= ENDS_CPU;
+        if (len >= 3 && matchesAt(buf, end - 3, end, CCD)) edges |= ENDS_CCD;
+        return ((long) edges << 32) | (mask & 0xFFFFFFFFL);
+    }
+
+    private static final char[] HASH = {'#'};
+    private static final char[] SMU = "(smu)".toCharArray();
+    private static final char[] CCD = "ccd".toCharArray();
+
+    private static boolean matchesAt(char[] buf, int pos, int end, char[] token) {
+        if (end - pos < token.length) return false;
+        for (int k = 0; k < token.length; k++) {
+            if (lower(buf[pos + k]) != token[k]) return false;
+        }
+        return true;
+    }
+
+    private static char lower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + 32) : c;
+    }
+
+    private static byte typeOf(JsonParser p) throws IOException {
+        char[] buf = p.getTextCharacters();
+        int off = p.getTextOffset();
+        int len = p.getTextLength();
+        if (equalsIgnoreCase(buf, off, len, "temperature")) return TYPE_TEMPERATURE;
+        if (equalsIgnoreCase(buf, off, len, "temp")) return TYPE_TEMP;
+        if (equalsIgnoreCase(buf, off, len, "load")) return TYPE_LOAD;
+        return TYPE_OTHER;
+    }
+
+    private static boolean equalsIgnoreCase(char[] buf, int off, int len, String lowerAscii) {
+        if (len != lowerAscii.length()) return false;
+        for (int k = 0; k < len; k++) {
+            if (lower(buf[off + k]) != lowerAscii.charAt(k)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads a sensor value into {@link #scannedValue}/{@link #scannedValid}: JSON numbers as is; strings are
+     * parsed whole when they are a Java floating-point literal, otherwise the first decimal number is taken
+     * (LHM formats values like "45.0 °C" or "1234 RPM"). Anything else is not a value.
+     */
+    private void scanValue(JsonParser p, JsonToken t) throws IOException {
+        scannedValid = false;
+        if (t == JsonToken.VALUE_NUMBER_INT || t == JsonToken.VALUE_NUMBER_FLOAT) {
+            scannedValue = p.getDoubleValue();
+            scannedValid = true;
+            return;
+        }
+        if (t != JsonToken.VALUE_STRING) {
+            p.skipChildren();
+            return;
+        }
+        char[] buf = p.getTextCharacters();
+        int start = p.getTextOffset();
+        int end = start + p.getTextLength();
+        while (start < end && buf[start] <= ' ') start++;
+        while (end > start && buf[end - 1] <= ' ') end--;
+        if (start == end) return;
+
+        // First match of [+-]?\d+(?:\.\d+)?
+        int numStart = -1;
+        int numEnd = -1;
+        for (int i = start; i < end && numStart < 0; i++) {
+            char c = buf[i];
+            int digitsFrom;
+            if (isDigit(c)) digitsFrom = i;
+            else if ((c == '+' || c == '-') && i + 1 < end && isDigit(buf[i + 1])) digitsFrom = i + 1;
+            else continue;
+            int j = digitsFrom;
+            while (j < end && isDigit(buf[j])) j++;
+            if (j + 1 < end && buf[j] == '.' && isDigit(buf[j + 1])) {
+                j++;
+                while (j < end && isDigit(buf[j])) j++;
+            }
+            numStart = i;
+            numEnd = j;
+        }
+        if (!(numStart == start && numEnd == end) && isFloatLiteralCharset(buf, start, end)) {
+            // e.g. "1e3", "NaN", ".5": what Double.parseDouble would accept for the whole string
+            try {
+                scannedValue = Double.parseDouble(new String(buf, start, end - start));
+                scannedValid = true;
+                return;
+            } catch (NumberFormatException ignored) {
+                // fall through to the first embedded number
+            }
+        }
+        if (numStart < 0) return;
+        scannedValue = parseDecimal(buf, numStart, numEnd);
+        scannedValid = true;
+    }
+
+    /** Parses a [+-]?\d+(\.\d+)? span; exact for up to 15 significant digits, else via Double.parseDouble. */
+    private static double parseDecimal(char[] buf, int start, int end) {
+        int i = start;
+        boolean negative = buf[i] == '-';
+        if (buf[i] == '+' || buf[i] == '-') i++;
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            char c = buf[i];
+            if (c == '.') {
+                fraction = true;
+                continue;
+            }
+            if (digits > 0 || c != '0') digits++;
+            mantissa = mantissa * 10 + (c - '0');
+            if (fraction) scale++;
+            if (digits > 15 || scale >= POW10.length) return Double.parseDouble(new String(buf, start, end - start));
+        }
+        double v = scale == 0 ? (double) mantissa : mantissa / POW10[scale];
+        return negative ? -v : v;
+    }
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15,
+            1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /** False if the text has a character that can never appear in a Java floating-point literal. */
+    private static boolean isFloatLiteralCharset(char[] buf, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = buf[i];
+            boolean ok = isDigit(c) || c == '+' || c == '-' || c == '.'
+                    || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F')
+                    || "xXpPNIinty".indexOf(c) >= 0;
+            if (!ok) return false;
+        }
+        return true;
+    }
+
+    private void ensureNodeCapacity(int n) {
+        if (n <= parent.length) return;
+        int size = Math.max(n, parent.length * 2);
+        parent = Arrays.copyOf(parent, size);
+        ownMask = Arrays.copyOf(ownMask, size);
+        textMask = Arrays.copyOf(textMask, size);
+        textEdges = Arrays.copyOf(textEdges, size);
+        idEdges = Arrays.copyOf(idEdges, size);
+        type = Arrays.copyOf(type, size);
+        value = Arrays.copyOf(value, size);
+        hasChildren = Arrays.copyOf(hasChildren, size);
+        gpuDeviceName = Arrays.copyOf(gpuDeviceName, size);
+        pathMask = Arrays.copyOf(pathMask, size);
+        pathGpuName = Arrays.copyOf(pathGpuName, size);
+    }
+
+    private void ensureSensorCapacity(int n) {
+        if (n <= sensorNameMask.length) return;
+        int size = Math.max(n, sensorNameMask.length * 2);
+        sensorNameMask = Arrays.copyOf(sensorNameMask, size);
+        sensorHasName = Arrays.copyOf(sensorHasName, size);
+        sensorIdMask = Arrays.copyOf(sensorIdMask, size);
+        sensorHasId = Arrays.copyOf(sensorHasId, size);
+        sensorType = Arrays.copyOf(sensorType, size);
+        sensorValue = Arrays.copyOf(sensorValue, size);
+        sensorHasValue = Arrays.copyOf(sensorHasValue, size);
+    }
+}
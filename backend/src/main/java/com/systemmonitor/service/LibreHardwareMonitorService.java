@@ -2,75 +2,146 @@ package com.systemmonitor.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.systemmonitor.diagnostics.PipelineMeters;
+import com.systemmonitor.scheduler.IdleListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
-import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Reads CPU and GPU temperature from LibreHardwareMonitor's Remote Web Server
  * when it is running (Options → Remote web server → Run, default port 8085).
  * See: https://github.com/LibreHardwareMonitor/LibreHardwareMonitor/releases
+ * <p>
+ * data.json is polled in the background every librehardwaremonitor.poll-interval-ms (default 1000) with
+ * {@code sendAsync} over one kept-alive connection, requesting gzip. A body whose length and CRC match the last
+ * parsed one is not parsed again. While LHM is down the delay doubles per failure up to
+ * librehardwaremonitor.max-backoff-ms. While the stats scheduler is idle (see {@link IdleListener}) it polls every
+ * librehardwaremonitor.idle-poll-interval-ms instead, and polls at once when a watcher arrives.
+ * Getters only read the last published readings and never block.
+ * Polls are timed (stats.lhm.fetch, stats.lhm.parse); stats.lhm.cache counts bodies served from the last parse
+ * (304 or unchanged, result=hit) versus parsed (result=miss).
  */
 @Service
 @Slf4j
-public class LibreHardwareMonitorService {
+public class LibreHardwareMonitorService implements IdleListener {
 
     private static final String DEFAULT_BASE_URL = "http://localhost:8085";
     private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
     private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final LhmSensorParser.Readings NO_READINGS = new LhmSensorParser.Readings(null, null, null, Map.of(), Map.of());
 
-    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+    // HTTP/1.1 keeps one persistent connection to LHM instead of attempting an h2c upgrade on every request
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
     private final String baseUrl;
+    private final URI dataUri;
+    private final long pollIntervalMs;
+    private final long idlePollIntervalMs;
+    private final long maxBackoffMs;
+    private final LhmSensorParser parser = new LhmSensorParser();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "lhm-poller");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Timer fetchTimer;
+    private final Timer parseTimer;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
 
     public LibreHardwareMonitorService(
-            @Value("${librehardwaremonitor.url:http://localhost:8085}") String url) {
+            @Value("${librehardwaremonitor.url:http://localhost:8085}") String url,
+            @Value("${librehardwaremonitor.poll-interval-ms:1000}") long pollIntervalMs,
+            @Value("${librehardwaremonitor.max-backoff-ms:60000}") long maxBackoffMs,
+            @Value("${librehardwaremonitor.idle-poll-interval-ms:5000}") long idlePollIntervalMs,
+            MeterRegistry meterRegistry) {
         this.baseUrl = url != null && !url.isBlank() ? url.replaceAll("/+$", "") : DEFAULT_BASE_URL;
+        this.dataUri = URI.create(baseUrl + "/data.json");
+        this.pollIntervalMs = Math.max(1, pollIntervalMs);
+        this.idlePollIntervalMs = Math.max(this.pollIntervalMs, idlePollIntervalMs);
+        this.maxBackoffMs = Math.max(this.pollIntervalMs, maxBackoffMs);
+        this.fetchTimer = PipelineMeters.timer(meterRegistry, "stats.lhm.fetch", "LHM data.json request, including failures");
+        this.parseTimer = PipelineMeters.timer(meterRegistry, "stats.lhm.parse", "LHM data.json parse");
+        this.cacheHits = Counter.builder("stats.lhm.cache").tag("result", "hit")
+                .description("LHM polls answered by the last parse (304 or unchanged body)")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("stats.lhm.cache").tag("result", "miss")
+                .description("LHM polls whose body had to be parsed")
+                .register(meterRegistry);
     }
 
     @PostConstruct
-    void logConfig() {
+    void start() {
         log.info("LibreHardwareMonitor URL: {} (temps will show when LHM remote server is running there)", baseUrl + "/data.json");
+        poller.execute(this::poll);
+    }
+
+    @PreDestroy
+    void stop() {
+        poller.shutdownNow();
     }
-    private volatile long lastFetchTime = 0;
-    private volatile Double lastCpuTemp = null;
-    private volatile Double lastGpuTemp = null;
-    private volatile Double lastGpuLoad = null;
-    private static final long CACHE_MS = 1000;
+
+    /** Last parsed readings; replaced as a whole so getters always see one consistent poll. */
+    private volatile LhmSensorParser.Readings readings = NO_READINGS;
     /** Log "not reachable" at most once per minute to avoid console spam */
     private volatile long lastNotReachableLogTime = 0;
     private volatile long lastNoTempsWarnTime = 0;
     private static final long NOT_REACHABLE_LOG_INTERVAL_MS = 60_000;
+    private static final int MAX_BACKOFF_DOUBLINGS = 20;
     private volatile String lastError = null;
     private volatile boolean lastHttpOk = false;
-    /** Per-GPU temperature and load by LHM device name (e.g. "NVIDIA GeForce GTX 1650", "AMD Radeon(TM) Graphics"). */
-    private volatile Map<String, Double> gpuTempsByName = new ConcurrentHashMap<>();
-    private volatile Map<String, Double> gpuLoadsByName = new ConcurrentHashMap<>();
+    // Poller state, only touched on the poller thread
+    private String etag;
+    private int lastBodyLength = -1;
+    private long lastBodyCrc;
+    private int consecutiveFailures;
+    private long pollStartNanos;
+    /** The scheduled next poll; null while a request is in flight. */
+    private ScheduledFuture<?> nextPoll;
+    private volatile boolean idle;
+    private volatile long currentDelayMs;
+    private volatile int parseCount;
 
     /**
      * Returns CPU temperature from LibreHardwareMonitor if available; null otherwise.
      */
     public Double getCpuTemperature() {
-        fetchIfNeeded();
-        return lastCpuTemp;
+        return readings.cpuTemp();
     }
 
     /**
      * Returns GPU temperature from LibreHardwareMonitor if available; null otherwise.
      */
     public Double getGpuTemperature() {
-        fetchIfNeeded();
-        return lastGpuTemp;
+        return readings.gpuTemp();
     }
 
     /**
@@ -78,8 +149,7 @@ public class LibreHardwareMonitorService {
      * Value is 0–100 when present.
      */
     public Double getGpuLoad() {
-        fetchIfNeeded();
-        return lastGpuLoad;
+        return readings.gpuLoad();
     }
 
     /**
@@ -87,23 +157,21 @@ public class LibreHardwareMonitorService {
      * E.g. cardName "AMD Radeon(TM) Graphics" matches LHM key "AMD Radeon(TM) Graphics".
      */
     public Double getGpuTemperatureByName(String cardName) {
-        fetchIfNeeded();
-        return matchGpuByName(gpuTempsByName, cardName);
+        return matchGpuByName(readings.gpuTempsByName(), cardName);
     }
 
     /**
      * Returns GPU load (usage %) for the given OSHI card name by matching LHM device names.
      */
     public Double getGpuLoadByName(String cardName) {
-        fetchIfNeeded();
-        return matchGpuByName(gpuLoadsByName, cardName);
+        return matchGpuByName(readings.gpuLoadsByName(), cardName);
     }
 
     /** For debugging: returns whether LHM was reachable and last temps/error. */
     public LhmStatus getStatus() {
-        fetchIfNeeded();
-        boolean ok = lastCpuTemp != null || lastGpuTemp != null;
-        return new LhmStatus(ok, lastCpuTemp, lastGpuTemp, lastGpuLoad, lastError, lastHttpOk);
+        LhmSensorParser.Readings r = readings;
+        boolean ok = r.cpuTemp() != null || r.gpuTemp() != null;
+        return new LhmStatus(ok, r.cpuTemp(), r.gpuTemp(), r.gpuLoad(), lastError, lastHttpOk);
     }
 
     public static record LhmStatus(boolean reachable, Double cpuTemp, Double gpuTemp, Double gpuLoad, String error, boolean httpOk) {}
@@ -146,187 +214,165 @@ public class LibreHardwareMonitorService {
         }
     }
 
-    private void fetchIfNeeded() {
-        long now = System.currentTimeMillis();
-        if (now - lastFetchTime < CACHE_MS) {
-            return;
+    @Override
+    public void onIdleChanged(boolean idle) {
+        this.idle = idle;
+        if (!idle) {
+            try {
+                poller.execute(this::pollNow);
+            } catch (RejectedExecutionException e) {
+                // shutting down
+            }
+        }
+    }
+
+    /** Replaces a scheduled poll (possibly an idle or backoff delay away) with one now; no-op while one is in flight. */
+    private void pollNow() {
+        if (nextPoll != null && nextPoll.cancel(false)) {
+            nextPoll = null;
+            poll();
         }
-        lastFetchTime = now;
+    }
+
+    /** Number of bodies actually parsed (unchanged bodies are skipped). For tests. */
+    int parseCount() {
+        return parseCount;
+    }
+
+    /** Delay before the next poll, grown by backoff while LHM is failing. For tests. */
+    long currentDelayMs() {
+        return currentDelayMs;
+    }
+
+    private void poll() {
+        nextPoll = null;
+        HttpRequest.Builder request = HttpRequest.newBuilder(dataUri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept-Encoding", "gzip")
+                .GET();
+        if (etag != null) request.header("If-None-Match", etag);
+        pollStartNanos = System.nanoTime();
         try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(baseUrl + "/data.json"))
-                    .timeout(REQUEST_TIMEOUT)
-                    .GET()
-                    .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            lastHttpOk = (response.statusCode() == 200);
-            if (response.statusCode() != 200) {
-                lastCpuTemp = null;
-                lastGpuTemp = null;
-                lastGpuLoad = null;
-                lastHttpOk = false;
-                lastError = "HTTP " + response.statusCode();
-                log.debug("LibreHardwareMonitor returned status {}", response.statusCode());
-                return;
-            }
-            String body = response.body();
-            parseAndStoreTemps(body);
-            lastError = null;
-            if (lastCpuTemp != null || lastGpuTemp != null) {
-                log.info("LibreHardwareMonitor temps: CPU={} °C, GPU={} °C", lastCpuTemp, lastGpuTemp);
-            } else if (body != null && body.length() > 0 && (now - lastNoTempsWarnTime >= NOT_REACHABLE_LOG_INTERVAL_MS)) {
-                lastNoTempsWarnTime = now;
-                log.warn("LibreHardwareMonitor returned data but no temps parsed. Length: {} chars. Open http://localhost:8081/api/lhm-sample to see JSON structure.", body.length());
-            }
-        } catch (Exception e) {
-            lastCpuTemp = null;
-            lastGpuTemp = null;
-            lastGpuLoad = null;
-            lastHttpOk = false;
-            lastError = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
-            long nowErr = System.currentTimeMillis();
-            if (nowErr - lastNotReachableLogTime >= NOT_REACHABLE_LOG_INTERVAL_MS) {
-                lastNotReachableLogTime = nowErr;
-                String msg = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
-                log.info("LibreHardwareMonitor not reachable at {} (start LHM and enable Options -> Remote web server -> Run): {}", baseUrl, msg);
-            }
+            httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                    .whenCompleteAsync((response, error) -> scheduleNext(handle(response, error)), poller);
+        } catch (RuntimeException e) {
+            scheduleNext(handle(null, e));
         }
     }
 
-    private void parseAndStoreTemps(String json) {
-        lastCpuTemp = null;
-        lastGpuTemp = null;
-        lastGpuLoad = null;
-        Map<String, Double> tempsByName = new HashMap<>();
-        Map<String, Double> loadsByName = new HashMap<>();
+    /** Polls are chained rather than fixed-rate, so a slow LHM never has two requests in flight. */
+    private void scheduleNext(long delayMs) {
+        currentDelayMs = delayMs;
+        if (poller.isShutdown()) return;
         try {
-            JsonNode root = MAPPER.readTree(json);
-            if (root == null) return;
-            // Unwrap: root may be { "Children": [...] }, or { "Computer": { "Children": [...] } }, or array
-            JsonNode children = root.isArray() ? root : root.get("Children");
-            if (children == null && root.isObject()) {
-                var it = root.fields();
-                if (it.hasNext()) children = it.next().getValue().get("Children");
-            }
-            if (children != null && children.isArray()) {
-                for (JsonNode child : children) {
-                    collectTempsFromNode(child, "", "", null, tempsByName, loadsByName);
-                }
-            }
-            // Also try flat "Sensors" array if present
-            JsonNode sensors = root.get("Sensors");
-            if (sensors != null && sensors.isArray()) {
-                for (JsonNode s : sensors) {
-                    String name = nameOf(s);
-                    String type = typeOf(s);
-                    Double val = valueOf(s);
-                    if (val == null) continue;
-                    String sensorId = sensorIdOf(s);
-                    if ("Temperature".equalsIgnoreCase(type)) {
-                        if (name != null) {
-                            String n = name.toLowerCase(Locale.ROOT);
-                            if (n.contains("cpu") && !n.contains("gpu") && (lastCpuTemp == null || val > lastCpuTemp)) lastCpuTemp = val;
-                            if ((n.contains("gpu") || n.contains("graphics") || n.contains("radeon") || n.contains("nvidia") || n.contains("geforce")) && (lastGpuTemp == null || val > lastGpuTemp)) lastGpuTemp = val;
-                        }
-                        if (sensorId != null && val > 0 && val < 150) {
-                            String idLower = sensorId.toLowerCase(Locale.ROOT);
-                            if (idLower.contains("/gpu-nvidia/0/")) tempsByName.put("nvidia", val);
-                            else if (idLower.contains("/gpu-amd/0/")) tempsByName.put("amd", val);
-                        }
-                    } else if ("Load".equalsIgnoreCase(type)) {
-                        if (name != null) {
-                            String n = name.toLowerCase(Locale.ROOT);
-                            if ((n.contains("gpu") || n.contains("graphics") || n.contains("radeon") || n.contains("nvidia") || n.contains("geforce")) && val >= 0 && val <= 100) {
-                                if (lastGpuLoad == null || val > lastGpuLoad) lastGpuLoad = val;
-                            }
-                        }
-                        if (sensorId != null && val >= 0 && val <= 100) {
-                            String idLower = sensorId.toLowerCase(Locale.ROOT);
-                            if (idLower.contains("/gpu-nvidia/0/")) loadsByName.put("nvidia", val);
-                            else if (idLower.contains("/gpu-amd/0/")) loadsByName.put("amd", val);
-                        }
-                    }
-                }
+            nextPoll = poller.schedule(this::poll, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // shutting down
+        }
+    }
+
+    /** Handles one poll result and returns the delay until the next one. */
+    private long handle(HttpResponse<byte[]> response, Throwable error) {
+        fetchTimer.record(System.nanoTime() - pollStartNanos, TimeUnit.NANOSECONDS);
+        try {
+            if (error != null) return onFailure(error);
+            int status = response.statusCode();
+            if (status == 304) {
+                cacheHits.increment();
+                return onSuccess();
             }
-            gpuTempsByName = new ConcurrentHashMap<>(tempsByName);
-            gpuLoadsByName = new ConcurrentHashMap<>(loadsByName);
-            // Backward compat: set single lastGpuTemp/lastGpuLoad from first entry if any
-            if (lastGpuTemp == null && !tempsByName.isEmpty()) {
-                lastGpuTemp = tempsByName.values().stream().max(Double::compareTo).orElse(null);
+            if (status != 200) {
+                log.debug("LibreHardwareMonitor returned status {}", status);
+                return onFailure("HTTP " + status);
             }
-            if (lastGpuLoad == null && !loadsByName.isEmpty()) {
-                lastGpuLoad = loadsByName.values().stream().max(Double::compareTo).orElse(null);
+            byte[] body = decode(response);
+            etag = response.headers().firstValue("ETag").orElse(null);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if (body.length != lastBodyLength || crc.getValue() != lastBodyCrc) {
+                lastBodyLength = body.length;
+                lastBodyCrc = crc.getValue();
+                cacheMisses.increment();
+                parseAndStore(body);
+            } else {
+                cacheHits.increment();
             }
+            return onSuccess();
         } catch (Exception e) {
-            log.debug("Failed to parse LibreHardwareMonitor JSON: {}", e.getMessage());
+            return onFailure(e);
         }
     }
 
-    /** Recursively walk tree; pathLower is combined name path for CPU/GPU detection. currentGpuName = LHM device name when under a GPU section. */
-    private void collectTempsFromNode(JsonNode node, String pathText, String pathLower, String currentGpuName,
-                                      Map<String, Double> gpuTempsByName, Map<String, Double> gpuLoadsByName) {
-        String text = textOf(node);
-        String id = identifierOf(node);
-        String combinedLower = (pathLower + " " + text + " " + id).toLowerCase(Locale.ROOT);
-        String type = typeOf(node);
-        Double val = valueOf(node);
-        JsonNode children = node.get("Children");
-
-        // Detect GPU device section: node has Children and text looks like a GPU name (not a sensor like "GPU Core" only)
-        String nextGpuName = currentGpuName;
-        if (children != null && children.isArray() && text != null && !text.isEmpty()) {
-            String tLower = text.toLowerCase(Locale.ROOT);
-            boolean looksLikeGpuDevice = (tLower.contains("nvidia") || tLower.contains("geforce") || tLower.contains("radeon") || (tLower.contains("amd") && tLower.contains("graphics")));
-            if (looksLikeGpuDevice) nextGpuName = text.trim();
+    private long onSuccess() {
+        lastHttpOk = true;
+        lastError = null;
+        consecutiveFailures = 0;
+        return idle ? idlePollIntervalMs : pollIntervalMs;
+    }
+
+    private long onFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String msg = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        long now = System.currentTimeMillis();
+        if (now - lastNotReachableLogTime >= NOT_REACHABLE_LOG_INTERVAL_MS) {
+            lastNotReachableLogTime = now;
+            log.info("LibreHardwareMonitor not reachable at {} (start LHM and enable Options -> Remote web server -> Run): {}", baseUrl, msg);
         }
+        return onFailure(msg);
+    }
 
-        // Sensor name clearly indicates CPU (core/package/tctl/ccd) or GPU (gpu/graphics in sensor name)
-        boolean isCpuSensor = combinedLower.contains("core #") || combinedLower.contains("package") || combinedLower.contains("tctl")
-                || combinedLower.contains("tdie") || combinedLower.contains("ccd1") || combinedLower.contains("ccd2") || combinedLower.contains("ccd ")
-                || combinedLower.contains("core (smu)") || combinedLower.contains("cpu package");
-        boolean isGpuSensor = (text.toLowerCase(Locale.ROOT).contains("gpu") || text.toLowerCase(Locale.ROOT).contains("graphics"));
-        boolean looksLikeCpuSection = combinedLower.contains("cpu") || combinedLower.contains("ryzen") || combinedLower.contains("intel")
-                || combinedLower.contains("core") || combinedLower.contains("package");
-        boolean isCpu = looksLikeCpuSection && (!combinedLower.contains("gpu") && !combinedLower.contains("graphics") || isCpuSensor)
-                || (type != null && "Temperature".equalsIgnoreCase(type) && (combinedLower.contains("ryzen") || combinedLower.contains("intel")) && !isGpuSensor);
-        boolean isGpu = (combinedLower.contains("gpu") || combinedLower.contains("nvidia") || combinedLower.contains("radeon") || combinedLower.contains("graphics"))
-                && !combinedLower.contains("core #") && (isGpuSensor || !combinedLower.contains("ryzen") && !combinedLower.contains("intel"));
-        boolean isTemp = (type != null && ("Temperature".equalsIgnoreCase(type) || "Temp".equalsIgnoreCase(type)))
-                || combinedLower.contains("temperature") || combinedLower.contains("temp");
-
-        // Per-GPU: store temp/load by current GPU device name when under a GPU section
-        if (currentGpuName != null && !currentGpuName.isEmpty()) {
-            if (val != null && val > 0 && val < 150 && isTemp && (isGpuSensor || isGpu)) {
-                gpuTempsByName.put(currentGpuName, val);
-            }
-            if (type != null && "Load".equalsIgnoreCase(type) && val != null && val >= 0 && val <= 100 && isGpu) {
-                gpuLoadsByName.put(currentGpuName, val);
-            }
+    private long onFailure(String error) {
+        readings = NO_READINGS;
+        lastHttpOk = false;
+        lastError = error;
+        etag = null;
+        lastBodyLength = -1;
+        consecutiveFailures = Math.min(consecutiveFailures + 1, MAX_BACKOFF_DOUBLINGS);
+        return Math.min(maxBackoffMs, pollIntervalMs << consecutiveFailures);
+    }
+
+    private static byte[] decode(HttpResponse<byte[]> response) throws IOException {
+        byte[] body = response.body();
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("");
+        if (!encoding.equalsIgnoreCase("gzip")) return body;
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
         }
+    }
 
-        if (val != null && val > 0 && val < 150) {
-            boolean acceptAsTemp = isTemp || (type == null && (combinedLower.contains("package") || combinedLower.contains("core")));
-            if (acceptAsTemp) {
-                if (isCpuSensor) {
-                    if (lastCpuTemp == null || val > lastCpuTemp) lastCpuTemp = val;
-                } else if (isGpuSensor) {
-                    if (lastGpuTemp == null || val > lastGpuTemp) lastGpuTemp = val;
-                } else if (isCpu && isGpu) {
-                    if (lastCpuTemp == null || val > lastCpuTemp) lastCpuTemp = val;
-                } else if (isCpu) {
-                    if (lastCpuTemp == null || val > lastCpuTemp) lastCpuTemp = val;
-                } else if (isGpu) {
-                    if (lastGpuTemp == null || val > lastGpuTemp) lastGpuTemp = val;
-                }
-            }
+    private void parseAndStore(byte[] body) {
+        parseCount++;
+        long start = System.nanoTime();
+        try {
+            publish(parser.parse(body), body.length);
+        } catch (Exception e) {
+            readings = NO_READINGS;
+            log.debug("Failed to parse LibreHardwareMonitor JSON: {}", e.getMessage());
+        } finally {
+            parseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
-        boolean isLoad = type != null && "Load".equalsIgnoreCase(type);
-        if (isLoad && val != null && val >= 0 && val <= 100 && isGpu) {
-            if (lastGpuLoad == null || val > lastGpuLoad) lastGpuLoad = val;
+    }
+
+    /** Parses an LHM data.json body and replaces the cached temperatures/loads. Package-private for benchmarks. */
+    void parseAndStoreTemps(String json) {
+        try {
+            publish(parser.parse(json), json.length());
+        } catch (Exception e) {
+            readings = NO_READINGS;
+            log.debug("Failed to parse LibreHardwareMonitor JSON: {}", e.getMessage());
         }
-        if (children != null && children.isArray()) {
-            for (JsonNode c : children) {
-                collectTempsFromNode(c, pathText + " " + text, combinedLower, nextGpuName, gpuTempsByName, gpuLoadsByName);
+    }
+
+    private void publish(LhmSensorParser.Readings parsed, int length) {
+        boolean hadTemps = readings.cpuTemp() != null || readings.gpuTemp() != null;
+        readings = parsed;
+        if (parsed.cpuTemp() != null || parsed.gpuTemp() != null) {
+            if (!hadTemps) log.info("LibreHardwareMonitor temps: CPU={} °C, GPU={} °C", parsed.cpuTemp(), parsed.gpuTemp());
+        } else if (length > 0) {
+            long now = System.currentTimeMillis();
+            if (now - lastNoTempsWarnTime >= NOT_REACHABLE_LOG_INTERVAL_MS) {
+                lastNoTempsWarnTime = now;
+                log.warn("LibreHardwareMonitor returned data but no temps parsed. Length: {} bytes. Open http://localhost:8081/api/lhm-sample to see JSON structure.", length);
             }
         }
     }
@@ -346,75 +392,4 @@ public class LibreHardwareMonitorService {
         }
         return null;
     }
-
-    private static String identifierOf(JsonNode n) {
-        if (n == null) return "";
-        JsonNode t = n.get("Identifier");
-        if (t != null && t.isTextual()) return t.asText();
-        t = n.get("Id");
-        if (t != null && t.isTextual()) return t.asText();
-        return "";
-    }
-
-    private static String textOf(JsonNode n) {
-        if (n == null) return "";
-        JsonNode t = n.get("Text");
-        if (t != null && t.isTextual()) return t.asText();
-        t = n.get("Name");
-        if (t != null && t.isTextual()) return t.asText();
-        return "";
-    }
-
-    private static String nameOf(JsonNode n) {
-        if (n == null) return null;
-        JsonNode t = n.get("Name");
-        if (t != null && t.isTextual()) return t.asText();
-        t = n.get("Text");
-        if (t != null && t.isTextual()) return t.asText();
-        return null;
-    }
-
-    private static String sensorIdOf(JsonNode n) {
-        if (n == null) return null;
-        JsonNode t = n.get("SensorId");
-        if (t != null && t.isTextual()) return t.asText();
-        t = n.get("Identifier");
-        if (t != null && t.isTextual()) return t.asText();
-        return null;
-    }
-
-    private static String typeOf(JsonNode n) {
-        if (n == null) return null;
-        JsonNode t = n.get("SensorType");
-        if (t != null && t.isTextual()) return t.asText();
-        t = n.get("Type");
-        if (t != null && t.isTextual()) return t.asText();
-        t = n.get("type");
-        if (t != null && t.isTextual()) return t.asText();
-        return null;
-    }
-
-    private static Double valueOf(JsonNode n) {
-        if (n == null) return null;
-        JsonNode v = n.get("Value");
-        if (v == null) v = n.get("value");
-        if (v == null) v = n.get("CurrentValue");
-        if (v == null) return null;
-        if (v.isNumber()) return v.doubleValue();
-        if (v.isTextual()) {
-            String s = v.asText().trim();
-            if (s.isEmpty()) return null;
-            try {
-                return Double.parseDouble(s);
-            } catch (NumberFormatException ignored) { }
-            // LHM sends formatted strings like "45.0 °C" or "1234 RPM" - extract first number
-            java.util.regex.Matcher matcher = java.util.regex.Pattern.compile("[+-]?\\d+(?:\\.\\d+)?").matcher(s);
-            if (matcher.find()) {
-                try {
-                    return Double.parseDouble(matcher.group());
-                } catch (NumberFormatException ignored) { }
-            }
-        }
-        return null;
-    }
 }
@@ -1,14 +1,21 @@
 package com.systemmonitor.service;
 
 import com.systemmonitor.dto.SystemStats;
+import com.systemmonitor.procfs.MemInfoReader;
+import com.systemmonitor.procfs.Procfs;
+import com.systemmonitor.sampling.MetricMath;
+import com.systemmonitor.sampling.SampleFrame;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import oshi.SystemInfo;
 import oshi.hardware.GlobalMemory;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+
 /**
- * Provides real RAM/memory usage statistics using OSHI.
+ * Provides real RAM/memory usage statistics using OSHI, or on Linux straight from /proc/meminfo (see {@link Procfs}).
  */
 @Service
 @Slf4j
@@ -16,28 +23,58 @@ import org.springframework.stereotype.Service;
 public class MemoryService {
 
     private final SystemInfo systemInfo;
+    private final Procfs procfs;
+    /** Linux fast path; null when unavailable or after a read error (then OSHI is used). */
+    private MemInfoReader memInfo;
+
+    @PostConstruct
+    public synchronized void init() {
+        if (!procfs.isEnabled()) return;
+        try {
+            memInfo = new MemInfoReader(procfs);
+        } catch (IOException e) {
+            log.warn("procfs memory collector unavailable, using OSHI: {}", e.getMessage());
+        }
+    }
 
     /**
      * Returns current memory usage stats (total, used, available, usage percent).
      */
     public SystemStats.MemoryStats getMemoryStats() {
-        GlobalMemory memory = systemInfo.getHardware().getMemory();
-        long total = memory.getTotal();
-        long available = memory.getAvailable();
+        SampleFrame.Memory memory = new SampleFrame.Memory();
+        sample(memory);
+        return memory.toDto();
+    }
+
+    /** Writes current memory usage into {@code out}. */
+    public synchronized void sample(SampleFrame.Memory out) {
+        long total;
+        long available;
+        if (readMemInfo()) {
+            total = memInfo.totalBytes();
+            available = memInfo.availableBytes();
+        } else {
+            GlobalMemory memory = systemInfo.getHardware().getMemory();
+            total = memory.getTotal();
+            available = memory.getAvailable();
+        }
         long used = total - available;
         double usagePercent = total > 0 ? 100.0 * used / total : 0.0;
-        usagePercent = Math.max(0, Math.min(100, usagePercent));
-        return SystemStats.MemoryStats.builder()
-                .totalBytes(total)
-                .usedBytes(used)
-                .availableBytes(available)
-                .usagePercent(round(usagePercent, 2))
-                .build();
+        out.totalBytes = total;
+        out.usedBytes = used;
+        out.availableBytes = available;
+        out.usagePercent = MetricMath.round(MetricMath.clampPercent(usagePercent), 2);
     }
 
-    private static double round(double value, int places) {
-        if (places < 0) throw new IllegalArgumentException();
-        long factor = (long) Math.pow(10, places);
-        return (double) Math.round(value * factor) / factor;
+    private boolean readMemInfo() {
+        if (memInfo == null) return false;
+        try {
+            memInfo.read();
+            return true;
+        } catch (IOException e) {
+            log.warn("Reading /proc/meminfo failed, falling back to OSHI: {}", e.getMessage());
+            memInfo = null;
+            return false;
+        }
     }
 }
@@ -0,0 +1,75 @@
+package com.systemmonitor.service;
+
+import com.systemmonitor.sampling.SampleFrame;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mounted filesystems resolved to {@link FileStore}s once per mount-table change; {@link #read} then only queries
+ * their space. Mounts not visible from this process (another mount namespace) are dropped. Not thread-safe.
+ */
+final class MountTable {
+
+    private List<String> sourceDevices = List.of();
+    private List<String> sourceMountPoints = List.of();
+    private String[] devices = new String[0];
+    private String[] mountPoints = new String[0];
+    private FileStore[] stores = new FileStore[0];
+
+    /**
+     * Re-resolves the file stores if {@code devices}/{@code mountPoints} (parallel lists) differ from the last
+     * call; returns true if they did.
+     */
+    boolean update(List<String> devices, List<String> mountPoints) {
+        if (devices.equals(sourceDevices) && mountPoints.equals(sourceMountPoints)) return false;
+        List<String> keptDevices = new ArrayList<>();
+        List<String> keptPoints = new ArrayList<>();
+        List<FileStore> found = new ArrayList<>();
+        for (int i = 0; i < mountPoints.size(); i++) {
+            try {
+                found.add(Files.getFileStore(Paths.get(mountPoints.get(i))));
+                keptDevices.add(devices.get(i));
+                keptPoints.add(mountPoints.get(i));
+            } catch (IOException | RuntimeException e) {
+                // not visible from here, or not a valid path on this platform
+            }
+        }
+        this.sourceDevices = List.copyOf(devices);
+        this.sourceMountPoints = List.copyOf(mountPoints);
+        this.devices = keptDevices.toArray(new String[0]);
+        this.mountPoints = keptPoints.toArray(new String[0]);
+        this.stores = found.toArray(new FileStore[0]);
+        return true;
+    }
+
+    int size() {
+        return stores.length;
+    }
+
+    /**
+     * Writes each mount's total/used space into {@code out}'s per-mount arrays; the aggregate fields are left to
+     * the caller. A mount whose space can no longer be read (e.g. unmounted since the last update) reports zeros.
+     */
+    void read(SampleFrame.Disk out) {
+        out.setMountCount(stores.length);
+        for (int i = 0; i < stores.length; i++) {
+            long total = 0;
+            long used = 0;
+            try {
+                total = stores[i].getTotalSpace();
+                used = total - stores[i].getUsableSpace();
+            } catch (IOException e) {
+                total = 0;
+            }
+            out.mountPoints[i] = mountPoints[i];
+            out.mountDevices[i] = devices[i];
+            out.mountTotalBytes[i] = total;
+            out.mountUsedBytes[i] = total > 0 ? used : 0;
+        }
+    }
+}
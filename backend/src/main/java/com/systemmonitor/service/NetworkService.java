@@ -1,71 +1,278 @@
 package com.systemmonitor.service;
 
 import com.systemmonitor.dto.SystemStats;
-import lombok.RequiredArgsConstructor;
+import com.systemmonitor.procfs.NetDevReader;
+import com.systemmonitor.procfs.Procfs;
+import com.systemmonitor.sampling.MetricMath;
+import com.systemmonitor.sampling.SampleFrame;
 import lombok.extern.slf4j.Slf4j;
 import oshi.SystemInfo;
 import oshi.hardware.NetworkIF;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Provides network upload/download speed and totals using OSHI.
- * Speeds are computed by sampling interface stats and differencing over 1s.
+ * Provides network upload/download speed and totals using OSHI, or on Linux from /proc/net/dev (see {@link Procfs}),
+ * over the interfaces accepted by app.network.include/exclude (comma-separated globs; by default everything except
+ * loopback, veth pairs and container/VM bridges, whose traffic is already counted on the physical NIC).
+ * Besides the aggregate it reports each interface's byte, packet, error and drop rates, link speed and utilization.
+ * Rates are computed by differencing counters over the elapsed {@link System#nanoTime()} interval; the aggregate
+ * rates are the sum of the per-interface differences, so an interface appearing, vanishing or resetting its
+ * counters is not counted as traffic.
+ * The interface list (and the filter) is only re-evaluated when /proc/net/dev shows an interface appearing or
+ * disappearing; link speeds are re-read with it and once a minute, which is also how often OSHI re-lists interfaces.
  */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class NetworkService {
 
+    static final String DEFAULT_EXCLUDE = "lo,*loopback*,veth*,docker*,br-*,virbr*";
+
+    private static final long INTERFACE_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    /** Per-interface counters kept for differencing, {@link #COUNTERS} per interface. */
+    private static final int DOWN_BYTES = 0;
+    private static final int UP_BYTES = 1;
+    private static final int DOWN_PACKETS = 2;
+    private static final int UP_PACKETS = 3;
+    private static final int ERRORS = 4;
+    private static final int DROPS = 5;
+    private static final int COUNTERS = 6;
+
     private final SystemInfo systemInfo;
-    private long previousBytesRecv;
-    private long previousBytesSent;
-    private long previousSampleTime;
+    private final Procfs procfs;
+    private final InterfaceFilter filter;
+    private long recvTotal;
+    private long sentTotal;
+    /** Linux fast path; null when unavailable or after a read error (then OSHI is used). */
+    private NetDevReader netDev;
+    /** NetDevReader indices of the accepted, present interfaces; null until first resolved. */
+    private int[] procfsActive;
+    private List<NetworkIF> oshiInterfaces;
+    private long interfacesRefreshedNanos;
+
+    private int count;
+    private String[] names = new String[0];
+    private long[] counters = new long[0];
+    private long[] speeds = new long[0];
+    private int previousCount = -1;
+    private String[] previousNames = new String[0];
+    private long[] previousCounters = new long[0];
+    private long previousNanos;
+
+    public NetworkService(SystemInfo systemInfo,
+                          Procfs procfs,
+                          @Value("${app.network.include:}") String include,
+                          @Value("${app.network.exclude:" + DEFAULT_EXCLUDE + "}") String exclude) {
+        this.systemInfo = systemInfo;
+        this.procfs = procfs;
+        this.filter = new InterfaceFilter(include, exclude);
+    }
 
     @PostConstruct
-    public void init() {
-        sampleAndGetTotals();
-        previousSampleTime = System.currentTimeMillis();
+    public synchronized void init() {
+        if (procfs.isEnabled()) {
+            try {
+                netDev = new NetDevReader(procfs);
+            } catch (IOException e) {
+                log.warn("procfs network collector unavailable, using OSHI: {}", e.getMessage());
+            }
+        }
+        long now = System.nanoTime();
+        sampleCounters(now);
+        rememberInterfaces(now);
     }
 
     /**
-     * Returns network stats: bytes received/sent and download/upload bytes per second.
+     * Returns network stats: bytes received/sent, download/upload bytes per second and the per-interface breakdown.
      */
     public SystemStats.NetworkStats getNetworkStats() {
-        long now = System.currentTimeMillis();
-        long[] totals = sampleAndGetTotals();
-        long recv = totals[0];
-        long sent = totals[1];
-        long elapsedMs = Math.max(1, now - previousSampleTime);
-        long downloadPerSec = (long) (1000.0 * (recv - previousBytesRecv) / elapsedMs);
-        long uploadPerSec = (long) (1000.0 * (sent - previousBytesSent) / elapsedMs);
-        previousBytesRecv = recv;
-        previousBytesSent = sent;
-        previousSampleTime = now;
-
-        return SystemStats.NetworkStats.builder()
-                .downloadBytesPerSecond(Math.max(0, downloadPerSec))
-                .uploadBytesPerSecond(Math.max(0, uploadPerSec))
-                .totalBytesReceived(recv)
-                .totalBytesSent(sent)
-                .build();
+        SampleFrame.Network network = new SampleFrame.Network();
+        sample(network);
+        return network.toDto();
+    }
+
+    /** True if interface {@code name} is counted in network stats (app.network.include/exclude). */
+    public boolean acceptsInterface(String name) {
+        return filter.accepts(name);
+    }
+
+    /** Writes current download/upload rates, totals and the per-interface breakdown into {@code out}. */
+    public synchronized void sample(SampleFrame.Network out) {
+        long now = System.nanoTime();
+        sampleCounters(now);
+        out.totalBytesReceived = recvTotal;
+        out.totalBytesSent = sentTotal;
+        sampleInterfaces(out, now);
+    }
+
+    /** Writes the per-interface rates and, as their sum, the aggregate rates; all 0 when the interface set changed. */
+    private void sampleInterfaces(SampleFrame.Network out, long now) {
+        boolean primed = sameInterfacesAsPrevious();
+        double seconds = (now - previousNanos) / 1e9;
+        long downBytes = 0;
+        long upBytes = 0;
+        out.setInterfaceCount(count);
+        for (int i = 0; i < count; i++) {
+            int base = i * COUNTERS;
+            out.interfaceNames[i] = names[i];
+            out.interfaceLinkSpeedBitsPerSecond[i] = speeds[i];
+            if (!primed || seconds <= 0) {
+                out.interfaceDownloadBytesPerSecond[i] = 0;
+                out.interfaceUploadBytesPerSecond[i] = 0;
+                out.interfaceDownloadPacketsPerSecond[i] = 0;
+                out.interfaceUploadPacketsPerSecond[i] = 0;
+                out.interfaceErrorsPerSecond[i] = 0;
+                out.interfaceDropsPerSecond[i] = 0;
+                out.interfaceUtilizationPercent[i] = 0;
+                continue;
+            }
+            long received = delta(base + DOWN_BYTES);
+            long sent = delta(base + UP_BYTES);
+            downBytes += received;
+            upBytes += sent;
+            long down = (long) (received / seconds);
+            long up = (long) (sent / seconds);
+            out.interfaceDownloadBytesPerSecond[i] = down;
+            out.interfaceUploadBytesPerSecond[i] = up;
+            out.interfaceDownloadPacketsPerSecond[i] = MetricMath.round(delta(base + DOWN_PACKETS) / seconds, 1);
+            out.interfaceUploadPacketsPerSecond[i] = MetricMath.round(delta(base + UP_PACKETS) / seconds, 1);
+            out.interfaceErrorsPerSecond[i] = MetricMath.round(delta(base + ERRORS) / seconds, 1);
+            out.interfaceDropsPerSecond[i] = MetricMath.round(delta(base + DROPS) / seconds, 1);
+            // Links are full duplex, so the busier direction is what saturates.
+            double utilization = speeds[i] > 0 ? 100.0 * Math.max(down, up) * 8 / speeds[i] : 0.0;
+            out.interfaceUtilizationPercent[i] = MetricMath.round(MetricMath.clampPercent(utilization), 2);
+        }
+        boolean rated = primed && seconds > 0;
+        out.downloadBytesPerSecond = rated ? (long) (downBytes / seconds) : 0;
+        out.uploadBytesPerSecond = rated ? (long) (upBytes / seconds) : 0;
+        rememberInterfaces(now);
+    }
+
+    /** Counter difference since the previous sample; 0 if the counter went back (interface reset). */
+    private long delta(int index) {
+        return Math.max(0, counters[index] - previousCounters[index]);
+    }
+
+    private boolean sameInterfacesAsPrevious() {
+        if (count != previousCount) return false;
+        for (int i = 0; i < count; i++) {
+            if (!names[i].equals(previousNames[i])) return false;
+        }
+        return true;
     }
 
-    /** Returns [totalBytesReceived, totalBytesSent] across all network interfaces. */
-    private long[] sampleAndGetTotals() {
+    private void rememberInterfaces(long now) {
+        int length = count * COUNTERS;
+        if (previousCounters.length < length) {
+            previousCounters = new long[length];
+            previousNames = new String[count];
+        }
+        System.arraycopy(counters, 0, previousCounters, 0, length);
+        System.arraycopy(names, 0, previousNames, 0, count);
+        previousCount = count;
+        previousNanos = now;
+    }
+
+    /** Reads every accepted interface's counters and sums the byte counters into {@link #recvTotal}/{@link #sentTotal}. */
+    private void sampleCounters(long now) {
+        if (netDev == null || !sampleCountersProcfs(now)) sampleCountersOshi(now);
         long recv = 0;
         long sent = 0;
-        List<NetworkIF> nets = systemInfo.getHardware().getNetworkIFs();
-        for (NetworkIF net : nets) {
-            net.updateAttributes();
-            String name = net.getName();
-            if (name == null || (!name.toLowerCase().contains("loopback") && !"lo".equals(name))) {
-                recv += net.getBytesRecv();
-                sent += net.getBytesSent();
+        for (int i = 0; i < count; i++) {
+            recv += counters[i * COUNTERS + DOWN_BYTES];
+            sent += counters[i * COUNTERS + UP_BYTES];
+        }
+        recvTotal = recv;
+        sentTotal = sent;
+    }
+
+    private boolean sampleCountersProcfs(long now) {
+        boolean changed;
+        try {
+            changed = netDev.read();
+        } catch (IOException e) {
+            log.warn("Reading /proc/net/dev failed, falling back to OSHI: {}", e.getMessage());
+            netDev = null;
+            return false;
+        }
+        if (changed || procfsActive == null || now - interfacesRefreshedNanos >= INTERFACE_REFRESH_NANOS) {
+            resolveProcfsInterfaces(now);
+        }
+        for (int slot = 0; slot < count; slot++) {
+            int i = procfsActive[slot];
+            int base = slot * COUNTERS;
+            counters[base + DOWN_BYTES] = netDev.counter(i, NetDevReader.RX_BYTES);
+            counters[base + UP_BYTES] = netDev.counter(i, NetDevReader.TX_BYTES);
+            counters[base + DOWN_PACKETS] = netDev.counter(i, NetDevReader.RX_PACKETS);
+            counters[base + UP_PACKETS] = netDev.counter(i, NetDevReader.TX_PACKETS);
+            counters[base + ERRORS] = netDev.counter(i, NetDevReader.RX_ERRORS) + netDev.counter(i, NetDevReader.TX_ERRORS);
+            counters[base + DROPS] = netDev.counter(i, NetDevReader.RX_DROPS) + netDev.counter(i, NetDevReader.TX_DROPS);
+        }
+        return true;
+    }
+
+    /** Re-applies the filter to the present interfaces and re-reads their link speeds. Allocates; call on change. */
+    private void resolveProcfsInterfaces(long now) {
+        interfacesRefreshedNanos = now;
+        int[] active = new int[netDev.interfaceCount()];
+        int n = 0;
+        for (int i = 0; i < netDev.interfaceCount(); i++) {
+            if (netDev.isPresent(i) && filter.accepts(netDev.name(i))) active[n++] = i;
+        }
+        procfsActive = Arrays.copyOf(active, n);
+        setInterfaceCount(n);
+        for (int slot = 0; slot < n; slot++) {
+            names[slot] = netDev.name(procfsActive[slot]);
+            speeds[slot] = netDev.linkSpeedBitsPerSecond(procfsActive[slot]);
+        }
+        log.debug("Network interfaces: {}", Arrays.asList(names).subList(0, n));
+    }
+
+    private void sampleCountersOshi(long now) {
+        if (oshiInterfaces == null || now - interfacesRefreshedNanos >= INTERFACE_REFRESH_NANOS) {
+            interfacesRefreshedNanos = now;
+            List<NetworkIF> accepted = new ArrayList<>();
+            for (NetworkIF net : systemInfo.getHardware().getNetworkIFs()) {
+                if (filter.accepts(net.getName())) accepted.add(net);
+            }
+            oshiInterfaces = accepted;
+            setInterfaceCount(accepted.size());
+            for (int slot = 0; slot < count; slot++) {
+                names[slot] = accepted.get(slot).getName();
+                speeds[slot] = Math.max(0, accepted.get(slot).getSpeed());
             }
+        } else {
+            for (NetworkIF net : oshiInterfaces) {
+                net.updateAttributes();
+            }
+        }
+        for (int slot = 0; slot < count; slot++) {
+            NetworkIF net = oshiInterfaces.get(slot);
+            int base = slot * COUNTERS;
+            counters[base + DOWN_BYTES] = net.getBytesRecv();
+            counters[base + UP_BYTES] = net.getBytesSent();
+            counters[base + DOWN_PACKETS] = net.getPacketsRecv();
+            counters[base + UP_PACKETS] = net.getPacketsSent();
+            counters[base + ERRORS] = net.getInErrors() + net.getOutErrors();
+            // OSHI only counts inbound drops.
+            counters[base + DROPS] = net.getInDrops();
+        }
+    }
+
+    private void setInterfaceCount(int n) {
+        if (names.length < n) {
+            names = Arrays.copyOf(names, n);
+            counters = new long[n * COUNTERS];
+            speeds = new long[n];
         }
-        return new long[]{recv, sent};
+        count = n;
     }
 }
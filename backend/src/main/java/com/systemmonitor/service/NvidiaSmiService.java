@@ -1,74 +1,280 @@
 package com.systemmonitor.service;
 
+import com.systemmonitor.diagnostics.PipelineMeters;
+import com.systemmonitor.sampling.SampleFrame;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
-import java.util.Locale;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
- * Reads NVIDIA GPU usage % and temperature via nvidia-smi (cached, non-blocking).
+ * Reads NVIDIA GPU usage, temperature, memory and power from one long-lived {@code nvidia-smi -lms} process
+ * whose CSV stream is parsed on a dedicated thread, one line per GPU per interval, tracked by nvidia-smi index.
+ * Callers look GPUs up by model name ({@link #reading(String, int)}), since nvidia-smi's index order need not
+ * match the order other APIs enumerate cards in.
+ * If the process dies it is restarted under supervision, backing off from app.gpu.nvidia-smi.restart-delay-ms
+ * up to app.gpu.nvidia-smi.max-restart-delay-ms. Readings older than a few intervals are treated as missing.
  * Use when LHM per-GPU data is missing so NVIDIA still shows usage.
+ * Each output line's parse is timed (stats.nvidia.smi.line; nvidia-smi itself runs on its own -lms schedule);
+ * stats.nvidia.smi.cache counts {@link #reading} calls answered with a fresh reading (result=hit) or not
+ * (result=miss).
  */
 @Service
 @Slf4j
 public class NvidiaSmiService {
 
-    private static final long CACHE_MS = 800;
-    private volatile double lastUsagePercent = Double.NaN;
-    private volatile double lastTempCelsius = Double.NaN;
-    private volatile long lastFetchMs = 0;
+    /** name goes last: it is free text, so any commas in it stay inside the last field. */
+    static final String QUERY = "index,utilization.gpu,temperature.gpu,memory.used,memory.total,power.draw,name";
+    private static final String VENDOR_PREFIX = "NVIDIA ";
+    private static final long MIB = 1024L * 1024L;
+    private static final long MIN_STALE_NANOS = TimeUnit.SECONDS.toNanos(5);
 
-    /** Returns usage 0–100 or NaN if unavailable. */
+    /** One nvidia-smi sample for a GPU; unsupported values are NaN (or -1 for memory). */
+    public record GpuReading(int index, String name, double utilizationPercent, double temperatureCelsius,
+                             long memoryUsedBytes, long memoryTotalBytes, double powerWatts, long sampledNanos) {
+    }
+
+    private final boolean enabled;
+    private final String command;
+    private final long intervalMs;
+    private final long restartDelayMs;
+    private final long maxRestartDelayMs;
+    private final long staleNanos;
+    private final AtomicReferenceArray<GpuReading> readings = new AtomicReferenceArray<>(SampleFrame.Gpu.MAX_GPUS);
+
+    private volatile boolean running;
+    private volatile Process process;
+    private volatile int starts;
+    private Thread sampler;
+    private boolean unavailableLogged;
+
+    private final Timer lineTimer;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    public NvidiaSmiService(@Value("${app.gpu.nvidia-smi.enabled:true}") boolean enabled,
+                            @Value("${app.gpu.nvidia-smi.command:nvidia-smi}") String command,
+                            @Value("${app.gpu.nvidia-smi.interval-ms:1000}") long intervalMs,
+                            @Value("${app.gpu.nvidia-smi.restart-delay-ms:1000}") long restartDelayMs,
+                            @Value("${app.gpu.nvidia-smi.max-restart-delay-ms:60000}") long maxRestartDelayMs,
+                            MeterRegistry meterRegistry) {
+        this.lineTimer = PipelineMeters.timer(meterRegistry, "stats.nvidia.smi.line", "nvidia-smi output line parse");
+        this.cacheHits = Counter.builder("stats.nvidia.smi.cache").tag("result", "hit")
+                .description("GPU lookups answered with a fresh nvidia-smi reading")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("stats.nvidia.smi.cache").tag("result", "miss")
+                .description("GPU lookups with no fresh nvidia-smi reading")
+                .register(meterRegistry);
+        this.enabled = enabled;
+        this.command = command;
+        this.intervalMs = Math.max(100, intervalMs);
+        this.restartDelayMs = Math.max(1, restartDelayMs);
+        this.maxRestartDelayMs = Math.max(this.restartDelayMs, maxRestartDelayMs);
+        this.staleNanos = Math.max(MIN_STALE_NANOS, TimeUnit.MILLISECONDS.toNanos(this.intervalMs * 3));
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (!enabled || running) return;
+        running = true;
+        sampler = new Thread(this::supervise, "nvidia-smi-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        Process p = process;
+        if (p != null) p.destroyForcibly();
+        if (sampler != null) sampler.interrupt();
+    }
+
+    /** GPU 0 usage 0–100, or NaN if unavailable. */
     public double getUsagePercent() {
-        refreshIfNeeded();
-        return lastUsagePercent;
+        GpuReading r = reading(0);
+        return r != null ? r.utilizationPercent() : Double.NaN;
     }
 
-    /** Returns temperature °C or NaN if unavailable. */
+    /** GPU 0 temperature °C, or NaN if unavailable. */
     public double getTemperatureCelsius() {
-        refreshIfNeeded();
-        return lastTempCelsius;
+        GpuReading r = reading(0);
+        return r != null ? r.temperatureCelsius() : Double.NaN;
     }
 
-    /** True if we have valid data from nvidia-smi. */
+    /** True if we have a recent reading for any GPU. */
     public boolean hasData() {
-        refreshIfNeeded();
-        return !Double.isNaN(lastUsagePercent) || !Double.isNaN(lastTempCelsius);
+        for (int i = 0; i < readings.length(); i++) {
+            if (fresh(i) != null) return true;
+        }
+        return false;
     }
 
-    private void refreshIfNeeded() {
-        long now = System.currentTimeMillis();
-        if (now - lastFetchMs < CACHE_MS) return;
-        lastFetchMs = now;
-        try {
-            ProcessBuilder pb = new ProcessBuilder(
-                    "nvidia-smi",
-                    "--query-gpu=utilization.gpu,temperature.gpu",
-                    "--format=csv,noheader,nounits"
-            );
-            pb.redirectErrorStream(true);
-            Process proc = pb.start();
-            boolean done = proc.waitFor(2, TimeUnit.SECONDS);
-            if (!done) {
-                proc.destroyForcibly();
-                return;
+    /** Latest reading for the GPU with this nvidia-smi index, or null if missing or stale. */
+    public GpuReading reading(int index) {
+        GpuReading r = fresh(index);
+        (r != null ? cacheHits : cacheMisses).increment();
+        return r;
+    }
+
+    /**
+     * Latest reading for the {@code nth} GPU (in nvidia-smi index order) whose model is {@code cardName}, or null if
+     * missing or stale. Names match ignoring case and a leading "NVIDIA "; if no GPU matches exactly, one whose name
+     * contains the other's is taken (e.g. "GA106 [GeForce RTX 3060 Lite Hash Rate]" from lspci on Linux).
+     */
+    public GpuReading reading(String cardName, int nth) {
+        GpuReading r = match(cardName, nth, false);
+        if (r == null && match(cardName, 0, false) == null) r = match(cardName, nth, true);
+        (r != null ? cacheHits : cacheMisses).increment();
+        return r;
+    }
+
+    private GpuReading match(String cardName, int nth, boolean loose) {
+        int seen = 0;
+        for (int i = 0; i < readings.length(); i++) {
+            GpuReading r = fresh(i);
+            if (r != null && sameModel(r.name(), cardName, loose) && seen++ == nth) return r;
+        }
+        return null;
+    }
+
+    static boolean sameModel(String smiName, String cardName, boolean loose) {
+        int s = modelStart(smiName);
+        int c = modelStart(cardName);
+        int sLength = smiName.length() - s;
+        int cLength = cardName.length() - c;
+        if (sLength == 0 || cLength == 0) return false;
+        if (sLength == cLength && smiName.regionMatches(true, s, cardName, c, sLength)) return true;
+        return loose && (contains(cardName, c, smiName, s, sLength) || contains(smiName, s, cardName, c, cLength));
+    }
+
+    private static int modelStart(String name) {
+        return name.regionMatches(true, 0, VENDOR_PREFIX, 0, VENDOR_PREFIX.length()) ? VENDOR_PREFIX.length() : 0;
+    }
+
+    /** True if {@code text} from {@code from} contains {@code part[partStart, partStart + length)}, ignoring case. */
+    private static boolean contains(String text, int from, String part, int partStart, int length) {
+        for (int i = from; i + length <= text.length(); i++) {
+            if (text.regionMatches(true, i, part, partStart, length)) return true;
+        }
+        return false;
+    }
+
+    private GpuReading fresh(int index) {
+        if (index < 0 || index >= readings.length()) return null;
+        GpuReading r = readings.get(index);
+        return r != null && System.nanoTime() - r.sampledNanos() <= staleNanos ? r : null;
+    }
+
+    /** Number of times the nvidia-smi process has been started. For tests. */
+    int starts() {
+        return starts;
+    }
+
+    private void supervise() {
+        long delay = restartDelayMs;
+        while (running) {
+            boolean produced = false;
+            try {
+                produced = runOnce();
+            } catch (IOException e) {
+                if (!unavailableLogged) {
+                    unavailableLogged = true;
+                    log.info("nvidia-smi not available ({}); NVIDIA stats will come from LHM only", e.getMessage());
+                }
+            }
+            if (!running) break;
+            delay = produced ? restartDelayMs : Math.min(maxRestartDelayMs, delay * 2);
+            log.debug("nvidia-smi exited; restarting in {} ms", delay);
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             }
-            try (BufferedReader r = new BufferedReader(new InputStreamReader(proc.getInputStream()))) {
-                String line = r.readLine();
-                if (line == null || line.isBlank()) return;
-                String[] parts = line.split(",");
-                if (parts.length >= 2) {
-                    lastUsagePercent = Double.parseDouble(parts[0].trim());
-                    lastTempCelsius = Double.parseDouble(parts[1].trim());
+        }
+    }
+
+    /** Runs nvidia-smi until its output ends; returns whether it produced at least one reading. */
+    private boolean runOnce() throws IOException {
+        ProcessBuilder pb = new ProcessBuilder(List.of(command,
+                "--query-gpu=" + QUERY,
+                "--format=csv,noheader,nounits",
+                "-lms", Long.toString(intervalMs)));
+        pb.redirectErrorStream(true);
+        Process p = pb.start();
+        process = p;
+        if (!running) p.destroyForcibly();
+        starts++;
+        boolean produced = false;
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                long now = System.nanoTime();
+                GpuReading reading = parseLine(line, now);
+                lineTimer.record(System.nanoTime() - now, TimeUnit.NANOSECONDS);
+                if (reading == null) {
+                    log.trace("nvidia-smi: {}", line);
+                    continue;
+                }
+                if (reading.index() < readings.length()) {
+                    readings.set(reading.index(), reading);
+                    produced = true;
                 }
             }
-        } catch (Exception e) {
-            log.trace("nvidia-smi failed: {}", e.getMessage());
-            lastUsagePercent = Double.NaN;
-            lastTempCelsius = Double.NaN;
+        } finally {
+            p.destroyForcibly();
+            process = null;
+        }
+        return produced;
+    }
+
+    /** Parses one CSV line of {@link #QUERY}; null if it is not a data line (e.g. an error message). */
+    static GpuReading parseLine(String line, long nanos) {
+        String[] parts = line.split(",");
+        if (parts.length < 7) return null;
+        int index;
+        try {
+            index = Integer.parseInt(parts[0].trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (index < 0) return null;
+        double memUsed = value(parts[3]);
+        double memTotal = value(parts[4]);
+        String name = line.substring(nthComma(line, 6) + 1).trim();
+        return new GpuReading(index, name, value(parts[1]), value(parts[2]),
+                Double.isNaN(memUsed) ? -1 : (long) (memUsed * MIB),
+                Double.isNaN(memTotal) ? -1 : (long) (memTotal * MIB),
+                value(parts[5]), nanos);
+    }
+
+    private static int nthComma(String line, int n) {
+        int at = -1;
+        for (int i = 0; i < n; i++) at = line.indexOf(',', at + 1);
+        return at;
+    }
+
+    /** A numeric field, or NaN for "[N/A]", "[Not Supported]" and the like. */
+    private static double value(String field) {
+        String s = field.trim();
+        if (s.isEmpty() || s.charAt(0) == '[') return Double.NaN;
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
         }
     }
 }
@@ -1,71 +1,205 @@
 package com.systemmonitor.service;
 
+import com.systemmonitor.dto.ProcessGroupStats;
 import com.systemmonitor.dto.ProcessInfo;
-import lombok.RequiredArgsConstructor;
+import com.systemmonitor.procfs.CgroupReader;
+import com.systemmonitor.procfs.Procfs;
+import com.systemmonitor.process.ProcessGrouping;
+import com.systemmonitor.process.ProcessGroups;
+import com.systemmonitor.process.ProcessMetric;
+import com.systemmonitor.process.ProcessTable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import oshi.SystemInfo;
 import oshi.software.os.OSProcess;
-import oshi.software.os.OperatingSystem;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Returns top processes by CPU, memory, or disk I/O for the "applications using this resource" view.
+ * <p>
+ * The process list is enumerated in the background every app.processes.interval-ms (default 2000) into a
+ * {@link ProcessTable}, which keeps each PID's previous sample, so CPU % and disk/memory rates cover the last
+ * interval rather than the process lifetime. A ranking is selected from the table at most once per sample and
+ * metric, on first request; requests never enumerate processes themselves (except before the first sample).
+ * The table also keeps running per-cgroup (Linux), per-user and per-process-tree sums, which back
+ * {@link #getProcessGroups}.
  */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class ProcessService {
 
+    private static final int DEFAULT_LIMIT = 25;
+    /** Deepest ranking kept; larger limits are served this many processes. */
+    static final int MAX_LIMIT = 100;
+
     private final SystemInfo systemInfo;
+    private final Procfs procfs;
+    private final long intervalMs;
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "process-sampler");
+        t.setDaemon(true);
+        return t;
+    });
+    // Guarded by this
+    private ProcessTable table;
+    private boolean sampled;
+    private final Map<ProcessMetric, List<ProcessInfo>> rankings = new EnumMap<>(ProcessMetric.class);
+    private final Map<String, List<ProcessGroupStats>> groupRankings = new HashMap<>();
+    private final int[] topSlots = new int[MAX_LIMIT];
+    private final int[] topGroups = new int[MAX_LIMIT];
+    private final List<Runnable> sampleListeners = new CopyOnWriteArrayList<>();
 
-    private static final int DEFAULT_LIMIT = 25;
-    private static final int DISK_FETCH_LIMIT = 500;
+    public ProcessService(SystemInfo systemInfo,
+                          Procfs procfs,
+                          @Value("${app.processes.interval-ms:2000}") long intervalMs) {
+        this.systemInfo = systemInfo;
+        this.procfs = procfs;
+        this.intervalMs = Math.max(100, intervalMs);
+    }
+
+    @PostConstruct
+    void start() {
+        sampler.scheduleWithFixedDelay(this::sampleQuietly, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        sampler.shutdownNow();
+    }
+
+    /** Runs {@code listener} after every sample, on the sampling thread, with rankings already invalidated. */
+    public void addSampleListener(Runnable listener) {
+        sampleListeners.add(listener);
+    }
 
     /**
      * Top processes sorted by the given resource only.
-     * @param sort "cpu" (CPU-using apps), "memory" (RAM-using apps), or "disk" (disk I/O)
-     * @param limit max number of processes (default 25)
+     * @param sort a {@link ProcessMetric} key: "cpu", "memory", "disk", "read", "write" or "growth" (default cpu)
+     * @param limit max number of processes (default 25, at most {@value #MAX_LIMIT})
      */
-    public List<ProcessInfo> getTopProcesses(String sort, int limit) {
+    public synchronized List<ProcessInfo> getTopProcesses(String sort, int limit) {
         if (limit <= 0) limit = DEFAULT_LIMIT;
-        OperatingSystem os = systemInfo.getOperatingSystem();
-        List<OSProcess> processes;
-        if ("memory".equalsIgnoreCase(sort)) {
-            processes = os.getProcesses(null, OperatingSystem.ProcessSorting.RSS_DESC, limit);
-        } else if ("disk".equalsIgnoreCase(sort)) {
-            List<OSProcess> all = os.getProcesses(null, null, DISK_FETCH_LIMIT);
-            processes = all.stream()
-                    .filter(p -> p != null && p.getProcessID() > 0)
-                    .sorted((a, b) -> Long.compare(
-                            (b.getBytesRead() >= 0 ? b.getBytesRead() : 0) + (b.getBytesWritten() >= 0 ? b.getBytesWritten() : 0),
-                            (a.getBytesRead() >= 0 ? a.getBytesRead() : 0) + (a.getBytesWritten() >= 0 ? a.getBytesWritten() : 0)))
-                    .limit(limit)
-                    .toList();
-        } else {
-            processes = os.getProcesses(null, OperatingSystem.ProcessSorting.CPU_DESC, limit);
+        if (!sampled) sample();
+        List<ProcessInfo> ranking = rankings.computeIfAbsent(ProcessMetric.fromKey(sort), this::rank);
+        return ranking.subList(0, Math.min(limit, ranking.size()));
+    }
+
+    /**
+     * Process groups with the largest summed {@code sort} metric, each with its own top processes.
+     * @param by    a {@link ProcessGrouping} key: "cgroup", "user" or "tree" (default cgroup)
+     * @param sort  a {@link ProcessMetric} key ranking both the groups and their processes (default cpu)
+     * @param limit max number of groups (at most {@value #MAX_LIMIT})
+     * @param top   max number of processes listed per group
+     */
+    public synchronized List<ProcessGroupStats> getProcessGroups(String by, String sort, int limit, int top) {
+        if (!sampled) sample();
+        ProcessGrouping grouping = ProcessGrouping.fromKey(by);
+        ProcessMetric metric = ProcessMetric.fromKey(sort);
+        int groupLimit = Math.min(MAX_LIMIT, Math.max(1, limit));
+        int processLimit = Math.min(MAX_LIMIT, Math.max(0, top));
+        String cacheKey = grouping.key() + '/' + metric.key() + '/' + groupLimit + '/' + processLimit;
+        return groupRankings.computeIfAbsent(cacheKey, k -> rankGroups(grouping, metric, groupLimit, processLimit));
+    }
+
+    /**
+     * Enumerates all processes and updates the table; previously selected rankings are discarded and the sample
+     * listeners are notified.
+     */
+    void sample() {
+        List<OSProcess> processes = systemInfo.getOperatingSystem().getProcesses();
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (table == null) {
+                CgroupReader cgroups = procfs.isEnabled() ? new CgroupReader(procfs) : null;
+                table = new ProcessTable(systemInfo.getHardware().getProcessor().getLogicalProcessorCount(),
+                        pid -> cgroups != null ? cgroups.read(pid) : null);
+            }
+            table.beginSample();
+            for (OSProcess p : processes) {
+                if (p == null || p.getProcessID() <= 0) continue;
+                table.update(p.getProcessID(), p.getParentProcessID(), p.getName(), p.getUser(), p.getStartTime(),
+                        p.getKernelTime() + p.getUserTime(), p.getBytesRead(), p.getBytesWritten(),
+                        p.getResidentSetSize(), now);
+            }
+            table.endSample();
+            rankings.clear();
+            groupRankings.clear();
+            sampled = true;
+        }
+        for (Runnable listener : sampleListeners) {
+            listener.run();
+        }
+    }
+
+    private void sampleQuietly() {
+        try {
+            sample();
+        } catch (RuntimeException e) {
+            log.warn("Process sampling failed: {}", e.getMessage());
+        }
+    }
+
+    private List<ProcessInfo> rank(ProcessMetric metric) {
+        int n = table.top(metric, MAX_LIMIT, topSlots);
+        List<ProcessInfo> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            list.add(toProcessInfo(topSlots[i]));
+        }
+        return List.copyOf(list);
+    }
+
+    private List<ProcessGroupStats> rankGroups(ProcessGrouping grouping, ProcessMetric metric, int limit, int top) {
+        ProcessGroups groups = table.groups(grouping);
+        int n = groups.top(metric, limit, topGroups);
+        List<ProcessGroupStats> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int group = topGroups[i];
+            int members = table.topInGroup(grouping, group, metric, top, topSlots);
+            List<ProcessInfo> processes = new ArrayList<>(members);
+            for (int j = 0; j < members; j++) {
+                processes.add(toProcessInfo(topSlots[j]));
+            }
+            String key = groups.key(group);
+            list.add(ProcessGroupStats.builder()
+                    .key(key)
+                    .containerId(grouping == ProcessGrouping.CGROUP ? CgroupReader.containerId(key) : null)
+                    .processCount(groups.memberCount(group))
+                    .cpuPercent(groups.value(group, ProcessMetric.CPU))
+                    .memoryBytes((long) groups.value(group, ProcessMetric.MEMORY))
+                    .memoryGrowthBytesPerSecond((long) groups.value(group, ProcessMetric.MEMORY_GROWTH))
+                    .diskReadBytesPerSecond((long) groups.value(group, ProcessMetric.DISK_READ))
+                    .diskWriteBytesPerSecond((long) groups.value(group, ProcessMetric.DISK_WRITE))
+                    .topProcesses(List.copyOf(processes))
+                    .build());
         }
-        return processes.stream()
-                .filter(p -> p != null && p.getProcessID() > 0)
-                .map(this::toProcessInfo)
-                .collect(Collectors.toList());
+        return List.copyOf(list);
     }
 
-    private ProcessInfo toProcessInfo(OSProcess p) {
-        String name = p.getName();
-        if (name == null || name.isBlank()) name = "[" + p.getProcessID() + "]";
-        long rss = p.getResidentSetSize() > 0 ? p.getResidentSetSize() : 0;
-        double cpu = p.getProcessCpuLoadCumulative() >= 0 ? p.getProcessCpuLoadCumulative() * 100.0 : 0.0;
+    private ProcessInfo toProcessInfo(int slot) {
+        String name = table.name(slot);
+        if (name == null || name.isBlank()) name = "[" + table.pid(slot) + "]";
         return ProcessInfo.builder()
-                .pid(p.getProcessID())
+                .pid(table.pid(slot))
                 .name(name)
-                .cpuPercent(Math.min(100, Math.max(0, cpu)))
-                .memoryBytes(rss)
-                .diskReadBytes(p.getBytesRead() >= 0 ? p.getBytesRead() : 0)
-                .diskWriteBytes(p.getBytesWritten() >= 0 ? p.getBytesWritten() : 0)
+                .cpuPercent(table.value(slot, ProcessMetric.CPU))
+                .memoryBytes((long) table.value(slot, ProcessMetric.MEMORY))
+                .memoryGrowthBytesPerSecond((long) table.value(slot, ProcessMetric.MEMORY_GROWTH))
+                .diskReadBytes(table.readBytes(slot))
+                .diskWriteBytes(table.writeBytes(slot))
+                .diskReadBytesPerSecond((long) table.value(slot, ProcessMetric.DISK_READ))
+                .diskWriteBytesPerSecond((long) table.value(slot, ProcessMetric.DISK_WRITE))
                 .build();
     }
 }
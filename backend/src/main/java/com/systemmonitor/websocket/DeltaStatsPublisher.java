@@ -0,0 +1,95 @@
+package com.systemmonitor.websocket;
+
+import com.systemmonitor.dto.SystemStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes the opt-in delta-encoded stats stream next to the JSON one. Each tick is encoded once and sent to
+ * {@value #BINARY_DESTINATION} (binary) and {@value #BASE64_DESTINATION} (base64 text, for SockJS).
+ * Clients opt in via {@link StatsEncodingInterceptor}; a new delta subscriber triggers a keyframe on the next tick.
+ * Subscriptions are tracked per destination: a destination nobody subscribes to is not sent to, and with no delta
+ * subscriber at all a tick is not even encoded (the next subscriber then starts from a keyframe).
+ */
+@Component
+@Slf4j
+public class DeltaStatsPublisher {
+
+    public static final String JSON_DESTINATION = "/topic/stats";
+    public static final String BINARY_DESTINATION = "/topic/stats.delta";
+    public static final String BASE64_DESTINATION = "/topic/stats.delta64";
+
+    private static final Map<String, Object> BINARY_HEADERS =
+            Map.of(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_OCTET_STREAM);
+    private static final Map<String, Object> TEXT_HEADERS =
+            Map.of(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.TEXT_PLAIN);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final StatsDeltaEncoder encoder;
+    /** Destination of each live delta subscription, keyed by session ID and subscription ID. */
+    private final Map<String, String> subscriptions = new ConcurrentHashMap<>();
+
+    public DeltaStatsPublisher(SimpMessagingTemplate messagingTemplate,
+                               @Value("${app.websocket.delta.keyframe-interval:30}") int keyframeInterval) {
+        this.messagingTemplate = messagingTemplate;
+        this.encoder = new StatsDeltaEncoder(keyframeInterval);
+    }
+
+    /** Encodes the tick once and sends it to the delta destinations that have subscribers; no-op without any. */
+    public void publish(SystemStats stats) {
+        boolean binary = false;
+        boolean base64 = false;
+        for (String destination : subscriptions.values()) {
+            if (BINARY_DESTINATION.equals(destination)) binary = true;
+            else base64 = true;
+            if (binary && base64) break;
+        }
+        if (!binary && !base64) {
+            encoder.requestKeyframe();
+            return;
+        }
+        byte[] frame = encoder.encode(stats);
+        if (binary) messagingTemplate.convertAndSend(BINARY_DESTINATION, frame, BINARY_HEADERS);
+        if (base64) messagingTemplate.convertAndSend(BASE64_DESTINATION, Base64.getEncoder().encodeToString(frame), TEXT_HEADERS);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = StatsEncodingInterceptor.deltaDestination(accessor);
+        if (destination == null) return;
+        subscriptions.put(key(accessor.getSessionId(), accessor.getSubscriptionId()), destination);
+        encoder.requestKeyframe();
+        log.debug("Delta stats subscriber {} on {} (session {})",
+                accessor.getSubscriptionId(), destination, accessor.getSessionId());
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        subscriptions.remove(key(accessor.getSessionId(), accessor.getSubscriptionId()));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + '/';
+        subscriptions.keySet().removeIf(k -> k.startsWith(prefix));
+    }
+
+    private static String key(String sessionId, String subscriptionId) {
+        return sessionId + '/' + subscriptionId;
+    }
+}
@@ -0,0 +1,44 @@
+package com.systemmonitor.websocket;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads what {@link FrameWriter} wrote. Throws IllegalArgumentException on a truncated frame.
+ */
+final class FrameReader {
+
+    private final byte[] buf;
+    private int pos;
+
+    FrameReader(byte[] buf) {
+        this.buf = buf;
+    }
+
+    int readByte() {
+        if (pos >= buf.length) throw new IllegalArgumentException("Truncated frame");
+        return buf[pos++] & 0xFF;
+    }
+
+    long readVarLong() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    long readZigZag() {
+        long v = readVarLong();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    String readString() {
+        int len = (int) readVarLong();
+        if (len < 0 || pos + len > buf.length) throw new IllegalArgumentException("Truncated frame");
+        String s = new String(buf, pos, len, StandardCharsets.UTF_8);
+        pos += len;
+        return s;
+    }
+}
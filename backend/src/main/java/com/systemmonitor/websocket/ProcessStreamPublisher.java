@@ -0,0 +1,138 @@
+package com.systemmonitor.websocket;
+
+import com.systemmonitor.dto.ProcessInfo;
+import com.systemmonitor.dto.ProcessListFrame;
+import com.systemmonitor.process.ProcessMetric;
+import com.systemmonitor.service.ProcessService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live top-processes stream on /topic/processes/{sort} ({sort} a {@link ProcessMetric} key, e.g. cpu).
+ * After every {@link ProcessService} sample the top app.processes.stream-limit rows are taken once per sort
+ * that currently has subscribers (sorts without subscribers are not ranked at all) and shared by all of them.
+ * Only rows that entered, left or changed since the previous frame are sent; a new subscriber triggers a
+ * keyframe for its sort on the next sample.
+ */
+@Component
+@Slf4j
+public class ProcessStreamPublisher {
+
+    public static final String DESTINATION_PREFIX = "/topic/processes/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ProcessService processService;
+    private final int limit;
+    /** Sort of each live subscription, keyed by session ID and subscription ID. */
+    private final Map<String, ProcessMetric> subscriptions = new ConcurrentHashMap<>();
+    private final Set<ProcessMetric> keyframeRequested = ConcurrentHashMap.newKeySet();
+    // Publisher state, guarded by this
+    private final Map<ProcessMetric, Map<Integer, ProcessInfo>> lastRows = new EnumMap<>(ProcessMetric.class);
+    private final Map<ProcessMetric, List<Integer>> lastOrder = new EnumMap<>(ProcessMetric.class);
+
+    public ProcessStreamPublisher(SimpMessagingTemplate messagingTemplate,
+                                  ProcessService processService,
+                                  @Value("${app.processes.stream-limit:25}") int limit) {
+        this.messagingTemplate = messagingTemplate;
+        this.processService = processService;
+        this.limit = Math.max(1, limit);
+    }
+
+    @PostConstruct
+    void register() {
+        processService.addSampleListener(this::publish);
+    }
+
+    /** Sends one frame per subscribed sort whose list changed. Called on the process sampling thread. */
+    synchronized void publish() {
+        Set<ProcessMetric> active = EnumSet.noneOf(ProcessMetric.class);
+        active.addAll(subscriptions.values());
+        lastRows.keySet().retainAll(active);
+        lastOrder.keySet().retainAll(active);
+        for (ProcessMetric metric : active) {
+            boolean keyframe = keyframeRequested.remove(metric) || !lastRows.containsKey(metric);
+            ProcessListFrame frame = diff(metric, processService.getTopProcesses(metric.key(), limit), keyframe);
+            if (frame != null) messagingTemplate.convertAndSend(DESTINATION_PREFIX + metric.key(), frame);
+        }
+    }
+
+    /** Frame turning the previous list into {@code rows}, remembering rows; null if nothing changed. */
+    private ProcessListFrame diff(ProcessMetric metric, List<ProcessInfo> rows, boolean keyframe) {
+        Map<Integer, ProcessInfo> previous = keyframe ? Map.of() : lastRows.get(metric);
+        Map<Integer, ProcessInfo> current = new HashMap<>();
+        List<Integer> order = new ArrayList<>(rows.size());
+        List<ProcessInfo> upserts = new ArrayList<>();
+        for (ProcessInfo row : rows) {
+            current.put(row.getPid(), row);
+            order.add(row.getPid());
+            if (!row.equals(previous.get(row.getPid()))) upserts.add(row);
+        }
+        List<Integer> removed = new ArrayList<>();
+        for (Integer pid : previous.keySet()) {
+            if (!current.containsKey(pid)) removed.add(pid);
+        }
+        boolean reordered = !order.equals(lastOrder.get(metric));
+        lastRows.put(metric, current);
+        lastOrder.put(metric, order);
+        if (!keyframe && upserts.isEmpty() && removed.isEmpty() && !reordered) return null;
+        return ProcessListFrame.builder()
+                .sort(metric.key())
+                .keyframe(keyframe)
+                .order(order)
+                .upserts(upserts)
+                .removed(removed)
+                .build();
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        ProcessMetric metric = metricOf(accessor.getDestination());
+        if (metric == null) return;
+        subscriptions.put(key(accessor.getSessionId(), accessor.getSubscriptionId()), metric);
+        keyframeRequested.add(metric);
+        log.debug("Process stream subscriber {} for {} (session {})",
+                accessor.getSubscriptionId(), metric.key(), accessor.getSessionId());
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        subscriptions.remove(key(accessor.getSessionId(), accessor.getSubscriptionId()));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + '/';
+        subscriptions.keySet().removeIf(k -> k.startsWith(prefix));
+    }
+
+    /** Sort of a /topic/processes/{sort} destination, or null for any other destination or unknown sort. */
+    private static ProcessMetric metricOf(String destination) {
+        if (destination == null || !destination.startsWith(DESTINATION_PREFIX)) return null;
+        String sort = destination.substring(DESTINATION_PREFIX.length());
+        ProcessMetric metric = ProcessMetric.fromKey(sort);
+        return metric.key().equals(sort) ? metric : null;
+    }
+
+    private static String key(String sessionId, String subscriptionId) {
+        return sessionId + '/' + subscriptionId;
+    }
+}
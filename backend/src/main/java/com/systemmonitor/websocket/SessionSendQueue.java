@@ -0,0 +1,93 @@
+package com.systemmonitor.websocket;
+
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayDeque;
+
+/**
+ * Bounded per-session outbound queue for {@link StatsBroadcaster}. When full, the oldest queued tick is dropped in
+ * favour of the newest, so a slow consumer always catches up to the latest frame. At most one drain task runs per
+ * session; {@link #offer} returns true when the caller must start one.
+ */
+final class SessionSendQueue {
+
+    private final WebSocketSession session;
+    private final boolean delta;
+    private final int capacity;
+    private final ArrayDeque<WebSocketMessage<?>> queue;
+    private boolean draining;
+    private boolean closed;
+    private long dropped;
+    private volatile long sendStartNanos;
+
+    SessionSendQueue(WebSocketSession session, boolean delta, int capacity) {
+        this.session = session;
+        this.delta = delta;
+        this.capacity = Math.max(1, capacity);
+        this.queue = new ArrayDeque<>(this.capacity);
+    }
+
+    WebSocketSession session() {
+        return session;
+    }
+
+    /** True if this session receives delta-encoded binary frames instead of JSON. */
+    boolean isDelta() {
+        return delta;
+    }
+
+    /**
+     * Enqueues a frame, dropping the oldest if full. Returns a negative number if frames were dropped,
+     * 1 if the caller must schedule a drain, 0 otherwise.
+     */
+    synchronized int offer(WebSocketMessage<?> message) {
+        int result = 0;
+        if (queue.size() >= capacity) {
+            queue.pollFirst();
+            dropped++;
+            result = -1;
+        }
+        queue.addLast(message);
+        if (!draining) {
+            draining = true;
+            return 1;
+        }
+        return result;
+    }
+
+    /** Next frame to send, or null (and the drain task must exit). */
+    synchronized WebSocketMessage<?> poll() {
+        WebSocketMessage<?> message = closed ? null : queue.pollFirst();
+        if (message == null) draining = false;
+        return message;
+    }
+
+    /** Discards queued frames; later polls return null so the drain task exits. */
+    synchronized void close() {
+        closed = true;
+        queue.clear();
+    }
+
+    synchronized int depth() {
+        return queue.size();
+    }
+
+    synchronized long dropped() {
+        return dropped;
+    }
+
+    void markSendStart() {
+        sendStartNanos = System.nanoTime();
+    }
+
+    void markSendEnd() {
+        sendStartNanos = 0;
+    }
+
+    /** True if a single send has been blocked for longer than {@code limitNanos}. */
+    boolean isStuck(long nowNanos, long limitNanos) {
+        long start = sendStartNanos;
+        return start != 0 && nowNanos - start > limitNanos;
+    }
+}
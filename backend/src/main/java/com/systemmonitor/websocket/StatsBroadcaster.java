@@ -0,0 +1,214 @@
+package com.systemmonitor.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.systemmonitor.diagnostics.PipelineMeters;
+import com.systemmonitor.dto.SystemStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dedicated fan-out path for many dashboards: plain WebSocket at /stream/stats (add ?encoding=delta for binary
+ * delta frames). Each tick is serialized exactly once into an immutable message shared by every session; each
+ * session has a bounded queue (app.broadcast.queue-capacity ticks) that drops the oldest tick for slow consumers,
+ * and a session whose single send blocks longer than app.broadcast.send-time-limit-ms is dropped from the fan-out at
+ * once and closed on a separate thread (a close waits for the blocked send, so it must not run on the tick thread).
+ * Exposes stats.broadcast.* meters (sessions, queue depth, sent and dropped frames) and times each tick's
+ * serialization (stats.serialize, format=json|delta).
+ */
+@Component
+@Slf4j
+public class StatsBroadcaster extends AbstractWebSocketHandler {
+
+    private final ObjectMapper objectMapper;
+    private final StatsDeltaEncoder deltaEncoder;
+    private final int queueCapacity;
+    private final long sendTimeLimitNanos;
+    private final ExecutorService sender;
+    /** Closes evicted sessions; separate from {@link #sender}, whose threads may all be blocked in sends. */
+    private final ExecutorService closer;
+    private final Map<String, SessionSendQueue> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger deltaSessions = new AtomicInteger();
+    private final Counter sentFrames;
+    private final Counter droppedFrames;
+    private final Timer jsonTimer;
+    private final Timer deltaTimer;
+
+    public StatsBroadcaster(ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.broadcast.queue-capacity:2}") int queueCapacity,
+                            @Value("${app.broadcast.send-time-limit-ms:10000}") long sendTimeLimitMs,
+                            @Value("${app.broadcast.sender-threads:4}") int senderThreads,
+                            @Value("${app.websocket.delta.keyframe-interval:30}") int keyframeInterval) {
+        this.objectMapper = objectMapper;
+        this.deltaEncoder = new StatsDeltaEncoder(keyframeInterval);
+        this.queueCapacity = queueCapacity;
+        this.sendTimeLimitNanos = sendTimeLimitMs * 1_000_000L;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(Math.max(1, senderThreads), r -> {
+            Thread t = new Thread(r, "stats-broadcast-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.closer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "stats-broadcast-closer");
+            t.setDaemon(true);
+            return t;
+        });
+        Gauge.builder("stats.broadcast.sessions", sessions, Map::size)
+                .description("Open /stream/stats sessions")
+                .register(meterRegistry);
+        Gauge.builder("stats.broadcast.queue.depth", this, StatsBroadcaster::totalQueueDepth)
+                .description("Frames queued across all sessions")
+                .register(meterRegistry);
+        Gauge.builder("stats.broadcast.queue.depth.max", this, StatsBroadcaster::maxQueueDepth)
+                .description("Deepest session queue")
+                .register(meterRegistry);
+        this.sentFrames = Counter.builder("stats.broadcast.frames.sent").register(meterRegistry);
+        this.droppedFrames = Counter.builder("stats.broadcast.frames.dropped")
+                .description("Ticks dropped for slow consumers")
+                .register(meterRegistry);
+        this.jsonTimer = PipelineMeters.timer(meterRegistry, "stats.serialize", "Tick serialization", "format", "json");
+        this.deltaTimer = PipelineMeters.timer(meterRegistry, "stats.serialize", "Tick serialization", "format", "delta");
+    }
+
+    /** Serializes the tick once per encoding and queues it on every session. Called from the tick thread. */
+    public void broadcast(SystemStats stats) {
+        if (sessions.isEmpty()) return;
+        long start = System.nanoTime();
+        TextMessage json;
+        try {
+            json = new TextMessage(objectMapper.writeValueAsBytes(stats));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize stats for broadcast: {}", e.getMessage());
+            return;
+        }
+        long now = System.nanoTime();
+        jsonTimer.record(now - start, TimeUnit.NANOSECONDS);
+        BinaryMessage delta = null;
+        if (deltaSessions.get() > 0) {
+            delta = new BinaryMessage(deltaEncoder.encode(stats));
+            long encoded = System.nanoTime();
+            deltaTimer.record(encoded - now, TimeUnit.NANOSECONDS);
+            now = encoded;
+        }
+        for (SessionSendQueue queue : sessions.values()) {
+            if (queue.isStuck(now, sendTimeLimitNanos)) {
+                log.debug("Closing slow stats stream session {}", queue.session().getId());
+                evict(queue);
+                continue;
+            }
+            int result = queue.offer(queue.isDelta() ? delta : json);
+            if (result > 0) {
+                sender.execute(() -> drain(queue));
+            } else if (result < 0) {
+                droppedFrames.increment();
+                // The dropped frame may have been a delta the client needs; resync it with a keyframe
+                if (queue.isDelta()) deltaEncoder.requestKeyframe();
+            }
+        }
+    }
+
+    private void drain(SessionSendQueue queue) {
+        WebSocketSession session = queue.session();
+        WebSocketMessage<?> message;
+        while ((message = queue.poll()) != null) {
+            if (!session.isOpen()) continue;
+            queue.markSendStart();
+            try {
+                session.sendMessage(message);
+                sentFrames.increment();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Stats stream send failed for session {}: {}", session.getId(), e.getMessage());
+                closeQuietly(session, CloseStatus.SESSION_NOT_RELIABLE);
+            } finally {
+                queue.markSendEnd();
+            }
+        }
+    }
+
+    /** Stops fanning out to {@code queue}'s session now and closes it off the calling thread. */
+    private void evict(SessionSendQueue queue) {
+        if (!sessions.remove(queue.session().getId(), queue)) return;
+        if (queue.isDelta()) deltaSessions.decrementAndGet();
+        queue.close();
+        closer.execute(() -> closeQuietly(queue.session(), CloseStatus.SESSION_NOT_RELIABLE));
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        boolean delta = session.getUri() != null && StatsEncodingInterceptor.DELTA_ENCODING.equalsIgnoreCase(
+                UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().getFirst("encoding"));
+        sessions.put(session.getId(), new SessionSendQueue(session, delta, queueCapacity));
+        if (delta) {
+            deltaSessions.incrementAndGet();
+            deltaEncoder.requestKeyframe();
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        SessionSendQueue removed = sessions.remove(session.getId());
+        if (removed != null && removed.isDelta()) deltaSessions.decrementAndGet();
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        closeQuietly(session, CloseStatus.SERVER_ERROR);
+    }
+
+    /** Number of open stream sessions. */
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    long droppedFrameCount() {
+        return (long) droppedFrames.count();
+    }
+
+    private double totalQueueDepth() {
+        long total = 0;
+        for (SessionSendQueue q : sessions.values()) total += q.depth();
+        return total;
+    }
+
+    private double maxQueueDepth() {
+        int max = 0;
+        for (SessionSendQueue q : sessions.values()) max = Math.max(max, q.depth());
+        return max;
+    }
+
+    private static void closeQuietly(WebSocketSession session, CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException ignored) {
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        closer.shutdownNow();
+    }
+}
@@ -0,0 +1,110 @@
+package com.systemmonitor.websocket;
+
+import com.systemmonitor.dto.SystemStats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rebuilds {@link SystemStats} from frames written by {@link StatsDeltaEncoder}. Until the first keyframe,
+ * and after a sequence gap until the next keyframe, {@link #decode} returns null.
+ */
+public final class StatsDeltaDecoder {
+
+    private long[] fields;
+    private String[] strings;
+    private long timestamp;
+    private long seq = -1;
+
+    public SystemStats decode(byte[] frame) {
+        FrameReader in = new FrameReader(frame);
+        int kind = in.readByte();
+        long frameSeq = in.readVarLong();
+        boolean key = kind == StatsFrameFormat.KEYFRAME;
+        if (!key && (kind != StatsFrameFormat.DELTA || fields == null || frameSeq != seq + 1)) {
+            fields = null; // lost sync; wait for the next keyframe
+            return null;
+        }
+        seq = frameSeq;
+        timestamp = key ? in.readVarLong() : timestamp + in.readZigZag();
+        int gpuCount = (int) in.readVarLong();
+        int coreCount = (int) in.readVarLong();
+        long nullMask = in.readVarLong();
+        int fieldCount = (int) in.readVarLong();
+        if (fieldCount != StatsFrameFormat.fieldCount(gpuCount, coreCount)) throw new IllegalArgumentException("Bad field count");
+        if (key) {
+            fields = new long[fieldCount];
+            strings = new String[StatsFrameFormat.FIXED_STRINGS + gpuCount];
+        }
+        for (int i = 0; i < fieldCount; i++) {
+            long v = in.readZigZag();
+            fields[i] = key ? v : fields[i] + v;
+        }
+        long stringMask = in.readVarLong();
+        for (int i = 0; i < strings.length; i++) {
+            if ((stringMask & (1L << i)) != 0) strings[i] = in.readString();
+        }
+        return toStats(gpuCount, coreCount, nullMask);
+    }
+
+    private SystemStats toStats(int gpuCount, int coreCount, long nullMask) {
+        List<SystemStats.GpuStats> gpus = new ArrayList<>(gpuCount);
+        for (int g = 0; g < gpuCount; g++) {
+            int base = StatsFrameFormat.FIXED_FIELDS + g * StatsFrameFormat.FIELDS_PER_GPU;
+            gpus.add(SystemStats.GpuStats.builder()
+                    .usagePercent(StatsFrameFormat.unscaled(fields[base]))
+                    .name(strings[StatsFrameFormat.FIXED_STRINGS + g])
+                    .vramUsedBytes(fields[base + 1])
+                    .vramTotalBytes(fields[base + 2])
+                    .temperatureCelsius((nullMask & (1L << StatsFrameFormat.temperatureSlot(g))) != 0 ? null : StatsFrameFormat.unscaled(fields[base + 3]))
+                    .powerWatts((nullMask & (1L << StatsFrameFormat.powerSlot(g))) != 0 ? null : StatsFrameFormat.unscaled(fields[base + 4]))
+                    .build());
+        }
+        double[] coreUsage = null;
+        int[] coreMhz = null;
+        if (coreCount > 0) {
+            coreUsage = new double[coreCount];
+            coreMhz = new int[coreCount];
+            int base = StatsFrameFormat.coreBase(gpuCount);
+            for (int c = 0; c < coreCount; c++) {
+                coreUsage[c] = StatsFrameFormat.unscaled(fields[base + c * StatsFrameFormat.FIELDS_PER_CORE]);
+                coreMhz[c] = (int) fields[base + c * StatsFrameFormat.FIELDS_PER_CORE + 1];
+            }
+        }
+        String stale = strings[1];
+        return SystemStats.builder()
+                .timestamp(timestamp)
+                .cpu(SystemStats.CpuStats.builder()
+                        .name(strings[0])
+                        .usagePercent(StatsFrameFormat.unscaled(fields[0]))
+                        .logicalProcessorCount((int) fields[1])
+                        .temperatureCelsius((nullMask & 1) != 0 ? null : StatsFrameFormat.unscaled(fields[2]))
+                        .coreUsagePercent(coreUsage)
+                        .coreFrequencyMhz(coreMhz)
+                        .build())
+                .memory(SystemStats.MemoryStats.builder()
+                        .totalBytes(fields[3])
+                        .usedBytes(fields[4])
+                        .availableBytes(fields[5])
+                        .usagePercent(StatsFrameFormat.unscaled(fields[6]))
+                        .build())
+                .disk(SystemStats.DiskStats.builder()
+                        .readBytesPerSecond(fields[7])
+                        .writeBytesPerSecond(fields[8])
+                        .totalBytes(fields[9])
+                        .usedBytes(fields[10])
+                        .usagePercent(StatsFrameFormat.unscaled(fields[11]))
+                        .build())
+                .network(SystemStats.NetworkStats.builder()
+                        .downloadBytesPerSecond(fields[12])
+                        .uploadBytesPerSecond(fields[13])
+                        .totalBytesReceived(fields[14])
+                        .totalBytesSent(fields[15])
+                        .build())
+                .gpu(gpus.isEmpty() ? null : gpus.get(0))
+                .gpus(gpus)
+                .stale(stale == null || stale.isEmpty() ? List.of() : Arrays.asList(stale.split(",")))
+                .build();
+    }
+}
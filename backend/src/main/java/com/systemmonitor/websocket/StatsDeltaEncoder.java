@@ -0,0 +1,94 @@
+package com.systemmonitor.websocket;
+
+import com.systemmonitor.dto.SystemStats;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Encodes a stream of {@link SystemStats} into compact binary frames (see {@link StatsFrameFormat}): a keyframe
+ * every {@code keyframeInterval} ticks, on request (new subscriber) or when the GPU set changes, and
+ * zig-zag varint deltas of the numeric fields in between. Names are only sent when they change.
+ * One encoder serves one stream; {@link #encode} is called from the tick thread.
+ */
+public final class StatsDeltaEncoder {
+
+    private final int keyframeInterval;
+    private final FrameWriter writer = new FrameWriter(256);
+    private long[] previous = new long[StatsFrameFormat.fieldCount(0, 0)];
+    private long[] current = new long[StatsFrameFormat.fieldCount(0, 0)];
+    private String[] previousStrings = new String[StatsFrameFormat.FIXED_STRINGS];
+    private String[] currentStrings = new String[StatsFrameFormat.FIXED_STRINGS];
+    private int previousGpuCount = -1;
+    private int previousCoreCount = -1;
+    private long previousTimestamp;
+    private long seq;
+    private int sinceKeyframe;
+    private volatile boolean keyframeRequested = true;
+
+    public StatsDeltaEncoder(int keyframeInterval) {
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+    }
+
+    /** Makes the next frame a keyframe (e.g. a client just subscribed). Safe from any thread. */
+    public void requestKeyframe() {
+        keyframeRequested = true;
+    }
+
+    /** Encodes the next frame of the stream. */
+    public synchronized byte[] encode(SystemStats stats) {
+        List<SystemStats.GpuStats> gpus = stats.getGpus() != null ? stats.getGpus() : List.of();
+        if (gpus.size() > StatsFrameFormat.MAX_GPUS) gpus = gpus.subList(0, StatsFrameFormat.MAX_GPUS);
+        int gpuCount = gpus.size();
+        int coreCount = StatsFrameFormat.coreCount(stats);
+        int fieldCount = StatsFrameFormat.fieldCount(gpuCount, coreCount);
+        int stringCount = StatsFrameFormat.FIXED_STRINGS + gpuCount;
+        if (current.length != fieldCount) current = new long[fieldCount];
+        if (currentStrings.length != stringCount) currentStrings = new String[stringCount];
+
+        long nullMask = StatsFrameFormat.extract(stats, gpus, current);
+        currentStrings[0] = stats.getCpu() != null ? stats.getCpu().getName() : null;
+        currentStrings[1] = stats.getStale() == null || stats.getStale().isEmpty() ? "" : String.join(",", stats.getStale());
+        for (int g = 0; g < gpuCount; g++) {
+            currentStrings[StatsFrameFormat.FIXED_STRINGS + g] = gpus.get(g).getName();
+        }
+
+        boolean key = keyframeRequested || gpuCount != previousGpuCount || coreCount != previousCoreCount
+                || ++sinceKeyframe >= keyframeInterval;
+        writer.reset();
+        writer.writeByte(key ? StatsFrameFormat.KEYFRAME : StatsFrameFormat.DELTA);
+        writer.writeVarLong(++seq);
+        if (key) writer.writeVarLong(stats.getTimestamp());
+        else writer.writeZigZag(stats.getTimestamp() - previousTimestamp);
+        writer.writeVarLong(gpuCount);
+        writer.writeVarLong(coreCount);
+        writer.writeVarLong(nullMask);
+        writer.writeVarLong(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            writer.writeZigZag(key ? current[i] : current[i] - previous[i]);
+        }
+        long stringMask = 0;
+        for (int i = 0; i < stringCount; i++) {
+            if (key || !Objects.equals(currentStrings[i], previousStrings[i])) stringMask |= 1L << i;
+        }
+        writer.writeVarLong(stringMask);
+        for (int i = 0; i < stringCount; i++) {
+            if ((stringMask & (1L << i)) != 0) writer.writeString(currentStrings[i]);
+        }
+
+        if (key) {
+            keyframeRequested = false;
+            sinceKeyframe = 0;
+        }
+        long[] swap = previous;
+        previous = current;
+        current = swap.length == fieldCount ? swap : new long[fieldCount];
+        String[] swapStrings = previousStrings;
+        previousStrings = currentStrings;
+        currentStrings = swapStrings.length == stringCount ? swapStrings : new String[stringCount];
+        previousGpuCount = gpuCount;
+        previousCoreCount = coreCount;
+        previousTimestamp = stats.getTimestamp();
+        return writer.toByteArray();
+    }
+}
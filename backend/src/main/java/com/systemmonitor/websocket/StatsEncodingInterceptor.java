@@ -0,0 +1,55 @@
+package com.systemmonitor.websocket;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+
+import java.util.Map;
+
+/**
+ * Negotiates the stats encoding per subscription. A SUBSCRIBE to /topic/stats carrying the STOMP header
+ * {@code x-stats-encoding: delta} is rerouted to the delta stream: raw binary frames for sessions on the
+ * native /ws-native endpoint, base64 text for SockJS sessions (SockJS cannot carry binary frames).
+ * Subscriptions without the header keep receiving JSON.
+ */
+public class StatsEncodingInterceptor implements ChannelInterceptor {
+
+    public static final String ENCODING_HEADER = "x-stats-encoding";
+    public static final String DELTA_ENCODING = "delta";
+    /** Session attribute set by the /ws-native handshake. */
+    public static final String BINARY_CAPABLE_ATTRIBUTE = "statsBinaryCapable";
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.SUBSCRIBE) return message;
+        String delta = deltaDestination(accessor);
+        if (delta == null || delta.equals(accessor.getDestination())) return message;
+        StompHeaderAccessor rewritten = StompHeaderAccessor.wrap(message);
+        rewritten.setDestination(delta);
+        return MessageBuilder.createMessage(message.getPayload(), rewritten.getMessageHeaders());
+    }
+
+    /**
+     * The delta destination a SUBSCRIBE is routed to, whether or not it has been rewritten yet (subscribe events
+     * carry the original /topic/stats destination); null for a JSON or unrelated subscription.
+     */
+    static String deltaDestination(StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        if (DeltaStatsPublisher.BINARY_DESTINATION.equals(destination)
+                || DeltaStatsPublisher.BASE64_DESTINATION.equals(destination)) {
+            return destination;
+        }
+        if (!DeltaStatsPublisher.JSON_DESTINATION.equals(destination)
+                || !DELTA_ENCODING.equalsIgnoreCase(accessor.getFirstNativeHeader(ENCODING_HEADER))) {
+            return null;
+        }
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        boolean binary = attributes != null && Boolean.TRUE.equals(attributes.get(BINARY_CAPABLE_ATTRIBUTE));
+        return binary ? DeltaStatsPublisher.BINARY_DESTINATION : DeltaStatsPublisher.BASE64_DESTINATION;
+    }
+}
@@ -0,0 +1,130 @@
+package com.systemmonitor.websocket;
+
+import com.systemmonitor.dto.SystemStats;
+
+import java.util.List;
+
+/**
+ * Layout shared by {@link StatsDeltaEncoder} and {@link StatsDeltaDecoder}. A frame is:
+ * <pre>
+ * u8      kind            1 = keyframe, 2 = delta
+ * varint  seq             tick sequence number (a gap means the client must wait for the next keyframe)
+ * varint  timestamp       keyframe: epoch millis; delta: zig-zag difference from the previous frame
+ * varint  gpuCount
+ * varint  coreCount       per-core CPU entries (0 = not reported)
+ * varint  nullMask        bit i set = nullable slot i is null (slot 0 = CPU temp, slots 1+2g and 2+2g = GPU g
+ *                         temp and power)
+ * varint  fieldCount
+ * field*  zig-zag varint  keyframe: value; delta: value - previous value
+ *                         (fixed fields, then 5 per GPU, then per core: usage, frequency MHz)
+ * varint  stringMask      bit i set = string i follows (keyframe: all; delta: only changed ones)
+ * string* varint length + UTF-8 bytes (0 = CPU name, 1 = stale collectors comma-joined, 2+g = GPU g name)
+ * </pre>
+ * Doubles are carried as hundredths (e.g. 12.34 % is sent as 1234). A change in GPU or core count forces a
+ * keyframe.
+ * Only the aggregate disk and network fields are carried; the per-device, per-mount and per-interface breakdowns
+ * are JSON-only (/topic/stats, GET /api/disks), as are anomaly flags (GET /api/anomalies).
+ * At most {@value #MAX_GPUS} GPUs are encoded so both masks fit in 64 bits.
+ */
+final class StatsFrameFormat {
+
+    static final byte KEYFRAME = 1;
+    static final byte DELTA = 2;
+
+    static final int SCALE = 100;
+    static final int FIXED_FIELDS = 16;
+    static final int FIELDS_PER_GPU = 5;
+    static final int FIELDS_PER_CORE = 2;
+    static final int FIXED_STRINGS = 2;
+    static final int MAX_GPUS = 31;
+
+    private StatsFrameFormat() {
+    }
+
+    static int fieldCount(int gpuCount, int coreCount) {
+        return FIXED_FIELDS + gpuCount * FIELDS_PER_GPU + coreCount * FIELDS_PER_CORE;
+    }
+
+    static int coreBase(int gpuCount) {
+        return FIXED_FIELDS + gpuCount * FIELDS_PER_GPU;
+    }
+
+    /** Null-mask slot of GPU g's temperature. */
+    static int temperatureSlot(int g) {
+        return 1 + 2 * g;
+    }
+
+    /** Null-mask slot of GPU g's power draw. */
+    static int powerSlot(int g) {
+        return 2 + 2 * g;
+    }
+
+    /** Number of per-core entries in {@code stats} (0 if not reported). */
+    static int coreCount(SystemStats stats) {
+        SystemStats.CpuStats cpu = stats.getCpu();
+        return cpu != null && cpu.getCoreUsagePercent() != null ? cpu.getCoreUsagePercent().length : 0;
+    }
+
+    static long scaled(double value) {
+        return Math.round(value * SCALE);
+    }
+
+    static double unscaled(long value) {
+        return (double) value / SCALE;
+    }
+
+    /** Writes the numeric fields of {@code stats} into {@code fields} (sized by {@link #fieldCount}); returns the null mask. */
+    static long extract(SystemStats stats, List<SystemStats.GpuStats> gpus, long[] fields) {
+        long nullMask = 0;
+        SystemStats.CpuStats cpu = stats.getCpu();
+        if (cpu != null) {
+            fields[0] = scaled(cpu.getUsagePercent());
+            fields[1] = cpu.getLogicalProcessorCount();
+            if (cpu.getTemperatureCelsius() != null) fields[2] = scaled(cpu.getTemperatureCelsius());
+            else { fields[2] = 0; nullMask |= 1; }
+        } else {
+            fields[0] = 0;
+            fields[1] = 0;
+            fields[2] = 0;
+            nullMask |= 1;
+        }
+        SystemStats.MemoryStats mem = stats.getMemory();
+        fields[3] = mem != null ? mem.getTotalBytes() : 0;
+        fields[4] = mem != null ? mem.getUsedBytes() : 0;
+        fields[5] = mem != null ? mem.getAvailableBytes() : 0;
+        fields[6] = mem != null ? scaled(mem.getUsagePercent()) : 0;
+        SystemStats.DiskStats disk = stats.getDisk();
+        fields[7] = disk != null ? disk.getReadBytesPerSecond() : 0;
+        fields[8] = disk != null ? disk.getWriteBytesPerSecond() : 0;
+        fields[9] = disk != null ? disk.getTotalBytes() : 0;
+        fields[10] = disk != null ? disk.getUsedBytes() : 0;
+        fields[11] = disk != null ? scaled(disk.getUsagePercent()) : 0;
+        SystemStats.NetworkStats net = stats.getNetwork();
+        fields[12] = net != null ? net.getDownloadBytesPerSecond() : 0;
+        fields[13] = net != null ? net.getUploadBytesPerSecond() : 0;
+        fields[14] = net != null ? net.getTotalBytesReceived() : 0;
+        fields[15] = net != null ? net.getTotalBytesSent() : 0;
+        for (int g = 0; g < gpus.size(); g++) {
+            SystemStats.GpuStats gpu = gpus.get(g);
+            int base = FIXED_FIELDS + g * FIELDS_PER_GPU;
+            fields[base] = scaled(gpu.getUsagePercent());
+            fields[base + 1] = gpu.getVramUsedBytes();
+            fields[base + 2] = gpu.getVramTotalBytes();
+            if (gpu.getTemperatureCelsius() != null) fields[base + 3] = scaled(gpu.getTemperatureCelsius());
+            else { fields[base + 3] = 0; nullMask |= 1L << temperatureSlot(g); }
+            if (gpu.getPowerWatts() != null) fields[base + 4] = scaled(gpu.getPowerWatts());
+            else { fields[base + 4] = 0; nullMask |= 1L << powerSlot(g); }
+        }
+        int cores = coreCount(stats);
+        if (cores > 0) {
+            double[] usage = cpu.getCoreUsagePercent();
+            int[] mhz = cpu.getCoreFrequencyMhz();
+            int base = coreBase(gpus.size());
+            for (int c = 0; c < cores; c++) {
+                fields[base + c * FIELDS_PER_CORE] = scaled(usage[c]);
+                fields[base + c * FIELDS_PER_CORE + 1] = mhz != null && c < mhz.length ? mhz[c] : 0;
+            }
+        }
+        return nullMask;
+    }
+}
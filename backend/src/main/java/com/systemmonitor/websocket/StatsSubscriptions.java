@@ -0,0 +1,68 @@
+package com.systemmonitor.websocket;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks who is watching the live stats stream: STOMP subscriptions to {@value DeltaStatsPublisher#JSON_DESTINATION}
+ * and its delta variants, plus open {@link StatsBroadcaster} (/stream/stats) sessions. The scheduler samples
+ * faster while {@link #isWatched}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class StatsSubscriptions {
+
+    private final StatsBroadcaster statsBroadcaster;
+    /** Live /topic/stats* subscriptions, keyed by session ID and subscription ID. */
+    private final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+
+    /** True if any client is subscribed to the live stats stream. */
+    public boolean isWatched() {
+        return !subscriptions.isEmpty() || statsBroadcaster.sessionCount() > 0;
+    }
+
+    /** Number of live STOMP stats subscriptions. */
+    public int subscriptionCount() {
+        return subscriptions.size();
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        if (!isStatsDestination(accessor.getDestination())) return;
+        subscriptions.add(key(accessor.getSessionId(), accessor.getSubscriptionId()));
+        log.debug("Stats subscriber {} (session {})", accessor.getSubscriptionId(), accessor.getSessionId());
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        subscriptions.remove(key(accessor.getSessionId(), accessor.getSubscriptionId()));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + '/';
+        subscriptions.removeIf(k -> k.startsWith(prefix));
+    }
+
+    private static boolean isStatsDestination(String destination) {
+        return DeltaStatsPublisher.JSON_DESTINATION.equals(destination)
+                || DeltaStatsPublisher.BINARY_DESTINATION.equals(destination)
+                || DeltaStatsPublisher.BASE64_DESTINATION.equals(destination);
+    }
+
+    private static String key(String sessionId, String subscriptionId) {
+        return sessionId + '/' + subscriptionId;
+    }
+}
@@ -0,0 +1,145 @@
+package com.systemmonitor.alert;
+
+import com.systemmonitor.dto.AlertEvent;
+import com.systemmonitor.dto.SystemStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AlertEngineTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private AlertSink sink;
+
+    @Test
+    void thresholdRule_firesAfterHoldAndResolvesPastClearThreshold() {
+        AlertEngine engine = engine(rule("cpu-high", "cpu", null, 90.0, 85.0, Duration.ofSeconds(3)));
+
+        tick(engine, 0, 95);
+        tick(engine, 1_000, 95);
+        tick(engine, 2_000, 80); // dip resets the hold
+        tick(engine, 3_000, 95);
+        tick(engine, 5_000, 95);
+        assertThat(engine.active()).isEmpty();
+
+        tick(engine, 6_000, 95);
+        assertThat(engine.active()).singleElement().satisfies(e -> {
+            assertThat(e.getRuleId()).isEqualTo("cpu-high");
+            assertThat(e.getState()).isEqualTo(AlertEvent.State.FIRING);
+            assertThat(e.getThreshold()).isEqualTo(90.0);
+        });
+
+        tick(engine, 7_000, 88); // below threshold but above clear: still firing
+        assertThat(engine.active()).hasSize(1);
+
+        tick(engine, 8_000, 84);
+        assertThat(engine.active()).isEmpty();
+
+        ArgumentCaptor<AlertEvent> events = ArgumentCaptor.forClass(AlertEvent.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq(AlertEngine.DESTINATION), events.capture());
+        assertThat(events.getAllValues()).extracting(AlertEvent::getState)
+                .containsExactly(AlertEvent.State.FIRING, AlertEvent.State.RESOLVED);
+        verify(sink, times(2)).accept(any());
+    }
+
+    @Test
+    void rateRule_firesOnFastClimbOnly() {
+        AlertProperties.Rule rule = rule("cpu-climb", "cpu", "rate", 10.0, 5.0, Duration.ZERO);
+        rule.setWindow(Duration.ofMinutes(1));
+        AlertEngine engine = engine(rule);
+
+        // +1 per 10 s is 6 per minute
+        for (int i = 0; i <= 6; i++) tick(engine, i * 10_000L, 50 + i);
+        assertThat(engine.active()).isEmpty();
+
+        // then +5 per 10 s
+        for (int i = 1; i <= 6; i++) tick(engine, 60_000 + i * 10_000L, 56 + 5 * i);
+        assertThat(engine.active()).extracting(AlertEvent::getRuleId).containsExactly("cpu-climb");
+    }
+
+    @Test
+    void missingMetric_leavesStateUnchanged() {
+        AlertEngine engine = engine(rule("cpu-high", "cpu", null, 90.0, null, Duration.ZERO));
+
+        tick(engine, 0, 95);
+        engine.evaluate(SystemStats.builder().timestamp(1_000).build());
+
+        assertThat(engine.active()).hasSize(1);
+        verify(messagingTemplate, times(1)).convertAndSend(eq(AlertEngine.DESTINATION), any(Object.class));
+    }
+
+    @Test
+    void invalidRules_areSkipped() {
+        AlertProperties.Rule unknownMetric = rule("bad-metric", "nope", null, 1.0, null, Duration.ZERO);
+        AlertProperties.Rule noThreshold = rule("no-threshold", "cpu", null, null, null, Duration.ZERO);
+        AlertProperties.Rule good = rule("good", "cpu", null, 50.0, null, Duration.ZERO);
+        AlertEngine engine = engine(unknownMetric, noThreshold, good);
+
+        tick(engine, 0, 60);
+
+        assertThat(engine.active()).extracting(AlertEvent::getRuleId).containsExactly("good");
+    }
+
+    @Test
+    void validate_rejectsClearThresholdPastTrigger() {
+        AlertProperties.Rule rule = rule("cpu-high", "cpu", null, 90.0, 95.0, Duration.ZERO);
+
+        assertThatThrownBy(() -> AlertEngine.validate(rule)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void disabled_evaluatesNothing() {
+        AlertProperties properties = new AlertProperties();
+        properties.setEnabled(false);
+        properties.getRules().add(rule("cpu-high", "cpu", null, 1.0, null, Duration.ZERO));
+        AlertEngine engine = new AlertEngine(properties, messagingTemplate, List.of(sink));
+
+        tick(engine, 0, 95);
+
+        assertThat(engine.active()).isEmpty();
+        verify(messagingTemplate, never()).convertAndSend(any(String.class), any(Object.class));
+    }
+
+    private AlertEngine engine(AlertProperties.Rule... rules) {
+        AlertProperties properties = new AlertProperties();
+        properties.getRules().addAll(List.of(rules));
+        return new AlertEngine(properties, messagingTemplate, List.of(sink));
+    }
+
+    private static AlertProperties.Rule rule(String id, String metric, String aggregate, Double above, Double clear,
+                                             Duration hold) {
+        AlertProperties.Rule rule = new AlertProperties.Rule();
+        rule.setId(id);
+        rule.setMetric(metric);
+        rule.setAggregate(aggregate);
+        rule.setAbove(above);
+        rule.setClear(clear);
+        rule.setHold(hold);
+        return rule;
+    }
+
+    private static void tick(AlertEngine engine, long timestamp, double cpu) {
+        engine.evaluate(SystemStats.builder()
+                .timestamp(timestamp)
+                .cpu(SystemStats.CpuStats.builder().usagePercent(cpu).build())
+                .build());
+    }
+}
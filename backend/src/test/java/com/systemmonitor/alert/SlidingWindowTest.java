@@ -0,0 +1,58 @@
+package com.systemmonitor.alert;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SlidingWindowTest {
+
+    @Test
+    void aggregates_coverOnlySamplesInsideTheWindow() {
+        SlidingWindow window = new SlidingWindow(3_000);
+        double[] values = {5, 1, 4, 8, 2, 7};
+        for (int i = 0; i < values.length; i++) {
+            window.add(i * 1_000L, values[i]);
+        }
+
+        // t=5000 keeps t>=2000: 4, 8, 2, 7
+        assertThat(window.aggregate(AlertRule.Aggregate.LAST)).isEqualTo(7);
+        assertThat(window.aggregate(AlertRule.Aggregate.AVG)).isCloseTo(5.25, within(1e-9));
+        assertThat(window.aggregate(AlertRule.Aggregate.MIN)).isEqualTo(2);
+        assertThat(window.aggregate(AlertRule.Aggregate.MAX)).isEqualTo(8);
+        // (7 - 4) over 3 s
+        assertThat(window.aggregate(AlertRule.Aggregate.RATE)).isCloseTo(60.0, within(1e-9));
+    }
+
+    @Test
+    void minAndMax_matchBruteForceAcrossGrowthAndEviction() {
+        SlidingWindow window = new SlidingWindow(50_000);
+        java.util.Random random = new java.util.Random(7);
+        double[] all = new double[500];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = random.nextInt(1000);
+            window.add(i * 1_000L, all[i]);
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            for (int j = Math.max(0, i - 50); j <= i; j++) {
+                min = Math.min(min, all[j]);
+                max = Math.max(max, all[j]);
+            }
+            assertThat(window.aggregate(AlertRule.Aggregate.MIN)).isEqualTo(min);
+            assertThat(window.aggregate(AlertRule.Aggregate.MAX)).isEqualTo(max);
+        }
+    }
+
+    @Test
+    void nanSamples_areSkipped() {
+        SlidingWindow window = new SlidingWindow(10_000);
+
+        window.add(0, Double.NaN);
+        assertThat(window.aggregate(AlertRule.Aggregate.LAST)).isNaN();
+
+        window.add(1_000, 3);
+        window.add(2_000, Double.NaN);
+        assertThat(window.aggregate(AlertRule.Aggregate.AVG)).isEqualTo(3);
+        assertThat(window.aggregate(AlertRule.Aggregate.RATE)).isNaN();
+    }
+}
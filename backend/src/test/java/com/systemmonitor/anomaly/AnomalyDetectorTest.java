@@ -0,0 +1,143 @@
+package com.systemmonitor.anomaly;
+
+import com.systemmonitor.dto.AnomalyFlag;
+import com.systemmonitor.dto.SystemStats;
+import com.systemmonitor.history.HistoryMetric;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AnomalyDetectorTest {
+
+    private static final long HOUR_MS = 3_600_000;
+
+    @Test
+    void writeBurst_isFlaggedAgainstRecentBaselineAndLogged() {
+        AnomalyDetector detector = detector("diskWrite");
+        Random random = new Random(1);
+        long t = 0;
+        for (int i = 0; i < 300; i++, t += 1000) {
+            SystemStats stats = diskWrite(t, 1_000_000 + random.nextInt(200_000));
+            detector.evaluate(stats);
+            assertThat(stats.getAnomalies()).isEmpty();
+        }
+
+        SystemStats burst = diskWrite(t, 80_000_000);
+        detector.evaluate(burst);
+
+        assertThat(burst.getAnomalies()).singleElement().satisfies(f -> {
+            assertThat(f.getMetric()).isEqualTo("diskWrite");
+            assertThat(f.getBaseline()).isEqualTo(AnomalyFlag.Baseline.EWMA);
+            assertThat(f.getZScore()).isGreaterThan(4);
+            assertThat(f.getExpected()).isBetween(1_000_000.0, 1_200_000.0);
+        });
+        assertThat(detector.query(HistoryMetric.DISK_WRITE, 0, t, 10)).containsExactlyElementsOf(burst.getAnomalies());
+        assertThat(detector.query(HistoryMetric.CPU_USAGE, 0, t, 10)).isEmpty();
+        assertThat(detector.query(null, t + 1, t + 10, 10)).isEmpty();
+    }
+
+    @Test
+    void flatIdleSeries_doesNotFlagSmallWrites() {
+        AnomalyDetector detector = detector("diskWrite");
+        long t = 0;
+        for (int i = 0; i < 300; i++, t += 1000) detector.evaluate(diskWrite(t, 0));
+
+        SystemStats small = diskWrite(t, 16 * 1024);
+        detector.evaluate(small);
+
+        assertThat(small.getAnomalies()).isEmpty();
+    }
+
+    @Test
+    void seasonalBaseline_flagsValueUnusualForTheHour() {
+        // alpha 1: the EWMA baseline is just the previous sample, so only the seasonal baseline can flag a level
+        // that is steady but unusual for this hour of day
+        AnomalyDetector detector = new AnomalyDetector(true, "cpu", 1.0, 1, 4, 60, 100, ZoneOffset.UTC);
+        long t = 0;
+        for (int i = 0; i < 3601; i++, t += 1000) detector.evaluate(cpu(t, 10 + (i % 2)));
+
+        long nextDay = 24 * HOUR_MS;
+        SystemStats usual = cpu(nextDay, 11);
+        detector.evaluate(usual);
+        detector.evaluate(cpu(nextDay + 1000, 60));
+        SystemStats unusual = cpu(nextDay + 2000, 60);
+        detector.evaluate(unusual);
+        SystemStats otherHour = cpu(nextDay + HOUR_MS, 60);
+        detector.evaluate(otherHour);
+
+        assertThat(usual.getAnomalies()).isEmpty();
+        assertThat(unusual.getAnomalies()).extracting(AnomalyFlag::getBaseline)
+                .containsExactly(AnomalyFlag.Baseline.SEASONAL);
+        assertThat(otherHour.getAnomalies()).isEmpty();
+    }
+
+    @Test
+    void ewma_decaysAtTheSameRatePerSecondWhateverTheSamplePeriod() {
+        EwmStats everySecond = new EwmStats(1, 0.02);
+        EwmStats everyFiveSeconds = new EwmStats(1, 0.02);
+        for (int i = 0; i < 1000; i++) everySecond.update(0, 0, 1, 1);
+        for (int i = 0; i < 200; i++) everyFiveSeconds.update(0, 0, 1, 5);
+
+        for (int i = 0; i < 100; i++) everySecond.update(0, 100, 1, 1);
+        for (int i = 0; i < 20; i++) everyFiveSeconds.update(0, 100, 1, 5);
+
+        assertThat(everyFiveSeconds.mean(0)).isCloseTo(everySecond.mean(0), within(0.01));
+        assertThat(everyFiveSeconds.seconds(0)).isEqualTo(everySecond.seconds(0));
+    }
+
+    @Test
+    void warmup_isCountedInSecondsAtTheIdleRecordPeriod() {
+        AnomalyDetector detector = detector("diskWrite");
+        long t = 0;
+        for (int i = 0; i < 12; i++, t += 5000) detector.evaluate(diskWrite(t, 1_000_000));
+
+        SystemStats burst = diskWrite(t, 80_000_000);
+        detector.evaluate(burst);
+
+        assertThat(burst.getAnomalies()).extracting(AnomalyFlag::getBaseline).containsExactly(AnomalyFlag.Baseline.EWMA);
+    }
+
+    @Test
+    void query_returnsNewestMatchesOldestFirstWithinLogSize() {
+        AnomalyDetector detector = new AnomalyDetector(true, "cpu", 0.02, 7, 0, 2, 3, ZoneOffset.UTC);
+        for (int i = 0; i < 10; i++) detector.evaluate(cpu(i * 1000L, i % 2 == 0 ? 10 : 90));
+
+        List<AnomalyFlag> flags = detector.query(null, 0, Long.MAX_VALUE, 2);
+
+        assertThat(flags).extracting(AnomalyFlag::getTimestamp).containsExactly(8000L, 9000L);
+        assertThat(detector.query(null, 0, Long.MAX_VALUE, 100)).hasSize(3);
+    }
+
+    @Test
+    void disabled_setsNoFlags() {
+        AnomalyDetector detector = new AnomalyDetector(false, "cpu", 0.02, 7, 0, 2, 10, ZoneOffset.UTC);
+        SystemStats stats = cpu(0, 50);
+
+        detector.evaluate(stats);
+
+        assertThat(stats.getAnomalies()).isEmpty();
+    }
+
+    private static AnomalyDetector detector(String metrics) {
+        return new AnomalyDetector(true, metrics, 0.02, 7, 4, 60, 100, ZoneOffset.UTC);
+    }
+
+    private static SystemStats diskWrite(long timestamp, long bytesPerSecond) {
+        return SystemStats.builder()
+                .timestamp(timestamp)
+                .disk(SystemStats.DiskStats.builder().writeBytesPerSecond(bytesPerSecond).build())
+                .build();
+    }
+
+    private static SystemStats cpu(long timestamp, double usage) {
+        return SystemStats.builder()
+                .timestamp(timestamp)
+                .cpu(SystemStats.CpuStats.builder().usagePercent(usage).build())
+                .build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.systemmonitor.capture;
+
+import com.systemmonitor.dto.CaptureResult;
+import com.systemmonitor.procfs.Procfs;
+import com.systemmonitor.service.NetworkService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import oshi.SystemInfo;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(MockitoExtension.class)
+class BurstCaptureTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Mock
+    private SystemInfo systemInfo;
+
+    @Mock
+    private NetworkService networkService;
+
+    @TempDir
+    Path root;
+
+    private Procfs procfs;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(root.resolve("proc/net"));
+        Files.createDirectories(root.resolve("sys/block/sda"));
+        Files.writeString(root.resolve("proc/stat"), "cpu  100 0 100 800 0 0 0 0\n");
+        Files.writeString(root.resolve("proc/meminfo"), "MemTotal: 1000 kB\nMemFree: 100 kB\nMemAvailable: 250 kB\n");
+        writeDiskStats(0, 0);
+        writeNetDev(0, 0);
+        procfs = new Procfs(true, root.toString());
+    }
+
+    @Test
+    void capture_fillsOneColumnPerSeriesAtTheRequestedInterval() throws IOException {
+        BurstCapture capture = burstCapture(2, procfs);
+
+        CaptureResult result = capture.capture(1, 50, EnumSet.of(CaptureChannel.MEMORY, CaptureChannel.CPU));
+
+        assertThat(result.getSamples()).isEqualTo(20);
+        assertThat(result.getSeries().keySet()).containsExactly("cpu", "memory");
+        assertThat(result.getSeries().get("memory")).hasSize(20).containsOnly(75.0);
+        assertThat(result.getOffsetsMicros()).hasSize(20).isSorted();
+        assertThat(result.getOffsetsMicros()[0]).isGreaterThanOrEqualTo(50_000);
+        assertThat(capture.activeCount()).isZero();
+    }
+
+    @Test
+    void capture_beyondConcurrentLimit_isRefused() throws Exception {
+        BurstCapture capture = burstCapture(1, procfs);
+        CompletableFuture<CaptureResult> running = CompletableFuture.supplyAsync(() -> {
+            try {
+                return capture.capture(1, 100, EnumSet.of(CaptureChannel.CPU));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        await(() -> capture.activeCount() == 1);
+
+        assertThat(capture.capture(1, 100, EnumSet.of(CaptureChannel.CPU))).isNull();
+        assertThat(running.get(5, TimeUnit.SECONDS).getSamples()).isEqualTo(10);
+    }
+
+    @Test
+    void accepts_enforcesDurationAndIntervalLimits() {
+        BurstCapture capture = burstCapture(2, procfs);
+
+        assertThat(capture.accepts(60, 10)).isTrue();
+        assertThat(capture.accepts(61, 10)).isFalse();
+        assertThat(capture.accepts(5, 5)).isFalse();
+        assertThat(capture.accepts(0, 20)).isFalse();
+    }
+
+    @Test
+    void withoutProcfs_onlyCpuAndMemoryAreSupported() {
+        Procfs missing = new Procfs(true, root.resolve("missing").toString());
+        BurstCapture capture = burstCapture(2, missing);
+
+        assertThat(capture.supports(CaptureChannel.CPU)).isTrue();
+        assertThat(capture.supports(CaptureChannel.DISK)).isFalse();
+        assertThatThrownBy(() -> new CaptureSampler(EnumSet.of(CaptureChannel.NETWORK), missing, systemInfo, n -> true))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void sampler_ratesAreDifferencedAgainstItsOwnBaseline() throws IOException {
+        double[][] columns = new double[4][1];
+        try (CaptureSampler sampler = new CaptureSampler(EnumSet.of(CaptureChannel.NETWORK, CaptureChannel.DISK),
+                procfs, systemInfo, name -> !name.equals("lo"))) {
+            long t0 = System.nanoTime();
+            sampler.prime(t0);
+            writeDiskStats(2_000, 4_000);
+            writeNetDev(3_000, 1_000);
+
+            sampler.sample(t0 + SECOND / 10, columns, 0);
+
+            assertThat(sampler.seriesNames()).containsExactly("disk.read", "disk.write", "network.rx", "network.tx");
+        }
+        assertThat(columns[0][0]).isEqualTo(2_000 * 512 * 10.0);
+        assertThat(columns[1][0]).isEqualTo(4_000 * 512 * 10.0);
+        assertThat(columns[2][0]).isEqualTo(30_000.0);
+        assertThat(columns[3][0]).isEqualTo(10_000.0);
+    }
+
+    @Test
+    void sampler_close_releasesItsProcFiles() throws IOException {
+        CaptureSampler sampler = new CaptureSampler(EnumSet.allOf(CaptureChannel.class), procfs, systemInfo, name -> true);
+        sampler.prime(System.nanoTime());
+
+        sampler.close();
+
+        assertThatThrownBy(() -> sampler.sample(System.nanoTime(), new double[6][1], 0))
+                .isInstanceOf(ClosedChannelException.class);
+    }
+
+    private BurstCapture burstCapture(int maxConcurrent, Procfs procfs) {
+        return new BurstCapture(procfs, systemInfo, networkService, maxConcurrent, 60, 10, 1000, new SimpleMeterRegistry());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private void writeDiskStats(long sectorsRead, long sectorsWritten) throws IOException {
+        Files.writeString(root.resolve("proc/diskstats"),
+                "   8       0 sda 10 0 " + sectorsRead + " 5 20 0 " + sectorsWritten + " 7 0 12 12\n");
+    }
+
+    private void writeNetDev(long eth0Rx, long eth0Tx) throws IOException {
+        Files.writeString(root.resolve("proc/net/dev"),
+                "Inter-|   Receive                                                |  Transmit\n"
+                        + " face |bytes    packets errs drop fifo frame compressed multicast|bytes    packets errs drop fifo colls carrier compressed\n"
+                        + "    lo: 5000 10 0 0 0 0 0 0 5000 10 0 0 0 0 0 0\n"
+                        + "  eth0: " + eth0Rx + " 1 0 0 0 0 0 0 " + eth0Tx + " 1 0 0 0 0 0 0\n");
+    }
+}
@@ -0,0 +1,52 @@
+package com.systemmonitor.diagnostics;
+
+import com.systemmonitor.dto.PipelineSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PipelineDiagnosticsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PipelineDiagnostics diagnostics = new PipelineDiagnostics(registry);
+
+    @Test
+    void summary_reportsStatsTimersInMillisWithPercentiles() {
+        Timer timer = PipelineMeters.timer(registry, "stats.collector.duration", "Collector sample", "collector", "cpu");
+        for (int i = 1; i <= 100; i++) timer.record(Duration.ofMillis(i));
+
+        PipelineSummary summary = diagnostics.summary();
+
+        assertThat(summary.getTimers()).hasSize(1);
+        PipelineSummary.TimerSummary t = summary.getTimers().get(0);
+        assertThat(t.getName()).isEqualTo("stats.collector.duration");
+        assertThat(t.getTags()).isEqualTo(Map.of("collector", "cpu"));
+        assertThat(t.getCount()).isEqualTo(100);
+        assertThat(t.getMaxMs()).isEqualTo(100.0);
+        assertThat(t.getMeanMs()).isEqualTo(50.5);
+        assertThat(t.getP50Ms()).isBetween(45.0, 55.0);
+        assertThat(t.getP99Ms()).isBetween(95.0, 101.0);
+    }
+
+    @Test
+    void summary_skipsMetersOutsideThePipeline() {
+        Counter.builder("stats.tick.overrun").register(registry).increment(3);
+        Counter.builder("http.server.requests").register(registry).increment();
+        registry.gauge("stats.broadcast.sessions", 2);
+
+        PipelineSummary summary = diagnostics.summary();
+
+        assertThat(summary.getTimers()).isEmpty();
+        assertThat(summary.getCounters()).singleElement()
+                .satisfies(c -> assertThat(c.getName()).isEqualTo("stats.tick.overrun"))
+                .satisfies(c -> assertThat(c.getValue()).isEqualTo(3.0));
+        assertThat(summary.getGauges()).singleElement()
+                .satisfies(g -> assertThat(g.getValue()).isEqualTo(2.0));
+    }
+}
@@ -0,0 +1,169 @@
+package com.systemmonitor.fleet;
+
+import com.systemmonitor.dto.HistorySeries;
+import com.systemmonitor.dto.HostSummary;
+import com.systemmonitor.dto.SystemStats;
+import com.systemmonitor.history.HistoryMetric;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.io.OutputStream;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FleetServerTest {
+
+    private static final String TOKEN = "s3cret";
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private FleetRegistry registry;
+    private FleetServer server;
+    private final List<AgentClient> agents = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        registry = new FleetRegistry(messagingTemplate, 10, Duration.ofHours(1));
+        server = new FleetServer(registry, "127.0.0.1", 0, TOKEN);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        agents.forEach(AgentClient::stop);
+        server.stop();
+    }
+
+    @Test
+    void severalAgents_streamToOneAggregator() throws Exception {
+        for (int i = 0; i < 3; i++) agents.add(agent("host-" + i));
+        await(() -> agents.stream().allMatch(AgentClient::isConnected));
+
+        for (int tick = 0; tick < 5; tick++) {
+            for (int i = 0; i < agents.size(); i++) {
+                agents.get(i).onStats(stats(1_000_000L + tick * 1000L, 10 * i + tick));
+            }
+        }
+        await(() -> registry.summaries().stream().allMatch(h -> h.getLastTimestamp() == 1_004_000L));
+
+        List<HostSummary> hosts = registry.summaries();
+        assertThat(hosts).extracting(HostSummary::getHostId).containsExactly("host-0", "host-1", "host-2");
+        assertThat(hosts).allMatch(HostSummary::isConnected);
+        assertThat(hosts).extracting(HostSummary::getCpuUsagePercent).containsExactly(4.0, 14.0, 24.0);
+        HistorySeries cpu = registry.history("host-2", HistoryMetric.CPU_USAGE, 0, Long.MAX_VALUE, 0);
+        assertThat(cpu.getAvg()).containsExactly(20.0, 21.0, 22.0, 23.0, 24.0);
+        verify(messagingTemplate, atLeastOnce()).convertAndSend(eq("/topic/hosts/host-1/stats"), any(SystemStats.class));
+
+        registry.publishFleet();
+        verify(messagingTemplate).convertAndSend(eq(FleetRegistry.FLEET_DESTINATION), any(Object.class));
+
+        agents.get(0).stop();
+        await(() -> !registry.summaries().get(0).isConnected());
+        assertThat(registry.latest("host-0").getCpu().getUsagePercent()).isEqualTo(4.0);
+    }
+
+    @Test
+    void protocolViolation_closesConnectionWithoutRegisteringHost() throws Exception {
+        try (Socket socket = new Socket("127.0.0.1", server.port())) {
+            OutputStream out = socket.getOutputStream();
+            out.write(FleetProtocol.batch(List.of(new byte[]{1, 2, 3})));
+            out.flush();
+            assertThat(socket.getInputStream().read()).isEqualTo(-1);
+        }
+        try (Socket socket = new Socket("127.0.0.1", server.port())) {
+            socket.getOutputStream().write(FleetProtocol.hello("bad/host", TOKEN));
+            assertThat(socket.getInputStream().read()).isEqualTo(-1);
+        }
+
+        assertThat(registry.summaries()).isEmpty();
+    }
+
+    @Test
+    void hello_withWrongToken_isRejected() throws Exception {
+        try (Socket socket = new Socket("127.0.0.1", server.port())) {
+            socket.getOutputStream().write(FleetProtocol.hello("intruder", "guess"));
+            assertThat(socket.getInputStream().read()).isEqualTo(-1);
+        }
+
+        assertThat(registry.summaries()).isEmpty();
+    }
+
+    @Test
+    void start_withoutTokenOnPublicAddress_fails() {
+        FleetServer open = new FleetServer(registry, "0.0.0.0", 0, "");
+
+        assertThatThrownBy(open::start).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void connected_whenFull_evictsLongestDisconnectedHost() {
+        FleetRegistry registry = new FleetRegistry(messagingTemplate, 2, Duration.ofHours(1));
+        Object a = new Object();
+        Object b = new Object();
+        assertThat(registry.connected("a", a, "x")).isTrue();
+        assertThat(registry.connected("b", b, "x")).isTrue();
+        assertThat(registry.connected("c", new Object(), "x")).isFalse();
+
+        registry.disconnected("a", a);
+
+        assertThat(registry.connected("c", new Object(), "x")).isTrue();
+        assertThat(registry.summaries()).extracting(HostSummary::getHostId).containsExactly("b", "c");
+    }
+
+    @Test
+    void evictExpired_forgetsHostsDisconnectedPastTheTtl() {
+        FleetRegistry shortTtl = new FleetRegistry(messagingTemplate, 10, Duration.ofMinutes(1));
+        Object a = new Object();
+        shortTtl.connected("a", a, "x");
+        shortTtl.connected("b", new Object(), "x");
+        shortTtl.disconnected("a", a);
+
+        shortTtl.evictExpired(System.currentTimeMillis() + 30_000);
+        assertThat(shortTtl.summaries()).hasSize(2);
+        shortTtl.evictExpired(System.currentTimeMillis() + 120_000);
+        assertThat(shortTtl.summaries()).extracting(HostSummary::getHostId).containsExactly("b");
+    }
+
+    private AgentClient agent(String hostId) {
+        AgentClient agent = new AgentClient("127.0.0.1:" + server.port(), hostId, TOKEN, 20, 100, 30);
+        agent.start();
+        return agent;
+    }
+
+    private static SystemStats stats(long timestamp, double cpu) {
+        return SystemStats.builder()
+                .timestamp(timestamp)
+                .cpu(SystemStats.CpuStats.builder().name("cpu").usagePercent(cpu).logicalProcessorCount(4).build())
+                .memory(SystemStats.MemoryStats.builder().usagePercent(50).build())
+                .disk(SystemStats.DiskStats.builder().build())
+                .network(SystemStats.NetworkStats.builder().build())
+                .gpus(List.of())
+                .stale(List.of())
+                .build();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.systemmonitor.history;
+
+import com.systemmonitor.dto.HistorySeries;
+import com.systemmonitor.dto.SystemStats;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricHistoryStoreTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    private final MetricHistoryStore store = new MetricHistoryStore();
+
+    private static SystemStats sample(long timestamp, double cpu) {
+        return SystemStats.builder()
+                .timestamp(timestamp)
+                .cpu(SystemStats.CpuStats.builder().usagePercent(cpu).temperatureCelsius(null).build())
+                .build();
+    }
+
+    @Test
+    void query_withSecondStep_returnsRawSamplesInRange() {
+        for (int i = 0; i < 30; i++) {
+            store.record(sample(T0 + i * 1000L, i));
+        }
+
+        HistorySeries series = store.query(HistoryMetric.CPU_USAGE, T0 + 5_000, T0 + 9_000, 1000);
+
+        assertThat(series.getStepMs()).isEqualTo(1000);
+        assertThat(series.getTimestamps()).containsExactly(T0 + 5_000, T0 + 6_000, T0 + 7_000, T0 + 8_000, T0 + 9_000);
+        assertThat(series.getAvg()).containsExactly(5, 6, 7, 8, 9);
+    }
+
+    @Test
+    void query_withTenSecondStep_returnsRollupBucketsIncludingTheOpenOne() {
+        for (int i = 0; i < 30; i++) {
+            store.record(sample(T0 + i * 1000L, i));
+        }
+
+        HistorySeries series = store.query(HistoryMetric.CPU_USAGE, T0, T0 + 30_000, 10_000);
+
+        assertThat(series.getStepMs()).isEqualTo(10_000);
+        // T0 is a multiple of 10 s; the third bucket is still open but already reported
+        assertThat(series.getTimestamps()).containsExactly(T0, T0 + 10_000, T0 + 20_000);
+        assertThat(series.getMin()).containsExactly(0, 10, 20);
+        assertThat(series.getMax()).containsExactly(9, 19, 29);
+        assertThat(series.getAvg()).containsExactly(4.5, 14.5, 24.5);
+        assertThat(series.getP95()).containsExactly(9, 19, 29);
+    }
+
+    @Test
+    void query_youngStore_staysOnRawWhenCoarserTiersReachNoFurtherBack() {
+        long start = T0 + 5_000;
+        for (int i = 0; i < 150; i++) {
+            store.record(sample(start + i * 1000L, i));
+        }
+        long now = start + 149_000;
+
+        HistorySeries lastHour = store.query(HistoryMetric.CPU_USAGE, now - 3_600_000, now, 3_600);
+
+        assertThat(lastHour.getStepMs()).isEqualTo(1000);
+        assertThat(lastHour.getTimestamps()).hasSize(150);
+        assertThat(lastHour.getTimestamps()[149]).isEqualTo(now);
+    }
+
+    @Test
+    void query_missingValues_areSkipped() {
+        for (int i = 0; i < 5; i++) {
+            store.record(sample(T0 + i * 1000L, i));
+        }
+
+        HistorySeries series = store.query(HistoryMetric.CPU_TEMPERATURE, T0, T0 + 5_000, 1000);
+
+        assertThat(series.getTimestamps()).isEmpty();
+    }
+
+    @Test
+    void record_beyondCapacity_keepsOnlyMostRecentRawHour() {
+        for (int i = 0; i < 4000; i++) {
+            store.record(sample(T0 + i * 1000L, 1));
+        }
+
+        HistorySeries series = store.query(HistoryMetric.CPU_USAGE, T0 + 3_999_000 - 3_599_000, T0 + 4_000_000, 1000);
+
+        assertThat(series.getTimestamps()).hasSize(3600);
+        assertThat(series.getTimestamps()[0]).isEqualTo(T0 + 400_000);
+    }
+}
@@ -0,0 +1,120 @@
+package com.systemmonitor.history;
+
+import com.systemmonitor.dto.HistorySeries;
+import com.systemmonitor.dto.SystemStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentStoreTest {
+
+    /** An hour ago, aligned to the minute, so samples fall inside the default replay window. */
+    private static final long T0 = (System.currentTimeMillis() - 3_600_000L) / 60_000 * 60_000;
+
+    @TempDir
+    Path dir;
+
+    private SegmentStore newStore(MetricHistoryStore historyStore, Duration segment, Duration retention) {
+        SegmentStore store = new SegmentStore(historyStore, true, dir.toString(), segment, retention, Duration.ofHours(24));
+        store.init();
+        return store;
+    }
+
+    private static SystemStats sample(long timestamp, double cpu) {
+        return SystemStats.builder()
+                .timestamp(timestamp)
+                .cpu(SystemStats.CpuStats.builder().usagePercent(cpu).build())
+                .build();
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> s = Files.list(dir)) {
+            return s.sorted().toList();
+        }
+    }
+
+    @Test
+    void restart_recoversSegmentsAndReplaysIntoMemory() {
+        SegmentStore first = newStore(new MetricHistoryStore(), Duration.ofHours(1), Duration.ofDays(7));
+        for (int i = 0; i < 100; i++) {
+            first.append(sample(T0 + i * 1000L, i));
+        }
+        first.close();
+
+        MetricHistoryStore memory = new MetricHistoryStore();
+        SegmentStore second = newStore(memory, Duration.ofHours(1), Duration.ofDays(7));
+
+        HistorySeries fromDisk = second.query(HistoryMetric.CPU_USAGE, T0 + 10_000, T0 + 19_000, 0);
+        assertThat(fromDisk.getTimestamps()).hasSize(10);
+        assertThat(fromDisk.getAvg()[0]).isEqualTo(10.0);
+        HistorySeries replayed = memory.query(HistoryMetric.CPU_USAGE, T0, T0 + 100_000, 1000);
+        assertThat(replayed.getTimestamps()).hasSize(100);
+
+        second.append(sample(T0 + 100_000, 100));
+        assertThat(second.query(HistoryMetric.CPU_USAGE, T0, T0 + 200_000, 0).getTimestamps()).hasSize(101);
+    }
+
+    @Test
+    void query_bucketsToStepAndCapsPoints() {
+        SegmentStore store = newStore(new MetricHistoryStore(), Duration.ofMinutes(1), Duration.ofDays(7));
+        for (int i = 0; i < 100; i++) {
+            store.append(sample(T0 + i * 1000L, i));
+        }
+
+        HistorySeries tenSeconds = store.query(HistoryMetric.CPU_USAGE, T0, T0 + 99_000, 10_000);
+        assertThat(tenSeconds.getStepMs()).isEqualTo(10_000);
+        assertThat(tenSeconds.getTimestamps()).hasSize(10).startsWith(T0, T0 + 10_000);
+        assertThat(tenSeconds.getMin()[1]).isEqualTo(10.0);
+        assertThat(tenSeconds.getMax()[1]).isEqualTo(19.0);
+        assertThat(tenSeconds.getAvg()[1]).isEqualTo(14.5);
+        assertThat(tenSeconds.getP95()[1]).isEqualTo(19.0);
+
+        HistorySeries wholeWeek = store.query(HistoryMetric.CPU_USAGE, T0 - Duration.ofDays(7).toMillis(), T0 + 99_000, 0);
+        assertThat(wholeWeek.getStepMs()).isGreaterThan(60_000);
+        assertThat(wholeWeek.getTimestamps().length).isLessThanOrEqualTo(SegmentStore.MAX_POINTS);
+    }
+
+    @Test
+    void restart_dropsTornRecordAtTail() throws IOException {
+        SegmentStore first = newStore(new MetricHistoryStore(), Duration.ofHours(1), Duration.ofDays(7));
+        for (int i = 0; i < 10; i++) {
+            first.append(sample(T0 + i * 1000L, i));
+        }
+        first.close();
+        Path file = segmentFiles().get(0);
+        int recordSize = SegmentFile.recordSize(HistoryMetric.count());
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            // Corrupt the first value of the last record, as if the write was torn
+            raf.seek(SegmentFile.HEADER_SIZE + 9L * recordSize + 8);
+            raf.writeLong(0x7FF8_0000_DEAD_BEEFL);
+        }
+
+        SegmentStore second = newStore(new MetricHistoryStore(), Duration.ofHours(1), Duration.ofDays(7));
+
+        HistorySeries series = second.query(HistoryMetric.CPU_USAGE, T0, T0 + 60_000, 0);
+        assertThat(series.getTimestamps()).hasSize(9);
+        assertThat(series.getTimestamps()[8]).isEqualTo(T0 + 8_000);
+    }
+
+    @Test
+    void append_rotatesByTimeAndDeletesExpiredSegments() throws IOException {
+        SegmentStore store = newStore(new MetricHistoryStore(), Duration.ofMinutes(1), Duration.ofMinutes(2));
+        store.append(sample(T0, 1));
+        store.append(sample(T0 + 60_000, 2));
+        assertThat(segmentFiles()).hasSize(2);
+
+        store.append(sample(T0 + 10 * 60_000, 3));
+
+        assertThat(segmentFiles()).hasSize(1);
+        assertThat(store.query(HistoryMetric.CPU_USAGE, T0, T0 + 20 * 60_000, 0).getAvg()).containsExactly(3.0);
+    }
+}
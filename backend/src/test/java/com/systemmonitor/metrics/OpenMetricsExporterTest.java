@@ -0,0 +1,104 @@
+package com.systemmonitor.metrics;
+
+import com.systemmonitor.dto.SystemStats;
+import com.systemmonitor.fleet.FleetRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OpenMetricsExporterTest {
+
+    @Mock
+    private ObjectProvider<FleetRegistry> fleetProvider;
+
+    @Mock
+    private FleetRegistry fleetRegistry;
+
+    @Test
+    void scrape_exportsEveryFieldWithHostLabel() {
+        OpenMetricsExporter exporter = new OpenMetricsExporter("box-1", fleetProvider);
+        exporter.onStats(stats(1_700_000_000_000L, 12.5));
+
+        String text = new String(exporter.scrape(), StandardCharsets.UTF_8);
+
+        assertThat(text).contains(
+                "# TYPE sysmon_cpu_usage_percent gauge\n",
+                "sysmon_cpu_usage_percent{host=\"box-1\"} 12.5\n",
+                "sysmon_cpu_core_usage_percent{host=\"box-1\",core=\"1\"} 20\n",
+                "sysmon_cpu_core_frequency_hertz{host=\"box-1\",core=\"0\"} 3000000000\n",
+                "sysmon_sample_timestamp_seconds{host=\"box-1\"} 1700000000\n",
+                "sysmon_memory_used_bytes{host=\"box-1\"} 8000000000\n",
+                "sysmon_gpu_usage_percent{host=\"box-1\",gpu=\"1\",name=\"Card \\\"B\\\"\"} 70\n",
+                "sysmon_gpu_power_watts{host=\"box-1\",gpu=\"1\",name=\"Card \\\"B\\\"\"} 180.5\n",
+                "# TYPE sysmon_network_receive_bytes counter\n# UNIT sysmon_network_receive_bytes bytes\n",
+                "sysmon_network_receive_bytes_total{host=\"box-1\"} 123456\n",
+                "sysmon_network_interface_utilization_percent{host=\"box-1\",interface=\"eth0\"} 1.5\n",
+                "sysmon_disk_device_await_seconds{host=\"box-1\",device=\"sda\"} 0.004\n",
+                "sysmon_filesystem_usage_percent{host=\"box-1\",mountpoint=\"/\",device=\"/dev/sda1\"} 40\n",
+                "sysmon_collector_stale{host=\"box-1\",collector=\"gpu\"} 1\n");
+        assertThat(text).doesNotContain("sysmon_cpu_temperature_celsius{");
+        assertThat(text).endsWith("# EOF\n");
+    }
+
+    @Test
+    void scrape_isRenderedOncePerTick() {
+        OpenMetricsExporter exporter = new OpenMetricsExporter("box-1", fleetProvider);
+        exporter.onStats(stats(1000, 10));
+
+        byte[] first = exporter.scrape();
+        assertThat(exporter.scrape()).isSameAs(first);
+
+        exporter.onStats(stats(2000, 30));
+        byte[] next = exporter.scrape();
+        assertThat(next).isNotSameAs(first);
+        assertThat(new String(next, StandardCharsets.UTF_8)).contains("sysmon_cpu_usage_percent{host=\"box-1\"} 30\n");
+    }
+
+    @Test
+    void scrape_onAggregatorGroupsFleetHostsUnderEachFamily() {
+        when(fleetProvider.getIfAvailable()).thenReturn(fleetRegistry);
+        when(fleetRegistry.latestByHost()).thenReturn(Map.of("agent-a", stats(1000, 55)));
+        OpenMetricsExporter exporter = new OpenMetricsExporter("box-1", fleetProvider);
+        exporter.onStats(stats(1000, 10));
+
+        String text = new String(exporter.scrape(), StandardCharsets.UTF_8);
+
+        assertThat(text).contains("sysmon_cpu_usage_percent{host=\"box-1\"} 10\nsysmon_cpu_usage_percent{host=\"agent-a\"} 55\n");
+    }
+
+    private static SystemStats stats(long timestamp, double cpu) {
+        return SystemStats.builder()
+                .timestamp(timestamp)
+                .cpu(SystemStats.CpuStats.builder()
+                        .usagePercent(cpu)
+                        .logicalProcessorCount(2)
+                        .coreUsagePercent(new double[]{10, 20})
+                        .coreFrequencyMhz(new int[]{3000, 0})
+                        .build())
+                .memory(SystemStats.MemoryStats.builder().totalBytes(16_000_000_000L).usedBytes(8_000_000_000L).usagePercent(50).build())
+                .gpus(List.of(
+                        SystemStats.GpuStats.builder().name("Card A").usagePercent(5).build(),
+                        SystemStats.GpuStats.builder().name("Card \"B\"").usagePercent(70).temperatureCelsius(60.0)
+                                .powerWatts(180.5).build()))
+                .disk(SystemStats.DiskStats.builder()
+                        .devices(List.of(SystemStats.DiskDeviceStats.builder().name("sda").avgServiceTimeMs(4).build()))
+                        .mounts(List.of(SystemStats.MountStats.builder().mountPoint("/").device("/dev/sda1").usagePercent(40).build()))
+                        .build())
+                .network(SystemStats.NetworkStats.builder()
+                        .totalBytesReceived(123456)
+                        .interfaces(List.of(SystemStats.NetworkInterfaceStats.builder().name("eth0").utilizationPercent(1.5).build()))
+                        .build())
+                .stale(List.of("gpu"))
+                .build();
+    }
+}
@@ -0,0 +1,167 @@
+package com.systemmonitor.process;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessTableTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void update_computesRatesOverTheInterval() {
+        ProcessTable table = new ProcessTable(2);
+        sample(table, 0, 10, 0, 0, 1_000);
+        // 1 s of CPU time over 2 s on 2 cores, 4 KiB read, 2 KiB written, +500 bytes resident
+        table.beginSample();
+        table.update(10, 1, "java", null, 7, 1_000, 4_096, 2_048, 1_500, 2 * SECOND);
+        table.endSample();
+
+        int slot = table.slotOf(10);
+        assertThat(table.value(slot, ProcessMetric.CPU)).isEqualTo(25.0);
+        assertThat(table.value(slot, ProcessMetric.DISK_READ)).isEqualTo(2_048);
+        assertThat(table.value(slot, ProcessMetric.DISK_WRITE)).isEqualTo(1_024);
+        assertThat(table.value(slot, ProcessMetric.DISK)).isEqualTo(3_072);
+        assertThat(table.value(slot, ProcessMetric.MEMORY_GROWTH)).isEqualTo(250);
+        assertThat(table.value(slot, ProcessMetric.MEMORY)).isEqualTo(1_500);
+    }
+
+    @Test
+    void update_reusedPid_startsOverUnprimed() {
+        ProcessTable table = new ProcessTable(1);
+        sample(table, 0, 10, 0, 0, 0);
+        table.beginSample();
+        table.update(10, 1, "new", null, 8, 5_000, 0, 0, 0, SECOND);
+        table.endSample();
+
+        assertThat(table.value(table.slotOf(10), ProcessMetric.CPU)).isZero();
+        assertThat(table.name(table.slotOf(10))).isEqualTo("new");
+    }
+
+    @Test
+    void endSample_dropsProcessesNotSeenAndKeepsTheRestFindable() {
+        ProcessTable table = new ProcessTable(1);
+        table.beginSample();
+        for (int pid = 1; pid <= 1_000; pid++) table.update(pid, 1, "p" + pid, null, 0, 0, 0, 0, pid, 0);
+        table.endSample();
+        table.beginSample();
+        for (int pid = 2; pid <= 1_000; pid += 2) table.update(pid, 1, "p" + pid, null, 0, 0, 0, 0, pid, SECOND);
+        table.endSample();
+
+        assertThat(table.size()).isEqualTo(500);
+        for (int pid = 1; pid <= 1_000; pid++) {
+            int slot = table.slotOf(pid);
+            if (pid % 2 == 1) {
+                assertThat(slot).isEqualTo(-1);
+            } else {
+                assertThat(table.pid(slot)).isEqualTo(pid);
+            }
+        }
+    }
+
+    @Test
+    void top_returnsLargestFirstWithTiesByPid() {
+        ProcessTable table = new ProcessTable(1);
+        SplittableRandom random = new SplittableRandom(7);
+        long[] rss = new long[301];
+        table.beginSample();
+        for (int pid = 1; pid <= 300; pid++) {
+            rss[pid] = random.nextLong(50);
+            table.update(pid, 1, "p" + pid, null, 0, 0, 0, 0, rss[pid], 0);
+        }
+        table.endSample();
+
+        int[] out = new int[20];
+        int n = table.top(ProcessMetric.MEMORY, 20, out);
+
+        assertThat(n).isEqualTo(20);
+        long below = Long.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            long value = (long) table.value(out[i], ProcessMetric.MEMORY);
+            assertThat(value).isLessThanOrEqualTo(below);
+            if (i > 0 && value == below) assertThat(table.pid(out[i])).isGreaterThan(table.pid(out[i - 1]));
+            below = value;
+        }
+        long rankedOut = 0;
+        for (int pid = 1; pid <= 300; pid++) {
+            boolean ranked = false;
+            for (int i = 0; i < n; i++) ranked |= table.pid(out[i]) == pid;
+            if (!ranked) rankedOut = Math.max(rankedOut, rss[pid]);
+        }
+        assertThat(rankedOut).isLessThanOrEqualTo(below);
+    }
+
+    @Test
+    void top_withFewerProcessesThanK_returnsAll() {
+        ProcessTable table = new ProcessTable(1);
+        sample(table, 0, 3, 0, 0, 10);
+
+        assertThat(table.top(ProcessMetric.CPU, 5, new int[5])).isEqualTo(1);
+    }
+
+    @Test
+    void groups_followPerProcessChangesIncrementally() {
+        ProcessTable table = new ProcessTable(1, pid -> pid < 20 ? "/a" : "/b");
+        table.beginSample();
+        table.update(10, 1, "sh", "alice", 0, 0, 0, 0, 100, 0);
+        table.update(11, 10, "cat", "alice", 0, 0, 0, 0, 50, 0);
+        table.update(20, 1, "db", "bob", 0, 0, 0, 0, 1_000, 0);
+        table.endSample();
+        // 11 grows and does CPU work; 20 exits.
+        table.beginSample();
+        table.update(10, 1, "sh", "alice", 0, 0, 0, 0, 100, SECOND);
+        table.update(11, 10, "cat", "alice", 0, 500, 0, 0, 250, SECOND);
+        table.endSample();
+
+        ProcessGroups cgroups = table.groups(ProcessGrouping.CGROUP);
+        int a = table.groupOf(table.slotOf(10), ProcessGrouping.CGROUP);
+        assertThat(cgroups.size()).isEqualTo(1);
+        assertThat(cgroups.key(a)).isEqualTo("/a");
+        assertThat(cgroups.memberCount(a)).isEqualTo(2);
+        assertThat(cgroups.value(a, ProcessMetric.MEMORY)).isEqualTo(350);
+        assertThat(cgroups.value(a, ProcessMetric.CPU)).isEqualTo(50.0);
+        assertThat(cgroups.value(a, ProcessMetric.MEMORY_GROWTH)).isEqualTo(200);
+        ProcessGroups users = table.groups(ProcessGrouping.USER);
+        assertThat(users.size()).isEqualTo(1);
+        assertThat(users.key(table.groupOf(table.slotOf(11), ProcessGrouping.USER))).isEqualTo("alice");
+    }
+
+    @Test
+    void groups_treeIsTopLevelAncestorAndFollowsReparenting() {
+        ProcessTable table = new ProcessTable(1);
+        table.beginSample();
+        table.update(10, 1, "sshd", null, 0, 0, 0, 0, 1, 0);
+        table.update(11, 10, "bash", null, 0, 0, 0, 0, 2, 0);
+        table.update(12, 11, "vim", null, 0, 0, 0, 0, 4, 0);
+        table.endSample();
+        ProcessGroups trees = table.groups(ProcessGrouping.TREE);
+
+        int tree = table.groupOf(table.slotOf(12), ProcessGrouping.TREE);
+        assertThat(trees.key(tree)).isEqualTo("sshd (10)");
+        assertThat(trees.value(tree, ProcessMetric.MEMORY)).isEqualTo(7);
+        assertThat(table.groupOf(table.slotOf(11), ProcessGrouping.USER))
+                .isEqualTo(table.groupOf(table.slotOf(12), ProcessGrouping.USER));
+
+        // bash exits and vim is reparented to init.
+        table.beginSample();
+        table.update(10, 1, "sshd", null, 0, 0, 0, 0, 1, SECOND);
+        table.update(12, 1, "vim", null, 0, 0, 0, 0, 4, SECOND);
+        table.endSample();
+
+        assertThat(trees.size()).isEqualTo(2);
+        assertThat(trees.key(table.groupOf(table.slotOf(12), ProcessGrouping.TREE))).isEqualTo("vim (12)");
+        assertThat(trees.value(table.groupOf(table.slotOf(10), ProcessGrouping.TREE), ProcessMetric.MEMORY)).isEqualTo(1);
+        int[] out = new int[2];
+        assertThat(trees.top(ProcessMetric.MEMORY, 2, out)).isEqualTo(2);
+        assertThat(trees.key(out[0])).isEqualTo("vim (12)");
+        assertThat(table.topInGroup(ProcessGrouping.TREE, out[1], ProcessMetric.MEMORY, 5, new int[5])).isEqualTo(1);
+    }
+
+    private static void sample(ProcessTable table, long nowNanos, int pid, long cpuMillis, long readBytes, long rss) {
+        table.beginSample();
+        table.update(pid, 1, "p" + pid, null, 7, cpuMillis, readBytes, 0, rss, nowNanos);
+        table.endSample();
+    }
+}
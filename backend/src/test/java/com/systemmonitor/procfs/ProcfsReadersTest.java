@@ -0,0 +1,240 @@
+package com.systemmonitor.procfs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/** Readers run against the fixture tree in test resources/procfs, copied so tests can rewrite files. */
+class ProcfsReadersTest {
+
+    @TempDir
+    Path root;
+
+    private Procfs procfs;
+
+    @BeforeEach
+    void setUp() throws IOException, URISyntaxException {
+        Path fixtures = Paths.get(ProcfsReadersTest.class.getResource("/procfs").toURI());
+        try (Stream<Path> files = Files.walk(fixtures)) {
+            for (Path source : (Iterable<Path>) files::iterator) {
+                Path target = root.resolve(fixtures.relativize(source).toString());
+                if (Files.isDirectory(source)) Files.createDirectories(target);
+                else Files.copy(source, target);
+            }
+        }
+        procfs = new Procfs(true, root.toString());
+    }
+
+    @Test
+    void procfs_enabledOnlyWhenProcStatIsReadable() throws IOException {
+        assertThat(procfs.isEnabled()).isTrue();
+        assertThat(new Procfs(false, root.toString()).isEnabled()).isFalse();
+        assertThat(new Procfs(true, root.resolve("missing").toString()).isEnabled()).isFalse();
+    }
+
+    @Test
+    void procStat_readsAggregateAndPerCpuRows() throws IOException {
+        long[] ticks = new long[5 * ProcStatReader.TICK_FIELDS];
+
+        int rows = new ProcStatReader(procfs).read(ticks);
+
+        assertThat(rows).isEqualTo(5);
+        assertThat(ticks).startsWith(10132153, 290696, 3084719, 46828483, 16683, 0, 25195, 0);
+        assertThat(ticks[4 * ProcStatReader.TICK_FIELDS + 3]).isEqualTo(10039921);
+    }
+
+    @Test
+    void procStat_rereadsRewrittenFileWithoutAllocating() throws IOException {
+        com.sun.management.ThreadMXBean threads = allocationCountingBean();
+        ProcStatReader reader = new ProcStatReader(procfs);
+        long[] ticks = new long[ProcStatReader.TICK_FIELDS];
+        reader.read(ticks);
+        Files.writeString(procfs.proc("stat"), "cpu  1 2 3 4 5 6 7 8 9 10\nintr 0\n");
+
+        long tid = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < 1_000; i++) reader.read(ticks);
+        long allocated = threads.getThreadAllocatedBytes(tid) - before;
+
+        assertThat(ticks).containsExactly(1, 2, 3, 4, 5, 6, 7, 8);
+        assertThat(allocated).as("bytes allocated over 1000 reads").isLessThan(4 * 1024);
+    }
+
+    @Test
+    void cpuFreq_readsMhzPerCpuAndZeroWithoutCpufreq() throws IOException {
+        int[] mhz = {-1, -1, -1, -1, -1};
+
+        BitSet cpus = new BitSet();
+        cpus.set(0, 4);
+
+        new CpuFreqReader(procfs, cpus).read(mhz);
+
+        assertThat(mhz).containsExactly(3600, 800, 4500, 0, 0);
+    }
+
+    @Test
+    void procStat_offlineCpu_rowsFollowCpuIdsAndCpufreqLinesUp() throws IOException {
+        Files.writeString(procfs.proc("stat"), "cpu  40 0 0 60 0 0 0 0\n"
+                + "cpu0 10 0 0 20 0 0 0 0\ncpu1 11 0 0 21 0 0 0 0\ncpu3 13 0 0 23 0 0 0 0\nintr 0\n");
+        ProcStatReader reader = new ProcStatReader(procfs);
+        long[] ticks = new long[5 * ProcStatReader.TICK_FIELDS];
+        Arrays.fill(ticks, -1);
+        int[] mhz = new int[4];
+
+        int rows = reader.read(ticks);
+        new CpuFreqReader(procfs, reader.onlineCpus()).read(mhz);
+
+        assertThat(rows).isEqualTo(5);
+        assertThat(reader.onlineChanged()).isTrue();
+        assertThat(reader.onlineCpus().stream()).containsExactly(0, 1, 3);
+        assertThat(ticks[2 * ProcStatReader.TICK_FIELDS]).isEqualTo(11);
+        assertThat(ticks).containsSequence(0, 0, 0, 0, 0, 0, 0, 0, 13, 0, 0, 23);
+        assertThat(mhz).containsExactly(3600, 800, 0, 0);
+
+        reader.read(ticks);
+        assertThat(reader.onlineChanged()).isFalse();
+    }
+
+    @Test
+    void memInfo_readsTotalAndAvailable() throws IOException {
+        MemInfoReader reader = new MemInfoReader(procfs);
+
+        reader.read();
+
+        assertThat(reader.totalBytes()).isEqualTo(16303924L * 1024);
+        assertThat(reader.availableBytes()).isEqualTo(9514092L * 1024);
+    }
+
+    @Test
+    void memInfo_withoutMemAvailable_estimatesFromFreeBuffersCached() throws IOException {
+        Files.writeString(procfs.proc("meminfo"), "MemTotal: 1000 kB\nMemFree: 100 kB\nBuffers: 20 kB\nCached: 300 kB\n");
+        MemInfoReader reader = new MemInfoReader(procfs);
+
+        reader.read();
+
+        assertThat(reader.availableBytes()).isEqualTo(420L * 1024);
+    }
+
+    @Test
+    void diskStats_countsWholeDisksOnly() throws IOException {
+        DiskStatsReader reader = new DiskStatsReader(procfs);
+
+        reader.read();
+
+        assertThat(reader.deviceCount()).isEqualTo(2);
+        assertThat(reader.deviceName(0)).isEqualTo("nvme0n1");
+        assertThat(reader.deviceName(1)).isEqualTo("sda");
+        assertThat(reader.total(DiskStatsReader.SECTORS_READ)).isEqualTo(8_000_000L + 400_000L);
+        assertThat(reader.counter(0, DiskStatsReader.IOS_IN_PROGRESS)).isEqualTo(2);
+        assertThat(reader.counter(1, DiskStatsReader.WEIGHTED_MS_DOING_IO)).isEqualTo(16000);
+    }
+
+    @Test
+    void netDev_parsesInterfacesIncludingUnspacedCounters() throws IOException {
+        NetDevReader reader = new NetDevReader(procfs);
+
+        reader.read();
+
+        assertThat(reader.interfaceCount()).isEqualTo(3);
+        assertThat(reader.name(1)).isEqualTo("eth0");
+        assertThat(reader.rxBytes(1)).isEqualTo(123456789L);
+        assertThat(reader.txBytes(1)).isEqualTo(23456789L);
+        assertThat(reader.name(2)).isEqualTo("wlan0");
+        assertThat(reader.rxBytes(2)).isEqualTo(9876543210L);
+        assertThat(reader.txBytes(2)).isEqualTo(1234567890L);
+    }
+
+    @Test
+    void netDev_readsPacketErrorAndDropCounters() throws IOException {
+        Files.writeString(procfs.proc("net/dev"), "h1\nh2\n  eth0: 100 10 2 3 9 9 9 9 200 20 4 5 9 9 9 9\n");
+        NetDevReader reader = new NetDevReader(procfs);
+
+        reader.read();
+
+        assertThat(reader.counter(0, NetDevReader.RX_PACKETS)).isEqualTo(10);
+        assertThat(reader.counter(0, NetDevReader.RX_ERRORS)).isEqualTo(2);
+        assertThat(reader.counter(0, NetDevReader.RX_DROPS)).isEqualTo(3);
+        assertThat(reader.txBytes(0)).isEqualTo(200);
+        assertThat(reader.counter(0, NetDevReader.TX_PACKETS)).isEqualTo(20);
+        assertThat(reader.counter(0, NetDevReader.TX_ERRORS)).isEqualTo(4);
+        assertThat(reader.counter(0, NetDevReader.TX_DROPS)).isEqualTo(5);
+    }
+
+    @Test
+    void netDev_vanishedInterface_isNotPresentAndReportsChange() throws IOException {
+        NetDevReader reader = new NetDevReader(procfs);
+        assertThat(reader.read()).isTrue();
+        assertThat(reader.read()).isFalse();
+        Files.writeString(procfs.proc("net/dev"), "h1\nh2\n  eth0: 5 0 0 0 0 0 0 0 7 0 0 0 0 0 0 0\n");
+
+        assertThat(reader.read()).isTrue();
+
+        assertThat(reader.isPresent(1)).isTrue();
+        assertThat(reader.rxBytes(1)).isEqualTo(5);
+        assertThat(reader.isPresent(2)).isFalse();
+    }
+
+    @Test
+    void hwmon_prefersCpuDriverPackageSensor() throws IOException {
+        HwmonReader reader = HwmonReader.open(procfs);
+
+        assertThat(reader).isNotNull();
+        assertThat(reader.read()).isEqualTo(52.5);
+    }
+
+    @Test
+    void mounts_keepsBlockDevicesOnceAndDecodesEscapes() throws IOException {
+        MountsReader reader = new MountsReader(procfs);
+
+        assertThat(reader.refresh()).isTrue();
+
+        assertThat(reader.devices()).containsExactly("/dev/fixture0", "/dev/fixture1");
+        assertThat(reader.mountPoints()).containsExactly("/", "/no such mount");
+    }
+
+    @Test
+    void mounts_reportChangeOnlyWhenTableChanges() throws IOException {
+        MountsReader reader = new MountsReader(procfs);
+        reader.refresh();
+
+        assertThat(reader.refresh()).isFalse();
+
+        Files.writeString(procfs.proc("mounts"), Files.readString(procfs.proc("mounts"))
+                + "/dev/fixture2 /mnt/backup ext4 rw 0 0\n");
+        assertThat(reader.refresh()).isTrue();
+        assertThat(reader.devices()).containsExactly("/dev/fixture0", "/dev/fixture1", "/dev/fixture2");
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCountingBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "per-thread allocation counters unavailable");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "per-thread allocation counters unsupported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+
+    @Test
+    void cgroup_readsUnifiedPathOrSystemdHierarchyAndContainerId() {
+        CgroupReader reader = new CgroupReader(procfs);
+
+        assertThat(reader.read(100)).isEqualTo("/system.slice/nginx.service");
+        assertThat(reader.read(300)).isEqualTo("/user.slice/user-1000.slice/session-2.scope");
+        assertThat(reader.read(999)).isNull();
+        assertThat(CgroupReader.containerId(reader.read(200))).isEqualTo("4f1c2a9e7b3d");
+        assertThat(CgroupReader.containerId(reader.read(100))).isNull();
+    }
+}
@@ -0,0 +1,110 @@
+package com.systemmonitor.sampling;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SampleFrameAllocationTest {
+
+    private static final int TICKS = 10_000;
+    /** Slack for allocations made by the measurement itself. */
+    private static final long TOLERANCE_BYTES = 4 * 1024;
+
+    @Test
+    void samplingHotPath_allocatesNothingPerTick() {
+        com.sun.management.ThreadMXBean threads = allocationCountingBean();
+        SampleFrame frame = new SampleFrame();
+        SampleFrame scratch = new SampleFrame();
+        scratch.gpu.count = 2;
+        scratch.gpu.names[1] = "GPU 1";
+        CpuLoadTracker cpuLoad = new CpuLoadTracker(3, 4);
+        RateTracker rate = new RateTracker();
+        long[] ticks = new long[8];
+
+        runTicks(frame, scratch, cpuLoad, rate, ticks); // warm-up; sizes the tracker's previous-ticks array
+        long tid = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(tid);
+        double checksum = runTicks(frame, scratch, cpuLoad, rate, ticks);
+        long allocated = threads.getThreadAllocatedBytes(tid) - before;
+
+        assertThat(checksum).isPositive();
+        assertThat(allocated).as("bytes allocated over %d ticks", TICKS).isLessThan(TOLERANCE_BYTES);
+    }
+
+    @Test
+    void perCoreLoadTracker_writesEachCoreWithoutAllocating() {
+        com.sun.management.ThreadMXBean threads = allocationCountingBean();
+        PerCoreLoadTracker tracker = new PerCoreLoadTracker(3, -1);
+        int cores = 128;
+        long[] ticks = new long[8 + cores * 8];
+        double[] usage = new double[cores];
+        tracker.update(ticks, 8, cores, 8, usage);
+
+        long tid = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < TICKS; i++) {
+            for (int c = 0; c < cores; c++) {
+                ticks[8 + c * 8] += c % 4;      // user
+                ticks[8 + c * 8 + 3] += 4 - c % 4; // idle
+            }
+            tracker.update(ticks, 8, cores, 8, usage);
+        }
+        long allocated = threads.getThreadAllocatedBytes(tid) - before;
+
+        assertThat(usage[0]).isZero();
+        assertThat(usage[1]).isEqualTo(25.0);
+        assertThat(usage[127]).isEqualTo(75.0);
+        assertThat(allocated).as("bytes allocated over %d ticks", TICKS).isLessThan(TOLERANCE_BYTES);
+    }
+
+    @Test
+    void cpuLoadTracker_countsIowaitAsIdle() {
+        CpuLoadTracker tracker = new CpuLoadTracker(3, 4);
+        tracker.update(new long[]{0, 0, 0, 0, 0});
+
+        double usage = tracker.update(new long[]{30, 0, 10, 40, 20});
+
+        assertThat(usage).isEqualTo(40.0);
+    }
+
+    @Test
+    void rateTracker_usesElapsedNanosAndIgnoresCounterResets() {
+        RateTracker rate = new RateTracker();
+        rate.prime(1_000, 0);
+
+        assertThat(rate.update(3_000, 2_000_000_000L)).isEqualTo(1_000);
+        assertThat(rate.update(500, 3_000_000_000L)).isZero();
+    }
+
+    private static double runTicks(SampleFrame frame, SampleFrame scratch, CpuLoadTracker cpuLoad,
+                                   RateTracker rate, long[] ticks) {
+        double checksum = 0;
+        for (int i = 0; i < TICKS; i++) {
+            for (int t = 0; t < ticks.length; t++) {
+                ticks[t] += t + 1;
+            }
+            scratch.cpu.usagePercent = MetricMath.round(cpuLoad.update(ticks), 2);
+            scratch.disk.readBytesPerSecond = rate.update(i * 4096L, i * 1_000_000_000L);
+            scratch.gpu.usagePercent[1] = i;
+            frame.cpu.copyFrom(scratch.cpu);
+            frame.memory.copyFrom(scratch.memory);
+            frame.gpu.copyFrom(scratch.gpu);
+            frame.disk.copyFrom(scratch.disk);
+            frame.network.copyFrom(scratch.network);
+            checksum += frame.cpu.usagePercent + frame.disk.readBytesPerSecond + frame.gpu.usagePercent[1];
+        }
+        return checksum;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCountingBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "per-thread allocation counters unavailable");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "per-thread allocation counters unsupported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+}
@@ -0,0 +1,131 @@
+package com.systemmonitor.scheduler;
+
+import com.systemmonitor.dto.SystemStats;
+import com.systemmonitor.sampling.SampleFrame;
+import com.systemmonitor.service.CpuService;
+import com.systemmonitor.service.DiskService;
+import com.systemmonitor.service.GpuService;
+import com.systemmonitor.service.MemoryService;
+import com.systemmonitor.service.NetworkService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+@ExtendWith(MockitoExtension.class)
+class CollectionPipelineTest {
+
+    private static final long DEADLINE_MS = 200;
+
+    @Mock
+    private CpuService cpuService;
+
+    @Mock
+    private MemoryService memoryService;
+
+    @Mock
+    private GpuService gpuService;
+
+    @Mock
+    private DiskService diskService;
+
+    @Mock
+    private NetworkService networkService;
+
+    private CollectionPipeline pipeline;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new CollectionPipeline(cpuService, memoryService, gpuService, diskService, networkService, DEADLINE_MS,
+                new SamplingProperties(), new SimpleMeterRegistry());
+        doAnswer(inv -> {
+            inv.<SampleFrame.Memory>getArgument(0).usagePercent = 50.0;
+            return null;
+        }).when(memoryService).sample(any());
+        doAnswer(inv -> {
+            inv.<SampleFrame.Disk>getArgument(0).usagePercent = 20.0;
+            return null;
+        }).when(diskService).sample(any());
+        doAnswer(inv -> {
+            SampleFrame.Cpu cpu = inv.getArgument(0);
+            cpu.name = "Test CPU";
+            cpu.usagePercent = 10.0;
+            return null;
+        }).when(cpuService).sample(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        pipeline.shutdown();
+    }
+
+    @Test
+    void sampleDue_slowCollectorMissesDeadline_usesLastGoodValueAndMarksStale() {
+        doAnswer(inv -> {
+            SampleFrame.Gpu gpu = inv.getArgument(0);
+            gpu.names[0] = "GPU";
+            gpu.usagePercent[0] = 42.0;
+            return null;
+        }).doAnswer(inv -> {
+            SampleFrame.Gpu gpu = inv.getArgument(0);
+            gpu.usagePercent[0] = 99.0;
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(gpuService).sample(any());
+
+        SystemStats first = tick();
+        assertThat(first.getStale()).isEmpty();
+
+        long start = System.nanoTime();
+        SystemStats second = tick();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(elapsedMs).isLessThan(DEADLINE_MS + 150);
+        assertThat(second.getStale()).containsExactly("gpu");
+        assertThat(second.getGpu().getUsagePercent()).isEqualTo(42.0);
+        assertThat(second.getCpu().getUsagePercent()).isEqualTo(10.0);
+    }
+
+    @Test
+    void sampleDue_failingCollectorWithoutHistory_usesPlaceholder() {
+        doThrow(new IllegalStateException("boom")).when(gpuService).sample(any());
+
+        SystemStats stats = tick();
+
+        assertThat(stats.getStale()).containsExactly("gpu");
+        assertThat(stats.getGpus()).hasSize(1);
+        assertThat(stats.getGpu().getName()).isEqualTo("N/A");
+        assertThat(stats.getMemory().getUsagePercent()).isEqualTo(50.0);
+    }
+
+    @Test
+    void latest_isNullBeforeFirstTickThenLastSnapshot() {
+        assertThat(pipeline.latest()).isNull();
+
+        SystemStats stats = tick();
+
+        assertThat(pipeline.latest()).isSameAs(stats);
+        assertThat(stats.getDisk().getUsagePercent()).isEqualTo(20.0);
+    }
+
+    /** One tick with every collector due, as after a client subscribes. */
+    private SystemStats tick() {
+        pipeline.expedite();
+        assertThat(pipeline.sampleDue(System.nanoTime(), true)).isTrue();
+        return pipeline.snapshot();
+    }
+}
@@ -0,0 +1,85 @@
+package com.systemmonitor.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CollectorScheduleTest {
+
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private double value;
+
+    private CollectorSchedule schedule(boolean adaptive) {
+        SamplingProperties.Collector config = new SamplingProperties.Collector();
+        config.setPeriodMs(1000);
+        config.setFastPeriodMs(250);
+        config.setIdlePeriodMs(5000);
+        config.setChangeThreshold(10);
+        return new CollectorSchedule(config, adaptive, TICK, () -> value);
+    }
+
+    @Test
+    void isDue_usesFastPeriodWhileWatchedAndIdlePeriodOtherwise() {
+        CollectorSchedule schedule = schedule(true);
+        long t0 = System.nanoTime();
+        assertThat(schedule.isDue(t0, false)).isTrue();
+        schedule.sampled(t0, true);
+
+        assertThat(schedule.isDue(t0 + 250 * MS, true)).isTrue();
+        assertThat(schedule.isDue(t0 + 250 * MS, false)).isFalse();
+        assertThat(schedule.isDue(t0 + 4000 * MS, false)).isFalse();
+        assertThat(schedule.isDue(t0 + 5000 * MS, false)).isTrue();
+        assertThat(schedule.currentPeriodMs()).isEqualTo(5000.0);
+    }
+
+    @Test
+    void isDue_toleratesTickJitter() {
+        CollectorSchedule schedule = schedule(true);
+        long t0 = System.nanoTime();
+        schedule.sampled(t0, true);
+
+        assertThat(schedule.isDue(t0 + 249 * MS, true)).isTrue();
+        assertThat(schedule.isDue(t0 + 100 * MS, true)).isFalse();
+    }
+
+    @Test
+    void sampled_quickChangeUsesNormalPeriodUntilSteadyForTheHold() {
+        CollectorSchedule schedule = schedule(true);
+        long t0 = System.nanoTime();
+        value = 5;
+        schedule.sampled(t0, true);
+        value = 40;
+        schedule.sampled(t0 + 5000 * MS, true);
+
+        assertThat(schedule.isDue(t0 + 6000 * MS, false)).isTrue();
+        schedule.sampled(t0 + 6000 * MS, true);
+        long afterHold = t0 + 5000 * MS + TimeUnit.SECONDS.toNanos(CollectorSchedule.ACTIVE_HOLD_SECONDS);
+        assertThat(schedule.periodNanos(afterHold, false)).isEqualTo(5000 * MS);
+    }
+
+    @Test
+    void sampled_staleResultDoesNotCountAsChange() {
+        CollectorSchedule schedule = schedule(true);
+        long t0 = System.nanoTime();
+        value = 5;
+        schedule.sampled(t0, true);
+        value = 90;
+        schedule.sampled(t0 + 5000 * MS, false);
+
+        assertThat(schedule.periodNanos(t0 + 6000 * MS, false)).isEqualTo(5000 * MS);
+    }
+
+    @Test
+    void isDue_notAdaptive_alwaysUsesNormalPeriod() {
+        CollectorSchedule schedule = schedule(false);
+        long t0 = System.nanoTime();
+        schedule.sampled(t0, true);
+
+        assertThat(schedule.isDue(t0 + 250 * MS, true)).isFalse();
+        assertThat(schedule.isDue(t0 + 1000 * MS, false)).isTrue();
+    }
+}
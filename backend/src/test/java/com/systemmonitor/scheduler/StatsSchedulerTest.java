@@ -1,23 +1,38 @@
 package com.systemmonitor.scheduler;
 
+import com.systemmonitor.alert.AlertEngine;
+import com.systemmonitor.anomaly.AnomalyDetector;
 import com.systemmonitor.dto.SystemStats;
+import com.systemmonitor.history.MetricHistoryStore;
+import com.systemmonitor.history.SegmentStore;
+import com.systemmonitor.sampling.SampleFrame;
 import com.systemmonitor.service.CpuService;
 import com.systemmonitor.service.DiskService;
 import com.systemmonitor.service.GpuService;
 import com.systemmonitor.service.MemoryService;
 import com.systemmonitor.service.NetworkService;
+import com.systemmonitor.websocket.DeltaStatsPublisher;
+import com.systemmonitor.websocket.StatsBroadcaster;
+import com.systemmonitor.websocket.StatsSubscriptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
-import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -42,37 +57,80 @@ class StatsSchedulerTest {
     @Mock
     private NetworkService networkService;
 
-    @InjectMocks
+    @Mock
+    private SegmentStore segmentStore;
+
+    @Mock
+    private DeltaStatsPublisher deltaStatsPublisher;
+
+    @Mock
+    private StatsBroadcaster statsBroadcaster;
+
+    @Mock
+    private AlertEngine alertEngine;
+
+    @Mock
+    private AnomalyDetector anomalyDetector;
+
+    @Mock
+    private StatsListener statsListener;
+
+    @Mock
+    private StatsSubscriptions statsSubscriptions;
+
+    @Mock
+    private IdleListener idleListener;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CollectionPipeline collectionPipeline;
+
     private StatsScheduler statsScheduler;
 
+    @BeforeEach
+    void setUp() {
+        SamplingProperties sampling = new SamplingProperties();
+        SamplingProperties.Collector cpu = new SamplingProperties.Collector();
+        cpu.setFastPeriodMs(250);
+        sampling.getCollectors().put("cpu", cpu);
+        sampling.getIdle().setGraceMs(0);
+        collectionPipeline = new CollectionPipeline(cpuService, memoryService, gpuService, diskService, networkService, 500,
+                sampling, new SimpleMeterRegistry());
+        statsScheduler = new StatsScheduler(messagingTemplate, collectionPipeline, new MetricHistoryStore(), segmentStore, deltaStatsPublisher, statsBroadcaster, alertEngine, anomalyDetector, List.of(statsListener),
+                statsSubscriptions, List.of(idleListener), sampling, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        collectionPipeline.shutdown();
+    }
+
     @Test
     void pushStats_sendsStatsToTopic() {
-        when(cpuService.getCpuStats()).thenReturn(SystemStats.CpuStats.builder()
-                .name("Test CPU")
-                .usagePercent(10.0)
-                .logicalProcessorCount(8)
-                .temperatureCelsius(45.0)
-                .build());
-        when(memoryService.getMemoryStats()).thenReturn(SystemStats.MemoryStats.builder()
-                .totalBytes(16_000_000_000L)
-                .usedBytes(8_000_000_000L)
-                .availableBytes(8_000_000_000L)
-                .usagePercent(50.0)
-                .build());
-        when(gpuService.getGpuStatsList()).thenReturn(Collections.emptyList());
-        when(diskService.getDiskStats()).thenReturn(SystemStats.DiskStats.builder()
-                .readBytesPerSecond(0)
-                .writeBytesPerSecond(0)
-                .totalBytes(500_000_000_000L)
-                .usedBytes(250_000_000_000L)
-                .usagePercent(50.0)
-                .build());
-        when(networkService.getNetworkStats()).thenReturn(SystemStats.NetworkStats.builder()
-                .downloadBytesPerSecond(0)
-                .uploadBytesPerSecond(0)
-                .totalBytesReceived(0)
-                .totalBytesSent(0)
-                .build());
+        when(statsSubscriptions.isWatched()).thenReturn(true);
+        doAnswer(inv -> {
+            SampleFrame.Cpu cpu = inv.getArgument(0);
+            cpu.name = "Test CPU";
+            cpu.usagePercent = 10.0;
+            cpu.logicalProcessorCount = 8;
+            cpu.temperatureCelsius = 45.0;
+            return null;
+        }).when(cpuService).sample(any());
+        doAnswer(inv -> {
+            SampleFrame.Memory memory = inv.getArgument(0);
+            memory.totalBytes = 16_000_000_000L;
+            memory.usedBytes = 8_000_000_000L;
+            memory.availableBytes = 8_000_000_000L;
+            memory.usagePercent = 50.0;
+            return null;
+        }).when(memoryService).sample(any());
+        doAnswer(inv -> {
+            SampleFrame.Disk disk = inv.getArgument(0);
+            disk.totalBytes = 500_000_000_000L;
+            disk.usedBytes = 250_000_000_000L;
+            disk.usagePercent = 50.0;
+            return null;
+        }).when(diskService).sample(any());
 
         statsScheduler.pushStats();
 
@@ -86,5 +144,70 @@ class StatsSchedulerTest {
         assertThat(sent.getDisk()).isNotNull();
         assertThat(sent.getNetwork()).isNotNull();
         assertThat(sent.getTimestamp()).isPositive();
+        assertThat(sent.getStale()).isEmpty();
+        verify(deltaStatsPublisher).publish(sent);
+        verify(statsBroadcaster).broadcast(sent);
+        verify(alertEngine).evaluate(sent);
+        verify(anomalyDetector).evaluate(sent);
+        verify(statsListener).onStats(sent);
+    }
+
+    @Test
+    void pushStats_recordsTickAndPhaseTimers() {
+        statsScheduler.pushStats();
+
+        assertThat(meterRegistry.get("stats.tick.duration").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("stats.tick.phase").tag("phase", "collect").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("stats.tick.phase").tag("phase", "listeners").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("stats.tick.overrun").counter().count()).isZero();
+        assertThat(meterRegistry.get("stats.tick.missed").counter().count()).isZero();
+        assertThat(meterRegistry.get("stats.idle").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void tick_betweenRecordTicks_pushesFastSamplesOnlyWhileWatched() {
+        long start = System.nanoTime();
+        statsScheduler.tick(start, true, true);
+
+        statsScheduler.tick(start + TimeUnit.MILLISECONDS.toNanos(250), false, true);
+
+        verify(cpuService, times(2)).sample(any());
+        verify(memoryService, times(1)).sample(any());
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/stats"), any(SystemStats.class));
+        verify(statsBroadcaster, times(2)).broadcast(any());
+        verify(alertEngine, times(1)).evaluate(any());
+        verify(statsListener, times(1)).onStats(any());
+
+        statsScheduler.tick(start + TimeUnit.MILLISECONDS.toNanos(500), false, false);
+
+        verify(cpuService, times(2)).sample(any());
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/stats"), any(SystemStats.class));
+    }
+
+    @Test
+    void pushStats_withoutWatchers_goesIdleAndResumesOnTheFirstTickWithOne() {
+        statsScheduler.pushStats();
+
+        assertThat(statsScheduler.isIdle()).isTrue();
+        verify(idleListener).onIdleChanged(true);
+        verify(alertEngine).evaluate(any());
+        verify(statsListener).onStats(any());
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/stats"), any(SystemStats.class));
+        verify(statsBroadcaster, never()).broadcast(any());
+
+        statsScheduler.pushStats();
+
+        verify(cpuService, times(1)).sample(any());
+
+        when(statsSubscriptions.isWatched()).thenReturn(true);
+        statsScheduler.pushStats();
+
+        assertThat(statsScheduler.isIdle()).isFalse();
+        verify(idleListener).onIdleChanged(false);
+        verify(cpuService, times(2)).sample(any());
+        verify(memoryService, times(2)).sample(any());
+        verify(alertEngine, times(2)).evaluate(any());
+        verify(messagingTemplate).convertAndSend(eq("/topic/stats"), any(SystemStats.class));
+        verify(statsBroadcaster).broadcast(any());
     }
 }
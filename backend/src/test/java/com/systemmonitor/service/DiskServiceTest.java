@@ -0,0 +1,126 @@
+package com.systemmonitor.service;
+
+import com.systemmonitor.procfs.Procfs;
+import com.systemmonitor.sampling.SampleFrame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import oshi.SystemInfo;
+import oshi.hardware.HWDiskStore;
+import oshi.hardware.HardwareAbstractionLayer;
+import oshi.software.os.FileSystem;
+import oshi.software.os.OSFileStore;
+import oshi.software.os.OperatingSystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DiskServiceTest {
+
+    @Mock
+    private SystemInfo systemInfo;
+
+    @TempDir
+    Path root;
+
+    @Test
+    void sample_withProcfs_reportsPerDeviceRatesAndVisibleMounts() throws IOException {
+        Files.createDirectories(root.resolve("proc"));
+        Files.createDirectories(root.resolve("sys/block/sda"));
+        Files.writeString(root.resolve("proc/stat"), "cpu  1 1 1 1 1 1 1 1\n");
+        Files.writeString(root.resolve("proc/mounts"), "proc /proc proc rw 0 0\n"
+                + "/dev/sda1 / ext4 rw 0 0\n"
+                + "/dev/sdb1 /no\\040such\\040mount ext4 rw 0 0\n");
+        writeDiskStats(0, 0, 0, 0, 0, 0, 0);
+        DiskService service = new DiskService(systemInfo, new Procfs(true, root.toString()), 30_000);
+        service.init();
+        // 30 reads + 10 writes taking 120 ms in all; 8 MiB read, 2 MiB written
+        writeDiskStats(30, 16_384, 90, 10, 4_096, 30, 50);
+
+        SampleFrame.Disk out = new SampleFrame.Disk();
+        service.sample(out);
+
+        assertThat(out.deviceCount).isEqualTo(1);
+        assertThat(out.deviceNames[0]).isEqualTo("sda");
+        assertThat(out.deviceReadIops[0]).isPositive();
+        assertThat(out.deviceWriteBytesPerSecond[0]).isPositive();
+        assertThat(out.deviceServiceTimeMs[0]).isEqualTo(3.0);
+        assertThat(out.readBytesPerSecond).isEqualTo(out.deviceReadBytesPerSecond[0]);
+        assertThat(out.mountCount).isEqualTo(1);
+        assertThat(out.mountPoints[0]).isEqualTo("/");
+        assertThat(out.mountDevices[0]).isEqualTo("/dev/sda1");
+        assertThat(out.totalBytes).isEqualTo(out.mountTotalBytes[0]).isPositive();
+        assertThat(out.toDto().getMounts().get(0).getUsagePercent()).isBetween(0.0, 100.0);
+        verifyNoInteractions(systemInfo);
+    }
+
+    @Test
+    void sample_withoutProcfs_usesOshiDisksAndFileStores() {
+        HardwareAbstractionLayer hal = mock(HardwareAbstractionLayer.class);
+        HWDiskStore disk = mock(HWDiskStore.class);
+        when(disk.getName()).thenReturn("disk0");
+        when(disk.getReadBytes()).thenReturn(1_000L);
+        when(disk.getCurrentQueueLength()).thenReturn(3L);
+        when(systemInfo.getHardware()).thenReturn(hal);
+        when(hal.getDiskStores()).thenReturn(List.of(disk));
+        OperatingSystem os = mock(OperatingSystem.class);
+        FileSystem fileSystem = mock(FileSystem.class);
+        OSFileStore store = mock(OSFileStore.class);
+        when(store.getType()).thenReturn("ext4");
+        when(store.getMount()).thenReturn("/");
+        when(store.getVolume()).thenReturn("/dev/disk0s1");
+        when(systemInfo.getOperatingSystem()).thenReturn(os);
+        when(os.getFileSystem()).thenReturn(fileSystem);
+        when(fileSystem.getFileStores()).thenReturn(List.of(store));
+        DiskService service = new DiskService(systemInfo, new Procfs(true, root.resolve("missing").toString()), 30_000);
+        service.init();
+
+        SampleFrame.Disk out = new SampleFrame.Disk();
+        service.sample(out);
+
+        assertThat(out.deviceCount).isEqualTo(1);
+        assertThat(out.deviceNames[0]).isEqualTo("disk0");
+        assertThat(out.deviceQueueLength[0]).isEqualTo(3.0);
+        assertThat(out.mountCount).isEqualTo(1);
+        assertThat(out.mountDevices[0]).isEqualTo("/dev/disk0s1");
+    }
+
+    @Test
+    void sample_withProcfs_counterResetOnOneDisk_keepsTheOthersInTheAggregate() throws IOException {
+        Files.createDirectories(root.resolve("proc"));
+        Files.createDirectories(root.resolve("sys/block/sda"));
+        Files.createDirectories(root.resolve("sys/block/sdb"));
+        Files.writeString(root.resolve("proc/stat"), "cpu  1 1 1 1 1 1 1 1\n");
+        Files.writeString(root.resolve("proc/mounts"), "");
+        Files.writeString(root.resolve("proc/diskstats"), "   8       0 sda 1 0 1000 0 0 0 0 0 0 0 0\n"
+                + "   8      16 sdb 1 0 900000 0 0 0 0 0 0 0 0\n");
+        DiskService service = new DiskService(systemInfo, new Procfs(true, root.toString()), 30_000);
+        service.init();
+        Files.writeString(root.resolve("proc/diskstats"), "   8       0 sda 2 0 5000 0 0 0 0 0 0 0 0\n"
+                + "   8      16 sdb 1 0 10 0 0 0 0 0 0 0 0\n");
+
+        SampleFrame.Disk out = new SampleFrame.Disk();
+        service.sample(out);
+
+        assertThat(out.deviceCount).isEqualTo(2);
+        assertThat(out.deviceReadBytesPerSecond[0]).isPositive();
+        assertThat(out.deviceReadBytesPerSecond[1]).isZero();
+        assertThat(out.readBytesPerSecond).isEqualTo(out.deviceReadBytesPerSecond[0]);
+    }
+
+    private void writeDiskStats(long reads, long sectorsRead, long msReading,
+                                long writes, long sectorsWritten, long msWriting, long msDoingIo) throws IOException {
+        Files.writeString(root.resolve("proc/diskstats"), "   8       0 sda " + reads + " 0 " + sectorsRead + " "
+                + msReading + " " + writes + " 0 " + sectorsWritten + " " + msWriting + " 0 " + msDoingIo + " 0\n");
+    }
+}
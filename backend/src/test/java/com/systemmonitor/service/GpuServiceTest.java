@@ -14,6 +14,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -73,4 +74,38 @@ class GpuServiceTest {
         assertThat(result.getName()).isEqualTo("N/A");
         assertThat(result.getUsagePercent()).isZero();
     }
+
+    @Test
+    void getGpuStatsList_nvidiaCards_useSmiReadingOfMatchingModel() {
+        GraphicsCard igpu = card("Intel(R) UHD Graphics", 1L << 30);
+        GraphicsCard first = card("NVIDIA GeForce RTX 3060", 4L << 30);
+        GraphicsCard second = card("NVIDIA GeForce RTX 3090", 4L << 30);
+        when(systemInfo.getHardware()).thenReturn(hal);
+        when(hal.getGraphicsCards()).thenReturn(List.of(igpu, first, second));
+        // nvidia-smi lists the 3090 first; OSHI enumerated the 3060 first
+        when(nvidiaSmiService.reading("NVIDIA GeForce RTX 3060", 0))
+                .thenReturn(new NvidiaSmiService.GpuReading(1, "NVIDIA GeForce RTX 3060", 12.5, 50, 2L << 30, 12L << 30, 100, 0));
+        when(nvidiaSmiService.reading("NVIDIA GeForce RTX 3090", 0))
+                .thenReturn(new NvidiaSmiService.GpuReading(0, "NVIDIA GeForce RTX 3090", 80, 70, 20L << 30, 24L << 30, Double.NaN, 0));
+
+        List<SystemStats.GpuStats> result = gpuService.getGpuStatsList();
+
+        assertThat(result).hasSize(3);
+        assertThat(result.get(0).getVramUsedBytes()).isZero();
+        assertThat(result.get(1).getUsagePercent()).isEqualTo(12.5);
+        assertThat(result.get(1).getVramUsedBytes()).isEqualTo(2L << 30);
+        assertThat(result.get(1).getVramTotalBytes()).isEqualTo(12L << 30);
+        assertThat(result.get(1).getPowerWatts()).isEqualTo(100.0);
+        assertThat(result.get(0).getPowerWatts()).isNull();
+        assertThat(result.get(2).getPowerWatts()).isNull();
+        assertThat(result.get(2).getTemperatureCelsius()).isEqualTo(70.0);
+        assertThat(result.get(2).getVramUsedBytes()).isEqualTo(20L << 30);
+    }
+
+    private static GraphicsCard card(String name, long vram) {
+        GraphicsCard card = mock(GraphicsCard.class);
+        when(card.getName()).thenReturn(name);
+        when(card.getVRam()).thenReturn(vram);
+        return card;
+    }
 }
@@ -0,0 +1,87 @@
+package com.systemmonitor.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Golden fixtures: lhm/NAME.expected.json holds the readings the original JsonNode tree walk produced for
+ * lhm/NAME.json, so the streaming parser must match them exactly.
+ */
+class LhmSensorParserTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LhmSensorParser parser = new LhmSensorParser();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"small", "medium", "large", "sensors-flat", "wrapped", "edge-cases"})
+    void parse_matchesGoldenReadings(String fixture) throws IOException {
+        JsonNode expected = MAPPER.readTree(resource(fixture + ".expected.json"));
+
+        LhmSensorParser.Readings readings = parser.parse(resource(fixture + ".json"));
+
+        assertThat(readings.cpuTemp()).isEqualTo(doubleOrNull(expected.get("cpuTemp")));
+        assertThat(readings.gpuTemp()).isEqualTo(doubleOrNull(expected.get("gpuTemp")));
+        assertThat(readings.gpuLoad()).isEqualTo(doubleOrNull(expected.get("gpuLoad")));
+        assertThat(readings.gpuTempsByName()).isEqualTo(toMap(expected.get("gpuTempsByName")));
+        assertThat(readings.gpuLoadsByName()).isEqualTo(toMap(expected.get("gpuLoadsByName")));
+    }
+
+    @Test
+    void parse_reusedAcrossBodies_doesNotLeakPreviousReadings() throws IOException {
+        parser.parse(resource("large.json"));
+
+        LhmSensorParser.Readings readings = parser.parse(resource("small.json"));
+
+        assertThat(readings.gpuTemp()).isNull();
+        assertThat(readings.gpuTempsByName()).isEmpty();
+        assertThat(readings.cpuTemp()).isEqualTo(55.2);
+    }
+
+    @Test
+    void parse_keywordSpanningPathSegments_classifiesAsCpu() throws IOException {
+        // "core" + " " + "#1" only forms "core #" across the parent/child boundary
+        String json = "[{\"Text\":\"Sensors\",\"Identifier\":\"/lpc/core\",\"Children\":[{\"Text\":\"#1 GPU\",\"Type\":\"Temperature\",\"Value\":\"64 °C\"}]}]";
+
+        LhmSensorParser.Readings readings = parser.parse(json);
+
+        assertThat(readings.cpuTemp()).isEqualTo(64.0);
+        assertThat(readings.gpuTemp()).isNull();
+    }
+
+    @Test
+    void parse_malformedJson_throws() {
+        assertThatThrownBy(() -> parser.parse("{\"Children\": [ {\"Text\": "))
+                .isInstanceOf(JsonProcessingException.class);
+    }
+
+    private static Double doubleOrNull(JsonNode node) {
+        return node == null || node.isNull() ? null : node.doubleValue();
+    }
+
+    private static Map<String, Double> toMap(JsonNode node) {
+        Map<String, Double> map = new HashMap<>();
+        node.fields().forEachRemaining(e -> map.put(e.getKey(), e.getValue().doubleValue()));
+        return map;
+    }
+
+    private static String resource(String name) throws IOException {
+        try (InputStream in = LhmSensorParserTest.class.getResourceAsStream("/lhm/" + name)) {
+            if (in == null) throw new IOException("Missing test resource lhm/" + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.systemmonitor.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/** Polls a local stub standing in for LHM's /data.json. */
+class LibreHardwareMonitorServiceTest {
+
+    private static final long POLL_MS = 20;
+
+    private HttpServer server;
+    private LibreHardwareMonitorService service;
+
+    private volatile int status = 200;
+    private volatile byte[] body;
+    private volatile boolean gzipSupported;
+    private volatile String etag;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        body = resource("small.json");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/data.json", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) service.stop();
+        if (server != null) server.stop(0);
+    }
+
+    @Test
+    void poll_populatesGettersInBackground() {
+        service = start(1000);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> service.getCpuTemperature() != null);
+
+        assertThat(service.getCpuTemperature()).isEqualTo(55.2);
+        assertThat(service.getStatus().reachable()).isTrue();
+        assertThat(service.getStatus().httpOk()).isTrue();
+    }
+
+    @Test
+    void poll_unchangedBody_isNotReparsedAndReusesConnection() {
+        service = start(1000);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> requests.get() >= 5);
+
+        assertThat(service.parseCount()).isEqualTo(1);
+        assertThat(clientPorts).hasSize(1);
+    }
+
+    @Test
+    void poll_changedBody_isParsedAgain() throws IOException {
+        service = start(1000);
+        await().atMost(Duration.ofSeconds(5)).until(() -> service.getCpuTemperature() != null);
+
+        body = resource("large.json");
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> service.getGpuTemperature() != null);
+        assertThat(service.parseCount()).isEqualTo(2);
+    }
+
+    @Test
+    void poll_gzipResponse_isDecoded() {
+        gzipSupported = true;
+        service = start(1000);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> service.getCpuTemperature() != null);
+
+        assertThat(service.getCpuTemperature()).isEqualTo(55.2);
+    }
+
+    @Test
+    void poll_notModified_keepsReadingsWithoutParsing() {
+        etag = "\"v1\"";
+        service = start(1000);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> notModified.get() >= 3);
+
+        assertThat(service.parseCount()).isEqualTo(1);
+        assertThat(service.getCpuTemperature()).isEqualTo(55.2);
+    }
+
+    @Test
+    void poll_serverFailing_backsOffExponentiallyUpToMax() {
+        status = 500;
+        service = start(100);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> service.currentDelayMs() == 100);
+
+        assertThat(service.getCpuTemperature()).isNull();
+        assertThat(service.getStatus().error()).isEqualTo("HTTP 500");
+        assertThat(requests.get()).isLessThan(10);
+    }
+
+    @Test
+    void poll_recovers_resetsDelayToPollInterval() {
+        status = 500;
+        service = start(60_000);
+        await().atMost(Duration.ofSeconds(5)).until(() -> service.currentDelayMs() >= 4 * POLL_MS);
+
+        status = 200;
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> service.getCpuTemperature() != null);
+        assertThat(service.currentDelayMs()).isEqualTo(POLL_MS);
+    }
+
+    @Test
+    void onIdleChanged_slowsPollingWhileIdleAndPollsAtOnceOnResume() {
+        service = start(1000);
+        await().atMost(Duration.ofSeconds(5)).until(() -> service.getCpuTemperature() != null);
+
+        service.onIdleChanged(true);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> service.currentDelayMs() == 5000);
+        int idleRequests = requests.get();
+        service.onIdleChanged(false);
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> requests.get() > idleRequests);
+        await().atMost(Duration.ofSeconds(2)).until(() -> service.currentDelayMs() == POLL_MS);
+    }
+
+    private LibreHardwareMonitorService start(long maxBackoffMs) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+        LibreHardwareMonitorService s = new LibreHardwareMonitorService(url, POLL_MS, maxBackoffMs, 5000, new SimpleMeterRegistry());
+        s.start();
+        return s;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        exchange.getRequestBody().readAllBytes();
+        if (status != 200) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        if (etag != null && etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModified.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        byte[] out = body;
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (gzipSupported && accept != null && accept.contains("gzip")) {
+            out = gzip(out);
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        if (etag != null) exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, out.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(out);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(bytes)) {
+            gz.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] resource(String name) throws IOException {
+        try (InputStream in = LibreHardwareMonitorServiceTest.class.getResourceAsStream("/lhm/" + name)) {
+            return in.readAllBytes();
+        }
+    }
+}
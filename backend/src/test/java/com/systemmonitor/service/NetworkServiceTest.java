@@ -0,0 +1,148 @@
+package com.systemmonitor.service;
+
+import com.systemmonitor.procfs.Procfs;
+import com.systemmonitor.sampling.SampleFrame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import oshi.SystemInfo;
+import oshi.hardware.HardwareAbstractionLayer;
+import oshi.hardware.NetworkIF;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NetworkServiceTest {
+
+    @Mock
+    private SystemInfo systemInfo;
+
+    @Mock
+    private HardwareAbstractionLayer hal;
+
+    @TempDir
+    Path root;
+
+    @Test
+    void sample_withProcfs_sumsNonLoopbackInterfacesWithoutOshi() throws IOException {
+        Files.createDirectories(root.resolve("proc/net"));
+        Files.writeString(root.resolve("proc/stat"), "cpu  1 1 1 1 1 1 1 1\n");
+        writeNetDev(0, 0);
+        NetworkService service = new NetworkService(systemInfo, new Procfs(true, root.toString()), "", NetworkService.DEFAULT_EXCLUDE);
+        service.init();
+        writeNetDev(3_000, 1_000);
+
+        SampleFrame.Network out = new SampleFrame.Network();
+        service.sample(out);
+
+        assertThat(out.totalBytesReceived).isEqualTo(3_000 + 10);
+        assertThat(out.totalBytesSent).isEqualTo(1_000 + 20);
+        assertThat(out.downloadBytesPerSecond).isPositive();
+        verifyNoInteractions(systemInfo);
+    }
+
+    @Test
+    void sample_withoutProcfs_fallsBackToOshi() {
+        NetworkIF eth = mock(NetworkIF.class);
+        when(eth.getName()).thenReturn("eth0");
+        when(eth.getBytesRecv()).thenReturn(500L);
+        when(eth.getBytesSent()).thenReturn(200L);
+        when(systemInfo.getHardware()).thenReturn(hal);
+        when(hal.getNetworkIFs()).thenReturn(List.of(eth));
+        NetworkService service = new NetworkService(systemInfo, new Procfs(true, root.resolve("missing").toString()), "", NetworkService.DEFAULT_EXCLUDE);
+        service.init();
+
+        SampleFrame.Network out = new SampleFrame.Network();
+        service.sample(out);
+
+        assertThat(out.totalBytesReceived).isEqualTo(500);
+        assertThat(out.totalBytesSent).isEqualTo(200);
+    }
+
+    @Test
+    void sample_withProcfs_reportsPerInterfaceRatesSpeedAndUtilization() throws IOException {
+        Files.createDirectories(root.resolve("proc/net"));
+        Files.createDirectories(root.resolve("sys/class/net/eth0"));
+        Files.writeString(root.resolve("proc/stat"), "cpu  1 1 1 1 1 1 1 1\n");
+        Files.writeString(root.resolve("sys/class/net/eth0/speed"), "1\n");
+        writeNetDev(0, 0);
+        NetworkService service = new NetworkService(systemInfo, new Procfs(true, root.toString()), "", NetworkService.DEFAULT_EXCLUDE);
+        service.init();
+        writeNetDev(3_000_000, 1_000);
+
+        SampleFrame.Network out = new SampleFrame.Network();
+        service.sample(out);
+
+        assertThat(out.interfaceCount).isEqualTo(2);
+        assertThat(out.interfaceNames[0]).isEqualTo("eth0");
+        assertThat(out.interfaceLinkSpeedBitsPerSecond[0]).isEqualTo(1_000_000);
+        assertThat(out.interfaceDownloadPacketsPerSecond[0]).isPositive();
+        assertThat(out.interfaceErrorsPerSecond[0]).isPositive();
+        assertThat(out.interfaceDropsPerSecond[0]).isZero();
+        assertThat(out.interfaceUtilizationPercent[0]).isPositive();
+        assertThat(out.interfaceNames[1]).isEqualTo("wlan0");
+        assertThat(out.interfaceLinkSpeedBitsPerSecond[1]).isZero();
+        assertThat(out.interfaceUtilizationPercent[1]).isZero();
+    }
+
+    @Test
+    void sample_withProcfs_appliesIncludeAndExcludePatternsWhenInterfacesChange() throws IOException {
+        Files.createDirectories(root.resolve("proc/net"));
+        Files.writeString(root.resolve("proc/stat"), "cpu  1 1 1 1 1 1 1 1\n");
+        writeNetDev(100, 100);
+        NetworkService service = new NetworkService(systemInfo, new Procfs(true, root.toString()), "eth*,docker*", "docker*");
+        service.init();
+        Files.writeString(root.resolve("proc/net/dev"), Files.readString(root.resolve("proc/net/dev"))
+                + "  eth1: 500 1 0 0 0 0 0 0 500 1 0 0 0 0 0 0\n"
+                + "docker0: 700 1 0 0 0 0 0 0 700 1 0 0 0 0 0 0\n");
+
+        SampleFrame.Network out = new SampleFrame.Network();
+        service.sample(out);
+
+        assertThat(Arrays.copyOf(out.interfaceNames, out.interfaceCount)).containsExactly("eth0", "eth1");
+        assertThat(out.totalBytesReceived).isEqualTo(100 + 500);
+    }
+
+    @Test
+    void sample_withProcfs_interfaceAppearing_isNotCountedAsTraffic() throws IOException {
+        Files.createDirectories(root.resolve("proc/net"));
+        Files.writeString(root.resolve("proc/stat"), "cpu  1 1 1 1 1 1 1 1\n");
+        writeNetDev(1_000, 1_000);
+        NetworkService service = new NetworkService(systemInfo, new Procfs(true, root.toString()), "", NetworkService.DEFAULT_EXCLUDE);
+        service.init();
+        SampleFrame.Network out = new SampleFrame.Network();
+        String withUsb = "  usb0: 50000000000 1 0 0 0 0 0 0 40000000000 1 0 0 0 0 0 0\n";
+
+        writeNetDev(2_000, 1_000);
+        Files.writeString(root.resolve("proc/net/dev"), Files.readString(root.resolve("proc/net/dev")) + withUsb);
+        service.sample(out);
+        assertThat(out.interfaceCount).isEqualTo(3);
+        assertThat(out.downloadBytesPerSecond).isZero();
+        assertThat(out.uploadBytesPerSecond).isZero();
+
+        writeNetDev(3_000, 1_000);
+        Files.writeString(root.resolve("proc/net/dev"), Files.readString(root.resolve("proc/net/dev")) + withUsb);
+        service.sample(out);
+        assertThat(out.downloadBytesPerSecond).isPositive().isEqualTo(out.interfaceDownloadBytesPerSecond[0]);
+        assertThat(out.uploadBytesPerSecond).isZero();
+    }
+
+    private void writeNetDev(long ethRx, long ethTx) throws IOException {
+        Files.writeString(root.resolve("proc/net/dev"), "Inter-|   Receive |  Transmit\n face |bytes |bytes\n"
+                + "    lo: 999 0 0 0 0 0 0 0 999 0 0 0 0 0 0 0\n"
+                + "  eth0: " + ethRx + " " + ethRx / 1000 + " " + ethRx / 100_000 + " 0 0 0 0 0 "
+                + ethTx + " " + ethTx / 1000 + " 0 0 0 0 0 0\n"
+                + " wlan0: 10 0 0 0 0 0 0 0 20 0 0 0 0 0 0 0\n");
+    }
+}
@@ -0,0 +1,114 @@
+package com.systemmonitor.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/** Runs the sampler against fake nvidia-smi shell scripts that emit CSV. */
+@DisabledOnOs(OS.WINDOWS)
+class NvidiaSmiServiceTest {
+
+    private static final long MIB = 1024L * 1024L;
+
+    @TempDir
+    Path dir;
+
+    private NvidiaSmiService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) service.stop();
+    }
+
+    @Test
+    void sampler_tracksEveryGpuByIndex() throws IOException {
+        Path script = script("""
+                echo "0, 45, 61, 1024, 8192, 75.52, NVIDIA GeForce RTX 3060"
+                echo "1, 3, 40, 512, 4096, [N/A], NVIDIA GeForce RTX 3060"
+                exec sleep 30
+                """);
+        service = start(script, 1000);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> service.reading(1) != null);
+
+        NvidiaSmiService.GpuReading gpu0 = service.reading(0);
+        assertThat(gpu0.utilizationPercent()).isEqualTo(45.0);
+        assertThat(gpu0.temperatureCelsius()).isEqualTo(61.0);
+        assertThat(gpu0.memoryUsedBytes()).isEqualTo(1024 * MIB);
+        assertThat(gpu0.memoryTotalBytes()).isEqualTo(8192 * MIB);
+        assertThat(gpu0.powerWatts()).isEqualTo(75.52);
+        assertThat(gpu0.name()).isEqualTo("NVIDIA GeForce RTX 3060");
+        assertThat(service.reading("NVIDIA GeForce RTX 3060", 1).index()).isEqualTo(1);
+        assertThat(service.reading("GA106 [GeForce RTX 3060 Lite Hash Rate]", 0).index()).isZero();
+        assertThat(service.reading("NVIDIA GeForce RTX 3060", 2)).isNull();
+        assertThat(service.reading(1).memoryUsedBytes()).isEqualTo(512 * MIB);
+        assertThat(service.reading(1).powerWatts()).isNaN();
+        assertThat(service.getUsagePercent()).isEqualTo(45.0);
+        assertThat(service.hasData()).isTrue();
+        assertThat(service.starts()).isEqualTo(1);
+    }
+
+    @Test
+    void sampler_processDies_isRestarted() throws IOException {
+        Path script = script("""
+                echo "0, 10, 50, 100, 1000, 20, Tesla T4"
+                exit 1
+                """);
+        service = start(script, 10);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> service.starts() >= 3);
+
+        assertThat(service.reading(0)).isNotNull();
+    }
+
+    @Test
+    void sampler_missingCommand_reportsNoData() {
+        service = start(dir.resolve("no-such-nvidia-smi"), 10);
+
+        await().during(Duration.ofMillis(200)).atMost(Duration.ofSeconds(1)).until(() -> !service.hasData());
+
+        assertThat(service.getUsagePercent()).isNaN();
+    }
+
+    @Test
+    void parseLine_errorOutput_isIgnored() {
+        assertThat(NvidiaSmiService.parseLine("NVIDIA-SMI has failed because it couldn't communicate with the NVIDIA driver.", 0)).isNull();
+        assertThat(NvidiaSmiService.parseLine("0, [Not Supported], 55, 300, 4096, [N/A], Tesla T4", 0).utilizationPercent()).isNaN();
+        assertThat(NvidiaSmiService.parseLine("0, 1, 55, 300, 4096, 70", 0)).isNull();
+    }
+
+    @Test
+    void sameModel_ignoresVendorPrefixAndCaseAndPrefersExactNames() {
+        assertThat(NvidiaSmiService.sameModel("NVIDIA GeForce RTX 3090", "GeForce RTX 3090", false)).isTrue();
+        assertThat(NvidiaSmiService.sameModel("NVIDIA GeForce RTX 3090", "nvidia geforce rtx 3090", false)).isTrue();
+        assertThat(NvidiaSmiService.sameModel("NVIDIA GeForce RTX 3060", "NVIDIA GeForce RTX 3060 Ti", false)).isFalse();
+        assertThat(NvidiaSmiService.sameModel("NVIDIA GeForce RTX 3060", "NVIDIA GeForce RTX 3060 Ti", true)).isTrue();
+        assertThat(NvidiaSmiService.sameModel("NVIDIA A100, PCIe", "A100", true)).isTrue();
+        assertThat(NvidiaSmiService.sameModel("NVIDIA ", "NVIDIA GeForce RTX 3060", true)).isFalse();
+    }
+
+    private NvidiaSmiService start(Path command, long restartDelayMs) {
+        NvidiaSmiService s = new NvidiaSmiService(true, command.toString(), 1000, restartDelayMs, restartDelayMs * 4,
+                new SimpleMeterRegistry());
+        s.start();
+        return s;
+    }
+
+    private Path script(String body) throws IOException {
+        Path script = dir.resolve("nvidia-smi");
+        Files.writeString(script, "#!/bin/sh\n" + body);
+        assertThat(script.toFile().setExecutable(true)).isTrue();
+        return script;
+    }
+}
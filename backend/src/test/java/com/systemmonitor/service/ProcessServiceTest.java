@@ -0,0 +1,101 @@
+package com.systemmonitor.service;
+
+import com.systemmonitor.dto.ProcessGroupStats;
+import com.systemmonitor.dto.ProcessInfo;
+import com.systemmonitor.procfs.Procfs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import oshi.SystemInfo;
+import oshi.software.os.OSProcess;
+
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessServiceTest {
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private SystemInfo systemInfo;
+
+    @Test
+    void getTopProcesses_ranksByIntervalRatesNotLifetimeTotals() throws InterruptedException {
+        when(systemInfo.getHardware().getProcessor().getLogicalProcessorCount()).thenReturn(1);
+        OSProcess veteran = process(100, "veteran", 1_000_000L);
+        OSProcess busy = process(200, "busy", 0L);
+        when(systemInfo.getOperatingSystem().getProcesses()).thenReturn(List.of(veteran, busy));
+        ProcessService service = new ProcessService(systemInfo, new Procfs(false, "/"), 2000);
+        service.sample();
+        // Over this interval only "busy" uses CPU and writes to disk.
+        when(busy.getKernelTime()).thenReturn(50L);
+        when(busy.getBytesWritten()).thenReturn(1L << 20);
+        Thread.sleep(20);
+        service.sample();
+
+        List<ProcessInfo> cpu = service.getTopProcesses("cpu", 25);
+        List<ProcessInfo> disk = service.getTopProcesses("DISK", 1);
+
+        assertThat(cpu).extracting(ProcessInfo::getName).containsExactly("busy", "veteran");
+        assertThat(cpu.get(0).getCpuPercent()).isPositive();
+        assertThat(cpu.get(1).getCpuPercent()).isZero();
+        assertThat(disk).extracting(ProcessInfo::getName).containsExactly("busy");
+        assertThat(disk.get(0).getDiskWriteBytesPerSecond()).isPositive();
+        assertThat(disk.get(0).getDiskWriteBytes()).isEqualTo(1L << 20);
+    }
+
+    @Test
+    void getTopProcesses_servesRepeatedRequestsWithoutEnumeratingAgain() {
+        when(systemInfo.getHardware().getProcessor().getLogicalProcessorCount()).thenReturn(4);
+        OSProcess init = process(1, "init", 0L);
+        when(systemInfo.getOperatingSystem().getProcesses()).thenReturn(List.of(init));
+        ProcessService service = new ProcessService(systemInfo, new Procfs(false, "/"), 2000);
+
+        service.getTopProcesses("memory", 10);
+        service.getTopProcesses("memory", 10);
+        service.getTopProcesses("unknown", 10);
+
+        verify(systemInfo.getOperatingSystem(), times(1)).getProcesses();
+    }
+
+    @Test
+    void getProcessGroups_byCgroup_rollsUpContainerProcessesFromFixtureTree() throws URISyntaxException {
+        when(systemInfo.getHardware().getProcessor().getLogicalProcessorCount()).thenReturn(1);
+        OSProcess nginx = process(100, "nginx", 0L);
+        OSProcess app = process(200, "app", 0L);
+        OSProcess worker = process(201, "worker", 0L);
+        when(nginx.getResidentSetSize()).thenReturn(10L);
+        when(app.getResidentSetSize()).thenReturn(300L);
+        when(worker.getResidentSetSize()).thenReturn(200L);
+        when(systemInfo.getOperatingSystem().getProcesses()).thenReturn(List.of(nginx, app, worker));
+        Procfs procfs = new Procfs(true, Paths.get(getClass().getResource("/procfs").toURI()).toString());
+        ProcessService service = new ProcessService(systemInfo, procfs, 2000);
+
+        List<ProcessGroupStats> groups = service.getProcessGroups("cgroup", "memory", 10, 1);
+
+        assertThat(groups).hasSize(2);
+        ProcessGroupStats container = groups.get(0);
+        assertThat(container.getContainerId()).isEqualTo("4f1c2a9e7b3d");
+        assertThat(container.getProcessCount()).isEqualTo(2);
+        assertThat(container.getMemoryBytes()).isEqualTo(500);
+        assertThat(container.getTopProcesses()).extracting(ProcessInfo::getName).containsExactly("app");
+        assertThat(groups.get(1).getKey()).isEqualTo("/system.slice/nginx.service");
+        assertThat(groups.get(1).getContainerId()).isNull();
+    }
+
+    private static OSProcess process(int pid, String name, long lifetimeCpuMillis) {
+        OSProcess p = mock(OSProcess.class);
+        when(p.getProcessID()).thenReturn(pid);
+        when(p.getName()).thenReturn(name);
+        when(p.getUserTime()).thenReturn(lifetimeCpuMillis);
+        return p;
+    }
+}
@@ -0,0 +1,94 @@
+package com.systemmonitor.websocket;
+
+import com.systemmonitor.dto.SystemStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class DeltaStatsPublisherTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Test
+    void publish_withoutDeltaSubscribers_sendsNothing() {
+        DeltaStatsPublisher publisher = new DeltaStatsPublisher(messagingTemplate, 30);
+
+        publisher.publish(stats(1000));
+        publisher.onSubscribe(subscribe("s1", null, true));
+        publisher.publish(stats(2000));
+
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void publish_sendsOnlyToSubscribedDestinationAndRestartsWithKeyframeAfterIdle() {
+        DeltaStatsPublisher publisher = new DeltaStatsPublisher(messagingTemplate, 30);
+        publisher.onSubscribe(subscribe("s1", "delta", false));
+
+        publisher.publish(stats(1000));
+        publisher.publish(stats(2000));
+        publisher.onDisconnect(new SessionDisconnectEvent(this, message(StompCommand.DISCONNECT, "s1"), "s1", CloseStatus.NORMAL));
+        publisher.publish(stats(3000));
+        publisher.onSubscribe(subscribe("s2", "delta", true));
+        publisher.publish(stats(4000));
+
+        ArgumentCaptor<String> text = ArgumentCaptor.forClass(String.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq(DeltaStatsPublisher.BASE64_DESTINATION), text.capture(), anyMap());
+        assertThat(Base64.getDecoder().decode(text.getAllValues().get(0))[0]).isEqualTo(StatsFrameFormat.KEYFRAME);
+        assertThat(Base64.getDecoder().decode(text.getAllValues().get(1))[0]).isEqualTo(StatsFrameFormat.DELTA);
+
+        ArgumentCaptor<byte[]> binary = ArgumentCaptor.forClass(byte[].class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq(DeltaStatsPublisher.BINARY_DESTINATION), binary.capture(), anyMap());
+        assertThat(binary.getValue()[0]).isEqualTo(StatsFrameFormat.KEYFRAME);
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    private static SystemStats stats(long timestamp) {
+        return SystemStats.builder().timestamp(timestamp).build();
+    }
+
+    private static SessionSubscribeEvent subscribe(String sessionId, String encoding, boolean binaryCapable) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(DeltaStatsPublisher.JSON_DESTINATION);
+        if (encoding != null) accessor.setNativeHeader(StatsEncodingInterceptor.ENCODING_HEADER, encoding);
+        Map<String, Object> attributes = new HashMap<>();
+        if (binaryCapable) attributes.put(StatsEncodingInterceptor.BINARY_CAPABLE_ATTRIBUTE, Boolean.TRUE);
+        accessor.setSessionAttributes(attributes);
+        return new SessionSubscribeEvent(DeltaStatsPublisherTest.class,
+                MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+    }
+
+    private static Message<byte[]> message(StompCommand command, String sessionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
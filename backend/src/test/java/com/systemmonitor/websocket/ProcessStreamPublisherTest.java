@@ -0,0 +1,112 @@
+package com.systemmonitor.websocket;
+
+import com.systemmonitor.dto.ProcessInfo;
+import com.systemmonitor.dto.ProcessListFrame;
+import com.systemmonitor.service.ProcessService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessStreamPublisherTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private ProcessService processService;
+
+    @Test
+    void publish_withoutSubscribers_ranksNothing() {
+        ProcessStreamPublisher publisher = new ProcessStreamPublisher(messagingTemplate, processService, 25);
+
+        publisher.publish();
+        publisher.onSubscribe(subscribe("s1", "/topic/stats"));
+        publisher.publish();
+
+        verify(processService, never()).getTopProcesses(anyString(), anyInt());
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void publish_sendsKeyframeThenOnlyChangedRowsSharedBySubscribers() {
+        ProcessStreamPublisher publisher = new ProcessStreamPublisher(messagingTemplate, processService, 25);
+        publisher.onSubscribe(subscribe("s1", "/topic/processes/cpu"));
+        publisher.onSubscribe(subscribe("s2", "/topic/processes/cpu"));
+        when(processService.getTopProcesses("cpu", 25))
+                .thenReturn(List.of(row(1, 50.0), row(2, 20.0), row(3, 10.0)))
+                .thenReturn(List.of(row(1, 50.0), row(3, 30.0), row(4, 5.0)))
+                .thenReturn(List.of(row(1, 50.0), row(3, 30.0), row(4, 5.0)));
+
+        publisher.publish();
+        publisher.publish();
+        publisher.publish();
+
+        ArgumentCaptor<ProcessListFrame> frames = ArgumentCaptor.forClass(ProcessListFrame.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/processes/cpu"), frames.capture());
+        verify(processService, times(3)).getTopProcesses("cpu", 25);
+        ProcessListFrame keyframe = frames.getAllValues().get(0);
+        assertThat(keyframe.isKeyframe()).isTrue();
+        assertThat(keyframe.getUpserts()).hasSize(3);
+        ProcessListFrame delta = frames.getAllValues().get(1);
+        assertThat(delta.isKeyframe()).isFalse();
+        assertThat(delta.getUpserts()).extracting(ProcessInfo::getPid).containsExactly(3, 4);
+        assertThat(delta.getRemoved()).containsExactly(2);
+        assertThat(delta.getOrder()).containsExactly(1, 3, 4);
+    }
+
+    @Test
+    void publish_afterLastSubscriberDisconnects_stopsRanking() {
+        ProcessStreamPublisher publisher = new ProcessStreamPublisher(messagingTemplate, processService, 10);
+        publisher.onSubscribe(subscribe("s1", "/topic/processes/memory"));
+        when(processService.getTopProcesses("memory", 10)).thenReturn(List.of(row(1, 1.0)));
+        publisher.publish();
+
+        publisher.onDisconnect(new SessionDisconnectEvent(this, message(StompCommand.DISCONNECT, "s1", null), "s1",
+                CloseStatus.NORMAL));
+        publisher.publish();
+
+        verify(processService, times(1)).getTopProcesses("memory", 10);
+    }
+
+    private static ProcessInfo row(int pid, double cpu) {
+        return ProcessInfo.builder().pid(pid).name("p" + pid).cpuPercent(cpu).build();
+    }
+
+    private static SessionSubscribeEvent subscribe(String sessionId, String destination) {
+        return new SessionSubscribeEvent(ProcessStreamPublisherTest.class,
+                message(StompCommand.SUBSCRIBE, sessionId, destination));
+    }
+
+    private static Message<byte[]> message(StompCommand command, String sessionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        if (destination != null) {
+            accessor.setDestination(destination);
+            accessor.setSubscriptionId("sub-0");
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,126 @@
+package com.systemmonitor.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.systemmonitor.dto.SystemStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StatsBroadcasterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final StatsBroadcaster broadcaster = new StatsBroadcaster(new ObjectMapper(), registry, 2, 10_000, 2, 30);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch slowSendStarted = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        broadcaster.shutdown();
+    }
+
+    private WebSocketSession session(String id, List<WebSocketMessage<?>> received, boolean slow) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.getUri()).thenReturn(URI.create("ws://localhost/stream/stats"));
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(inv -> {
+            if (slow) {
+                slowSendStarted.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            received.add(inv.getArgument(0));
+            return null;
+        }).when(session).sendMessage(any());
+        return session;
+    }
+
+    private static SystemStats tick(long timestamp) {
+        return SystemStats.builder().timestamp(timestamp).build();
+    }
+
+    @Test
+    void broadcast_serializesOncePerTickAndDropsOldestForSlowConsumer() throws Exception {
+        List<WebSocketMessage<?>> fast = new CopyOnWriteArrayList<>();
+        List<WebSocketMessage<?>> slow = new CopyOnWriteArrayList<>();
+        broadcaster.afterConnectionEstablished(session("fast", fast, false));
+        broadcaster.afterConnectionEstablished(session("slow", slow, true));
+
+        broadcaster.broadcast(tick(1));
+        await().atMost(2, TimeUnit.SECONDS).until(() -> fast.size() == 1);
+        assertThat(slowSendStarted.await(2, TimeUnit.SECONDS)).isTrue();
+        for (int t = 2; t <= 5; t++) {
+            broadcaster.broadcast(tick(t));
+            int expected = t;
+            await().atMost(2, TimeUnit.SECONDS).until(() -> fast.size() == expected);
+        }
+
+        // tick 1 is stuck in the slow session's send; ticks 2 and 3 were dropped for 4 and 5
+        assertThat(broadcaster.droppedFrameCount()).isEqualTo(2);
+        assertThat(registry.get("stats.broadcast.queue.depth.max").gauge().value()).isEqualTo(2.0);
+        release.countDown();
+        await().atMost(2, TimeUnit.SECONDS).until(() -> slow.size() == 3);
+        assertThat(((TextMessage) slow.get(2)).getPayload()).contains("\"timestamp\":5");
+        // Every session got the same shared message instance for a tick
+        assertThat(slow.get(0)).isSameAs(fast.get(0));
+    }
+
+    @Test
+    void broadcast_stuckSession_isEvictedAtOnceAndClosedOffTheTickThread() throws Exception {
+        StatsBroadcaster shortLimit = new StatsBroadcaster(new ObjectMapper(), new SimpleMeterRegistry(), 2, 50, 2, 30);
+        try {
+            WebSocketSession slow = session("slow", new CopyOnWriteArrayList<>(), true);
+            CountDownLatch closeCalled = new CountDownLatch(1);
+            doAnswer(inv -> {
+                closeCalled.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return null;
+            }).when(slow).close(any());
+            shortLimit.afterConnectionEstablished(slow);
+            shortLimit.broadcast(tick(1));
+            assertThat(slowSendStarted.await(2, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(100);
+
+            long start = System.nanoTime();
+            shortLimit.broadcast(tick(2));
+
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+            assertThat(shortLimit.sessionCount()).isZero();
+            assertThat(closeCalled.await(2, TimeUnit.SECONDS)).isTrue();
+            shortLimit.broadcast(tick(3));
+            verify(slow, times(1)).close(any());
+        } finally {
+            release.countDown();
+            shortLimit.shutdown();
+        }
+    }
+
+    @Test
+    void afterConnectionClosed_removesSession() throws Exception {
+        WebSocketSession session = session("a", new CopyOnWriteArrayList<>(), false);
+        broadcaster.afterConnectionEstablished(session);
+        assertThat(broadcaster.sessionCount()).isEqualTo(1);
+
+        broadcaster.afterConnectionClosed(session, org.springframework.web.socket.CloseStatus.NORMAL);
+
+        assertThat(broadcaster.sessionCount()).isZero();
+    }
+}
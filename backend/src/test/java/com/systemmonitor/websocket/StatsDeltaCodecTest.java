@@ -0,0 +1,109 @@
+package com.systemmonitor.websocket;
+
+import com.systemmonitor.dto.SystemStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatsDeltaCodecTest {
+
+    private static SystemStats stats(long timestamp, double cpu, long diskRead, Double gpuTemp, String... gpuNames) {
+        List<SystemStats.GpuStats> gpus = java.util.Arrays.stream(gpuNames)
+                .map(n -> SystemStats.GpuStats.builder().name(n).usagePercent(12.5).vramTotalBytes(4L << 30).temperatureCelsius(gpuTemp)
+                        .powerWatts(gpuTemp != null ? 210.5 : null).build())
+                .toList();
+        return SystemStats.builder()
+                .timestamp(timestamp)
+                .cpu(SystemStats.CpuStats.builder().name("AMD Ryzen 9 7950X 16-Core Processor").usagePercent(cpu)
+                        .logicalProcessorCount(32).temperatureCelsius(null).build())
+                .memory(SystemStats.MemoryStats.builder().totalBytes(64L << 30).usedBytes(20L << 30)
+                        .availableBytes(44L << 30).usagePercent(31.25).build())
+                .disk(SystemStats.DiskStats.builder().readBytesPerSecond(diskRead).writeBytesPerSecond(0)
+                        .totalBytes(2L << 40).usedBytes(1L << 40).usagePercent(50.0).build())
+                .network(SystemStats.NetworkStats.builder().downloadBytesPerSecond(1000).uploadBytesPerSecond(200)
+                        .totalBytesReceived(123_456_789).totalBytesSent(98_765).build())
+                .gpu(gpus.isEmpty() ? null : gpus.get(0))
+                .gpus(gpus)
+                .stale(List.of())
+                .build();
+    }
+
+    @Test
+    void roundTrip_keyframeThenDeltas_reconstructsStats() {
+        StatsDeltaEncoder encoder = new StatsDeltaEncoder(30);
+        StatsDeltaDecoder decoder = new StatsDeltaDecoder();
+
+        SystemStats first = stats(1_700_000_000_000L, 10.5, 4096, 55.0, "NVIDIA GeForce RTX 4090");
+        SystemStats second = stats(1_700_000_001_000L, 11.25, 8192, null, "NVIDIA GeForce RTX 4090");
+
+        byte[] key = encoder.encode(first);
+        byte[] delta = encoder.encode(second);
+
+        assertThat(key[0]).isEqualTo(StatsFrameFormat.KEYFRAME);
+        assertThat(delta[0]).isEqualTo(StatsFrameFormat.DELTA);
+        assertThat(delta.length).isLessThan(key.length / 3);
+        assertThat(decoder.decode(key)).isEqualTo(first);
+        assertThat(decoder.decode(delta)).isEqualTo(second);
+    }
+
+    @Test
+    void roundTrip_perCoreArrays_reconstructedAndCoreCountChangeForcesKeyframe() {
+        StatsDeltaEncoder encoder = new StatsDeltaEncoder(30);
+        StatsDeltaDecoder decoder = new StatsDeltaDecoder();
+        SystemStats first = withCores(stats(1000, 10, 0, 40.0, "GPU A"), new double[]{5.5, 100.0, 0.0}, new int[]{3600, 4500, 800});
+        SystemStats second = withCores(stats(2000, 11, 0, 40.0, "GPU A"), new double[]{7.2, 99.9, 0.1}, new int[]{3700, 4500, 800});
+        SystemStats third = withCores(stats(3000, 12, 0, 40.0, "GPU A"), new double[]{1.0, 2.0}, new int[]{1000, 2000});
+
+        assertThat(decoder.decode(encoder.encode(first))).isEqualTo(first);
+        byte[] delta = encoder.encode(second);
+        assertThat(delta[0]).isEqualTo(StatsFrameFormat.DELTA);
+        assertThat(decoder.decode(delta)).isEqualTo(second);
+        byte[] key = encoder.encode(third);
+        assertThat(key[0]).isEqualTo(StatsFrameFormat.KEYFRAME);
+        assertThat(decoder.decode(key)).isEqualTo(third);
+    }
+
+    private static SystemStats withCores(SystemStats stats, double[] usage, int[] mhz) {
+        stats.getCpu().setCoreUsagePercent(usage);
+        stats.getCpu().setCoreFrequencyMhz(mhz);
+        return stats;
+    }
+
+    @Test
+    void encode_gpuSetChange_forcesKeyframe() {
+        StatsDeltaEncoder encoder = new StatsDeltaEncoder(30);
+        encoder.encode(stats(1000, 1, 0, 40.0, "GPU A"));
+
+        byte[] frame = encoder.encode(stats(2000, 1, 0, 40.0, "GPU A", "GPU B"));
+
+        assertThat(frame[0]).isEqualTo(StatsFrameFormat.KEYFRAME);
+    }
+
+    @Test
+    void encode_requestKeyframe_makesNextFrameKeyframe() {
+        StatsDeltaEncoder encoder = new StatsDeltaEncoder(30);
+        encoder.encode(stats(1000, 1, 0, 40.0, "GPU A"));
+        assertThat(encoder.encode(stats(2000, 1, 0, 40.0, "GPU A"))[0]).isEqualTo(StatsFrameFormat.DELTA);
+
+        encoder.requestKeyframe();
+
+        assertThat(encoder.encode(stats(3000, 1, 0, 40.0, "GPU A"))[0]).isEqualTo(StatsFrameFormat.KEYFRAME);
+    }
+
+    @Test
+    void decode_afterSequenceGap_waitsForNextKeyframe() {
+        StatsDeltaEncoder encoder = new StatsDeltaEncoder(3);
+        StatsDeltaDecoder decoder = new StatsDeltaDecoder();
+        byte[] f1 = encoder.encode(stats(1000, 1, 0, 40.0, "GPU A"));
+        encoder.encode(stats(2000, 2, 0, 40.0, "GPU A")); // lost
+        byte[] f3 = encoder.encode(stats(3000, 3, 0, 40.0, "GPU A"));
+        byte[] f4 = encoder.encode(stats(4000, 4, 0, 40.0, "GPU A"));
+
+        assertThat(decoder.decode(f1)).isNotNull();
+        assertThat(decoder.decode(f3)).isNull();
+        assertThat(f4[0]).isEqualTo(StatsFrameFormat.KEYFRAME);
+        assertThat(decoder.decode(f4).getCpu().getUsagePercent()).isEqualTo(4.0);
+    }
+}
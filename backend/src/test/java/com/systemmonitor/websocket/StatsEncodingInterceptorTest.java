@@ -0,0 +1,48 @@
+package com.systemmonitor.websocket;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatsEncodingInterceptorTest {
+
+    private final StatsEncodingInterceptor interceptor = new StatsEncodingInterceptor();
+
+    private static Message<byte[]> subscribe(String encoding, boolean binaryCapable) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(DeltaStatsPublisher.JSON_DESTINATION);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setSessionId("s1");
+        if (encoding != null) accessor.setNativeHeader(StatsEncodingInterceptor.ENCODING_HEADER, encoding);
+        Map<String, Object> attributes = new HashMap<>();
+        if (binaryCapable) attributes.put(StatsEncodingInterceptor.BINARY_CAPABLE_ATTRIBUTE, Boolean.TRUE);
+        accessor.setSessionAttributes(attributes);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static String destination(Message<?> message) {
+        return StompHeaderAccessor.wrap(message).getDestination();
+    }
+
+    @Test
+    void preSend_withoutHeader_keepsJsonDestination() {
+        assertThat(destination(interceptor.preSend(subscribe(null, true), null))).isEqualTo(DeltaStatsPublisher.JSON_DESTINATION);
+    }
+
+    @Test
+    void preSend_deltaOnNativeSession_routesToBinaryStream() {
+        assertThat(destination(interceptor.preSend(subscribe("delta", true), null))).isEqualTo(DeltaStatsPublisher.BINARY_DESTINATION);
+    }
+
+    @Test
+    void preSend_deltaOnSockJsSession_routesToBase64Stream() {
+        assertThat(destination(interceptor.preSend(subscribe("delta", false), null))).isEqualTo(DeltaStatsPublisher.BASE64_DESTINATION);
+    }
+}
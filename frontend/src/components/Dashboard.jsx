@@ -11,7 +11,7 @@ import ChartSkeleton from './ChartSkeleton';
 import ProcessListModal from './ProcessListModal';
 
 export default function Dashboard() {
-  useWebSocket();
+  const { client } = useWebSocket();
   const { connected, stats } = useStats();
   const [processModalResource, setProcessModalResource] = useState(null);
   const hasData = stats?.timestamp > 0;
@@ -45,6 +45,8 @@ export default function Dashboard() {
         isOpen={!!processModalResource}
         onClose={closeProcessModal}
         resourceType={processModalResource}
+        client={client}
+        connected={connected}
       />
     </>
   );
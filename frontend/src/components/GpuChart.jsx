@@ -138,6 +138,7 @@ export default function GpuChart({ onClick }) {
               )}
               <p className="text-sm text-gray-500 dark:text-gray-400">
                 Temp: {gpu.temperatureCelsius != null && gpu.temperatureCelsius > 0 ? `${gpu.temperatureCelsius} °C` : 'N/A'}
+                {gpu.powerWatts != null && ` · Power: ${gpu.powerWatts.toFixed(1)} W`}
               </p>
             </div>
           ))}
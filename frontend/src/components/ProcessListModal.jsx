@@ -1,4 +1,5 @@
 import React, { useEffect, useState } from 'react';
+import { applyProcessFrame } from '../utils/processFrames';
 
 const RESOURCE_LABELS = {
   cpu: 'CPU Usage',
@@ -22,7 +23,7 @@ function formatBytes(bytes) {
   return `${bytes} B`;
 }
 
-export default function ProcessListModal({ isOpen, onClose, resourceType }) {
+export default function ProcessListModal({ isOpen, onClose, resourceType, client, connected }) {
   const [processes, setProcesses] = useState([]);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState(null);
@@ -71,6 +72,22 @@ export default function ProcessListModal({ isOpen, onClose, resourceType }) {
       });
   }, [isOpen, resourceType, sort, hasPerAppData]);
 
+  // After the initial fetch, follow the server's live list; it only sends rows that changed.
+  useEffect(() => {
+    if (!isOpen || !hasPerAppData || !client || !connected) return undefined;
+    const subscription = client.subscribe(`/topic/processes/${sort}`, (message) => {
+      try {
+        const frame = JSON.parse(message.body);
+        setProcesses((prev) => applyProcessFrame(prev, frame));
+        setLoading(false);
+        setError(null);
+      } catch (e) {
+        console.warn('Failed to parse process list frame', e);
+      }
+    });
+    return () => subscription.unsubscribe();
+  }, [isOpen, sort, hasPerAppData, client, connected]);
+
   if (!isOpen) return null;
 
   return (
@@ -167,8 +184,8 @@ export default function ProcessListModal({ isOpen, onClose, resourceType }) {
                     <tr className="border-b border-gray-200 dark:border-gray-600">
                       <th className="py-2 pr-4 font-semibold">Name</th>
                       <th className="py-2 pr-4 font-semibold w-20">PID</th>
-                      <th className="py-2 pr-4 font-semibold">Read</th>
-                      <th className="py-2 font-semibold">Written</th>
+                      <th className="py-2 pr-4 font-semibold">Read/s</th>
+                      <th className="py-2 font-semibold">Written/s</th>
                     </tr>
                   </thead>
                   <tbody>
@@ -176,8 +193,8 @@ export default function ProcessListModal({ isOpen, onClose, resourceType }) {
                       <tr key={proc.pid} className="border-b border-gray-100 dark:border-gray-700">
                         <td className="py-2 pr-4 truncate max-w-[200px]" title={proc.name}>{proc.name}</td>
                         <td className="py-2 pr-4">{proc.pid}</td>
-                        <td className="py-2 pr-4 font-medium">{formatBytes(proc.diskReadBytes ?? 0)}</td>
-                        <td className="py-2 font-medium">{formatBytes(proc.diskWriteBytes ?? 0)}</td>
+                        <td className="py-2 pr-4 font-medium">{formatBytes(proc.diskReadBytesPerSecond ?? 0)}/s</td>
+                        <td className="py-2 font-medium">{formatBytes(proc.diskWriteBytesPerSecond ?? 0)}/s</td>
                       </tr>
                     ))}
                   </tbody>
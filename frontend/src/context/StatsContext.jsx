@@ -26,7 +26,8 @@ const defaultStats = {
 
 const StatsContext = createContext(null);
 
-const MAX_HISTORY = 60; // last 60 seconds for CSV export
+// Last 60 seconds for charts and CSV export; ticks arrive faster than 1/s while the backend samples at its fast rate
+const HISTORY_WINDOW_MS = 60_000;
 
 export function StatsProvider({ children }) {
   const [stats, setStats] = useState(defaultStats);
@@ -37,9 +38,10 @@ export function StatsProvider({ children }) {
   const updateStats = useCallback((newStats) => {
     setStats(newStats);
     setHistory((prev) => {
-      const next = [...prev, { ...newStats }];
-      if (next.length > MAX_HISTORY) return next.slice(-MAX_HISTORY);
-      return next;
+      const cutoff = newStats.timestamp - HISTORY_WINDOW_MS;
+      const first = prev.findIndex((s) => s.timestamp > cutoff);
+      const kept = first < 0 ? [] : first > 0 ? prev.slice(first) : prev;
+      return [...kept, { ...newStats }];
     });
     setError(null);
   }, []);
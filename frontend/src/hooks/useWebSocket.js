@@ -1,4 +1,4 @@
-import { useEffect, useRef } from 'react';
+import { useEffect, useState } from 'react';
 import SockJS from 'sockjs-client';
 import { Client } from '@stomp/stompjs';
 import { useStats } from '../context/StatsContext';
@@ -7,10 +7,11 @@ import { useStats } from '../context/StatsContext';
  * Establishes a single WebSocket (SockJS + STOMP) connection and subscribes to /topic/stats.
  * Pushes each message into the global StatsContext.
  * Uses current origin so Vite dev proxy (proxy /ws to backend) works.
+ * Returns the STOMP client so other components can subscribe to further topics (e.g. /topic/processes/{sort}).
  */
 export function useWebSocket() {
   const { updateStats, setConnectionState, setConnectionError } = useStats();
-  const clientRef = useRef(null);
+  const [client, setClient] = useState(null);
 
   useEffect(() => {
     const wsUrl = typeof window !== 'undefined'
@@ -19,7 +20,7 @@ export function useWebSocket() {
 
     if (!wsUrl) return;
 
-    const client = new Client({
+    const stompClient = new Client({
       webSocketFactory: () => new SockJS(wsUrl),
       reconnectDelay: 3000,
       connectionTimeout: 5000,
@@ -28,7 +29,7 @@ export function useWebSocket() {
       onConnect: () => {
         setConnectionState(true);
         setConnectionError(null);
-        client.subscribe('/topic/stats', (message) => {
+        stompClient.subscribe('/topic/stats', (message) => {
           try {
             const body = JSON.parse(message.body);
             updateStats(body);
@@ -46,14 +47,15 @@ export function useWebSocket() {
       },
     });
 
-    client.activate();
-    clientRef.current = client;
+    stompClient.activate();
+    setClient(stompClient);
 
     return () => {
-      client.deactivate();
+      stompClient.deactivate();
+      setClient(null);
       setConnectionState(false);
     };
   }, [updateStats, setConnectionState, setConnectionError]);
 
-  return { client: clientRef.current };
+  return { client };
 }
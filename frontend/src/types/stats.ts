@@ -23,12 +23,35 @@ export interface GpuStats {
   temperatureCelsius?: number | null;
 }
 
+export interface DiskDeviceStats {
+  name: string;
+  readBytesPerSecond: number;
+  writeBytesPerSecond: number;
+  readIops: number;
+  writeIops: number;
+  avgServiceTimeMs: number;
+  queueLength: number;
+  busyPercent: number;
+}
+
+export interface MountStats {
+  mountPoint: string;
+  device: string;
+  totalBytes: number;
+  usedBytes: number;
+  usagePercent: number;
+}
+
 export interface DiskStats {
   readBytesPerSecond: number;
   writeBytesPerSecond: number;
   totalBytes: number;
   usedBytes: number;
   usagePercent: number;
+  /** Per whole-disk I/O breakdown (also at GET /api/disks). */
+  devices?: DiskDeviceStats[] | null;
+  /** Per mounted filesystem space breakdown. */
+  mounts?: MountStats[] | null;
 }
 
 export interface NetworkStats {
@@ -38,6 +61,16 @@ export interface NetworkStats {
   totalBytesSent: number;
 }
 
+export interface AnomalyFlag {
+  /** History metric id (e.g. "diskWrite"). */
+  metric: string;
+  baseline: 'EWMA' | 'SEASONAL';
+  value: number;
+  expected: number;
+  zScore: number;
+  timestamp: number;
+}
+
 export interface SystemStats {
   timestamp: number;
   cpu: CpuStats;
@@ -46,4 +79,8 @@ export interface SystemStats {
   gpus?: GpuStats[];
   disk: DiskStats;
   network: NetworkStats;
+  /** Collectors that missed the tick deadline; their sections hold the last good value. */
+  stale?: string[];
+  /** Metrics flagged as anomalous on this tick. */
+  anomalies?: AnomalyFlag[];
 }
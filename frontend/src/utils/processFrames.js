@@ -0,0 +1,10 @@
+/**
+ * Applies one /topic/processes/{sort} frame: a keyframe replaces the list, otherwise changed rows are merged in,
+ * removed PIDs dropped, and rows are put in the frame's rank order.
+ */
+export function applyProcessFrame(processes, frame) {
+  const byPid = new Map(frame.keyframe ? [] : processes.map((p) => [p.pid, p]));
+  (frame.removed || []).forEach((pid) => byPid.delete(pid));
+  (frame.upserts || []).forEach((p) => byPid.set(p.pid, p));
+  return (frame.order || []).map((pid) => byPid.get(pid)).filter(Boolean);
+}